@@ -0,0 +1,107 @@
+package bench;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.Random;
+
+import src.BatchCommandRunner;
+import src.GymManager;
+
+/**
+ * Measures BatchCommandRunner's throughput on a generated script and
+ * checks the result.
+ *
+ * The script adds members, then mixes status changes, performance records,
+ * renames, deletes and lookups, including some commands that must fail
+ * (unknown IDs, a fee for a Regular member). The runner must print one
+ * result per command, in order, with exactly the expected failures, and
+ * leave the expected number of members.
+ *
+ * Usage: java -cp out bench.BatchBenchmark [commandCount]
+ */
+public class BatchBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        Random random = new Random(9);
+        StringBuilder script = new StringBuilder(count * 40);
+        int members = 0;
+        int deleted = 0;
+        int expectedFailures = 0;
+        LocalDate joinDate = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < count; i++) {
+            int kind = members < 100 ? 0 : random.nextInt(100);
+            String id = "B" + (1 + random.nextInt(Math.max(1, members)));
+            if (kind < 40) {
+                members++;
+                boolean premium = members % 3 == 0;
+                script.append("add,B").append(members).append(",Member ").append(members)
+                        .append(premium ? ",Premium," : ",Regular,").append(joinDate.plusDays(members % 365))
+                        .append(premium ? ",25" : "").append('\n');
+            } else if (kind < 60) {
+                script.append("status,").append(id).append(random.nextBoolean() ? ",FROZEN" : ",ACTIVE").append('\n');
+            } else if (kind < 80) {
+                script.append("perf,").append(id).append(',').append(1 + random.nextInt(12)).append(",2025,")
+                        .append(random.nextBoolean()).append('\n');
+            } else if (kind < 90) {
+                script.append("rename,").append(id).append(",Renamed ").append(i).append('\n');
+            } else if (kind < 95) {
+                script.append("get,").append(id).append('\n');
+            } else if (kind < 97) {
+                // The IDs of deleted members are never used again, so this always works
+                script.append("delete,B").append(members).append('\n');
+                members++; // Skip the deleted ID for later adds
+                deleted++;
+                script.append("add,B").append(members).append(",Member ").append(members).append(",Regular,")
+                        .append(joinDate).append('\n');
+                i++;
+            } else if (kind < 99) {
+                script.append("get,X").append(i).append('\n');
+                expectedFailures++;
+            } else {
+                script.append("fee,B1,30\n"); // B1 is Regular
+                expectedFailures++;
+            }
+        }
+
+        GymManager manager = new GymManager();
+        StringWriter output = new StringWriter(count * 24);
+        BatchCommandRunner runner = new BatchCommandRunner(manager, output);
+        long start = System.nanoTime();
+        runner.run(new BufferedReader(new StringReader(script.toString())));
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%,d commands in %.2f s: %,.0f commands/sec (batches of up to %d changes)%n",
+                runner.getCommandCount(), seconds, runner.getCommandCount() / seconds, BatchCommandRunner.BATCH_SIZE);
+
+        String[] results = output.toString().split("\n");
+        boolean ordered = results.length == runner.getCommandCount();
+        for (int i = 0; ordered && i < results.length; i++) {
+            ordered = results[i].startsWith("{\"line\":" + (i + 1) + ",");
+        }
+        // Lookups of deleted members fail too
+        int failures = runner.getFailureCount();
+        boolean failuresOk = failures >= expectedFailures && failures - expectedFailures <= deletedLookups(results);
+        boolean countOk = manager.getAllMembers().size() == members - deleted;
+
+        System.out.println((ordered ? "  OK    " : "  FAIL  ") + "one result per command, in script order");
+        System.out.printf("%s%,d failed commands (%,d expected, plus lookups of deleted members)%n",
+                failuresOk ? "  OK    " : "  FAIL  ", failures, expectedFailures);
+        System.out.printf("%s%,d members remain (%,d expected)%n", countOk ? "  OK    " : "  FAIL  ",
+                manager.getAllMembers().size(), members - deleted);
+        System.out.println(ordered && failuresOk && countOk ? "ALL BATCH CHECKS PASSED" : "BATCH CHECKS FAILED");
+    }
+
+    private static int deletedLookups(String[] results) {
+        int count = 0;
+        for (String result : results) {
+            if (result.contains("\"error\":\"Member not found: B")) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,184 @@
+package bench;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import src.BTreeMemberStore;
+import src.CachingMemberStore;
+import src.EvictionPolicy;
+import src.GymManager;
+import src.LruEvictionPolicy;
+import src.Member;
+import src.MemberStore;
+import src.MembershipStatus;
+import src.TinyLfuEvictionPolicy;
+
+/**
+ * Compares CachingMemberStore configurations over a BTreeMemberStore.
+ *
+ * 1. Skewed lookups: IDs drawn from a Zipf distribution (a few members are
+ *    looked up all the time), interrupted by sequential scans over a slice
+ *    of the member base, as an export or a long scroll would do. Run with
+ *    LRU and W-TinyLFU eviction.
+ * 2. Scrolling: every member looked up once in ID order, with and without
+ *    read-ahead (LRU eviction).
+ * 3. Updates: repeated status changes to a hot set, made through a
+ *    GymManager with the store attached, written back through the cache
+ *    versus straight to the store.
+ *
+ * Usage: java -cp out bench.CacheBenchmark [memberCount] [cacheSize]
+ * Defaults: 100,000 members and a 2,000-member cache.
+ */
+public class CacheBenchmark {
+
+    private static final int LOOKUPS = 200_000;
+    private static final double ZIPF_EXPONENT = 0.9;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int cacheSize = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        File storeFile = new File("cache-benchmark.db");
+        storeFile.delete();
+
+        System.out.println("Building a store of " + count + " members...");
+        Member[] members = SyntheticMembers.generate(count, 42L);
+        try (BTreeMemberStore store = new BTreeMemberStore(storeFile.getPath())) {
+            for (Member member : members) {
+                store.put(member);
+            }
+        }
+        String[] ids = new String[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = members[i].getMemberId(); // Generated in ID order
+        }
+        List<String> workload = skewedWorkload(ids, new Random(11));
+
+        System.out.println();
+        System.out.printf("1. %,d Zipf(%.1f) lookups with scans, cache of %,d%n", workload.size(), ZIPF_EXPONENT,
+                cacheSize);
+        runLookups("LRU", new LruEvictionPolicy(), storeFile, cacheSize, workload);
+        runLookups("W-TinyLFU", new TinyLfuEvictionPolicy(cacheSize), storeFile, cacheSize, workload);
+
+        System.out.println();
+        System.out.printf("2. Scrolling through all %,d members in ID order%n", count);
+        runScroll(0, storeFile, cacheSize, ids);
+        runScroll(64, storeFile, cacheSize, ids);
+
+        System.out.println();
+        System.out.println("3. 50,000 status changes to 500 members");
+        runUpdates(false, storeFile, cacheSize, ids);
+        runUpdates(true, storeFile, cacheSize, ids);
+
+        storeFile.delete();
+    }
+
+    /**
+     * Zipf-distributed lookups over randomly placed popular members, with a
+     * sequential scan of 5% of the members after every 20,000 lookups.
+     */
+    private static List<String> skewedWorkload(String[] ids, Random random) {
+        double[] cumulative = new double[ids.length];
+        double sum = 0;
+        for (int rank = 0; rank < ids.length; rank++) {
+            sum += 1 / Math.pow(rank + 1, ZIPF_EXPONENT);
+            cumulative[rank] = sum;
+        }
+        int[] memberOfRank = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            memberOfRank[i] = i;
+        }
+        for (int i = ids.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = memberOfRank[i];
+            memberOfRank[i] = memberOfRank[j];
+            memberOfRank[j] = swap;
+        }
+
+        List<String> workload = new ArrayList<>(LOOKUPS * 2);
+        int scanLength = ids.length / 20;
+        for (int i = 0; i < LOOKUPS; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            rank = rank >= 0 ? rank : Math.min(ids.length - 1, -rank - 1);
+            workload.add(ids[memberOfRank[rank]]);
+            if (i % 20_000 == 19_999) {
+                int from = random.nextInt(ids.length - scanLength);
+                for (int k = from; k < from + scanLength; k++) {
+                    workload.add(ids[k]);
+                }
+            }
+        }
+        return workload;
+    }
+
+    private static void runLookups(String label, EvictionPolicy policy, File storeFile, int cacheSize,
+            List<String> workload) {
+        BTreeMemberStore store = new BTreeMemberStore(storeFile.getPath());
+        try (CachingMemberStore cache = new CachingMemberStore(store, policy, cacheSize)) { // Closes the store too
+            long start = System.nanoTime();
+            for (String id : workload) {
+                cache.get(id);
+            }
+            report(label, System.nanoTime() - start, cache, store);
+        }
+    }
+
+    private static void runScroll(int readAhead, File storeFile, int cacheSize, String[] ids) {
+        BTreeMemberStore store = new BTreeMemberStore(storeFile.getPath(), 16);
+        try (CachingMemberStore cache = new CachingMemberStore(store, new LruEvictionPolicy(), cacheSize)) {
+            cache.setReadAhead(readAhead);
+            long start = System.nanoTime();
+            for (String id : ids) {
+                cache.get(id);
+            }
+            report(readAhead == 0 ? "no read-ahead" : "read-ahead " + readAhead, System.nanoTime() - start, cache, store);
+        }
+    }
+
+    private static void runUpdates(boolean cached, File storeFile, int cacheSize, String[] ids) {
+        BTreeMemberStore store = new BTreeMemberStore(storeFile.getPath());
+        CachingMemberStore cache = new CachingMemberStore(store, new LruEvictionPolicy(), cacheSize);
+        Map<String, MembershipStatus> expected = new HashMap<>();
+        try (MemberStore target = cached ? cache : store) {
+            // The hot set lives in a manager whose changes are written through to the store
+            GymManager manager = new GymManager();
+            String[] hot = new String[500];
+            for (int k = 0; k < hot.length; k++) {
+                hot[k] = ids[k * (ids.length / hot.length)];
+                manager.addMember(target.get(hot[k]));
+            }
+            manager.attachStore(target);
+            Random random = new Random(13);
+            long start = System.nanoTime();
+            for (int i = 0; i < 50_000; i++) {
+                String id = hot[random.nextInt(hot.length)];
+                MembershipStatus status = i % 2 == 0 ? MembershipStatus.FROZEN : MembershipStatus.ACTIVE;
+                manager.updateMemberStatus(id, status);
+                expected.put(id, status);
+            }
+            target.flush();
+            long nanos = System.nanoTime() - start;
+            System.out.printf("  %-16s %8.1f ms  %,8d page writes  %s%n", cached ? "write-back cache" : "direct",
+                    nanos / 1e6, store.getPageWrites(), cached ? cache.getWriteBacks() + " write-backs" : "");
+        }
+
+        try (BTreeMemberStore reopened = new BTreeMemberStore(storeFile.getPath())) {
+            for (Map.Entry<String, MembershipStatus> entry : expected.entrySet()) {
+                if (reopened.get(entry.getKey()).getStatus() != entry.getValue()) {
+                    System.err.println("  Lost update for " + entry.getKey());
+                    return;
+                }
+            }
+            System.out.println("  All " + expected.size() + " final statuses found on disk after reopening.");
+        }
+    }
+
+    private static void report(String label, long nanos, CachingMemberStore cache, BTreeMemberStore store) {
+        System.out.printf("  %-16s %8.1f ms  hit rate %5.1f%%  %,8d page reads  %,7d evictions%n", label,
+                nanos / 1e6, cache.getHitRate() * 100, store.getPageReads(), cache.getEvictions());
+    }
+}
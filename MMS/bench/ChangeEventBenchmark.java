@@ -0,0 +1,160 @@
+package bench;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+import src.AsyncChangeDispatcher;
+import src.GymManager;
+import src.Member;
+import src.MemberChangeListener;
+import src.MembershipStatus;
+import src.RegularMember;
+
+/**
+ * Measures what change listeners cost on the write path: the same status
+ * updates are timed with no listener, with a synchronous listener doing some
+ * slow work per change, and with the same listener behind an
+ * AsyncChangeDispatcher.
+ *
+ * Then checks what an asynchronous listener receives while one member is
+ * renamed N1, N2, ... faster than it can keep up: each renamed member must
+ * still carry the name it was given by that rename, and every run of
+ * dropped renames must be followed by membersReloaded() before any later
+ * rename is delivered.
+ *
+ * Usage: java -cp out bench.ChangeEventBenchmark [memberCount] [updates]
+ * Defaults: 100,000 members and 1,000,000 status updates per round.
+ */
+public class ChangeEventBenchmark {
+
+    private static final int ROUNDS = 3;
+    private static final int LISTENER_WORK = 200; // Busy iterations per delivered change
+
+    public static void main(String[] args) throws InterruptedException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int updates = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        System.out.println("Generating " + count + " members...");
+        GymManager manager = SyntheticMembers.populate(count, 42L);
+        String[] ids = manager.getAllMembers().stream().map(Member::getMemberId).toArray(String[]::new);
+        SlowListener listener = new SlowListener();
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.println("Round " + round + ":");
+            report("  no listener", time(manager, ids, updates), updates);
+
+            manager.addChangeListener(listener);
+            report("  synchronous listener", time(manager, ids, updates), updates);
+            manager.removeChangeListener(listener);
+
+            AsyncChangeDispatcher dispatcher = manager.addAsyncChangeListener(listener, 65_536);
+            long nanos = time(manager, ids, updates);
+            report("  asynchronous listener", nanos, updates);
+            dispatcher.close();
+            while (dispatcher.getPendingCount() > 0) {
+                Thread.sleep(10);
+            }
+            System.out.printf("    (%d dropped, %d batches delivered)%n",
+                    dispatcher.getDroppedCount(), listener.batches.getAndSet(0));
+        }
+        System.out.println("(sink " + listener.sink + ")");
+        System.exit(checkAsyncDelivery() ? 0 : 1);
+    }
+
+    private static boolean checkAsyncDelivery() throws InterruptedException {
+        GymManager manager = new GymManager();
+        manager.addMember(new RegularMember("R1", "N0", LocalDate.of(2024, 1, 1)));
+        RenameChecker checker = new RenameChecker();
+        AsyncChangeDispatcher dispatcher = manager.addAsyncChangeListener(checker, 64);
+        int renames = 200_000;
+        for (int i = 1; i <= renames; i++) {
+            manager.renameMember("R1", "N" + i);
+        }
+        dispatcher.close();
+        while (dispatcher.getPendingCount() > 0) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50); // Let the final batch finish
+        boolean ok = checker.thawed == 0 && checker.unannouncedGaps == 0 && checker.delivered > 0;
+        System.out.printf("%nAsync delivery of %,d renames: %,d delivered, %,d reloads, %,d dropped%n",
+                renames, checker.delivered, checker.reloads, dispatcher.getDroppedCount());
+        System.out.printf("%s %,d delivered member(s) no longer had the name of their rename%n",
+                checker.thawed == 0 ? "  OK  " : "  FAIL", checker.thawed);
+        System.out.printf("%s %,d rename(s) out of order or after dropped ones with no reload between%n",
+                checker.unannouncedGaps == 0 ? "  OK  " : "  FAIL", checker.unannouncedGaps);
+        return ok;
+    }
+
+    /**
+     * Slow async listener that checks each rename against the previous one.
+     */
+    private static class RenameChecker implements MemberChangeListener {
+        // Written by the dispatcher thread only
+        volatile int delivered;
+        volatile int reloads;
+        volatile int thawed;
+        volatile int unannouncedGaps;
+        private int last;
+        private boolean reloadedSinceLast;
+
+        @Override
+        public void renamed(Member member, String oldName) {
+            int number = Integer.parseInt(oldName.substring(1)) + 1;
+            if (!member.getFullName().equals("N" + number)) {
+                thawed++;
+            }
+            if (number <= last || (number != last + 1 && !reloadedSinceLast)) {
+                unannouncedGaps++;
+            }
+            last = number;
+            reloadedSinceLast = false;
+            delivered++;
+            long until = System.nanoTime() + 20_000; // Slower than the writer
+            while (System.nanoTime() < until) {
+                Thread.onSpinWait();
+            }
+        }
+
+        @Override
+        public void membersReloaded() {
+            reloads++;
+            reloadedSinceLast = true;
+        }
+    }
+
+    private static long time(GymManager manager, String[] ids, int updates) {
+        long start = System.nanoTime();
+        for (int i = 0; i < updates; i++) {
+            MembershipStatus status = (i & 1) == 0 ? MembershipStatus.FROZEN : MembershipStatus.ACTIVE;
+            manager.updateMemberStatus(ids[i % ids.length], status);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void report(String label, long nanos, int updates) {
+        System.out.printf("%-26s %8.1f ms  (%.0f ns per update)%n", label, nanos / 1e6, (double) nanos / updates);
+    }
+
+    /**
+     * Stands in for a derived structure that does real work per change.
+     */
+    private static class SlowListener implements MemberChangeListener {
+        final AtomicLong batches = new AtomicLong();
+        volatile long sink;
+
+        @Override
+        public void statusChanged(Member member, MembershipStatus oldStatus) {
+            long hash = 0;
+            String id = member.getMemberId();
+            for (int i = 0; i < LISTENER_WORK; i++) {
+                hash = hash * 31 + id.charAt(i % id.length());
+            }
+            sink += hash;
+        }
+
+        @Override
+        public void batchDelivered() {
+            batches.incrementAndGet();
+        }
+    }
+}
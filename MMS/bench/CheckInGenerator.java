@@ -0,0 +1,153 @@
+package bench;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+
+import src.CheckInEvent;
+import src.CheckInIngestor;
+import src.GymManager;
+import src.Member;
+import src.Performance;
+import src.RegularMember;
+
+/**
+ * Local event generator for testing the check-in pipeline.
+ * Simulates turnstiles: several producer threads submit random check-ins
+ * for existing members at a target total rate.
+ *
+ * Usage: java -cp out bench.CheckInGenerator [eventsPerSecond] [seconds] [members] [monthlyGoal]
+ * Defaults: 500 events/sec for 10 seconds against 2,000 synthetic members
+ * with a goal of 12 check-ins per month.
+ *
+ * First checks month closing on three members: one who reaches the goal,
+ * one who checks in too rarely and one who never does. Once a check-in two
+ * months later arrives, the first must have an achieved record, the other
+ * two missed ones, no counts may be left for the closed month, and a late
+ * check-in for it must be ignored. Exits with status 1 if not.
+ */
+public class CheckInGenerator {
+
+    private static final int TURNSTILES = 4;
+
+    private final CheckInIngestor ingestor;
+    private final String[] memberIds;
+
+    public CheckInGenerator(CheckInIngestor ingestor, String[] memberIds) {
+        this.ingestor = ingestor;
+        this.memberIds = memberIds;
+    }
+
+    /**
+     * Submits check-ins at roughly the given rate until the time is up.
+     * Events are spread over the current and previous month.
+     * @return The number of events submitted (accepted or dropped).
+     */
+    public long run(int eventsPerSecond, int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long intervalNanos = 1_000_000_000L * TURNSTILES / Math.max(1, eventsPerSecond);
+        LocalDate today = LocalDate.now();
+        long[] submitted = new long[TURNSTILES];
+
+        List<Thread> turnstiles = new ArrayList<>();
+        for (int t = 0; t < TURNSTILES; t++) {
+            int turnstile = t;
+            Thread thread = new Thread(() -> {
+                Random random = new Random(turnstile);
+                long next = System.nanoTime();
+                while (next < deadline) {
+                    String id = memberIds[random.nextInt(memberIds.length)];
+                    LocalDate date = today.minusDays(random.nextInt(45));
+                    ingestor.submit(new CheckInEvent(id, date));
+                    submitted[turnstile]++;
+                    next += intervalNanos;
+                    long wait = next - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                }
+            }, "turnstile-" + t);
+            turnstiles.add(thread);
+            thread.start();
+        }
+
+        long total = 0;
+        for (int t = 0; t < TURNSTILES; t++) {
+            turnstiles.get(t).join();
+            total += submitted[t];
+        }
+        return total;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int rate = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int memberCount = args.length > 2 ? Integer.parseInt(args[2]) : 2_000;
+        int monthlyGoal = args.length > 3 ? Integer.parseInt(args[3]) : 12;
+
+        if (!checkMonthRollover()) {
+            System.exit(1);
+        }
+
+        GymManager manager = SyntheticMembers.populate(memberCount, 42L);
+        String[] ids = manager.getAllMembers().stream().map(Member::getMemberId).toArray(String[]::new);
+
+        CheckInIngestor ingestor = new CheckInIngestor(manager, 2, 4096, monthlyGoal);
+        ingestor.start();
+        System.out.println("Generating ~" + rate + " check-ins/sec for " + seconds + "s over "
+                + memberCount + " members (goal: " + monthlyGoal + " per month)...");
+
+        long start = System.nanoTime();
+        long submitted = new CheckInGenerator(ingestor, ids).run(rate, seconds);
+        ingestor.stop();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Submitted: %d (%.0f/sec), accepted: %d, dropped: %d, processed: %d%n",
+                submitted, submitted / elapsed, ingestor.getAcceptedCount(), ingestor.getDroppedCount(),
+                ingestor.getProcessedCount());
+        System.out.println("Performance records created: " + ingestor.getRecordsCreated() + " achieved, "
+                + ingestor.getMissedRecordsCreated() + " missed; late check-ins ignored: " + ingestor.getLateCount());
+        LocalDate today = LocalDate.now();
+        System.out.printf("Goal rate this month: %.1f%%%n",
+                manager.getStatistics().getGoalRate(today.getMonthValue(), today.getYear()) * 100);
+    }
+
+    private static boolean checkMonthRollover() throws InterruptedException {
+        GymManager manager = new GymManager();
+        for (String id : new String[]{"A", "B", "C"}) {
+            manager.addMember(new RegularMember(id, "Member " + id, LocalDate.of(2024, 1, 1)));
+        }
+        CheckInIngestor ingestor = new CheckInIngestor(manager, 1, 64, 2);
+        ingestor.start();
+        LocalDate january = LocalDate.of(2025, 1, 10);
+        ingestor.submit(new CheckInEvent("A", january));
+        ingestor.submit(new CheckInEvent("A", january.plusDays(1)));
+        ingestor.submit(new CheckInEvent("B", january));
+        ingestor.submit(new CheckInEvent("B", LocalDate.of(2025, 2, 3))); // February, still open
+        ingestor.submit(new CheckInEvent("A", LocalDate.of(2025, 3, 1))); // Closes January
+        ingestor.submit(new CheckInEvent("C", january.plusDays(2))); // Late
+        ingestor.stop();
+
+        String records = "A " + recordFor(manager, "A") + ", B " + recordFor(manager, "B")
+                + ", C " + recordFor(manager, "C");
+        boolean ok = records.equals("A achieved, B missed, C missed") && ingestor.getLateCount() == 1
+                && ingestor.getTrackedMemberCount() == 2; // A in March, B in February
+        System.out.printf("%s January closed: %s; %d late check-in ignored; %d members still counted%n",
+                ok ? "  OK  " : "  FAIL", records, ingestor.getLateCount(), ingestor.getTrackedMemberCount());
+        return ok;
+    }
+
+    /**
+     * @return "achieved", "missed" or "none" for the member's January 2025 record.
+     */
+    private static String recordFor(GymManager manager, String id) {
+        for (Performance record : manager.findMemberById(id).getPerformanceHistory()) {
+            if (record.getMonth() == 1 && record.getYear() == 2025) {
+                return record.wasGoalAchieved() ? "achieved" : "missed";
+            }
+        }
+        return "none";
+    }
+}
@@ -0,0 +1,156 @@
+package bench;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import src.BTreeMemberStore;
+import src.CsvMemberStore;
+import src.ExternalSortExporter;
+import src.GymManager;
+import src.Member;
+import src.MemberSortKey;
+import src.MemberSortSpec;
+import src.MemberStore;
+import src.MetricsRegistry;
+import src.Performance;
+import src.PremiumMember;
+import src.RegularMember;
+
+/**
+ * Checks and times ExternalSortExporter on an audit-sized export.
+ *
+ * A BTreeMemberStore is filled with members carrying several years of
+ * monthly performance records, then exported by name and by a composite
+ * spec with a small memory budget, so the export has to spill and merge
+ * runs, and with an even smaller one that needs several merge passes.
+ * Each output must hold every stored member exactly once, in order.
+ * Run with a small heap (e.g. -Xmx96m) to see that the export fits in it
+ * while sorting the same members in memory would not.
+ *
+ * Usage: java -cp out bench.ExportBenchmark [memberCount] [budgetMB]
+ * Defaults: 200,000 members and 8 MB; the budget must be at least 2 MB.
+ */
+public class ExportBenchmark {
+
+    private static final String USAGE = "Usage: java -cp out bench.ExportBenchmark [memberCount] [budgetMB]";
+
+    public static void main(String[] args) {
+        int count;
+        long budgetMB;
+        // The last run gets an eighth of the budget, which must still be a valid exporter budget
+        long minBudgetMB = (8 * ExternalSortExporter.MIN_MEMORY_BUDGET + (1 << 20) - 1) >> 20;
+        try {
+            count = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+            budgetMB = args.length > 1 ? Long.parseLong(args[1]) : 8;
+        } catch (NumberFormatException e) {
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        if (count < 1 || budgetMB < minBudgetMB || budgetMB > Integer.MAX_VALUE) {
+            System.err.println(USAGE);
+            System.err.println("memberCount must be positive and budgetMB at least " + minBudgetMB + ".");
+            System.exit(2);
+            return;
+        }
+        long budget = budgetMB * 1024 * 1024;
+        File storeFile = new File("export-benchmark.db");
+        storeFile.delete();
+        boolean ok = true;
+        try (BTreeMemberStore store = new BTreeMemberStore(storeFile.getPath(), 256)) {
+            Random random = new Random(3);
+            Member[] batch = new Member[0];
+            for (int from = 0; from < count; from += batch.length) {
+                // Generated in slices so the benchmark itself never holds the whole base
+                batch = SyntheticMembers.generate(Math.min(10_000, count - from), from);
+                GymManager slice = new GymManager();
+                for (int i = 0; i < batch.length; i++) {
+                    store.put(withHistory(slice, batch[i], String.format("A%07d", from + i + 1), random));
+                }
+            }
+            store.flush();
+            System.out.printf("Store holds %,d members with performance histories (%,d KB on disk)%n%n",
+                    store.size(), storeFile.length() / 1024);
+
+            long[] estimate = new long[1];
+            store.forEach(member -> estimate[0] += ExternalSortExporter.estimateSize(member));
+            System.out.printf("Sorting them in memory would take about %,d MB; the budget is %,d MB%n%n",
+                    estimate[0] >> 20, budget >> 20);
+
+            ok &= run(store, "name", MemberSortKey.NAME.comparator(), budget);
+            ok &= run(store, "type,status,-joinDate,name", MemberSortSpec.parse("type,status,-joinDate,name").comparator(),
+                    budget);
+            // An eighth of the budget: more runs than one merge can read, so several passes
+            ok &= run(store, "name, budget / 8", MemberSortKey.NAME.comparator(), budget / 8);
+        } finally {
+            storeFile.delete();
+        }
+        System.out.println();
+        System.out.println(MetricsRegistry.getDefault().report());
+        System.out.println(ok ? "ALL EXPORT CHECKS PASSED" : "EXPORT CHECKS FAILED");
+    }
+
+    /**
+     * A copy of a generated member under another ID, with one performance
+     * record for each month of up to six years, recorded through the manager.
+     */
+    private static Member withHistory(GymManager manager, Member member, String id, Random random) {
+        manager.addMember(member instanceof PremiumMember
+                ? new PremiumMember(id, member.getFullName(), member.getJoinDate(),
+                        ((PremiumMember) member).getPersonalTrainerFee(), member.getStatus())
+                : new RegularMember(id, member.getFullName(), member.getJoinDate(), member.getStatus()));
+        int months = random.nextInt(72);
+        for (int m = 0; m < months; m++) {
+            manager.addPerformanceRecord(id, new Performance(1 + m % 12, 2020 + m / 12, random.nextBoolean()));
+        }
+        return manager.findMemberById(id);
+    }
+
+    private static boolean run(MemberStore store, String label, Comparator<Member> order, long budget) {
+        File output = new File("export-benchmark.csv");
+        ExternalSortExporter exporter = new ExternalSortExporter(order, budget, null);
+        long start = System.nanoTime();
+        long written = exporter.export(store, output.getPath());
+        long nanos = System.nanoTime() - start;
+        boolean ok;
+        try {
+            ok = written == store.size() && verify(output, order, store.size());
+        } catch (IOException e) {
+            System.err.println("Could not read the export back: " + e.getMessage());
+            ok = false;
+        } finally {
+            output.delete();
+        }
+        System.out.printf("%s %-28s %8.0f ms  %3d runs  %d merge passes  %,7d KB spilled%n", ok ? "  OK  " : "  FAIL",
+                label, nanos / 1e6, exporter.getRunCount(), exporter.getMergePasses(),
+                exporter.getBytesSpilled() / 1024);
+        return ok;
+    }
+
+    /**
+     * Reads the export back: every line must parse, the order must never
+     * go backwards, and every ID must appear exactly once.
+     */
+    private static boolean verify(File output, Comparator<Member> order, long expected) throws IOException {
+        Set<String> ids = new HashSet<>();
+        Member previous = null;
+        try (BufferedReader reader = new BufferedReader(new FileReader(output))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Member member = CsvMemberStore.parseLine(line);
+                if (member == null || !ids.add(member.getMemberId())
+                        || (previous != null && order.compare(previous, member) > 0)) {
+                    return false;
+                }
+                previous = member;
+            }
+        }
+        return ids.size() == expected;
+    }
+}
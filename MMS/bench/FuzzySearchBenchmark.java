@@ -0,0 +1,148 @@
+package bench;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import src.FuzzyNameIndex;
+import src.GymManager;
+import src.Member;
+import src.RegularMember;
+
+/**
+ * Checks GymManager.findMembersByFuzzyName against a brute-force scan and
+ * compares their speed.
+ *
+ * Members get made-up surnames built from syllables, so there are tens of
+ * thousands of distinct words as in a real member base. Each search word
+ * is a real surname with one or two typos. The scan computes the edit
+ * distance and Soundex code of every word of every name; the index must
+ * return exactly the members the scan finds.
+ *
+ * Usage: java -cp out bench.FuzzySearchBenchmark [memberCount]
+ */
+public class FuzzySearchBenchmark {
+
+    private static final String[] SYLLABLES = {
+            "an", "ber", "cas", "dor", "el", "fin", "gar", "hol", "is", "jor", "kel", "lin", "mar",
+            "nor", "os", "per", "quin", "ros", "sten", "tor", "ul", "vik", "wen", "yar", "zel"
+    };
+    private static final String[] FIRST_NAMES = {
+            "Alice", "Bob", "Charlie", "Diana", "Emma", "Fiona", "George", "Hannah", "Ian", "Jane"
+    };
+    private static final int QUERIES = 200;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        Random random = new Random(7);
+        GymManager manager = new GymManager();
+        String[] surnames = new String[count];
+        for (int i = 0; i < count; i++) {
+            surnames[i] = surname(random);
+            manager.addMember(new RegularMember(String.format("F%07d", i + 1),
+                    FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + surnames[i], LocalDate.of(2020, 1, 1)));
+        }
+        String[] queries = new String[QUERIES];
+        for (int q = 0; q < QUERIES; q++) {
+            queries[q] = misspell(surnames[random.nextInt(count)], random);
+        }
+
+        long start = System.nanoTime();
+        manager.findMembersByFuzzyName("warm-up", 1);
+        System.out.printf("Index built over %,d members in %.1f ms%n", count, (System.nanoTime() - start) / 1e6);
+
+        boolean ok = true;
+        long indexNanos = 0;
+        long scanNanos = 0;
+        for (String query : queries) {
+            start = System.nanoTime();
+            List<Member> found = manager.findMembersByFuzzyName(query, Integer.MAX_VALUE);
+            indexNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            Set<String> expected = scan(manager.getSnapshot().getMembers(), query);
+            scanNanos += System.nanoTime() - start;
+
+            Set<String> actual = new HashSet<>();
+            found.forEach(member -> actual.add(member.getMemberId()));
+            if (!actual.equals(expected)) {
+                System.err.println("Mismatch for '" + query + "': index " + actual.size() + ", scan " + expected.size());
+                ok = false;
+            }
+        }
+        System.out.printf("%d misspelled surnames: index %.3f ms per search, scan %.3f ms per search%n",
+                QUERIES, indexNanos / 1e6 / QUERIES, scanNanos / 1e6 / QUERIES);
+
+        // The index must follow renames and deletions
+        manager.renameMember("F0000001", "Jane Quixotic");
+        ok &= check(manager, "Quixotik", true, "renamed member found");
+        manager.deleteMember("F0000001");
+        ok &= check(manager, "Quixotik", false, "deleted member gone");
+        manager.addMember(new RegularMember("F9999999", "Jane Quixotic", LocalDate.of(2020, 1, 1)));
+        ok &= check(manager, "Kwixotic", true, "added member found by sound");
+
+        System.out.println(ok ? "ALL FUZZY SEARCH CHECKS PASSED" : "FUZZY SEARCH CHECKS FAILED");
+    }
+
+    private static boolean check(GymManager manager, String query, boolean expectFound, String label) {
+        List<Member> found = manager.findMembersByFuzzyName(query, 5);
+        boolean present = found.stream().anyMatch(member -> member.getFullName().equals("Jane Quixotic"));
+        System.out.println((present == expectFound ? "  OK    " : "  FAIL  ") + label);
+        return present == expectFound;
+    }
+
+    /**
+     * The members with a name word within the allowed edits of the query,
+     * or with the same Soundex code.
+     */
+    private static Set<String> scan(List<Member> members, String query) {
+        String queryWord = FuzzyNameIndex.words(query).get(0);
+        int maxEdits = FuzzyNameIndex.maxEdits(queryWord.length());
+        String code = FuzzyNameIndex.soundex(queryWord);
+        Set<String> ids = new HashSet<>();
+        for (Member member : members) {
+            for (String word : FuzzyNameIndex.words(member.getFullName())) {
+                if (FuzzyNameIndex.levenshtein(queryWord, word) <= maxEdits
+                        || FuzzyNameIndex.soundex(word).equals(code)) {
+                    ids.add(member.getMemberId());
+                    break;
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static String surname(Random random) {
+        StringBuilder name = new StringBuilder();
+        int syllables = 2 + random.nextInt(3);
+        for (int s = 0; s < syllables; s++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+
+    /**
+     * One or two typos: a dropped, doubled or changed letter.
+     */
+    private static String misspell(String word, Random random) {
+        StringBuilder typo = new StringBuilder(word.toLowerCase());
+        int typos = 1 + random.nextInt(2);
+        for (int t = 0; t < typos; t++) {
+            int at = 1 + random.nextInt(typo.length() - 1);
+            switch (random.nextInt(3)) {
+                case 0:
+                    typo.deleteCharAt(at);
+                    break;
+                case 1:
+                    typo.insert(at, typo.charAt(at));
+                    break;
+                default:
+                    typo.setCharAt(at, (char) ('a' + random.nextInt(26)));
+            }
+        }
+        return typo.toString();
+    }
+}
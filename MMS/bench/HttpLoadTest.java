@@ -0,0 +1,186 @@
+package bench;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import src.GymHttpServer;
+
+/**
+ * Load-test harness for GymHttpServer.
+ * Runs a fixed number of client threads against the API for a fixed time,
+ * then reports requests/sec and p50/p99/max latency.
+ *
+ * Usage: java -cp out bench.HttpLoadTest [baseUrl|-] [threads] [seconds] [members]
+ * With "-" (the default) an in-process server is started on a free port and
+ * filled with `members` synthetic members (default 100,000).
+ *
+ * The request mix is 80% lookups by ID, 15% name searches (limit 20) and
+ * 5% status updates.
+ *
+ * The in-process server is first sent malformed requests (a negative limit,
+ * a month out of range, a negative trainer fee, a comma in an ID, a line
+ * break in a name), each of which must get a 400 with a JSON error, not a
+ * 200 cut short.
+ */
+public class HttpLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "-";
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int members = args.length > 3 ? Integer.parseInt(args[3]) : 100_000;
+
+        GymHttpServer localServer = null;
+        if (baseUrl.equals("-")) {
+            System.out.println("Starting in-process server with " + members + " members...");
+            localServer = new GymHttpServer(SyntheticMembers.populate(members, 42L), 0);
+            localServer.start();
+            baseUrl = "http://localhost:" + localServer.getPort();
+        }
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        boolean valid = localServer == null || checkBadRequests(client, baseUrl);
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Worker> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Worker worker = new Worker(client, baseUrl, members, deadline, t);
+            workers.add(worker);
+            worker.start();
+        }
+
+        long totalRequests = 0;
+        long errors = 0;
+        List<long[]> latencies = new ArrayList<>();
+        for (Worker worker : workers) {
+            worker.join();
+            totalRequests += worker.count;
+            errors += worker.errors;
+            latencies.add(Arrays.copyOf(worker.latencies, worker.count));
+        }
+        if (localServer != null) {
+            localServer.stop();
+        }
+
+        long[] all = new long[(int) totalRequests];
+        int offset = 0;
+        for (long[] part : latencies) {
+            System.arraycopy(part, 0, all, offset, part.length);
+            offset += part.length;
+        }
+        Arrays.sort(all);
+
+        System.out.printf("Threads: %d, duration: %ds, requests: %d, errors: %d%n", threads, seconds, totalRequests, errors);
+        System.out.printf("Throughput: %.0f requests/sec%n", totalRequests / (double) seconds);
+        if (all.length > 0) {
+            System.out.printf("Latency p50: %.3f ms, p99: %.3f ms, max: %.3f ms%n",
+                    percentile(all, 0.50) / 1e6, percentile(all, 0.99) / 1e6, all[all.length - 1] / 1e6);
+        }
+        if (!valid) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @return true if every malformed request got a 400 with an error body.
+     */
+    private static boolean checkBadRequests(HttpClient client, String baseUrl) throws Exception {
+        HttpRequest[] requests = {
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/members?limit=-1")).GET().build(),
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/members?month=13&year=2025")).GET().build(),
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/members?month=1&year=later")).GET().build(),
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/members"))
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"id\":\"BAD1\",\"name\":\"Bad Fee\",\"type\":\"Premium\",\"trainerFee\":-5}"))
+                        .build(),
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/members"))
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"id\":\"BAD,2\",\"name\":\"Comma Id\"}"))
+                        .build(),
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/members"))
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"id\":\"BAD3\",\"name\":\"Two\\nLines\"}"))
+                        .build(),
+        };
+        boolean ok = true;
+        for (HttpRequest request : requests) {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            boolean rejected = response.statusCode() == 400 && response.body().startsWith("{\"error\":");
+            ok &= rejected;
+            System.out.printf("%s %s %s -> %d %s%n", rejected ? "  OK  " : "  FAIL", request.method(),
+                    request.uri().getRawPath() + (request.uri().getRawQuery() == null ? "" : "?" + request.uri().getRawQuery()),
+                    response.statusCode(), response.body());
+        }
+        return ok;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    /**
+     * One client thread. Latencies are kept in a growable primitive array.
+     */
+    private static class Worker extends Thread {
+        private final HttpClient client;
+        private final String baseUrl;
+        private final int members;
+        private final long deadline;
+        private final Random random;
+
+        long[] latencies = new long[1 << 14];
+        int count;
+        long errors;
+
+        Worker(HttpClient client, String baseUrl, int members, long deadline, long seed) {
+            super("load-" + seed);
+            this.client = client;
+            this.baseUrl = baseUrl;
+            this.members = Math.max(1, members);
+            this.deadline = deadline;
+            this.random = new Random(seed);
+        }
+
+        @Override
+        public void run() {
+            while (System.nanoTime() < deadline) {
+                HttpRequest request = nextRequest();
+                long start = System.nanoTime();
+                try {
+                    HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                    if (response.statusCode() >= 500) {
+                        errors++;
+                    }
+                } catch (IOException e) {
+                    errors++;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - start;
+            }
+        }
+
+        private HttpRequest nextRequest() {
+            String id = String.format("S%07d", random.nextInt(members) + 1);
+            int roll = random.nextInt(100);
+            if (roll < 80) {
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/api/members/" + id)).GET().build();
+            } else if (roll < 95) {
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/api/members?name=smith&limit=20")).GET().build();
+            }
+            String status = random.nextBoolean() ? "ACTIVE" : "FROZEN";
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/members/" + id + "/status"))
+                    .PUT(HttpRequest.BodyPublishers.ofString("{\"status\":\"" + status + "\"}"))
+                    .build();
+        }
+    }
+}
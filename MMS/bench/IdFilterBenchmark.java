@@ -0,0 +1,85 @@
+package bench;
+
+import java.io.File;
+import java.time.LocalDate;
+
+import src.BTreeMemberStore;
+import src.Member;
+import src.MetricsRegistry;
+import src.RegularMember;
+
+/**
+ * Measures BTreeMemberStore's ID filter on a bulk import.
+ *
+ * A store of existing members receives an import in which 90% of the rows
+ * are new IDs and 10% repeat stored ones. Each row is checked with
+ * contains() and only new members are put, as the UIs do before adding.
+ * The import runs with and without the filter on copies of the same store;
+ * both must end with identical contents. The filter's measured
+ * false-positive rate is compared with the 1% it is sized for.
+ *
+ * Usage: java -cp out bench.IdFilterBenchmark [existingMembers] [importRows]
+ */
+public class IdFilterBenchmark {
+
+    public static void main(String[] args) {
+        int existing = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int rows = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        Member[] members = SyntheticMembers.generate(existing, 42L);
+
+        System.out.printf("Importing %,d rows (10%% duplicates) into a store of %,d members%n%n", rows, existing);
+        long[] withoutFilter = runImport(false, members, rows);
+        long[] withFilter = runImport(true, members, rows);
+
+        boolean ok = withoutFilter[2] == withFilter[2];
+        System.out.println();
+        System.out.println(ok ? "Both stores hold " + withFilter[2] + " members."
+                : "MISMATCH: " + withoutFilter[2] + " vs " + withFilter[2] + " members.");
+        System.out.println(MetricsRegistry.getDefault().report());
+        System.out.println(ok ? "ID FILTER CHECK PASSED" : "ID FILTER CHECK FAILED");
+    }
+
+    /**
+     * @return The elapsed nanoseconds, page reads and final member count.
+     */
+    private static long[] runImport(boolean filter, Member[] members, int rows) {
+        File file = new File(filter ? "idfilter-on.db" : "idfilter-off.db");
+        file.delete();
+        try (BTreeMemberStore store = new BTreeMemberStore(file.getPath(), 64)) {
+            for (Member member : members) {
+                store.put(member);
+            }
+            store.flush();
+            long buildStart = System.nanoTime();
+            if (filter) {
+                store.enableIdFilter();
+            }
+            long buildNanos = System.nanoTime() - buildStart;
+
+            long readsBefore = store.getPageReads();
+            long start = System.nanoTime();
+            int added = 0;
+            for (int row = 0; row < rows; row++) {
+                String id = row % 10 == 0
+                        ? members[row % members.length].getMemberId()
+                        : String.format("N%07d", row);
+                if (!store.contains(id)) {
+                    store.put(new RegularMember(id, "Imported Member", LocalDate.of(2024, 1, 1)));
+                    added++;
+                }
+            }
+            long nanos = System.nanoTime() - start;
+            long reads = store.getPageReads() - readsBefore;
+            System.out.printf("  %-14s %8.1f ms  %,8d page reads  %,7d added", filter ? "with filter" : "without filter",
+                    nanos / 1e6, reads, added);
+            if (filter) {
+                System.out.printf("  (built in %.1f ms, %,d checks skipped, false-positive rate %.2f%%)",
+                        buildNanos / 1e6, store.getIdFilterSkips(), store.getIdFilterFalsePositiveRate() * 100);
+            }
+            System.out.println();
+            return new long[]{nanos, reads, store.size()};
+        } finally {
+            file.delete();
+        }
+    }
+}
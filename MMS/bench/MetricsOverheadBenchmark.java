@@ -0,0 +1,103 @@
+package bench;
+
+import java.util.List;
+import java.util.Random;
+
+import src.GymManager;
+import src.LatencyHistogram;
+import src.Member;
+import src.MetricsRegistry;
+
+/**
+ * Measures what the metrics instrumentation costs on the hot paths by running
+ * the same operations with recording enabled and disabled, then checks that
+ * the sampled findMemberById histogram still counts every lookup.
+ *
+ * Usage: java -cp out bench.MetricsOverheadBenchmark [memberCount] [iterations]
+ * Defaults: 100,000 members and 2,000,000 lookups per round.
+ */
+public class MetricsOverheadBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    private static long sink;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+
+        System.out.println("Generating " + count + " members...");
+        GymManager manager = SyntheticMembers.populate(count, 42L);
+        List<Member> members = manager.getAllMembers();
+        String[] ids = members.stream().map(Member::getMemberId).toArray(String[]::new);
+
+        Operation findById = () -> {
+            Random random = new Random(1);
+            for (int i = 0; i < iterations; i++) {
+                sink += manager.findMemberById(ids[random.nextInt(ids.length)]) != null ? 1 : 0;
+            }
+        };
+        Operation fees = () -> {
+            for (int i = 0; i < iterations; i++) {
+                sink += (long) members.get(i % members.size()).calculateMonthlyFee();
+            }
+        };
+        Operation findByName = () -> {
+            for (int i = 0; i < 50; i++) {
+                sink += manager.findMembersByName("an").size();
+            }
+        };
+
+        // Warm both variants first so the JIT sees the enabled and disabled branches
+        for (int i = 0; i < 2; i++) {
+            run(true, findById, fees, findByName);
+            run(false, findById, fees, findByName);
+        }
+
+        compare("findMemberById x" + iterations, findById);
+        compare("calculateMonthlyFee x" + iterations, fees);
+        compare("findMembersByName(\"an\") x50", findByName);
+
+        // Sampled timing must still count every lookup
+        MetricsRegistry.setEnabled(true);
+        LatencyHistogram lookups = MetricsRegistry.getDefault().histogram("query.findMemberById");
+        lookups.reset();
+        findById.run();
+        System.out.printf("%s findMemberById counted %,d of %,d lookups, mean %.0f ns over the timed ones%n",
+                lookups.getCount() == iterations ? "  OK  " : "  FAIL", lookups.getCount(), iterations,
+                lookups.getMean());
+        System.out.println("(sink " + sink + ")");
+    }
+
+    private interface Operation {
+        void run();
+    }
+
+    private static void run(boolean enabled, Operation... operations) {
+        MetricsRegistry.setEnabled(enabled);
+        for (Operation operation : operations) {
+            operation.run();
+        }
+    }
+
+    /**
+     * Alternates enabled and disabled rounds and prints the best time of each.
+     */
+    private static void compare(String label, Operation operation) {
+        long bestOn = Long.MAX_VALUE;
+        long bestOff = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            bestOn = Math.min(bestOn, time(true, operation));
+            bestOff = Math.min(bestOff, time(false, operation));
+        }
+        System.out.printf("%-40s on: %7.1f ms  off: %7.1f ms  overhead: %+.1f%%%n", label,
+                bestOn / 1e6, bestOff / 1e6, (bestOn - bestOff) * 100.0 / bestOff);
+    }
+
+    private static long time(boolean enabled, Operation operation) {
+        MetricsRegistry.setEnabled(enabled);
+        long start = System.nanoTime();
+        operation.run();
+        return System.nanoTime() - start;
+    }
+}
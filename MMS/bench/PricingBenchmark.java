@@ -0,0 +1,197 @@
+package bench;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Properties;
+
+import src.DailyClock;
+import src.GymManager;
+import src.Member;
+import src.MembershipStatus;
+import src.MetricsRegistry;
+import src.Performance;
+import src.PremiumMember;
+import src.PricingPlan;
+
+/**
+ * Checks and times compiled pricing plans.
+ *
+ * 1. The default plan must give exactly the fees of the original constants
+ *    (Regular 50/10, Premium 80/15 plus trainer fee, 10% off for an
+ *    achieved goal) for every member.
+ * 2. Billing every member (bypassing the per-member fee cache) with the
+ *    original constants, the default plan, a plan with loyalty tiers and
+ *    promotions, and that same plan re-read from its rules for each member,
+ *    as an uncompiled rule engine would.
+ * 3. GymManager.applyPricingPlan must leave the projected revenue equal to
+ *    the sum of the new fees, in that manager and in another one holding
+ *    other members, changed under the new plan before it was read.
+ * 4. A plan compiled for today must be compiled again when the date moves
+ *    on: with the clock moved past the end of a promotion, fees and revenue
+ *    must lose the discount without another applyPricingPlan.
+ *
+ * Usage: java -cp out bench.PricingBenchmark [memberCount]
+ */
+public class PricingBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Member[] members = SyntheticMembers.generate(count, 42L);
+        // Recorded through a manager, a slice at a time so every member is never indexed at once
+        for (int from = 0; from < count; from += 30_000) {
+            GymManager recorder = new GymManager();
+            for (int i = from; i < Math.min(count, from + 30_000); i += 3) {
+                recorder.addMember(members[i]);
+                recorder.addPerformanceRecord(members[i].getMemberId(), new Performance(1, 2026, i % 2 == 0));
+            }
+        }
+        LocalDate billingDate = LocalDate.of(2026, 7, 1);
+
+        PricingPlan defaults = new PricingPlan(new Properties(), billingDate);
+        Properties richRules = new Properties();
+        richRules.setProperty("loyalty.3", "0.05");
+        richRules.setProperty("loyalty.5", "0.08");
+        richRules.setProperty("loyalty.8", "0.12");
+        richRules.setProperty("promotion.summer", "2026-06-01,2026-08-31,0.15,Premium");
+        richRules.setProperty("promotion.spring", "2026-03-01,2026-04-30,0.20");
+        richRules.setProperty("regular.performanceDiscount", "0.05");
+        PricingPlan rich = new PricingPlan(richRules, billingDate);
+        System.out.println(rich);
+        System.out.println();
+
+        boolean ok = true;
+        for (Member member : members) {
+            if (member.computeMonthlyFee(defaults) != constantFee(member)) {
+                System.err.println("Default plan differs from the constants for " + member.getMemberId());
+                ok = false;
+                break;
+            }
+        }
+        System.out.println((ok ? "  OK    " : "  FAIL  ") + "default plan matches the original constants");
+
+        // The fee.calculations counter would be timed too, but not for the constants
+        MetricsRegistry.setEnabled(false);
+        System.out.printf("%nBilling %,d members (best of %d rounds):%n", count, ROUNDS);
+        time("original constants", members, member -> constantFee(member));
+        time("default plan", members, member -> member.computeMonthlyFee(defaults));
+        time("loyalty + promotions", members, member -> member.computeMonthlyFee(rich));
+        time("same, uncompiled", members, member -> member.computeMonthlyFee(new PricingPlan(richRules, billingDate)),
+                count / 100);
+
+        MetricsRegistry.setEnabled(true);
+
+        GymManager manager = new GymManager();
+        GymManager other = new GymManager();
+        int managed = Math.min(count, 100_000);
+        for (int i = 0; i < managed; i++) {
+            (i < managed / 2 ? manager : other).addMember(members[i]);
+        }
+        other.getStatistics(); // Revenue under the default plan
+        manager.applyPricingPlan(rich);
+        // Changes under the new plan before the other manager reads its figures
+        List<Member> others = other.getAllMembers();
+        for (int i = 0; i < others.size(); i += 7) {
+            other.updateMemberStatus(others.get(i).getMemberId(),
+                    i % 2 == 0 ? MembershipStatus.FROZEN : MembershipStatus.ACTIVE);
+        }
+        System.out.println();
+        boolean revenueOk = checkRevenue("revenue after applyPricingPlan", manager)
+                & checkRevenue("revenue of another manager, changed since", other);
+        manager.applyPricingPlan(defaults);
+
+        boolean rolloverOk = checkRollover(manager, richRules);
+        System.out.println(ok && revenueOk && rolloverOk ? "ALL PRICING CHECKS PASSED" : "PRICING CHECKS FAILED");
+    }
+
+    private static boolean checkRevenue(String label, GymManager manager) {
+        double expected = manager.getAllMembers().stream()
+                .mapToLong(member -> Math.round(member.calculateMonthlyFee() * 100)).sum() / 100.0;
+        double revenue = manager.getStatistics().getProjectedMonthlyRevenue();
+        boolean ok = Math.abs(revenue - expected) < 0.005;
+        System.out.printf("%s %s: $%,.2f (sum of fees $%,.2f)%n", ok ? "  OK  " : "  FAIL", label, revenue, expected);
+        return ok;
+    }
+
+    /**
+     * Applies the rules compiled for the last day of the summer promotion,
+     * then moves the clock to the next morning.
+     */
+    private static boolean checkRollover(GymManager manager, Properties rules) {
+        ZoneId zone = ZoneId.systemDefault();
+        DailyClock.setClock(Clock.fixed(LocalDate.of(2026, 8, 31).atTime(23, 59).atZone(zone).toInstant(), zone));
+        PremiumMember premium = null;
+        for (Member member : manager.getAllMembers()) {
+            if (member instanceof PremiumMember && member.getStatus() == MembershipStatus.ACTIVE) {
+                premium = (PremiumMember) member;
+                break;
+            }
+        }
+        boolean ok = false;
+        try {
+            manager.applyPricingPlan(PricingPlan.forToday(rules));
+            double summerFee = premium.calculateMonthlyFee();
+            double summerRevenue = manager.getStatistics().getProjectedMonthlyRevenue();
+
+            DailyClock.setClock(Clock.fixed(LocalDate.of(2026, 9, 1).atTime(0, 1).atZone(zone).toInstant(), zone));
+            double autumnFee = premium.calculateMonthlyFee();
+            double autumnRevenue = manager.getStatistics().getProjectedMonthlyRevenue();
+            double expected = manager.getAllMembers().stream()
+                    .mapToLong(member -> Math.round(member.calculateMonthlyFee() * 100)).sum() / 100.0;
+            ok = PricingPlan.getCurrent().getBillingDate().equals(LocalDate.of(2026, 9, 1))
+                    && Math.abs(autumnFee * 0.85 - summerFee) < 1e-9
+                    && Math.abs(autumnRevenue - expected) < 0.005 && autumnRevenue > summerRevenue;
+            System.out.printf("%s after midnight on 2026-08-31: premium fee $%.2f -> $%.2f, revenue $%,.2f -> $%,.2f"
+                    + " (sum of fees $%,.2f)%n", ok ? "  OK  " : "  FAIL", summerFee, autumnFee, summerRevenue,
+                    autumnRevenue, expected);
+        } finally {
+            DailyClock.setClock(Clock.systemDefaultZone());
+            manager.applyPricingPlan(PricingPlan.forToday(new Properties()));
+        }
+        return ok;
+    }
+
+    /**
+     * The fee rules as they were hard-coded before pricing plans.
+     */
+    private static double constantFee(Member member) {
+        boolean premium = member instanceof PremiumMember;
+        if (member.getStatus() == MembershipStatus.FROZEN) {
+            return premium ? 15.0 : 10.0;
+        }
+        if (!premium) {
+            return 50.0;
+        }
+        double fee = 80.0 + ((PremiumMember) member).getPersonalTrainerFee();
+        return member.latestGoalAchieved() ? fee * (1 - 0.10) : fee;
+    }
+
+    private interface FeeFunction {
+        double fee(Member member);
+    }
+
+    private static void time(String label, Member[] members, FeeFunction function) {
+        time(label, members, function, members.length);
+    }
+
+    /**
+     * Prints the best time per member; only the first `limit` members are billed.
+     */
+    private static void time(String label, Member[] members, FeeFunction function, int limit) {
+        long best = Long.MAX_VALUE;
+        double total = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            total = 0;
+            for (int i = 0; i < limit; i++) {
+                total += function.fee(members[i]);
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("  %-22s %6.1f ns per member  (total $%,.2f over %,d members)%n", label,
+                (double) best / limit, total, limit);
+    }
+}
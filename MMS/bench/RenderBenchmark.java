@@ -0,0 +1,176 @@
+package bench;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import src.ConsoleRenderer;
+import src.GymManager;
+import src.Member;
+import src.Performance;
+import src.PremiumMember;
+
+/**
+ * Compares printing a large listing with println(member) against
+ * ConsoleRenderer, and checks that the renderer's detailed layout is the
+ * same text as before, fees included, in any locale.
+ *
+ * Output goes to a stream that discards it (as a redirected console
+ * would cost little), so the times are formatting and write overhead.
+ * The old way is timed on an autoflushing PrintStream, like System.out.
+ *
+ * Usage: java -cp out bench.RenderBenchmark [memberCount]
+ * Exits with status 1 if a check fails.
+ */
+public class RenderBenchmark {
+
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        GymManager manager = SyntheticMembers.populate(count, 42L);
+        List<Member> members = manager.getAllMembers();
+        for (int i = 0; i < members.size(); i += 3) {
+            manager.addPerformanceRecord(members.get(i).getMemberId(), new Performance(1 + i % 12, 2025, i % 2 == 0));
+        }
+
+        // Warm up each path once before timing it
+        long println = 0;
+        long detailed = 0;
+        long table = 0;
+        for (int round = 0; round < 2; round++) {
+            PrintStream console = new PrintStream(DISCARD, true);
+            long start = System.nanoTime();
+            for (Member member : members) {
+                console.println(member);
+                console.println("-------------------");
+            }
+            println = System.nanoTime() - start;
+
+            ConsoleRenderer renderer = new ConsoleRenderer(DISCARD);
+            start = System.nanoTime();
+            for (Member member : members) {
+                renderer.appendDetailed(member);
+            }
+            renderer.flush();
+            detailed = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            renderer.appendTableHeader();
+            for (Member member : members) {
+                renderer.appendTableRow(member);
+            }
+            renderer.flush();
+            table = System.nanoTime() - start;
+        }
+        System.out.printf("%,d members%n", count);
+        System.out.printf("  %-36s %8.1f ms%n", "println(member) + separator", println / 1e6);
+        System.out.printf("  %-36s %8.1f ms%n", "renderer, detailed", detailed / 1e6);
+        System.out.printf("  %-36s %8.1f ms%n", "renderer, table", table / 1e6);
+
+        // Same bytes for a sample, including non-ASCII names and odd fees
+        List<Member> sample = members.subList(0, Math.min(5_000, members.size()));
+        manager.renameMember(sample.get(0).getMemberId(), "Zo\u00eb \u00c5ngstr\u00f6m-\u0141ukasiewicz");
+        if (sample.size() > 1 && sample.get(1) instanceof PremiumMember) {
+            manager.updatePersonalTrainerFee(sample.get(1).getMemberId(), 12.345);
+        }
+        boolean sameOk = checkDetailed(sample, Locale.getDefault(Locale.Category.FORMAT))
+                & checkDetailed(sample, Locale.forLanguageTag("th-TH-u-nu-thai"));
+
+        ByteArrayOutputStream rows = new ByteArrayOutputStream();
+        ConsoleRenderer renderer = new ConsoleRenderer(rows, StandardCharsets.UTF_8);
+        renderer.appendTableHeader();
+        for (Member member : sample) {
+            renderer.appendTableRow(member);
+        }
+        renderer.flush();
+        String[] lines = rows.toString(StandardCharsets.UTF_8).split(System.lineSeparator());
+        boolean tableOk = lines.length == sample.size() + 2;
+        for (int i = 1; tableOk && i < lines.length; i++) {
+            tableOk = lines[i].length() == lines[0].length();
+        }
+        System.out.printf("%sone fixed-width table line per member (%d columns)%n",
+                tableOk ? "  OK    " : "  FAIL  ", lines[0].length());
+        System.out.println(lines[0]);
+        System.out.println(lines[2]);
+        boolean moneyOk = checkMoney();
+        System.out.println(sameOk && tableOk && moneyOk ? "ALL RENDER CHECKS PASSED" : "RENDER CHECKS FAILED");
+        System.exit(sameOk && tableOk && moneyOk ? 0 : 1);
+    }
+
+    /**
+     * Checks that the detailed layout is the same bytes as println(member),
+     * with numbers formatted for the given locale.
+     */
+    private static boolean checkDetailed(List<Member> sample, Locale locale) {
+        Locale original = Locale.getDefault(Locale.Category.FORMAT);
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        PrintStream console = new PrintStream(expected, true, StandardCharsets.UTF_8);
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        ConsoleRenderer renderer = new ConsoleRenderer(actual, StandardCharsets.UTF_8);
+        try {
+            Locale.setDefault(Locale.Category.FORMAT, locale);
+            for (Member member : sample) {
+                console.println(member);
+                console.println("-------------------");
+                renderer.appendDetailed(member);
+            }
+            renderer.flush();
+        } finally {
+            Locale.setDefault(Locale.Category.FORMAT, original);
+        }
+        boolean ok = Arrays.equals(expected.toByteArray(), actual.toByteArray());
+        System.out.printf("%sdetailed layout matches println(member) for %,d members (%s)%n",
+                ok ? "  OK    " : "  FAIL  ", sample.size(), locale);
+        return ok;
+    }
+
+    /**
+     * Compares ConsoleRenderer.appendMoney with "%.2f" for amounts that round
+     * differently in binary and decimal, in locales with other separators
+     * and digits.
+     * @return true if every amount matched in every locale.
+     */
+    private static boolean checkMoney() {
+        double[] amounts = {0, -0.0, 1.005, 2.675, 0.125, 0.145, 1.115, 12.345, 70.685, 83.155, 0.001, -0.001,
+                -1.005, 0.995, 9.995, 99.995, 1234567.895, 1e15 + 0.25, 49.99, 1e-7};
+        Locale[] locales = {Locale.ENGLISH, Locale.GERMANY, Locale.FRANCE, new Locale("ar", "EG"),
+                Locale.forLanguageTag("th-TH-u-nu-thai"), Locale.getDefault(Locale.Category.FORMAT)};
+        Locale original = Locale.getDefault(Locale.Category.FORMAT);
+        int mismatches = 0;
+        StringBuilder sb = new StringBuilder();
+        try {
+            for (Locale locale : locales) {
+                Locale.setDefault(Locale.Category.FORMAT, locale);
+                for (double amount : amounts) {
+                    sb.setLength(0);
+                    ConsoleRenderer.appendMoney(sb, amount);
+                    String expected = String.format("%.2f", amount);
+                    if (!expected.contentEquals(sb)) {
+                        if (mismatches++ < 5) {
+                            System.out.println("    " + locale + " " + amount + ": \"" + sb + "\", %.2f gives \""
+                                    + expected + "\"");
+                        }
+                    }
+                }
+            }
+        } finally {
+            Locale.setDefault(Locale.Category.FORMAT, original);
+        }
+        System.out.printf("%smoney matches %%.2f for %d amounts in %d locales (%d mismatches)%n",
+                mismatches == 0 ? "  OK    " : "  FAIL  ", amounts.length, locales.length, mismatches);
+        return mismatches == 0;
+    }
+}
@@ -0,0 +1,130 @@
+package bench;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import src.GymManager;
+import src.Member;
+import src.MembershipStatus;
+import src.Performance;
+import src.PremiumMember;
+import src.RegularMember;
+import src.ReplicationFollower;
+import src.ReplicationPrimary;
+
+/**
+ * End-to-end check of primary/standby replication over loopback in one JVM.
+ * Runs a primary and a follower, drives mutations through the primary's
+ * GymManager and verifies after each phase that the follower's data is
+ * identical:
+ *
+ * 1. initial snapshot;  2. live stream;  3. reconnect with backlog catch-up;
+ * 4. follower lag, recovered by a snapshot;  5. reload on the primary.
+ *
+ * Usage: java -cp out bench.ReplicationCheck [memberCount]
+ * Exits with status 1 if any phase fails.
+ */
+public class ReplicationCheck {
+
+    private static final long TIMEOUT_MILLIS = 20_000;
+
+    private static int failures;
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        GymManager primaryManager = SyntheticMembers.populate(count, 42L);
+        ReplicationPrimary primary = new ReplicationPrimary(primaryManager, 0, 20_000, 5_000);
+        primary.start();
+        ReplicationFollower follower = new ReplicationFollower("localhost", primary.getPort());
+        follower.start();
+        Random random = new Random(7);
+
+        check("initial snapshot", primaryManager, primary, follower, 1);
+
+        long start = System.nanoTime();
+        mutate(primaryManager, random, 2_000);
+        check("live stream of 2,000 changes", primaryManager, primary, follower, 1);
+        System.out.printf("  (%.0f changes/sec end to end)%n", 2_000 / ((System.nanoTime() - start) / 1e9));
+
+        follower.disconnect();
+        mutate(primaryManager, random, 500);
+        check("reconnect, catch up from backlog", primaryManager, primary, follower, 1);
+
+        // Stall the follower's apply step so its queue on the primary overflows
+        synchronized (follower.getManager()) {
+            mutate(primaryManager, random, 50_000);
+            Thread.sleep(500);
+        }
+        check("lagging follower, catch up from snapshot", primaryManager, primary, follower, 2);
+
+        GymManager replacement = SyntheticMembers.populate(count / 2, 99L);
+        synchronized (primaryManager) {
+            primaryManager.replaceAllMembers(replacement.getAllMembers());
+        }
+        check("reload on the primary", primaryManager, primary, follower, 3);
+
+        follower.stop();
+        primary.stop();
+        System.out.println(failures == 0 ? "ALL CHECKS PASSED" : failures + " CHECK(S) FAILED");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    /**
+     * Applies random adds, deletes, status changes, renames, fee changes and
+     * performance records.
+     */
+    private static void mutate(GymManager manager, Random random, int changes) {
+        synchronized (manager) {
+            List<Member> members = manager.getAllMembers();
+            for (int i = 0; i < changes; i++) {
+                int op = random.nextInt(6);
+                if (members.isEmpty() || op == 0) {
+                    String id = "R" + System.nanoTime() + i;
+                    manager.addMember(new RegularMember(id, "Replica Test " + i, LocalDate.of(2024, 1, 1)));
+                    continue;
+                }
+                Member member = members.get(random.nextInt(members.size()));
+                if (op == 1) {
+                    manager.deleteMember(member.getMemberId());
+                } else if (op == 2) {
+                    MembershipStatus status = member.getStatus() == MembershipStatus.ACTIVE
+                            ? MembershipStatus.FROZEN : MembershipStatus.ACTIVE;
+                    manager.updateMemberStatus(member.getMemberId(), status);
+                } else if (op == 3) {
+                    manager.renameMember(member.getMemberId(), member.getFullName() + "+");
+                } else if (op == 4 && member instanceof PremiumMember) {
+                    manager.updatePersonalTrainerFee(member.getMemberId(), random.nextInt(100));
+                } else {
+                    manager.addPerformanceRecord(member.getMemberId(),
+                            new Performance(1 + random.nextInt(12), 2025, random.nextBoolean()));
+                }
+            }
+        }
+    }
+
+    private static void check(String phase, GymManager primaryManager, ReplicationPrimary primary,
+            ReplicationFollower follower, long expectedSnapshots) throws InterruptedException {
+        boolean caughtUp = follower.awaitSequence(primary.getSequence(), TIMEOUT_MILLIS);
+        List<String> expected = csvById(primaryManager);
+        List<String> actual = csvById(follower.getManager());
+        boolean identical = caughtUp && expected.equals(actual);
+        boolean snapshotsOk = follower.getSnapshotsApplied() == expectedSnapshots;
+        if (!identical || !snapshotsOk) {
+            failures++;
+        }
+        System.out.printf("%-45s %s  (%d members, sequence %d, snapshots %d, expected %d)%n", phase,
+                identical && snapshotsOk ? "OK  " : "FAIL", actual.size(), follower.getLastAppliedSequence(),
+                follower.getSnapshotsApplied(), expectedSnapshots);
+    }
+
+    private static List<String> csvById(GymManager manager) {
+        synchronized (manager) {
+            return manager.getAllMembers().stream()
+                    .sorted()
+                    .map(Member::toCsvString)
+                    .collect(Collectors.toList());
+        }
+    }
+}
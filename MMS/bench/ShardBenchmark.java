@@ -0,0 +1,87 @@
+package bench;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import src.GymManager;
+import src.Member;
+import src.MemberPage;
+import src.MemberPartitioner;
+import src.MemberSortKey;
+import src.ShardedGymManager;
+
+/**
+ * Compares one GymManager with ShardedGymManager at several shard counts:
+ * save, load, a name search and a page of members by join date.
+ *
+ * Usage: java -cp out bench.ShardBenchmark [memberCount] [maxShards]
+ * Defaults: 1,000,000 members, up to 8 shards (ID-hash partitioning).
+ */
+public class ShardBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int maxShards = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        Path dir = Files.createTempDirectory("mms-shards");
+        String base = dir.resolve("gym_records.csv").toString();
+
+        System.out.println("Generating " + count + " members; processors: "
+                + Runtime.getRuntime().availableProcessors());
+        Member[] members = SyntheticMembers.generate(count, 42L);
+
+        GymManager single = new GymManager();
+        for (Member member : members) {
+            single.addMember(member);
+        }
+        long start = System.nanoTime();
+        single.saveToFile(base);
+        long save = System.nanoTime() - start;
+        start = System.nanoTime();
+        single.loadFromFile(base);
+        long load = System.nanoTime() - start;
+        start = System.nanoTime();
+        int matches = single.findMembersByName("chen").size();
+        long search = System.nanoTime() - start;
+        print("GymManager", save, load, search, matches);
+
+        for (int shardCount = 2; shardCount <= maxShards; shardCount *= 2) {
+            ShardedGymManager sharded = new ShardedGymManager(MemberPartitioner.byIdHash(shardCount));
+            for (Member member : members) {
+                sharded.addMember(member);
+            }
+            start = System.nanoTime();
+            sharded.saveToFiles(base);
+            save = System.nanoTime() - start;
+            sharded = new ShardedGymManager(MemberPartitioner.byIdHash(shardCount));
+            start = System.nanoTime();
+            sharded.loadFromFiles(base);
+            load = System.nanoTime() - start;
+            start = System.nanoTime();
+            List<Member> found = sharded.findMembersByName("chen", MemberSortKey.ID);
+            search = System.nanoTime() - start;
+            print("Sharded x" + shardCount, save, load, search, found.size());
+
+            MemberPage page = sharded.getMembersPage(MemberSortKey.JOIN_DATE, null, 20);
+            MemberPage expected = single.getMembersPage(MemberSortKey.JOIN_DATE, null, 20);
+            System.out.println("  first join-date page identical: " + ids(page).equals(ids(expected)));
+            sharded.shutdown();
+            for (int i = 0; i < shardCount; i++) {
+                new File(sharded.getShardFilename(base, i)).delete();
+            }
+        }
+        new File(base).delete();
+        dir.toFile().delete();
+    }
+
+    private static List<String> ids(MemberPage page) {
+        return page.getMembers().stream().map(Member::getMemberId).collect(Collectors.toList());
+    }
+
+    private static void print(String label, long save, long load, long search, int matches) {
+        System.out.printf("%-14s save: %6d ms  load: %6d ms  search: %5d ms (%d matches)%n",
+                label, save / 1_000_000, load / 1_000_000, search / 1_000_000, matches);
+    }
+}
@@ -0,0 +1,213 @@
+package bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+import src.GymManager;
+import src.Member;
+import src.MemberSnapshot;
+import src.MembershipStatus;
+import src.MetricsRegistry;
+import src.Performance;
+import src.PremiumMember;
+import src.RegularMember;
+
+/**
+ * Checks and measures snapshot reads under concurrent writes.
+ *
+ * A writer thread keeps changing statuses, fees and performance records,
+ * adding and deleting members and re-sorting the list, while the main thread
+ * repeatedly takes a snapshot and reads it slowly, as a billing run would.
+ * Every read must see exactly what the snapshot held when it was taken: the
+ * same members in the same order, and the same revenue as a second pass.
+ *
+ * Then a second thread reloads two files of different sizes, one after the
+ * other, while snapshots are taken: each must hold one whole file, never a
+ * partly loaded member base.
+ *
+ * Usage: java -cp out bench.SnapshotBenchmark [memberCount] [reports]
+ * Defaults: 100,000 members and 20 reports. Exits with status 1 on a mismatch.
+ */
+public class SnapshotBenchmark {
+
+    private static volatile boolean writing = true;
+    private static long writes;
+
+    public static void main(String[] args) throws InterruptedException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int reports = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        System.out.println("Generating " + count + " members...");
+        GymManager manager = SyntheticMembers.populate(count, 42L);
+
+        Thread writer = new Thread(() -> write(manager), "snapshot-writer");
+        writer.start();
+
+        int failures = 0;
+        long snapshotNanos = 0;
+        for (int i = 0; i < reports; i++) {
+            long start = System.nanoTime();
+            MemberSnapshot snapshot = manager.getSnapshot();
+            snapshotNanos += System.nanoTime() - start;
+
+            String firstPass = describe(snapshot.getMembers());
+            Thread.sleep(20); // Let the writer change things between the passes
+            String secondPass = describe(snapshot.getMembers());
+            double revenue = snapshot.getStatistics().getProjectedMonthlyRevenue();
+            double recomputed = revenue(snapshot.getMembers());
+            boolean ok = firstPass.equals(secondPass) && Math.abs(revenue - recomputed) < 0.005;
+            if (!ok) {
+                failures++;
+                System.out.println("MISMATCH in report " + (i + 1) + ": " + firstPass + " / " + secondPass
+                        + ", revenue " + revenue + " / " + recomputed);
+            }
+        }
+        writing = false;
+        writer.join();
+
+        System.out.printf("%d reports, %d writes alongside them, %d member copies%n", reports, writes,
+                MetricsRegistry.getDefault().counter("snapshot.membersCopied").get());
+        System.out.printf("getSnapshot() during writes: %.1f us on average (includes waiting for the lock)%n",
+                snapshotNanos / 1e3 / reports);
+        long start = System.nanoTime();
+        for (int i = 0; i < 100_000; i++) {
+            manager.getSnapshot();
+        }
+        System.out.printf("getSnapshot() uncontended: %.0f ns%n", (System.nanoTime() - start) / 100_000.0);
+        measureWritesAfterSnapshots(manager);
+
+        failures += checkReloads(manager, count);
+        System.out.println(failures == 0 ? "ALL SNAPSHOTS CONSISTENT" : failures + " INCONSISTENT SNAPSHOT(S)");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    /**
+     * Times writes that each follow a snapshot, as when every HTTP list
+     * request takes one: the first change after a snapshot pays for sharing.
+     */
+    private static void measureWritesAfterSnapshots(GymManager manager) {
+        List<Member> members = manager.getSnapshot().getMembers();
+        Random random = new Random(11);
+        int rounds = 20_000;
+        long statusNanos = 0;
+        long deleteNanos = 0;
+        for (int i = 0; i < rounds; i++) {
+            Member member = members.get(random.nextInt(members.size()));
+            manager.getSnapshot();
+            long start = System.nanoTime();
+            manager.updateMemberStatus(member.getMemberId(),
+                    random.nextBoolean() ? MembershipStatus.FROZEN : MembershipStatus.ACTIVE);
+            statusNanos += System.nanoTime() - start;
+            manager.getSnapshot();
+            start = System.nanoTime();
+            Member current = manager.findMemberById(member.getMemberId());
+            if (current != null && manager.deleteMember(member.getMemberId())) {
+                manager.addMember(current);
+            }
+            deleteNanos += System.nanoTime() - start;
+        }
+        System.out.printf("Write right after a snapshot (%,d members): status change %.1f us, delete + add %.1f us%n",
+                manager.getAllMembers().size(), statusNanos / 1e3 / rounds, deleteNanos / 1e3 / rounds);
+    }
+
+    /**
+     * Takes snapshots while another thread keeps reloading a full and a
+     * half-size file.
+     * @return The number of snapshots that saw neither file.
+     */
+    private static int checkReloads(GymManager manager, int count) throws InterruptedException {
+        File full;
+        File half;
+        try {
+            full = File.createTempFile("mms-reload", ".csv");
+            half = File.createTempFile("mms-reload", ".csv");
+        } catch (IOException e) {
+            System.out.println("Reload check skipped: " + e.getMessage());
+            return 0;
+        }
+        full.deleteOnExit();
+        half.deleteOnExit();
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // Load and save messages
+        manager.saveToFile(full.getPath());
+        SyntheticMembers.populate(count / 2, 7L).saveToFile(half.getPath());
+        manager.loadFromFile(full.getPath());
+        int fullSize = manager.getStatistics().getTotalMembers();
+        manager.loadFromFile(half.getPath());
+        int halfSize = manager.getStatistics().getTotalMembers();
+
+        int reloads = 10;
+        Thread loader = new Thread(() -> {
+            for (int i = 0; i < reloads; i++) {
+                manager.loadFromFile((i % 2 == 0 ? full : half).getPath());
+            }
+        }, "snapshot-reloader");
+        loader.start();
+        int snapshots = 0;
+        int partial = 0;
+        while (loader.isAlive()) {
+            int size = manager.getSnapshot().size();
+            if (size != fullSize && size != halfSize) {
+                partial++;
+            }
+            snapshots++;
+        }
+        loader.join();
+        System.setOut(out);
+        System.out.printf("%s%,d snapshots during %d reloads, %d saw a partly loaded file%n",
+                partial == 0 ? "  OK    " : "  FAIL  ", snapshots, reloads, partial);
+        return partial;
+    }
+
+    private static void write(GymManager manager) {
+        Random random = new Random(3);
+        int added = 0;
+        while (writing) {
+            String id = String.format("S%07d", 1 + random.nextInt(manager.getStatistics().getTotalMembers()));
+            int op = random.nextInt(1000);
+            if (op < 400) {
+                manager.updateMemberStatus(id, random.nextBoolean() ? MembershipStatus.FROZEN : MembershipStatus.ACTIVE);
+            } else if (op < 700) {
+                manager.addPerformanceRecord(id, new Performance(1 + random.nextInt(12), 2025, random.nextBoolean()));
+            } else if (op < 850) {
+                Member member = manager.findMemberById(id);
+                if (member instanceof PremiumMember) {
+                    manager.updatePersonalTrainerFee(id, random.nextInt(100));
+                }
+            } else if (op < 920) {
+                manager.deleteMember(id);
+            } else if (op < 999) {
+                manager.addMember(new RegularMember("W" + added++, "Walk In", LocalDate.now()));
+            } else if (random.nextBoolean()) {
+                manager.sortMembersByName();
+            } else {
+                manager.sortMembersById();
+            }
+            writes++;
+        }
+    }
+
+    /**
+     * Summarises everything a report would read, slowly enough to overlap writes.
+     */
+    private static String describe(List<Member> members) {
+        long hash = 0;
+        for (Member member : members) {
+            hash = hash * 31 + member.toCsvString().hashCode();
+        }
+        return members.size() + " members, hash " + Long.toHexString(hash);
+    }
+
+    private static double revenue(List<Member> members) {
+        double total = 0;
+        for (Member member : members) {
+            total += member.calculateMonthlyFee();
+        }
+        return total;
+    }
+}
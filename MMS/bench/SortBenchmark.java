@@ -0,0 +1,64 @@
+package bench;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import src.CompositeMemberSorter;
+import src.Member;
+import src.MemberJoinDateComparator;
+import src.MemberNameComparator;
+import src.MemberSortSpec;
+
+/**
+ * Compares the existing single-key comparators and a composite Comparator
+ * chain against CompositeMemberSorter on a synthetic member base.
+ *
+ * Usage: java -Xmx4g -cp out bench.SortBenchmark [memberCount] [composite spec]
+ * Defaults: 10,000,000 members and "type,status,-joinDate,name".
+ */
+public class SortBenchmark {
+
+    private static final int RUNS = 3;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        MemberSortSpec spec = MemberSortSpec.parse(args.length > 1 ? args[1] : "type,status,-joinDate,name");
+
+        System.out.println("Generating " + count + " members...");
+        Member[] members = SyntheticMembers.generate(count, 42L);
+        System.out.println("Processors: " + Runtime.getRuntime().availableProcessors());
+
+        time("Arrays.sort, MemberNameComparator", members, copy -> Arrays.sort(copy, new MemberNameComparator()));
+        time("Arrays.sort, MemberJoinDateComparator", members, copy -> Arrays.sort(copy, new MemberJoinDateComparator()));
+        time("Arrays.sort, Member.compareTo (ID)", members, copy -> Arrays.sort(copy));
+
+        Comparator<Member> chain = spec.comparator();
+        time("Arrays.sort, comparator chain " + spec, members, copy -> Arrays.sort(copy, chain));
+        time("Arrays.parallelSort, comparator chain " + spec, members, copy -> Arrays.parallelSort(copy, chain));
+        time("CompositeMemberSorter " + spec, members, copy -> CompositeMemberSorter.sort(copy, spec));
+
+        Member[] expected = members.clone();
+        Arrays.sort(expected, chain);
+        Member[] actual = members.clone();
+        CompositeMemberSorter.sort(actual, spec);
+        System.out.println("Orders identical: " + Arrays.equals(expected, actual));
+    }
+
+    private interface SortAction {
+        void sort(Member[] copy);
+    }
+
+    /**
+     * Runs the sort RUNS times on fresh copies and prints the best time.
+     */
+    private static void time(String label, Member[] members, SortAction action) {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            Member[] copy = members.clone();
+            long start = System.nanoTime();
+            action.sort(copy);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-60s %8d ms%n", label, best / 1_000_000);
+    }
+}
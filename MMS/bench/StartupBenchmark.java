@@ -0,0 +1,133 @@
+package bench;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import src.AppLauncher;
+
+/**
+ * Measures console start-up of the application in fresh JVMs against a
+ * synthetic gym_records.csv:
+ *
+ * - time to first prompt: JVM launch until the text-mode main menu is shown;
+ * - time to first query: JVM launch until "View all members" has printed
+ *   its first member, which includes waiting for the background load.
+ *
+ * Each configuration is run with the JDK's default class data sharing and,
+ * if present, with an application AppCDS archive. With --create-archive a
+ * training run first dumps the archive via -XX:ArchiveClassesAtExit. CDS only
+ * archives classes from JAR files, so run the benchmark from mms.jar for that.
+ *
+ * Usage: java -cp out bench.StartupBenchmark [memberCount] [runs] [--create-archive]
+ * Defaults: 200,000 members, 5 runs. The archive is mms-app.jsa in the working directory.
+ */
+public class StartupBenchmark {
+
+    private static final String ARCHIVE = "mms-app.jsa";
+    private static final String MENU_PROMPT = "Please choose an option:";
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        boolean createArchive = options.remove("--create-archive");
+        int count = options.size() > 0 ? Integer.parseInt(options.get(0)) : 200_000;
+        int runs = options.size() > 1 ? Integer.parseInt(options.get(1)) : 5;
+
+        Path workDir = Files.createTempDirectory("mms-startup");
+        String csv = workDir.resolve("gym_records.csv").toString();
+        SyntheticMembers.populate(count, 42L).saveToFile(csv);
+        File archive = new File(ARCHIVE).getAbsoluteFile();
+
+        if (createArchive && !System.getProperty("java.class.path").endsWith(".jar")) {
+            // CDS archives only classes loaded from JAR files
+            System.out.println("AppCDS needs the application on the class path as a JAR, e.g.");
+            System.out.println("  jar cf mms.jar -C out . && java -cp mms.jar bench.StartupBenchmark --create-archive");
+            createArchive = false;
+        }
+        if (createArchive) {
+            System.out.println("Training run, dumping " + archive + "...");
+            // Exercise a query, then exit normally (option 10) so the archive is written
+            Process training = launch(workDir, "-XX:ArchiveClassesAtExit=" + archive);
+            send(training, "1\n2\nq\n10\n");
+            training.waitFor();
+        }
+
+        System.out.printf("%d members, best of %d runs%n", count, runs);
+        measure("Default CDS", workDir, runs);
+        if (archive.exists()) {
+            measure("AppCDS archive", workDir, runs, "-XX:SharedArchiveFile=" + archive);
+        } else {
+            System.out.println("(no " + ARCHIVE + "; run with --create-archive to include AppCDS)");
+        }
+    }
+
+    private static void measure(String label, Path workDir, int runs, String... jvmOptions)
+            throws IOException, InterruptedException {
+        long bestPrompt = Long.MAX_VALUE;
+        long bestQuery = Long.MAX_VALUE;
+        for (int run = 0; run < runs; run++) {
+            long start = System.nanoTime();
+            Process process = launch(workDir, jvmOptions);
+            BufferedReader out = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+
+            send(process, "1\n");
+            waitFor(out, MENU_PROMPT);
+            long prompt = System.nanoTime() - start;
+
+            send(process, "2\n");
+            waitFor(out, "Member ID:");
+            long query = System.nanoTime() - start;
+
+            process.destroyForcibly().waitFor(); // Never reach "Exit and Save"
+            bestPrompt = Math.min(bestPrompt, prompt);
+            bestQuery = Math.min(bestQuery, query);
+        }
+        System.out.printf("%-16s first prompt: %6.0f ms   first query: %6.0f ms%n",
+                label, bestPrompt / 1e6, bestQuery / 1e6);
+    }
+
+    private static Process launch(Path workDir, String... jvmOptions) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.addAll(Arrays.asList(jvmOptions));
+        command.add("-cp");
+        command.add(new File(System.getProperty("java.class.path")).getAbsolutePath());
+        command.add(AppLauncher.class.getName());
+        return new ProcessBuilder(command).directory(workDir.toFile()).redirectErrorStream(true).start();
+    }
+
+    private static void send(Process process, String input) throws IOException {
+        OutputStream in = process.getOutputStream();
+        in.write(input.getBytes(StandardCharsets.UTF_8));
+        in.flush();
+    }
+
+    /**
+     * Reads the child's output until the marker appears. Prompts are printed
+     * without a newline, so this reads characters rather than lines.
+     */
+    private static void waitFor(BufferedReader out, String marker) throws IOException {
+        StringBuilder window = new StringBuilder();
+        int c;
+        while ((c = out.read()) != -1) {
+            window.append((char) c);
+            if (window.length() >= marker.length()
+                    && window.indexOf(marker, window.length() - marker.length()) >= 0) {
+                return;
+            }
+            if (window.length() > 4 * marker.length()) {
+                window.delete(0, window.length() - marker.length());
+            }
+        }
+        throw new IOException("Application exited before printing \"" + marker + "\"");
+    }
+}
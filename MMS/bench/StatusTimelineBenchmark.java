@@ -0,0 +1,148 @@
+package bench;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import src.DailyClock;
+import src.GymManager;
+import src.Member;
+import src.MembershipStatus;
+import src.Performance;
+import src.PremiumMember;
+import src.RegularMember;
+
+/**
+ * Checks and times point-in-time status queries.
+ *
+ * Every member gets a random history of freezes and reactivations after
+ * joining. Then:
+ * 1. findMembersByStatusOn (the interval index) must return exactly the
+ *    members a per-member binary search finds, for random days; both are timed.
+ * 2. The histories must survive saveToFile and loadFromFile unchanged.
+ * 3. A member frozen for part of a month must owe the prorated fee, and
+ *    getTotalFeesOwed must be the sum of the members' fees.
+ *
+ * Usage: java -cp out bench.StatusTimelineBenchmark [memberCount]
+ */
+public class StatusTimelineBenchmark {
+
+    private static final int QUERIES = 200;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        Random random = new Random(11);
+        GymManager manager = new GymManager();
+        int changes = 0;
+        for (Member member : SyntheticMembers.generate(count, 42L)) {
+            manager.addMember(member);
+            LocalDate day = member.getJoinDate();
+            MembershipStatus status = member.getStatus();
+            for (int c = random.nextInt(6); c > 0; c--) {
+                day = day.plusDays(1 + random.nextInt(200));
+                status = status == MembershipStatus.ACTIVE ? MembershipStatus.FROZEN : MembershipStatus.ACTIVE;
+                manager.updateMemberStatus(member.getMemberId(), status, day);
+                changes++;
+            }
+        }
+        System.out.printf("%,d members, %,d status changes%n", count, changes);
+
+        long start = System.nanoTime();
+        manager.findMembersByStatusOn(MembershipStatus.ACTIVE, LocalDate.of(2020, 1, 1));
+        System.out.printf("Interval index built in %.1f ms%n%n", (System.nanoTime() - start) / 1e6);
+
+        List<Member> all = manager.getAllMembers();
+        boolean ok = true;
+        long indexNanos = 0;
+        long scanNanos = 0;
+        long matches = 0;
+        for (int q = 0; q < QUERIES; q++) {
+            LocalDate day = LocalDate.of(2015, 1, 1).plusDays(random.nextInt(13 * 365));
+            MembershipStatus status = q % 2 == 0 ? MembershipStatus.ACTIVE : MembershipStatus.FROZEN;
+
+            start = System.nanoTime();
+            List<Member> found = manager.findMembersByStatusOn(status, day);
+            indexNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            List<Member> expected = new ArrayList<>();
+            for (Member member : all) {
+                if (member.getStatusOn(day) == status) {
+                    expected.add(member);
+                }
+            }
+            expected.sort(null);
+            scanNanos += System.nanoTime() - start;
+
+            matches += found.size();
+            if (!found.equals(expected)) {
+                System.err.printf("Mismatch for %s on %s: %d found, %d expected%n", status, day,
+                        found.size(), expected.size());
+                ok = false;
+            }
+        }
+        System.out.printf("  %-20s %8.2f ms per query%n", "interval index", indexNanos / 1e6 / QUERIES);
+        System.out.printf("  %-20s %8.2f ms per query  (%,d matches per query)%n", "per-member search",
+                scanNanos / 1e6 / QUERIES, matches / QUERIES);
+        System.out.println((ok ? "  OK    " : "  FAIL  ") + "index matches the per-member search");
+
+        File file = new File("timeline-check.csv");
+        manager.saveToFile(file.getPath());
+        GymManager reloaded = new GymManager();
+        reloaded.loadFromFile(file.getPath());
+        file.delete();
+        boolean roundTrip = reloaded.getAllMembers().size() == all.size();
+        for (Member member : all) {
+            Member copy = reloaded.findMemberById(member.getMemberId());
+            if (copy == null || copy.getStatus() != member.getStatus()
+                    || !copy.getStatusTimeline().toString().equals(member.getStatusTimeline().toString())) {
+                roundTrip = false;
+                break;
+            }
+        }
+        System.out.println((roundTrip ? "  OK    " : "  FAIL  ") + "histories survive save and load");
+
+        // Joined 2020-01-01 as Regular ($50, $10 frozen), frozen from 2024-04-11 to 2024-04-21: 10 of 30 days
+        GymManager small = new GymManager();
+        small.addMember(new RegularMember("P1", "Prorated Member", LocalDate.of(2020, 1, 1)));
+        small.updateMemberStatus("P1", MembershipStatus.FROZEN, LocalDate.of(2024, 4, 11));
+        small.updateMemberStatus("P1", MembershipStatus.ACTIVE, LocalDate.of(2024, 4, 21));
+        double april = small.getFeeOwed("P1", YearMonth.of(2024, 4));
+        boolean prorated = Math.abs(april - (50.0 * 20 + 10.0 * 10) / 30) < 1e-9
+                && small.getFeeOwed("P1", YearMonth.of(2019, 12)) == 0
+                && small.getFeeOwed("P1", YearMonth.of(2024, 5)) == 50.0;
+        System.out.printf("%s April 2024 fee $%.2f (expected $%.2f)%n", prorated ? "  OK    " : "  FAIL  ", april,
+                (50.0 * 20 + 10.0 * 10) / 30);
+
+        // Records added out of order: the discount follows the latest month, on the bill and in the monthly fee
+        YearMonth current = YearMonth.from(DailyClock.today());
+        small.addMember(new PremiumMember("P2", "Out Of Order", LocalDate.of(2020, 1, 1), 20.0));
+        small.addPerformanceRecord("P2", new Performance(current.getMonthValue(), current.getYear(), true));
+        YearMonth earlier = current.minusMonths(2);
+        small.addPerformanceRecord("P2", new Performance(earlier.getMonthValue(), earlier.getYear(), false));
+        double shown = small.findMemberById("P2").calculateMonthlyFee();
+        double owed = small.getFeeOwed("P2", current);
+        double owedEarlier = small.getFeeOwed("P2", earlier);
+        boolean sameRule = Math.abs(shown - owed) < 1e-9 && shown < owedEarlier;
+        System.out.printf("%s out-of-order records: monthly fee $%.2f, owed for %s $%.2f, for %s $%.2f%n",
+                sameRule ? "  OK    " : "  FAIL  ", shown, current, owed, earlier, owedEarlier);
+
+        YearMonth month = YearMonth.of(2023, 6);
+        start = System.nanoTime();
+        double total = manager.getTotalFeesOwed(month);
+        long totalNanos = System.nanoTime() - start;
+        long cents = 0;
+        for (Member member : all) {
+            cents += Math.round(manager.getFeeOwed(member.getMemberId(), month) * 100);
+        }
+        boolean totalOk = Math.abs(total - cents / 100.0) < 0.005;
+        System.out.printf("%s fees owed for %s: $%,.2f in %.1f ms%n", totalOk ? "  OK    " : "  FAIL  ", month, total,
+                totalNanos / 1e6);
+
+        System.out.println(ok && roundTrip && prorated && sameRule && totalOk
+                ? "ALL STATUS TIMELINE CHECKS PASSED" : "STATUS TIMELINE CHECKS FAILED");
+    }
+}
@@ -0,0 +1,177 @@
+package bench;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import src.BTreeMemberStore;
+import src.GymManager;
+import src.Member;
+import src.MembershipStatus;
+import src.Performance;
+import src.RegularMember;
+
+/**
+ * Checks BTreeMemberStore against the generated data and compares it with
+ * loading the same members from CSV into a GymManager.
+ *
+ * Steps: write every member into a fresh store, reopen it, read random IDs,
+ * page through and scan everything in ID order, delete a tenth, then report
+ * open time, lookup latency, page I/O and heap use for both approaches.
+ * Some members get long performance histories so overflow pages are used.
+ *
+ * Usage: java -cp out bench.StoreBenchmark [memberCount] [cachePages]
+ * Defaults: 200,000 members and a 256-page (1 MB) cache.
+ * Exits with status 1 if the store returns wrong data.
+ */
+public class StoreBenchmark {
+
+    private static final int LOOKUPS = 20_000;
+    private static int failures;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int cachePages = args.length > 1 ? Integer.parseInt(args[1]) : BTreeMemberStore.DEFAULT_CACHE_PAGES;
+        File storeFile = new File("store-benchmark.db");
+        File csvFile = new File("store-benchmark.csv");
+        storeFile.delete();
+
+        System.out.println("Generating " + count + " members...");
+        Member[] members = SyntheticMembers.generate(count, 42L);
+        GymManager history = new GymManager();
+        for (int i = 0; i < members.length; i += 1000) {
+            history.addMember(members[i]);
+            for (int r = 0; r < 400; r++) {
+                history.addPerformanceRecord(members[i].getMemberId(),
+                        new Performance(1 + r % 12, 2000 + r / 12, r % 3 == 0));
+            }
+        }
+        // Insert in random order, as IDs would arrive in practice
+        Member[] shuffled = members.clone();
+        Random random = new Random(5);
+        for (int i = shuffled.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Member swap = shuffled[i];
+            shuffled[i] = shuffled[j];
+            shuffled[j] = swap;
+        }
+
+        long start = System.nanoTime();
+        try (BTreeMemberStore store = new BTreeMemberStore(storeFile.getPath(), cachePages)) {
+            for (Member member : shuffled) {
+                store.put(member);
+            }
+        }
+        System.out.printf("Wrote %d members in %.0f ms: %.1f MB in %d pages%n", count,
+                (System.nanoTime() - start) / 1e6, storeFile.length() / 1e6, storeFile.length() / BTreeMemberStore.PAGE_SIZE);
+
+        Arrays.sort(members, Comparator.comparing(Member::getMemberId));
+        String[] ids = Arrays.stream(members).map(Member::getMemberId).toArray(String[]::new);
+
+        long heapBefore = usedHeap();
+        start = System.nanoTime();
+        BTreeMemberStore store = new BTreeMemberStore(storeFile.getPath(), cachePages);
+        long openNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            int k = random.nextInt(ids.length);
+            Member found = store.get(ids[k]);
+            expect(found != null && found.toCsvString().equals(members[k].toCsvString()), "get " + ids[k]);
+        }
+        long lookupNanos = System.nanoTime() - start;
+        expect(store.get("NOPE") == null, "get of a missing ID");
+        long storeHeap = usedHeap() - heapBefore;
+        long lookupReads = store.getPageReads();
+
+        List<Member> scanned = new ArrayList<>(count);
+        store.forEach(scanned::add);
+        expect(scanned.size() == count && store.size() == count, "scan size " + scanned.size());
+        for (int i = 0; i < scanned.size() && i < count; i += 97) {
+            expect(scanned.get(i).toCsvString().equals(members[i].toCsvString()), "scan order at " + i);
+        }
+        List<Member> page = store.getPage(ids[count / 2], 50);
+        expect(page.size() == 50 && page.get(0).getMemberId().equals(ids[count / 2 + 1]), "getPage");
+
+        for (int i = 0; i < count; i += 10) {
+            expect(store.delete(ids[i]), "delete " + ids[i]);
+        }
+        expect(store.get(ids[0]) == null && store.get(ids[1]) != null, "get after delete");
+        expect(store.size() == count - (count + 9) / 10, "size after delete");
+        store.close();
+        try (BTreeMemberStore reopened = new BTreeMemberStore(storeFile.getPath(), cachePages)) {
+            expect(reopened.size() == count - (count + 9) / 10 && reopened.get(ids[10]) == null
+                    && reopened.get(ids[11]) != null, "deletes persisted");
+        }
+
+        // The same data the all-in-memory way
+        heapBefore = usedHeap();
+        GymManager writer = new GymManager();
+        Arrays.stream(members).forEach(writer::addMember);
+        writer.saveToFile(csvFile.getPath());
+        writer = null; // Released once the next manager replaces its metrics gauge
+        start = System.nanoTime();
+        GymManager manager = new GymManager();
+        manager.loadFromFile(csvFile.getPath());
+        long csvOpenNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            manager.findMemberById(ids[random.nextInt(ids.length)]);
+        }
+        long csvLookupNanos = System.nanoTime() - start;
+        long csvHeap = usedHeap() - heapBefore;
+
+        System.out.println();
+        System.out.printf("%-28s %14s %14s%n", "", "B+tree store", "CSV + manager");
+        System.out.printf("%-28s %11.1f ms %11.1f ms%n", "Open (ready for queries)", openNanos / 1e6, csvOpenNanos / 1e6);
+        System.out.printf("%-28s %11.2f us %11.2f us%n", "Lookup by ID (average)",
+                lookupNanos / 1e3 / LOOKUPS, csvLookupNanos / 1e3 / LOOKUPS);
+        System.out.printf("%-28s %11.1f MB %11.1f MB%n", "Heap held after lookups", storeHeap / 1e6, csvHeap / 1e6);
+        System.out.printf("Page reads for %d lookups with a %d-page cache: %d%n", LOOKUPS, cachePages, lookupReads);
+
+        // Write-through: changes made through the manager reach the store
+        try (BTreeMemberStore live = new BTreeMemberStore(storeFile.getPath(), cachePages)) {
+            manager.saveToStore(live);
+            manager.attachStore(live);
+            for (int i = 0; i < 5_000; i++) {
+                String id = ids[random.nextInt(ids.length)];
+                switch (i % 4) {
+                    case 0: manager.updateMemberStatus(id, MembershipStatus.FROZEN); break;
+                    case 1: manager.renameMember(id, "Renamed " + i); break;
+                    case 2: manager.deleteMember(id); break;
+                    default: manager.addMember(new RegularMember("N" + i, "New " + i, members[0].getJoinDate()));
+                }
+            }
+        }
+        try (BTreeMemberStore reopened = new BTreeMemberStore(storeFile.getPath(), cachePages)) {
+            List<String> stored = new ArrayList<>();
+            reopened.forEach(member -> stored.add(member.toCsvString()));
+            List<String> expected = new ArrayList<>();
+            manager.getAllMembers().stream().sorted(Comparator.comparing(Member::getMemberId))
+                    .forEach(member -> expected.add(member.toCsvString()));
+            expect(stored.equals(expected), "write-through matches the manager (" + stored.size() + " stored)");
+        }
+
+        storeFile.delete();
+        csvFile.delete();
+        System.out.println(failures == 0 ? "ALL STORE CHECKS PASSED" : failures + " STORE CHECK(S) FAILED");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    private static void expect(boolean condition, String what) {
+        if (!condition && failures++ < 10) {
+            System.out.println("FAIL: " + what);
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
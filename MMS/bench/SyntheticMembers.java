@@ -0,0 +1,72 @@
+package bench;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import src.GymManager;
+import src.Member;
+import src.MembershipStatus;
+import src.PremiumMember;
+import src.RegularMember;
+
+/**
+ * Generates large, realistic-looking member bases for benchmarks and
+ * load tests. The same seed always produces the same members.
+ */
+public class SyntheticMembers {
+
+    private static final String[] FIRST_NAMES = {
+            "Alice", "Bob", "Charlie", "Diana", "Emma", "Fiona", "George", "Hannah", "Ian", "Jane",
+            "Koshish", "Liam", "Mia", "Noah", "Olivia", "Ram", "Sophia", "William", "Isabella", "James"
+    };
+    private static final String[] LAST_NAMES = {
+            "Johnson", "Williams", "Brown", "Miller", "Garcia", "Rodriguez", "Lee", "Taylor", "Davis",
+            "Shrestha", "Bhatta", "Kc", "Wilson", "Chen", "Patel", "Jones", "Smith", "Martinez"
+    };
+    private static final LocalDate FIRST_JOIN_DATE = LocalDate.of(2015, 1, 1);
+    private static final int JOIN_DATE_RANGE_DAYS = 11 * 365;
+
+    private SyntheticMembers() {
+        // Static utility class
+    }
+
+    /**
+     * Creates `count` members with IDs "S0000001", "S0000002", ...
+     * About 40% are Premium and 10% are Frozen. Join dates share LocalDate
+     * instances per day to keep the memory footprint close to real data.
+     */
+    public static Member[] generate(int count, long seed) {
+        Random random = new Random(seed);
+        LocalDate[] dates = new LocalDate[JOIN_DATE_RANGE_DAYS];
+        for (int d = 0; d < dates.length; d++) {
+            dates[d] = FIRST_JOIN_DATE.plusDays(d);
+        }
+
+        Member[] members = new Member[count];
+        for (int i = 0; i < count; i++) {
+            String id = String.format("S%07d", i + 1);
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " " + (char) ('A' + random.nextInt(26));
+            LocalDate joinDate = dates[random.nextInt(dates.length)];
+
+            boolean premium = random.nextInt(10) < 4;
+            double trainerFee = premium ? 20 + random.nextInt(80) : 0;
+            MembershipStatus status = random.nextInt(10) == 0 ? MembershipStatus.FROZEN : MembershipStatus.ACTIVE;
+            members[i] = premium
+                    ? new PremiumMember(id, name, joinDate, trainerFee, status)
+                    : new RegularMember(id, name, joinDate, status);
+        }
+        return members;
+    }
+
+    /**
+     * Creates a GymManager pre-populated with `count` generated members.
+     */
+    public static GymManager populate(int count, long seed) {
+        GymManager manager = new GymManager();
+        for (Member member : generate(count, seed)) {
+            manager.addMember(member);
+        }
+        return manager;
+    }
+}
@@ -0,0 +1,138 @@
+package bench;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+import src.GymManager;
+import src.Member;
+import src.Performance;
+import src.PerformanceTrendReport;
+import src.PricingPlan;
+
+/**
+ * Checks PerformanceTrendReport and compares it with the month-by-month
+ * loop it replaces.
+ *
+ * Members get up to five years of monthly records with gaps, some added
+ * newest first. Then:
+ * 1. Every monthly figure must equal what findMembersByPerformance returns
+ *    for that month; the report is timed against that loop.
+ * 2. Every member's longest and current streak, recomputed one member at
+ *    a time from a sorted map, must add up to the report's distributions.
+ * 3. A one-thread pool must give the same CSV as the common pool.
+ *
+ * Usage: java -cp out bench.TrendReportBenchmark [memberCount]
+ */
+public class TrendReportBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        Random random = new Random(5);
+        GymManager manager = new GymManager();
+        for (Member member : SyntheticMembers.generate(count, 42L)) {
+            int start = random.nextInt(24);
+            int months = random.nextInt(60);
+            double skill = random.nextDouble();
+            List<Performance> records = new ArrayList<>();
+            for (int m = start; m < start + months; m++) {
+                if (random.nextInt(20) != 0) { // Otherwise a month without a record
+                    records.add(new Performance(1 + m % 12, 2021 + m / 12, random.nextDouble() < skill));
+                }
+            }
+            if (random.nextInt(50) == 0) {
+                Collections.reverse(records);
+            }
+            manager.addMember(member);
+            records.forEach(record -> manager.addPerformanceRecord(member.getMemberId(), record));
+        }
+
+        long begin = System.nanoTime();
+        PerformanceTrendReport report = manager.getPerformanceTrendReport();
+        long reportNanos = System.nanoTime() - begin;
+
+        boolean monthsOk = true;
+        begin = System.nanoTime();
+        for (int m = report.getFirstMonthIndex(); m <= report.getLastMonthIndex(); m++) {
+            int month = m % 12 + 1;
+            int year = 2000 + m / 12;
+            int achieved = manager.findMembersByPerformance(month, year, true).size();
+            int missed = manager.findMembersByPerformance(month, year, false).size();
+            int reportAchieved = 0;
+            int reportRecords = 0;
+            for (int type = PricingPlan.REGULAR; type <= PricingPlan.PREMIUM; type++) {
+                reportAchieved += report.getAchievedCount(m, type);
+                reportRecords += report.getRecordCount(m, type);
+            }
+            // No member has two records for a month, so members and records agree
+            if (reportAchieved != achieved || reportRecords != achieved + missed) {
+                System.err.printf("Month %d/%d: report %d/%d, scan %d achieved, %d missed%n", month, year,
+                        reportAchieved, reportRecords, achieved, missed);
+                monthsOk = false;
+            }
+        }
+        long loopNanos = System.nanoTime() - begin;
+        System.out.printf("%,d members, %d months%n", count, report.getLastMonthIndex() - report.getFirstMonthIndex() + 1);
+        System.out.printf("  %-36s %8.1f ms%n", "trend report (one pass)", reportNanos / 1e6);
+        System.out.printf("  %-36s %8.1f ms%n", "findMembersByPerformance per month", loopNanos / 1e6);
+        System.out.println((monthsOk ? "  OK    " : "  FAIL  ") + "monthly figures match the per-month scans");
+
+        int[] longest = new int[61];
+        int[] current = new int[61];
+        for (Member member : manager.getAllMembers()) {
+            if (member.getPerformanceHistory().isEmpty()) {
+                continue;
+            }
+            Map<Integer, Boolean> byMonth = new TreeMap<>();
+            for (Performance record : member.getPerformanceHistory()) {
+                byMonth.merge(record.getYear() * 12 + record.getMonth(), record.wasGoalAchieved(), Boolean::logicalAnd);
+            }
+            int best = 0;
+            int run = 0;
+            int previous = Integer.MIN_VALUE;
+            for (Map.Entry<Integer, Boolean> entry : byMonth.entrySet()) {
+                run = !entry.getValue() ? 0 : entry.getKey() == previous + 1 ? run + 1 : 1;
+                previous = entry.getValue() ? entry.getKey() : previous;
+                best = Math.max(best, run);
+            }
+            longest[best]++;
+            current[run]++;
+        }
+        boolean streaksOk = true;
+        for (int length = 0; length < longest.length; length++) {
+            streaksOk &= longest[length] == report.getMembersWithLongestStreak(length);
+            streaksOk &= length == 0 || current[length] == report.getMembersOnStreak(length)
+                    - report.getMembersOnStreak(length + 1);
+        }
+        System.out.println((streaksOk ? "  OK    " : "  FAIL  ") + "streaks match a per-member recount");
+
+        StringWriter parallel = new StringWriter();
+        report.writeCsv(parallel);
+        report.writeStreakCsv(parallel);
+        StringWriter sequential = new StringWriter();
+        ForkJoinPool single = new ForkJoinPool(1);
+        List<Member> members = manager.getAllMembers();
+        begin = System.nanoTime();
+        PerformanceTrendReport singleReport = PerformanceTrendReport.build(members, single);
+        long singleNanos = System.nanoTime() - begin;
+        single.shutdown();
+        singleReport.writeCsv(sequential);
+        singleReport.writeStreakCsv(sequential);
+        boolean poolsOk = parallel.toString().equals(sequential.toString());
+        System.out.printf("%sone-thread pool gives the same CSV (%.1f ms, %d cores available)%n",
+                poolsOk ? "  OK    " : "  FAIL  ", singleNanos / 1e6, Runtime.getRuntime().availableProcessors());
+
+        System.out.println();
+        System.out.println(report);
+        System.out.printf("Longest streak %d (%s), average longest %.2f, %,d on a 3+ month streak%n",
+                report.getLongestStreak(), report.getLongestStreakMemberId(), report.getAverageLongestStreak(),
+                report.getMembersOnStreak(3));
+        System.out.println(monthsOk && streaksOk && poolsOk ? "ALL TREND REPORT CHECKS PASSED" : "TREND REPORT CHECKS FAILED");
+    }
+}
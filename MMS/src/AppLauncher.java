@@ -1,26 +1,107 @@
 package src;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.text.ParseException;
 import java.util.Scanner;
-import javax.swing.SwingUtilities;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
 
 /**
  * Main entry point for the application.
  * Allows the user to choose between the Text-Based Interface (TBI)
  * or the Graphical User Interface (GUI).
+ *
+ * Options:
+ *   --jfr=FILE   Record a Java Flight Recorder session (JVM events plus the
+ *                application's mms.* events) and write it to FILE on exit.
+ *                Open it with JDK Mission Control or `jfr print --events mms.* FILE`.
+ *   --replication-port=N
+ *                Also act as a replication primary: stream every change to
+ *                standby processes connecting to localhost:N.
+ *   --standby=HOST:PORT
+ *                Run as a read-only standby of that primary, serving GET
+ *                requests of the HTTP/JSON API instead of showing the menu.
+ *   --pricing=FILE
+ *                Take fees from this pricing plan (see PricingPlan) instead
+ *                of pricing.properties, which is used if it exists.
+ *   --batch[=FILE]
+ *                Run the commands in FILE, or on standard input, without a
+ *                menu (see BatchCommandRunner), write one JSON result line
+ *                per command to standard output and exit; the exit status
+ *                is 1 if any command failed. Nothing is loaded or saved
+ *                unless the script says so (load,FILE / save,FILE).
  */
 public class AppLauncher {
 
+    private static final int DEFAULT_HTTP_PORT = 8080;
+    private static final String DEFAULT_PRICING_FILE = "pricing.properties";
+
     public static void main(String[] args) {
+        int replicationPort = 0;
+        String standbyOf = null;
+        String pricingFile = null;
+        String batchScript = null;
+        for (String arg : args) {
+            if (arg.startsWith("--jfr=")) {
+                startFlightRecording(arg.substring("--jfr=".length()));
+            } else if (arg.startsWith("--replication-port=")) {
+                replicationPort = Integer.parseInt(arg.substring("--replication-port=".length()));
+            } else if (arg.startsWith("--standby=")) {
+                standbyOf = arg.substring("--standby=".length());
+            } else if (arg.startsWith("--pricing=")) {
+                pricingFile = arg.substring("--pricing=".length());
+            } else if (arg.equals("--batch")) {
+                batchScript = "-";
+            } else if (arg.startsWith("--batch=")) {
+                batchScript = arg.substring("--batch=".length());
+            } else {
+                System.err.println("Unknown option ignored: " + arg);
+            }
+        }
+
+        // In batch mode standard output carries results only; messages go to standard error
+        PrintStream results = System.out;
+        if (batchScript != null) {
+            System.setOut(System.err);
+        }
+
+        if (pricingFile != null || new File(DEFAULT_PRICING_FILE).exists()) {
+            loadPricingPlan(pricingFile != null ? pricingFile : DEFAULT_PRICING_FILE);
+        }
+
+        if (batchScript != null) {
+            System.exit(runBatch(batchScript, results));
+        }
+
+        Scanner scanner = new Scanner(System.in);
+        if (standbyOf != null) {
+            runStandby(standbyOf, scanner);
+            return;
+        }
+
         // Create ONE GymManager instance that will be shared by both UIs
         GymManager manager = new GymManager();
-        Scanner scanner = new Scanner(System.in);
+        if (replicationPort > 0) {
+            startReplicationPrimary(manager, replicationPort);
+        }
 
         System.out.println("Welcome to the Member Management System");
         System.out.println("=======================================");
         System.out.println("Please choose your interface mode:");
         System.out.println("1. Text-Based Interface (Console)");
         System.out.println("2. Graphical User Interface (GUI)");
-        System.out.print("Enter your choice (1 or 2): ");
+        System.out.println("3. HTTP/JSON API Server");
+        System.out.print("Enter your choice (1, 2 or 3): ");
 
         int choice = 0;
         try {
@@ -30,14 +111,169 @@ public class AppLauncher {
         }
 
         if (choice == 2) {
-            // Run the GUI
-            // SwingUtilities.invokeLater ensures the GUI runs on the correct thread
-            SwingUtilities.invokeLater(() -> new GymGUI(manager));
+            launchGui(manager);
+        } else if (choice == 3) {
+            runHttpServer(manager, scanner);
         } else {
             // Run the Text-Based Interface
             GymApplication textApp = new GymApplication(manager, scanner);
             textApp.run();
         }
     }
-}
 
+    /**
+     * Runs the GUI. Kept in its own method, with Swing referenced only by
+     * fully qualified name, so no Swing or AWT class is loaded (and no
+     * toolkit initialised) unless GUI mode is actually chosen.
+     */
+    private static void launchGui(GymManager manager) {
+        // SwingUtilities.invokeLater ensures the GUI runs on the correct thread
+        javax.swing.SwingUtilities.invokeLater(() -> new GymGUI(manager));
+    }
+
+    /**
+     * Runs the HTTP/JSON API until the process is stopped.
+     * Records are loaded from and saved back to gym_records.csv, like the other modes.
+     */
+    private static void runHttpServer(GymManager manager, Scanner scanner) {
+        scanner.nextLine(); // Consume newline
+        System.out.print("Enter port (default " + DEFAULT_HTTP_PORT + "): ");
+        int port = DEFAULT_HTTP_PORT;
+        try {
+            String input = scanner.hasNextLine() ? scanner.nextLine().trim() : "";
+            if (!input.isEmpty()) {
+                port = Integer.parseInt(input);
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid port. Using " + DEFAULT_HTTP_PORT + ".");
+        }
+
+        // Requests that arrive before the load finishes wait for it
+        manager.loadFromFileInBackground("gym_records.csv");
+        try {
+            GymHttpServer server = new GymHttpServer(manager, port);
+            server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.stop();
+                synchronized (manager) {
+                    manager.saveToFile("gym_records.csv");
+                }
+            }));
+            System.out.println("API server listening on http://localhost:" + server.getPort() + "/api/members");
+            System.out.println("Press Ctrl+C to stop and save to gym_records.csv.");
+        } catch (IOException e) {
+            System.err.println("Error: Could not start the server. " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs a command script ("-" for standard input) against a new manager.
+     * @return The process exit status: 0 if every command succeeded, 1 if
+     *         any failed, 2 if the script could not be read.
+     */
+    private static int runBatch(String script, PrintStream results) {
+        GymManager manager = new GymManager();
+        long start = System.nanoTime();
+        Writer out = new BufferedWriter(new OutputStreamWriter(results, StandardCharsets.UTF_8), 1 << 16);
+        try (BufferedReader in = script.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16)
+                : new BufferedReader(new FileReader(script, StandardCharsets.UTF_8), 1 << 16)) {
+            BatchCommandRunner runner = new BatchCommandRunner(manager, out);
+            int failures = runner.run(in);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.err.printf("Batch finished: %d commands, %d failed, %.0f commands/sec%n",
+                    runner.getCommandCount(), failures, runner.getCommandCount() / Math.max(seconds, 1e-9));
+            return failures == 0 ? 0 : 1;
+        } catch (IOException e) {
+            System.err.println("Error: Could not run batch script. " + e.getMessage());
+            return 2;
+        }
+    }
+
+    /**
+     * Streams every change of the shared manager to standby processes.
+     */
+    private static void startReplicationPrimary(GymManager manager, int port) {
+        try {
+            ReplicationPrimary primary = new ReplicationPrimary(manager, port);
+            primary.start();
+            System.out.println("Replication primary listening on localhost:" + primary.getPort());
+        } catch (IOException e) {
+            System.err.println("Error: Could not start replication. " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs a read-only standby: replicates from the primary at HOST:PORT and
+     * serves queries over HTTP until the process is stopped. Nothing is saved.
+     */
+    private static void runStandby(String primaryAddress, Scanner scanner) {
+        int colon = primaryAddress.lastIndexOf(':');
+        if (colon < 0) {
+            System.err.println("Error: --standby expects HOST:PORT, e.g. --standby=localhost:9090");
+            return;
+        }
+        ReplicationFollower follower = new ReplicationFollower(primaryAddress.substring(0, colon),
+                Integer.parseInt(primaryAddress.substring(colon + 1)));
+        follower.start();
+
+        System.out.print("Enter HTTP port for the read-only API (default " + DEFAULT_HTTP_PORT + "): ");
+        int port = DEFAULT_HTTP_PORT;
+        try {
+            String input = scanner.hasNextLine() ? scanner.nextLine().trim() : "";
+            if (!input.isEmpty()) {
+                port = Integer.parseInt(input);
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid port. Using " + DEFAULT_HTTP_PORT + ".");
+        }
+        try {
+            GymHttpServer server = new GymHttpServer(follower.getManager(), port, true);
+            server.start();
+            System.out.println("Standby of " + primaryAddress + " serving read-only API on http://localhost:"
+                    + server.getPort() + "/api/members");
+            System.out.println("Press Ctrl+C to stop.");
+        } catch (IOException e) {
+            System.err.println("Error: Could not start the server. " + e.getMessage());
+        }
+    }
+
+    /**
+     * Makes the plan in the file current before any member is loaded, so
+     * every fee and statistic is computed with it. On an error the default
+     * prices stay in force.
+     */
+    private static void loadPricingPlan(String filename) {
+        try {
+            PricingPlan.setCurrent(PricingPlan.load(filename));
+            System.out.println("Pricing plan loaded from " + filename + ".");
+        } catch (IOException e) {
+            System.err.println("Error: Could not read pricing plan. " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: Pricing plan " + filename + " is invalid. " + e.getMessage());
+        }
+    }
+
+    /**
+     * Starts a Flight Recorder recording with the JDK's "default" settings
+     * (low overhead, suitable for production) and every application event
+     * enabled with no duration threshold. The recording is written to the
+     * file when the JVM exits, however the exit happens.
+     */
+    private static void startFlightRecording(String filename) {
+        try {
+            Recording recording = new Recording(Configuration.getConfiguration("default"));
+            recording.setName("Member Management System");
+            for (String event : new String[]{"mms.MemberQuery", "mms.MemberSort",
+                    "mms.MemberLoadChunk", "mms.MemberSave", "mms.TableRefresh"}) {
+                recording.enable(event).withoutThreshold();
+            }
+            recording.setDestination(Paths.get(filename));
+            recording.setDumpOnExit(true); // JFR's own shutdown hook writes the file
+            recording.start();
+            System.out.println("Flight recording started; it will be written to " + filename + " on exit.");
+        } catch (IOException | ParseException | IllegalStateException e) {
+            System.err.println("Error: Could not start flight recording. " + e.getMessage());
+        }
+    }
+}
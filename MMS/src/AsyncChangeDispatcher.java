@@ -0,0 +1,190 @@
+package src;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Delivers a GymManager's change events to one listener on a dedicated
+ * thread, in batches.
+ *
+ * The writing thread only wraps each change in a MemberChange and offers it
+ * to a bounded lock-free ring buffer (BoundedEventQueue), so the cost on the
+ * write path is a member copy, one small allocation and one CAS, however
+ * slow the listener.
+ * The dispatcher thread drains up to BATCH_SIZE changes at a time, delivers
+ * them in order, then calls batchDelivered() once.
+ *
+ * The manager changes its members in place, so each event carries a copy
+ * of the member (Member.copy(), taken on the writing thread): the listener
+ * sees it as it was right after that change, however late it is delivered.
+ * A removed member is sent as it is; the manager no longer changes it.
+ *
+ * If the buffer is full the change is dropped and counted, and so is every
+ * later change until the dispatcher catches up. Because the listener can
+ * then no longer be updated incrementally, the dispatcher discards whatever
+ * is still queued, holding the manager's lock so that no change is made
+ * meanwhile, and delivers membersReloaded(): its cue to rebuild from the
+ * manager, exactly as after a file load. Every event delivered after that
+ * describes a change made after the discard, so none is older than the
+ * state the listener rebuilds from.
+ *
+ * Obtain one from GymManager.addAsyncChangeListener; close() unsubscribes.
+ */
+public class AsyncChangeDispatcher implements MemberChangeListener, AutoCloseable {
+
+    private static final int BATCH_SIZE = 256;
+    private static final long IDLE_PARK_NANOS = 1_000_000L; // 1 ms
+    private static final MetricCounter EVENTS_QUEUED = MetricsRegistry.getDefault().counter("events.queued");
+    private static final MetricCounter EVENTS_DROPPED = MetricsRegistry.getDefault().counter("events.dropped");
+
+    private final GymManager manager;
+    private final MemberChangeListener target;
+    private final BoundedEventQueue<MemberChange> buffer;
+    private final Thread thread;
+    private volatile boolean overflowed;
+    private volatile boolean running = true;
+    private final AtomicLong dropped = new AtomicLong();
+
+    AsyncChangeDispatcher(GymManager manager, MemberChangeListener target, int capacity) {
+        this.manager = manager;
+        this.target = target;
+        this.buffer = new BoundedEventQueue<>(capacity);
+        this.thread = new Thread(this::run, "change-dispatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @return How many changes were dropped because the buffer was full, or
+     *         discarded from it afterwards.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * @return The number of changes waiting to be delivered.
+     */
+    public int getPendingCount() {
+        return buffer.size();
+    }
+
+    /**
+     * Unsubscribes from the manager. Changes already queued are still delivered.
+     */
+    @Override
+    public void close() {
+        manager.removeChangeListener(this);
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    // --- Write path: called on the thread that changed the manager ---
+
+    private void enqueue(MemberChange change) {
+        // Once one change is dropped, later ones are too until the reload is
+        // queued, so nothing newer than the reload sits in front of it
+        if (!overflowed && buffer.offer(change)) {
+            EVENTS_QUEUED.increment();
+        } else {
+            dropped.incrementAndGet();
+            EVENTS_DROPPED.increment();
+            overflowed = true;
+        }
+    }
+
+    @Override
+    public void memberAdded(Member member) {
+        enqueue(MemberChange.added(member.copy()));
+    }
+
+    @Override
+    public void memberRemoved(Member member) {
+        enqueue(MemberChange.removed(member));
+    }
+
+    @Override
+    public void statusChanged(Member member, MembershipStatus oldStatus) {
+        enqueue(MemberChange.statusChanged(member.copy(), oldStatus));
+    }
+
+    @Override
+    public void renamed(Member member, String oldName) {
+        enqueue(MemberChange.renamed(member.copy(), oldName));
+    }
+
+    @Override
+    public void feeChanged(PremiumMember member, double oldFee) {
+        enqueue(MemberChange.feeChanged((PremiumMember) member.copy(), oldFee));
+    }
+
+    @Override
+    public void performanceAdded(Member member, Performance record) {
+        enqueue(MemberChange.performanceAdded(member.copy(), record));
+    }
+
+    @Override
+    public void membersReloaded() {
+        enqueue(MemberChange.reloaded());
+    }
+
+    // --- Delivery thread ---
+
+    private void run() {
+        MemberChange[] batch = new MemberChange[BATCH_SIZE];
+        while (true) {
+            // Changes queued before any overflow, so older than its reload
+            int count = buffer.drainTo(batch, BATCH_SIZE);
+            for (int i = 0; i < count; i++) {
+                deliver(batch[i]);
+                batch[i] = null;
+            }
+            if (overflowed) {
+                discardQueued(batch);
+                deliver(MemberChange.reloaded());
+                count++;
+            }
+            if (count > 0) {
+                try {
+                    target.batchDelivered();
+                } catch (RuntimeException e) {
+                    System.err.println("Change listener failed: " + e.getMessage());
+                }
+            } else if (!running) {
+                return; // Closed and fully drained
+            } else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Empties the buffer after an overflow and lets changes be queued again.
+     * Writers queue changes while holding the manager's lock, so while this
+     * holds it nothing is queued, and the reload delivered next covers
+     * every change discarded or dropped.
+     */
+    private void discardQueued(MemberChange[] batch) {
+        int discarded = 0;
+        synchronized (manager) {
+            overflowed = false;
+            int count;
+            while ((count = buffer.drainTo(batch, BATCH_SIZE)) > 0) {
+                discarded += count;
+            }
+        }
+        Arrays.fill(batch, null);
+        dropped.addAndGet(discarded);
+        EVENTS_DROPPED.add(discarded);
+    }
+
+    private void deliver(MemberChange change) {
+        try {
+            change.deliverTo(target);
+        } catch (RuntimeException e) {
+            // One faulty listener call must not stop later deliveries
+            System.err.println("Change listener failed on " + change + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,773 @@
+package src;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A disk-resident MemberStore: a B+tree of fixed-size pages keyed on member ID.
+ *
+ * Only the pages a call touches are read, through an LRU cache of a fixed
+ * number of pages, so opening the file is instant and memory use stays flat
+ * however many members it holds. Dirty pages are written when they leave
+ * the cache and on flush() or close().
+ *
+ * File layout (all pages PAGE_SIZE bytes):
+ *   page 0      header: magic, format version, page size, root page,
+ *               page count, first free page, member count
+ *   leaf        byte type, short count, int next leaf, then per entry:
+ *               short key length, key (UTF-8), byte inline flag, int value
+ *               length, then the value or the first overflow page
+ *   internal    byte type, short count, int first child, then per key:
+ *               short key length, key (UTF-8), int child
+ *   overflow    int next overflow page, then value bytes
+ *
+ * Values are members in the replication wire format (ReplicationProtocol).
+ * A value larger than a quarter page is kept in a chain of overflow pages,
+ * so every leaf holds at least a few entries. Freed overflow pages are
+ * reused. Deletes do not merge pages; clear() reclaims everything.
+ *
+ * enableIdFilter() adds an in-memory counting Bloom filter over the IDs, so
+ * looking up an ID that is not stored (the common case when importing or
+ * adding new members) usually costs no page reads at all.
+ *
+ * There is no write-ahead log: a crash between flushes can lose or corrupt
+ * changes made since the last flush. All methods are synchronized.
+ */
+public class BTreeMemberStore implements MemberStore {
+
+    public static final int PAGE_SIZE = 4096;
+    public static final int DEFAULT_CACHE_PAGES = 256; // 1 MB
+    public static final double ID_FILTER_FALSE_POSITIVE_RATE = 0.01;
+
+    private static final MetricCounter PAGE_READS = MetricsRegistry.getDefault().counter("store.pageReads");
+    private static final MetricCounter PAGE_WRITES = MetricsRegistry.getDefault().counter("store.pageWrites");
+    private static final MetricCounter FILTER_SKIPS = MetricsRegistry.getDefault().counter("store.idFilter.skipped");
+    private static final MetricCounter FILTER_FALSE_POSITIVES =
+            MetricsRegistry.getDefault().counter("store.idFilter.falsePositives");
+
+    static {
+        // Measured rate, in parts per million, over lookups of absent IDs
+        MetricsRegistry.getDefault().gauge("store.idFilter.falsePositivePpm", () -> {
+            long falsePositives = FILTER_FALSE_POSITIVES.get();
+            long absent = falsePositives + FILTER_SKIPS.get();
+            return absent == 0 ? 0 : falsePositives * 1_000_000 / absent;
+        });
+    }
+
+    private static final int MAGIC = 0x4D4D5342; // "MMSB"
+    private static final int FORMAT_VERSION = 2; // 2: members carry their status timeline
+    private static final byte LEAF = 1;
+    private static final byte INTERNAL = 2;
+    private static final int NO_PAGE = -1;
+    private static final int NODE_HEADER = 1 + 2 + 4;
+    private static final int MAX_KEY_BYTES = 256;
+    private static final int INLINE_VALUE_LIMIT = PAGE_SIZE / 4;
+    private static final int OVERFLOW_DATA = PAGE_SIZE - 4;
+    private static final int MIN_CACHE_PAGES = 16; // Room for a root-to-leaf path plus splits
+
+    private final String filename;
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final Map<Integer, Node> cache;
+
+    // Header fields
+    private int root;
+    private int pageCount;
+    private int freeListHead;
+    private long size;
+    private boolean headerDirty;
+
+    private long pageReads;
+    private long pageWrites;
+
+    // Null until enableIdFilter(); then holds every stored ID
+    private CountingBloomFilter idFilter;
+    private long filterSkips;
+    private long filterFalsePositives;
+
+    /**
+     * Opens the store, creating the file if it does not exist.
+     * @param cachePages How many pages to keep in memory (at least 16).
+     * @throws UncheckedIOException if the file cannot be opened or is not a member store.
+     */
+    public BTreeMemberStore(String filename, int cachePages) {
+        if (cachePages < MIN_CACHE_PAGES) {
+            throw new IllegalArgumentException("The page cache needs at least " + MIN_CACHE_PAGES + " pages.");
+        }
+        this.filename = filename;
+        this.cache = new LinkedHashMap<Integer, Node>(cachePages * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Node> eldest) {
+                if (size() <= cachePages) {
+                    return false;
+                }
+                if (eldest.getValue().dirty) {
+                    writeNode(eldest.getValue());
+                }
+                return true;
+            }
+        };
+        try {
+            this.file = new RandomAccessFile(filename, "rw");
+            this.channel = file.getChannel();
+            if (channel.size() == 0) {
+                initialize();
+            } else {
+                readHeader();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open " + filename, e);
+        }
+    }
+
+    public BTreeMemberStore(String filename) {
+        this(filename, DEFAULT_CACHE_PAGES);
+    }
+
+    // --- MemberStore ---
+
+    @Override
+    public synchronized Member get(String memberId) {
+        if (definitelyAbsent(memberId)) {
+            return null;
+        }
+        Node leaf = findLeaf(memberId, null);
+        int i = Collections.binarySearch(leaf.keys, memberId);
+        if (i < 0) {
+            falsePositive();
+            return null;
+        }
+        return decode(readValue(leaf.values.get(i)));
+    }
+
+    /**
+     * Like get(), but finds the key without reading or decoding the member.
+     */
+    @Override
+    public synchronized boolean contains(String memberId) {
+        if (definitelyAbsent(memberId)) {
+            return false;
+        }
+        Node leaf = findLeaf(memberId, null);
+        if (Collections.binarySearch(leaf.keys, memberId) < 0) {
+            falsePositive();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized void put(Member member) {
+        String key = member.getMemberId();
+        if (key.getBytes(StandardCharsets.UTF_8).length > MAX_KEY_BYTES) {
+            throw new IllegalArgumentException("Member ID is too long for the store: " + key);
+        }
+        Cell cell = writeValue(encode(member));
+        List<Node> path = new ArrayList<>();
+        Node leaf = findLeaf(key, path);
+        int i = Collections.binarySearch(leaf.keys, key);
+        if (i >= 0) {
+            freeOverflow(leaf.values.get(i));
+            leaf.values.set(i, cell);
+        } else {
+            i = -i - 1;
+            leaf.keys.add(i, key);
+            leaf.values.add(i, cell);
+            size++;
+            headerDirty = true;
+            if (idFilter != null) {
+                idFilter.add(key);
+            }
+        }
+        markDirty(leaf);
+        if (leaf.serializedSize() > PAGE_SIZE) {
+            splitLeaf(leaf, path);
+        }
+    }
+
+    @Override
+    public synchronized boolean delete(String memberId) {
+        if (definitelyAbsent(memberId)) {
+            return false;
+        }
+        Node leaf = findLeaf(memberId, null);
+        int i = Collections.binarySearch(leaf.keys, memberId);
+        if (i < 0) {
+            falsePositive();
+            return false;
+        }
+        freeOverflow(leaf.values.get(i));
+        leaf.keys.remove(i);
+        leaf.values.remove(i);
+        size--;
+        headerDirty = true;
+        if (idFilter != null) {
+            idFilter.remove(memberId);
+        }
+        markDirty(leaf);
+        return true;
+    }
+
+    @Override
+    public synchronized void clear() {
+        try {
+            cache.clear();
+            channel.truncate(0);
+            initialize();
+            if (idFilter != null) {
+                idFilter.clear();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not clear " + filename, e);
+        }
+    }
+
+    @Override
+    public synchronized long size() {
+        return size;
+    }
+
+    @Override
+    public synchronized List<Member> getPage(String afterId, int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive.");
+        }
+        List<Member> page = new ArrayList<>(pageSize);
+        Node leaf;
+        int i;
+        if (afterId == null) {
+            leaf = firstLeaf();
+            i = 0;
+        } else {
+            leaf = findLeaf(afterId, null);
+            i = Collections.binarySearch(leaf.keys, afterId);
+            i = i >= 0 ? i + 1 : -i - 1;
+        }
+        while (page.size() < pageSize) {
+            if (i < leaf.keys.size()) {
+                page.add(decode(readValue(leaf.values.get(i++))));
+            } else if (leaf.next != NO_PAGE) {
+                leaf = loadNode(leaf.next);
+                i = 0;
+            } else {
+                break;
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public synchronized void forEach(Consumer<? super Member> action) {
+        Node leaf = firstLeaf();
+        while (true) {
+            for (Cell cell : leaf.values) {
+                action.accept(decode(readValue(cell)));
+            }
+            if (leaf.next == NO_PAGE) {
+                return;
+            }
+            leaf = loadNode(leaf.next);
+        }
+    }
+
+    @Override
+    public synchronized void flush() {
+        for (Node node : cache.values()) {
+            if (node.dirty) {
+                writeNode(node);
+            }
+        }
+        if (headerDirty) {
+            writeHeader();
+        }
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not flush " + filename, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        flush();
+        try {
+            file.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close " + filename, e);
+        }
+    }
+
+    // --- ID filter ---
+
+    /**
+     * Builds a counting Bloom filter over every stored ID (one pass over
+     * the leaves, without reading any member) and keeps it current from
+     * then on. Lookups, existence checks and deletes of IDs it rules out
+     * return at once. The filter is rebuilt larger whenever the store grows
+     * past twice the size it was built for.
+     */
+    public synchronized void enableIdFilter() {
+        CountingBloomFilter filter = new CountingBloomFilter(Math.max(1024, size * 2), ID_FILTER_FALSE_POSITIVE_RATE);
+        Node leaf = firstLeaf();
+        while (true) {
+            leaf.keys.forEach(filter::add);
+            if (leaf.next == NO_PAGE) {
+                break;
+            }
+            leaf = loadNode(leaf.next);
+        }
+        idFilter = filter;
+    }
+
+    /**
+     * @return The share of lookups of absent IDs that the filter could not
+     *         rule out, or 0 if it has not been asked about any.
+     */
+    public synchronized double getIdFilterFalsePositiveRate() {
+        long absent = filterSkips + filterFalsePositives;
+        return absent == 0 ? 0 : (double) filterFalsePositives / absent;
+    }
+
+    /**
+     * @return How many lookups the filter answered without touching the tree.
+     */
+    public synchronized long getIdFilterSkips() {
+        return filterSkips;
+    }
+
+    private boolean definitelyAbsent(String memberId) {
+        if (idFilter == null) {
+            return false;
+        }
+        if (idFilter.size() > idFilter.getCapacity()) {
+            enableIdFilter(); // Grown past its sizing; rebuild before it degrades
+        }
+        if (idFilter.mightContain(memberId)) {
+            return false;
+        }
+        filterSkips++;
+        FILTER_SKIPS.increment();
+        return true;
+    }
+
+    private void falsePositive() {
+        if (idFilter != null) {
+            filterFalsePositives++;
+            FILTER_FALSE_POSITIVES.increment();
+        }
+    }
+
+    // --- Statistics ---
+
+    public synchronized long getPageReads() {
+        return pageReads;
+    }
+
+    public synchronized long getPageWrites() {
+        return pageWrites;
+    }
+
+    /**
+     * @return The size of the file in pages.
+     */
+    public synchronized int getPageCount() {
+        return pageCount;
+    }
+
+    // --- Tree operations ---
+
+    /**
+     * Walks from the root to the leaf that holds (or would hold) the key.
+     * @param path If not null, receives the internal nodes passed on the way.
+     */
+    private Node findLeaf(String key, List<Node> path) {
+        Node node = loadNode(root);
+        while (!node.leaf) {
+            if (path != null) {
+                path.add(node);
+            }
+            node = loadNode(node.children.get(childIndex(node, key)));
+        }
+        return node;
+    }
+
+    private Node firstLeaf() {
+        Node node = loadNode(root);
+        while (!node.leaf) {
+            node = loadNode(node.children.get(0));
+        }
+        return node;
+    }
+
+    /**
+     * Each key of an internal node is the smallest key of the child to its
+     * right, so the child for a key is the number of keys less than or equal to it.
+     */
+    private static int childIndex(Node node, String key) {
+        int i = Collections.binarySearch(node.keys, key);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    private void splitLeaf(Node leaf, List<Node> path) {
+        int mid = leaf.splitPoint();
+        Node right = newNode(true);
+        right.keys.addAll(leaf.keys.subList(mid, leaf.keys.size()));
+        right.values.addAll(leaf.values.subList(mid, leaf.values.size()));
+        leaf.keys.subList(mid, leaf.keys.size()).clear();
+        leaf.values.subList(mid, leaf.values.size()).clear();
+        right.next = leaf.next;
+        leaf.next = right.page;
+        markDirty(leaf);
+        markDirty(right);
+        insertIntoParent(leaf, right.keys.get(0), right, path);
+    }
+
+    private void insertIntoParent(Node left, String separator, Node right, List<Node> path) {
+        if (path.isEmpty()) {
+            Node newRoot = newNode(false);
+            newRoot.children.add(left.page);
+            newRoot.keys.add(separator);
+            newRoot.children.add(right.page);
+            markDirty(newRoot);
+            root = newRoot.page;
+            headerDirty = true;
+            return;
+        }
+        Node parent = path.remove(path.size() - 1);
+        int i = childIndex(parent, separator);
+        parent.keys.add(i, separator);
+        parent.children.add(i + 1, right.page);
+        markDirty(parent);
+        if (parent.serializedSize() > PAGE_SIZE) {
+            // The middle key moves up; the keys either side of it split in two
+            int mid = parent.splitPoint();
+            Node sibling = newNode(false);
+            String promoted = parent.keys.get(mid);
+            sibling.keys.addAll(parent.keys.subList(mid + 1, parent.keys.size()));
+            sibling.children.addAll(parent.children.subList(mid + 1, parent.children.size()));
+            parent.keys.subList(mid, parent.keys.size()).clear();
+            parent.children.subList(mid + 1, parent.children.size()).clear();
+            markDirty(parent);
+            markDirty(sibling);
+            insertIntoParent(parent, promoted, sibling, path);
+        }
+    }
+
+    // --- Page cache ---
+
+    private Node loadNode(int page) {
+        Node node = cache.get(page);
+        if (node == null) {
+            node = Node.parse(page, readPage(page));
+            cache.put(page, node);
+        }
+        return node;
+    }
+
+    private Node newNode(boolean leaf) {
+        Node node = new Node(allocatePage(), leaf);
+        markDirty(node);
+        return node;
+    }
+
+    /**
+     * Must follow every change to a node. Re-inserting it matters when the
+     * node was evicted while it was being changed: the cache then holds the
+     * changed version again and writes it out later.
+     */
+    private void markDirty(Node node) {
+        node.dirty = true;
+        cache.put(node.page, node);
+    }
+
+    private void writeNode(Node node) {
+        writePage(node.page, node.serialize());
+        node.dirty = false;
+    }
+
+    // --- Values and overflow pages ---
+
+    private Cell writeValue(byte[] value) {
+        if (value.length <= INLINE_VALUE_LIMIT) {
+            return new Cell(value, NO_PAGE, value.length);
+        }
+        int pages = (value.length + OVERFLOW_DATA - 1) / OVERFLOW_DATA;
+        int[] chain = new int[pages];
+        for (int p = 0; p < pages; p++) {
+            chain[p] = allocatePage();
+        }
+        for (int p = 0; p < pages; p++) {
+            ByteBuffer buffer = ByteBuffer.allocate(PAGE_SIZE);
+            buffer.putInt(p + 1 < pages ? chain[p + 1] : NO_PAGE);
+            int offset = p * OVERFLOW_DATA;
+            buffer.put(value, offset, Math.min(OVERFLOW_DATA, value.length - offset));
+            writePage(chain[p], buffer);
+        }
+        return new Cell(null, chain[0], value.length);
+    }
+
+    private byte[] readValue(Cell cell) {
+        if (cell.inline != null) {
+            return cell.inline;
+        }
+        byte[] value = new byte[cell.length];
+        int page = cell.overflowPage;
+        for (int offset = 0; offset < value.length; offset += OVERFLOW_DATA) {
+            ByteBuffer buffer = readPage(page);
+            page = buffer.getInt();
+            buffer.get(value, offset, Math.min(OVERFLOW_DATA, value.length - offset));
+        }
+        return value;
+    }
+
+    private void freeOverflow(Cell cell) {
+        int page = cell.overflowPage;
+        while (page != NO_PAGE) {
+            int next = readPage(page).getInt();
+            freePage(page);
+            page = next;
+        }
+    }
+
+    private int allocatePage() {
+        headerDirty = true;
+        if (freeListHead == NO_PAGE) {
+            return pageCount++;
+        }
+        int page = freeListHead;
+        freeListHead = readPage(page).getInt();
+        return page;
+    }
+
+    private void freePage(int page) {
+        ByteBuffer buffer = ByteBuffer.allocate(PAGE_SIZE);
+        buffer.putInt(freeListHead);
+        writePage(page, buffer);
+        freeListHead = page;
+        headerDirty = true;
+    }
+
+    private static byte[] encode(Member member) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            ReplicationProtocol.writeMember(new DataOutputStream(bytes), member);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("In-memory encoding failed.", e); // Cannot happen
+        }
+    }
+
+    private Member decode(byte[] value) {
+        try {
+            return ReplicationProtocol.readMember(new DataInputStream(new ByteArrayInputStream(value)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt member record in " + filename, e);
+        }
+    }
+
+    // --- File I/O ---
+
+    private void initialize() {
+        root = 1;
+        pageCount = 2;
+        freeListHead = NO_PAGE;
+        size = 0;
+        Node rootLeaf = new Node(root, true);
+        writeNode(rootLeaf);
+        writeHeader();
+    }
+
+    private void readHeader() throws IOException {
+        ByteBuffer header = readPage(0);
+        if (header.getInt() != MAGIC) {
+            throw new IOException(filename + " is not a member store.");
+        }
+        int version = header.getInt();
+        int pageSize = header.getInt();
+        if (version != FORMAT_VERSION || pageSize != PAGE_SIZE) {
+            throw new IOException(filename + " has unsupported format " + version + " / page size " + pageSize);
+        }
+        root = header.getInt();
+        pageCount = header.getInt();
+        freeListHead = header.getInt();
+        size = header.getLong();
+    }
+
+    private void writeHeader() {
+        ByteBuffer header = ByteBuffer.allocate(PAGE_SIZE);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(PAGE_SIZE)
+                .putInt(root).putInt(pageCount).putInt(freeListHead).putLong(size);
+        writePage(0, header);
+        headerDirty = false;
+    }
+
+    private ByteBuffer readPage(int page) {
+        ByteBuffer buffer = ByteBuffer.allocate(PAGE_SIZE);
+        try {
+            long position = (long) page * PAGE_SIZE;
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("Page " + page + " is beyond the end of " + filename);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + filename, e);
+        }
+        pageReads++;
+        PAGE_READS.increment();
+        return buffer.flip();
+    }
+
+    private void writePage(int page, ByteBuffer buffer) {
+        buffer.position(0).limit(PAGE_SIZE);
+        try {
+            long position = (long) page * PAGE_SIZE;
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, position + buffer.position());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + filename, e);
+        }
+        pageWrites++;
+        PAGE_WRITES.increment();
+    }
+
+    /**
+     * A value as kept in a leaf: its bytes, or the first page of its overflow chain.
+     */
+    private static final class Cell {
+        final byte[] inline;
+        final int overflowPage;
+        final int length;
+
+        Cell(byte[] inline, int overflowPage, int length) {
+            this.inline = inline;
+            this.overflowPage = overflowPage;
+            this.length = length;
+        }
+
+        int serializedSize() {
+            return 1 + 4 + (inline != null ? length : 4);
+        }
+    }
+
+    /**
+     * One page of the tree, parsed. Leaves use keys and values; internal
+     * nodes use keys and children (one more child than keys).
+     */
+    private static final class Node {
+        final int page;
+        final boolean leaf;
+        final List<String> keys = new ArrayList<>();
+        final List<Cell> values = new ArrayList<>();
+        final List<Integer> children = new ArrayList<>();
+        int next = NO_PAGE;
+        boolean dirty;
+
+        Node(int page, boolean leaf) {
+            this.page = page;
+            this.leaf = leaf;
+        }
+
+        int serializedSize() {
+            int bytes = NODE_HEADER;
+            for (int i = 0; i < keys.size(); i++) {
+                bytes += entrySize(i);
+            }
+            return bytes;
+        }
+
+        private int entrySize(int i) {
+            int keyBytes = 2 + keys.get(i).getBytes(StandardCharsets.UTF_8).length;
+            return keyBytes + (leaf ? values.get(i).serializedSize() : 4);
+        }
+
+        /**
+         * @return The index at which the entries split into two halves of
+         *         about equal size; never the first or (for internal nodes,
+         *         whose middle key moves up) the last.
+         */
+        int splitPoint() {
+            int half = serializedSize() / 2;
+            int bytes = NODE_HEADER;
+            int last = leaf ? keys.size() - 1 : keys.size() - 2;
+            for (int i = 0; i < last; i++) {
+                bytes += entrySize(i);
+                if (bytes >= half) {
+                    return Math.max(1, i);
+                }
+            }
+            return Math.max(1, last);
+        }
+
+        ByteBuffer serialize() {
+            ByteBuffer buffer = ByteBuffer.allocate(PAGE_SIZE);
+            buffer.put(leaf ? LEAF : INTERNAL);
+            buffer.putShort((short) keys.size());
+            buffer.putInt(leaf ? next : children.get(0));
+            for (int i = 0; i < keys.size(); i++) {
+                byte[] key = keys.get(i).getBytes(StandardCharsets.UTF_8);
+                buffer.putShort((short) key.length).put(key);
+                if (leaf) {
+                    Cell cell = values.get(i);
+                    buffer.put((byte) (cell.inline != null ? 1 : 0)).putInt(cell.length);
+                    if (cell.inline != null) {
+                        buffer.put(cell.inline);
+                    } else {
+                        buffer.putInt(cell.overflowPage);
+                    }
+                } else {
+                    buffer.putInt(children.get(i + 1));
+                }
+            }
+            return buffer;
+        }
+
+        static Node parse(int page, ByteBuffer buffer) {
+            byte type = buffer.get();
+            if (type != LEAF && type != INTERNAL) {
+                throw new IllegalStateException("Page " + page + " is not a tree node.");
+            }
+            Node node = new Node(page, type == LEAF);
+            int count = buffer.getShort();
+            if (node.leaf) {
+                node.next = buffer.getInt();
+            } else {
+                node.children.add(buffer.getInt());
+            }
+            for (int i = 0; i < count; i++) {
+                byte[] key = new byte[buffer.getShort()];
+                buffer.get(key);
+                node.keys.add(new String(key, StandardCharsets.UTF_8));
+                if (node.leaf) {
+                    boolean inline = buffer.get() == 1;
+                    int length = buffer.getInt();
+                    if (inline) {
+                        byte[] value = new byte[length];
+                        buffer.get(value);
+                        node.values.add(new Cell(value, NO_PAGE, length));
+                    } else {
+                        node.values.add(new Cell(null, buffer.getInt(), length));
+                    }
+                } else {
+                    node.children.add(buffer.getInt());
+                }
+            }
+            return node;
+        }
+    }
+}
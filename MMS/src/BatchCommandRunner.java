@@ -0,0 +1,372 @@
+package src;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a script of commands against a GymManager without any prompts, for
+ * automation (AppLauncher --batch).
+ *
+ * One command per line, with comma-separated arguments as in the CSV file;
+ * blank lines and lines starting with '#' are skipped:
+ *   add,ID,NAME,Regular|Premium,YYYY-MM-DD[,TRAINER_FEE]
+ *   status,ID,ACTIVE|FROZEN[,YYYY-MM-DD]   (the date the change takes effect)
+ *   rename,ID,NAME
+ *   fee,ID,TRAINER_FEE
+ *   perf,ID,MONTH,YEAR,true|false
+ *   delete,ID
+ *   get,ID
+ *   find,NAME
+ *   type,Regular|Premium
+ *   performance,MONTH,YEAR,true|false
+ *   statusOn,ACTIVE|FROZEN,YYYY-MM-DD
+ *   stats
+ *   load,FILE
+ *   save,FILE
+ *   export,FILE[,SORT_SPEC]                (e.g. export,out.csv,type,-joinDate,name)
+ *
+ * Every command produces one JSON line on the output, in script order:
+ *   {"line":3,"ok":true}
+ *   {"line":4,"ok":false,"error":"Member not found: M9"}
+ *   {"line":5,"ok":true,"count":1,"members":[{...}]}
+ *
+ * Changes are not applied one by one: consecutive changes are collected
+ * into a MemberBatch of up to BATCH_SIZE and applied under one lock. Any
+ * other command applies the pending batch first, so it sees every change
+ * above it. Output is buffered and written in large blocks.
+ */
+public class BatchCommandRunner {
+
+    public static final int BATCH_SIZE = 1000;
+
+    private static final MetricCounter COMMANDS = MetricsRegistry.getDefault().counter("batch.commands");
+    private static final MetricCounter FAILURES = MetricsRegistry.getDefault().counter("batch.failures");
+
+    private final GymManager manager;
+    private final Writer out;
+    private final StringBuilder line = new StringBuilder(256);
+
+    // Changes read but not yet applied, with the script line of each
+    private MemberBatch pending = new MemberBatch();
+    private final List<Integer> pendingLines = new ArrayList<>();
+
+    private int commands;
+    private int failures;
+
+    /**
+     * @param out Where results go. Not closed; flushed when the script ends.
+     */
+    public BatchCommandRunner(GymManager manager, Writer out) {
+        this.manager = manager;
+        this.out = out;
+    }
+
+    /**
+     * Runs every command of the script.
+     * @return The number of commands that failed.
+     * @throws IOException if the script cannot be read or the output written.
+     */
+    public int run(BufferedReader script) throws IOException {
+        String text;
+        int lineNumber = 0;
+        while ((text = script.readLine()) != null) {
+            lineNumber++;
+            String trimmed = text.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            commands++;
+            COMMANDS.increment();
+            execute(lineNumber, trimmed);
+        }
+        applyPending();
+        out.flush();
+        return failures;
+    }
+
+    public int getCommandCount() {
+        return commands;
+    }
+
+    public int getFailureCount() {
+        return failures;
+    }
+
+    private void execute(int lineNumber, String text) throws IOException {
+        String[] args = text.split(",");
+        for (int i = 0; i < args.length; i++) {
+            args[i] = args[i].trim();
+        }
+        String command = args[0];
+        try {
+            if (queueChange(command, args)) {
+                pendingLines.add(lineNumber);
+                if (pending.size() >= BATCH_SIZE) {
+                    applyPending();
+                }
+                return;
+            }
+            applyPending();
+            runQuery(lineNumber, command, args, text);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // NumberFormatException is an IllegalArgumentException
+            applyPending();
+            writeFailure(lineNumber, "Invalid arguments: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Adds the command to the pending batch if it is a change.
+     * @return false if it is not a change.
+     * @throws IllegalArgumentException if an argument is invalid.
+     */
+    private boolean queueChange(String command, String[] args) {
+        switch (command.toLowerCase()) {
+            case "add": {
+                expect(args, 5, 6);
+                LocalDate joinDate = LocalDate.parse(args[4]);
+                Member member;
+                if (args[3].equalsIgnoreCase("Regular")) {
+                    member = new RegularMember(args[1], args[2], joinDate);
+                } else if (args[3].equalsIgnoreCase("Premium")) {
+                    member = new PremiumMember(args[1], args[2], joinDate,
+                            args.length > 5 ? parseFee(args[5]) : 0.0);
+                } else {
+                    throw new IllegalArgumentException("Type must be Regular or Premium: " + args[3]);
+                }
+                pending.addMember(member);
+                return true;
+            }
+            case "status": {
+                expect(args, 3, 4);
+                MembershipStatus status = MembershipStatus.valueOf(args[2].toUpperCase());
+                if (args.length > 3) {
+                    pending.updateMemberStatus(args[1], status, LocalDate.parse(args[3]));
+                } else {
+                    pending.updateMemberStatus(args[1], status);
+                }
+                return true;
+            }
+            case "rename":
+                expect(args, 3, 3);
+                pending.renameMember(args[1], args[2]);
+                return true;
+            case "fee":
+                expect(args, 3, 3);
+                pending.updatePersonalTrainerFee(args[1], parseFee(args[2]));
+                return true;
+            case "perf":
+                expect(args, 5, 5);
+                pending.addPerformanceRecord(args[1], new Performance(Integer.parseInt(args[2]),
+                        Integer.parseInt(args[3]), parseBoolean(args[4])));
+                return true;
+            case "delete":
+                expect(args, 2, 2);
+                pending.deleteMember(args[1]);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void runQuery(int lineNumber, String command, String[] args, String text) throws IOException {
+        switch (command.toLowerCase()) {
+            case "get": {
+                expect(args, 2, 2);
+                Member member = manager.findMemberById(args[1]);
+                if (member == null) {
+                    writeFailure(lineNumber, "Member not found: " + args[1]);
+                } else {
+                    startResult(lineNumber, true);
+                    line.append(",\"member\":");
+                    Json.appendMember(line, member);
+                    endResult();
+                }
+                break;
+            }
+            case "find":
+                expect(args, 2, 2);
+                writeMembers(lineNumber, manager.findMembersByName(args[1]));
+                break;
+            case "type":
+                expect(args, 2, 2);
+                writeMembers(lineNumber, manager.filterMembersByType(args[1]));
+                break;
+            case "performance":
+                expect(args, 4, 4);
+                writeMembers(lineNumber, manager.findMembersByPerformance(Integer.parseInt(args[1]),
+                        Integer.parseInt(args[2]), parseBoolean(args[3])));
+                break;
+            case "statuson":
+                expect(args, 3, 3);
+                writeMembers(lineNumber, manager.findMembersByStatusOn(
+                        MembershipStatus.valueOf(args[1].toUpperCase()), LocalDate.parse(args[2])));
+                break;
+            case "stats": {
+                expect(args, 1, 1);
+                MemberStatistics stats = manager.getStatistics();
+                startResult(lineNumber, true);
+                line.append(",\"members\":").append(stats.getTotalMembers())
+                        .append(",\"active\":").append(stats.getCountByStatus(MembershipStatus.ACTIVE))
+                        .append(",\"frozen\":").append(stats.getCountByStatus(MembershipStatus.FROZEN))
+                        .append(",\"projectedMonthlyRevenue\":");
+                Json.appendNumber(line, stats.getProjectedMonthlyRevenue());
+                endResult();
+                break;
+            }
+            case "load":
+                expect(args, 2, 2);
+                if (!new File(args[1]).isFile()) {
+                    writeFailure(lineNumber, "File not found: " + args[1]);
+                    break;
+                }
+                if (manager.loadFromFile(args[1])) {
+                    writeCount(lineNumber, manager.getStatistics().getTotalMembers());
+                } else {
+                    writeFailure(lineNumber, "Could not load " + args[1] + "; "
+                            + manager.getStatistics().getTotalMembers() + " members read before the error");
+                }
+                break;
+            case "save":
+                expect(args, 2, 2);
+                if (manager.saveToFile(args[1])) {
+                    writeCount(lineNumber, manager.getStatistics().getTotalMembers());
+                } else {
+                    writeFailure(lineNumber, "Could not write " + args[1]);
+                }
+                break;
+            case "export":
+                expect(args, 2, Integer.MAX_VALUE);
+                // The sort spec is comma-separated itself: everything after the file name
+                export(lineNumber, args[1], args.length > 2 ? text.split(",", 3)[2] : null);
+                break;
+            default:
+                writeFailure(lineNumber, "Unknown command: " + command);
+        }
+    }
+
+    /**
+     * Writes the members to a CSV file, sorted by the spec (see
+     * MemberSortSpec) or in their current order.
+     */
+    private void export(int lineNumber, String filename, String spec) throws IOException {
+        Member[] members = manager.getSnapshot().getMembers().toArray(new Member[0]);
+        if (spec != null) {
+            CompositeMemberSorter.sort(members, MemberSortSpec.parse(spec));
+        }
+        try (Writer file = new BufferedWriter(new FileWriter(filename), 1 << 16)) {
+            for (Member member : members) {
+                file.write(member.toCsvString());
+                file.write(System.lineSeparator());
+            }
+        } catch (IOException e) {
+            writeFailure(lineNumber, "Could not write " + filename + ": " + e.getMessage());
+            return;
+        }
+        writeCount(lineNumber, members.length);
+    }
+
+    /**
+     * Applies the pending changes as one batch and writes their results.
+     */
+    private void applyPending() throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        manager.applyBatch(pending);
+        for (int i = 0; i < pendingLines.size(); i++) {
+            String failure = pending.getFailure(i);
+            if (failure == null) {
+                startResult(pendingLines.get(i), true);
+                endResult();
+            } else {
+                writeFailure(pendingLines.get(i), failure);
+            }
+        }
+        pending = new MemberBatch();
+        pendingLines.clear();
+    }
+
+    // --- Output ---
+
+    private void startResult(int lineNumber, boolean ok) {
+        line.append("{\"line\":").append(lineNumber).append(",\"ok\":").append(ok);
+    }
+
+    private void endResult() throws IOException {
+        line.append("}\n");
+        flushLine();
+    }
+
+    private void writeFailure(int lineNumber, String message) throws IOException {
+        failures++;
+        FAILURES.increment();
+        startResult(lineNumber, false);
+        line.append(",\"error\":");
+        Json.appendString(line, message);
+        endResult();
+    }
+
+    private void writeCount(int lineNumber, long count) throws IOException {
+        startResult(lineNumber, true);
+        line.append(",\"count\":").append(count);
+        endResult();
+    }
+
+    private void writeMembers(int lineNumber, List<Member> members) throws IOException {
+        startResult(lineNumber, true);
+        line.append(",\"count\":").append(members.size()).append(",\"members\":[");
+        for (int i = 0; i < members.size(); i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            Json.appendMember(line, members.get(i));
+            if (line.length() > 8192) {
+                flushLine(); // Large results are written in pieces
+            }
+        }
+        line.append(']');
+        endResult();
+    }
+
+    private void flushLine() throws IOException {
+        out.append(line);
+        line.setLength(0);
+    }
+
+    // --- Arguments ---
+
+    private static void expect(String[] args, int min, int max) {
+        if (args.length < min || args.length > max) {
+            throw new IllegalArgumentException(args[0] + " takes " + (min == max ? String.valueOf(min - 1)
+                    : max == Integer.MAX_VALUE ? "at least " + (min - 1) : (min - 1) + " to " + (max - 1))
+                    + " argument(s), not " + (args.length - 1));
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException unless the value is a finite, non-negative amount.
+     */
+    private static double parseFee(String value) {
+        double fee = Double.parseDouble(value);
+        if (!(fee >= 0) || Double.isInfinite(fee)) {
+            throw new IllegalArgumentException("Trainer fee must be a non-negative amount: " + value);
+        }
+        return fee;
+    }
+
+    private static boolean parseBoolean(String value) {
+        if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")) {
+            return Boolean.parseBoolean(value);
+        }
+        throw new IllegalArgumentException("Expected true or false: " + value);
+    }
+}
@@ -0,0 +1,111 @@
+package src;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free, multi-producer multi-consumer queue backed by a
+ * ring buffer (Vyukov's design). Each slot carries a sequence number that
+ * tells producers and consumers whether it is free or filled, so neither
+ * side ever blocks: offer() fails when the queue is full and poll() returns
+ * null when it is empty.
+ *
+ * @param <E> The element type.
+ */
+public class BoundedEventQueue<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong(); // next slot to consume
+    private final AtomicLong tail = new AtomicLong(); // next slot to produce
+
+    /**
+     * @param capacity The maximum number of queued elements (rounded up to a power of two).
+     */
+    public BoundedEventQueue(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2.");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an element without blocking.
+     * @return false if the queue is full.
+     */
+    public boolean offer(E element) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.lazySet(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false; // Full
+            }
+            // Another producer claimed this slot; retry with the new tail
+        }
+    }
+
+    /**
+     * Removes an element without blocking.
+     * @return The oldest element, or null if the queue is empty.
+     */
+    public E poll() {
+        while (true) {
+            long position = head.get();
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    E element = slots.get(index);
+                    slots.lazySet(index, null);
+                    sequences.set(index, position + mask + 1);
+                    return element;
+                }
+            } else if (difference < 0) {
+                return null; // Empty
+            }
+        }
+    }
+
+    /**
+     * Moves up to maxElements into the given array without blocking.
+     * @return The number of elements moved.
+     */
+    public int drainTo(E[] batch, int maxElements) {
+        int count = 0;
+        int limit = Math.min(maxElements, batch.length);
+        while (count < limit) {
+            E element = poll();
+            if (element == null) {
+                break;
+            }
+            batch[count++] = element;
+        }
+        return count;
+    }
+
+    /**
+     * @return The approximate number of queued elements.
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
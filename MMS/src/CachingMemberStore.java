@@ -0,0 +1,282 @@
+package src;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A size-bounded member cache in front of another MemberStore, typically a
+ * BTreeMemberStore, so repeated lookups of the same members cost no I/O.
+ *
+ * - Eviction is pluggable (LruEvictionPolicy, TinyLfuEvictionPolicy).
+ * - Writes are write-back: put() only updates the cache, and the member is
+ *   written to the backing store when it is evicted or on flush(), so many
+ *   changes to one member cost a single write.
+ * - Read-ahead: a miss on an ID above the previous miss (scrolling forward
+ *   in ID order) also loads the next members in ID order, which for a
+ *   B+tree are usually on the same page. prefetch() does the same for any
+ *   list of IDs, such as the next screenful of a table sorted by name.
+ *
+ * Hit, miss, eviction, write-back and prefetch counts are kept per cache and
+ * also recorded in the metrics registry ("cache.*"). All methods are
+ * synchronized.
+ *
+ * This is a cache for code that reads a store directly (see CacheBenchmark).
+ * GymManager does not use it: it answers lookups from memory.
+ */
+public class CachingMemberStore implements MemberStore {
+
+    private static final MetricsRegistry METRICS = MetricsRegistry.getDefault();
+    private static final MetricCounter HITS = METRICS.counter("cache.hits");
+    private static final MetricCounter MISSES = METRICS.counter("cache.misses");
+    private static final MetricCounter EVICTIONS = METRICS.counter("cache.evictions");
+    private static final MetricCounter WRITE_BACKS = METRICS.counter("cache.writeBacks");
+
+    private final MemberStore backing;
+    private final EvictionPolicy policy;
+    private final int capacity;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private int readAhead;
+    private String lastMissId;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long writeBacks;
+    private long prefetched;
+
+    /**
+     * @param capacity The most members held at once.
+     */
+    public CachingMemberStore(MemberStore backing, EvictionPolicy policy, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        this.backing = backing;
+        this.policy = policy;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Sets how many following members a forward miss loads as well (0, the
+     * default, turns read-ahead off). Read-ahead suits LruEvictionPolicy:
+     * under TinyLfuEvictionPolicy prefetched members have to win admission
+     * like any other newcomer, so most of a long read-ahead is dropped again.
+     */
+    public synchronized void setReadAhead(int members) {
+        if (members < 0) {
+            throw new IllegalArgumentException("Read-ahead cannot be negative.");
+        }
+        this.readAhead = Math.min(members, capacity / 2);
+    }
+
+    // --- MemberStore ---
+
+    @Override
+    public synchronized Member get(String memberId) {
+        Entry entry = entries.get(memberId);
+        if (entry != null) {
+            hits++;
+            HITS.increment();
+            policy.onAccess(memberId);
+            return entry.member;
+        }
+        misses++;
+        MISSES.increment();
+        boolean forward = lastMissId != null && memberId.compareTo(lastMissId) > 0;
+        lastMissId = memberId;
+        Member member = backing.get(memberId);
+        if (member != null) {
+            insert(member, false);
+            if (forward && readAhead > 0) {
+                loadAll(backing.getPage(memberId, readAhead));
+            }
+        }
+        return member;
+    }
+
+    /**
+     * Answered from the cache if possible; a miss asks the backing store
+     * without caching anything, so existence checks for new IDs during an
+     * import do not push out cached members.
+     */
+    @Override
+    public synchronized boolean contains(String memberId) {
+        return entries.containsKey(memberId) || backing.contains(memberId);
+    }
+
+    @Override
+    public synchronized void put(Member member) {
+        Entry entry = entries.get(member.getMemberId());
+        if (entry != null) {
+            entry.member = member;
+            entry.dirty = true;
+            policy.onAccess(member.getMemberId());
+        } else {
+            insert(member, true);
+        }
+    }
+
+    @Override
+    public synchronized boolean delete(String memberId) {
+        Entry entry = entries.remove(memberId);
+        if (entry != null) {
+            policy.onRemove(memberId);
+        }
+        boolean deleted = backing.delete(memberId);
+        return deleted || entry != null;
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+        policy.clear();
+        backing.clear();
+    }
+
+    @Override
+    public synchronized long size() {
+        writeBackAll();
+        return backing.size();
+    }
+
+    /**
+     * Served by the backing store (after writing back dirty members); the
+     * members returned are cached, as they are likely to be looked at next.
+     */
+    @Override
+    public synchronized List<Member> getPage(String afterId, int pageSize) {
+        writeBackAll();
+        List<Member> page = backing.getPage(afterId, pageSize);
+        loadAll(page);
+        return page;
+    }
+
+    /**
+     * Served by the backing store without caching, so a full scan does not
+     * replace the cached members.
+     */
+    @Override
+    public synchronized void forEach(Consumer<? super Member> action) {
+        writeBackAll();
+        backing.forEach(action);
+    }
+
+    @Override
+    public synchronized void flush() {
+        writeBackAll();
+        backing.flush();
+    }
+
+    @Override
+    public synchronized void close() {
+        writeBackAll();
+        backing.close();
+    }
+
+    /**
+     * Loads the given members into the cache ahead of use, skipping those
+     * already cached and IDs that do not exist.
+     */
+    public synchronized void prefetch(List<String> memberIds) {
+        for (String memberId : memberIds) {
+            if (!entries.containsKey(memberId)) {
+                Member member = backing.get(memberId);
+                if (member != null) {
+                    insert(member, false);
+                    prefetched++;
+                }
+            }
+        }
+    }
+
+    // --- Statistics ---
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getWriteBacks() {
+        return writeBacks;
+    }
+
+    public synchronized long getPrefetched() {
+        return prefetched;
+    }
+
+    public synchronized int getCachedCount() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d/%d cached, hit rate %.1f%% (%d hits, %d misses), %d evictions, "
+                        + "%d write-backs, %d prefetched", entries.size(), capacity, getHitRate() * 100,
+                hits, misses, evictions, writeBacks, prefetched);
+    }
+
+    // --- Internals ---
+
+    private void loadAll(List<Member> members) {
+        for (Member member : members) {
+            if (!entries.containsKey(member.getMemberId())) {
+                insert(member, false);
+                prefetched++;
+            }
+        }
+    }
+
+    private void insert(Member member, boolean dirty) {
+        String memberId = member.getMemberId();
+        entries.put(memberId, new Entry(member, dirty));
+        policy.onInsert(memberId);
+        while (entries.size() > capacity) {
+            String victim = policy.selectVictim();
+            Entry evicted = entries.remove(victim);
+            evictions++;
+            EVICTIONS.increment();
+            if (evicted != null && evicted.dirty) {
+                writeBack(evicted);
+            }
+        }
+    }
+
+    private void writeBackAll() {
+        for (Entry entry : entries.values()) {
+            if (entry.dirty) {
+                writeBack(entry);
+            }
+        }
+    }
+
+    private void writeBack(Entry entry) {
+        backing.put(entry.member);
+        entry.dirty = false;
+        writeBacks++;
+        WRITE_BACKS.increment();
+    }
+
+    private static final class Entry {
+        Member member;
+        boolean dirty;
+
+        Entry(Member member, boolean dirty) {
+            this.member = member;
+            this.dirty = dirty;
+        }
+    }
+}
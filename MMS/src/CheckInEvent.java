@@ -0,0 +1,34 @@
+package src;
+
+import java.time.LocalDate;
+
+/**
+ * CheckInEvent Class
+ * A simple data class for one turnstile check-in by a member on a given day.
+ */
+public class CheckInEvent {
+
+    private final String memberId;
+    private final LocalDate date;
+
+    public CheckInEvent(String memberId, LocalDate date) {
+        if (memberId == null || date == null) {
+            throw new IllegalArgumentException("Member ID and date are required.");
+        }
+        this.memberId = memberId;
+        this.date = date;
+    }
+
+    public String getMemberId() {
+        return memberId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    @Override
+    public String toString() {
+        return memberId + " checked in on " + date;
+    }
+}
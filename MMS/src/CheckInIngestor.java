@@ -0,0 +1,362 @@
+package src;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ingests turnstile check-in events and turns them into monthly
+ * performance records.
+ *
+ * Producers call submit(), which never blocks: each event goes into the
+ * bounded lock-free queue of one consumer, chosen by member ID, and is
+ * dropped (and counted) if that queue is full. Because every member is owned
+ * by exactly one consumer, each consumer counts check-ins per member per
+ * month in its own primitive arrays without any locking.
+ *
+ * When a member's count for a month reaches the goal threshold, a
+ * "goal achieved" Performance record is queued. Queued records are handed to
+ * the apply executor in one batch per flush interval, so the manager is
+ * locked once per batch rather than once per event.
+ *
+ * A month stays open for late check-ins until the consumer sees one dated
+ * two months later. Then the month is closed: its counts are dropped, so a
+ * consumer only ever holds the open months, and every member it owns who
+ * was active at the end of that month and has no record for it gets a
+ * "goal missed" record. Later check-ins for a closed month are counted as
+ * late and ignored.
+ *
+ * No launcher mode feeds it yet: it is driven by CheckInGenerator, which
+ * stands in for the turnstiles.
+ */
+public class CheckInIngestor {
+
+    private static final int BATCH_SIZE = 256;
+    private static final long IDLE_PARK_NANOS = 1_000_000L; // 1 ms
+
+    private final GymManager manager;
+    private final int monthlyGoal;
+    private final long flushIntervalNanos;
+    private final Executor applyExecutor;
+    private final ConsumerThread[] consumers;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong recordsCreated = new AtomicLong();
+    private final AtomicLong missedRecordsCreated = new AtomicLong();
+    private final AtomicLong late = new AtomicLong();
+    private volatile boolean running;
+
+    /**
+     * Creates an ingestor whose flushes run on the calling consumer thread.
+     * @param consumerCount Number of consumer threads (and queues).
+     * @param queueCapacity Capacity of each consumer's queue.
+     * @param monthlyGoal Check-ins in one month that count as achieving the goal.
+     */
+    public CheckInIngestor(GymManager manager, int consumerCount, int queueCapacity, int monthlyGoal) {
+        this(manager, consumerCount, queueCapacity, monthlyGoal, 1000, Runnable::run);
+    }
+
+    /**
+     * @param flushIntervalMillis How often pending records are applied to the manager.
+     * @param applyExecutor Where record batches are applied, e.g. SwingUtilities::invokeLater
+     *                      when a GUI shares the manager.
+     */
+    public CheckInIngestor(GymManager manager, int consumerCount, int queueCapacity, int monthlyGoal,
+            long flushIntervalMillis, Executor applyExecutor) {
+        if (consumerCount < 1 || monthlyGoal < 1) {
+            throw new IllegalArgumentException("Consumer count and monthly goal must be positive.");
+        }
+        this.manager = manager;
+        this.monthlyGoal = monthlyGoal;
+        this.flushIntervalNanos = flushIntervalMillis * 1_000_000L;
+        this.applyExecutor = applyExecutor;
+        this.consumers = new ConsumerThread[consumerCount];
+        for (int i = 0; i < consumerCount; i++) {
+            consumers[i] = new ConsumerThread(i, queueCapacity);
+        }
+    }
+
+    public void start() {
+        running = true;
+        for (ConsumerThread consumer : consumers) {
+            consumer.start();
+        }
+    }
+
+    /**
+     * Stops the consumers after they drain their queues, then applies any
+     * remaining records.
+     */
+    public void stop() throws InterruptedException {
+        running = false;
+        for (ConsumerThread consumer : consumers) {
+            LockSupport.unpark(consumer);
+            consumer.join();
+        }
+    }
+
+    /**
+     * Submits one check-in without blocking.
+     * @return false if the owning consumer's queue was full and the event was dropped.
+     */
+    public boolean submit(CheckInEvent event) {
+        ConsumerThread owner = consumers[ownerOf(event.getMemberId())];
+        if (owner.queue.offer(event)) {
+            accepted.incrementAndGet();
+            return true;
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    public long getAcceptedCount() {
+        return accepted.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getProcessedCount() {
+        return processed.get();
+    }
+
+    /**
+     * @return The number of "goal achieved" records created.
+     */
+    public long getRecordsCreated() {
+        return recordsCreated.get();
+    }
+
+    /**
+     * @return The number of "goal missed" records created for closed months.
+     */
+    public long getMissedRecordsCreated() {
+        return missedRecordsCreated.get();
+    }
+
+    /**
+     * @return The number of check-ins ignored because their month was closed.
+     */
+    public long getLateCount() {
+        return late.get();
+    }
+
+    /**
+     * @return The number of members with check-ins counted in an open
+     *         month. Read it after stop().
+     */
+    public int getTrackedMemberCount() {
+        int total = 0;
+        for (ConsumerThread consumer : consumers) {
+            total += consumer.counters.size();
+        }
+        return total;
+    }
+
+    private int ownerOf(String memberId) {
+        return Math.floorMod(memberId.hashCode(), consumers.length);
+    }
+
+    /**
+     * Applies one batch of achieved goals under a single manager lock.
+     * Members that were deleted, or already have a record for that month,
+     * are skipped.
+     */
+    private void applyAchievements(List<String> memberIds, int[] monthKeys) {
+        int created;
+        synchronized (manager) {
+            MemberBatch batch = new MemberBatch();
+            for (int i = 0; i < memberIds.size(); i++) {
+                int month = monthKeys[i] % 12 + 1;
+                int year = monthKeys[i] / 12;
+                Member member = manager.findMemberById(memberIds.get(i));
+                if (member == null || hasRecordFor(member, month, year)) {
+                    continue;
+                }
+                batch.addPerformanceRecord(member.getMemberId(), new Performance(month, year, true));
+            }
+            created = manager.applyBatch(batch);
+        }
+        recordsCreated.addAndGet(created);
+    }
+
+    /**
+     * Gives every member owned by the consumer who was active at the end of
+     * the closed month, and has no record for it, a "goal missed" record,
+     * under a single manager lock. Runs after the month's achievements,
+     * which were handed to the same executor first.
+     */
+    private void applyMisses(int consumer, int monthKey) {
+        int month = monthKey % 12 + 1;
+        int year = monthKey / 12;
+        LocalDate monthEnd = YearMonth.of(year, month).atEndOfMonth();
+        int created;
+        synchronized (manager) {
+            MemberBatch batch = new MemberBatch();
+            for (Member member : manager.getSnapshot().getMembers()) {
+                if (ownerOf(member.getMemberId()) == consumer
+                        && member.getStatusOn(monthEnd) == MembershipStatus.ACTIVE
+                        && !hasRecordFor(member, month, year)) {
+                    batch.addPerformanceRecord(member.getMemberId(), new Performance(month, year, false));
+                }
+            }
+            created = manager.applyBatch(batch);
+        }
+        missedRecordsCreated.addAndGet(created);
+    }
+
+    private static boolean hasRecordFor(Member member, int month, int year) {
+        for (Performance record : member.getPerformanceHistory()) {
+            if (record.getMonth() == month && record.getYear() == year) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Per-member check-in counts for the open months, in parallel primitive
+     * arrays (two months, or three while one is being closed).
+     */
+    private static class MonthlyCounts {
+        int[] monthKeys = new int[2];
+        int[] counts = new int[2];
+        int size;
+
+        /**
+         * @return The new count for the month.
+         */
+        int increment(int monthKey) {
+            for (int i = 0; i < size; i++) {
+                if (monthKeys[i] == monthKey) {
+                    return ++counts[i];
+                }
+            }
+            if (size == monthKeys.length) {
+                monthKeys = Arrays.copyOf(monthKeys, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            monthKeys[size] = monthKey;
+            counts[size] = 1;
+            size++;
+            return 1;
+        }
+
+        /**
+         * Drops the month's count, if any.
+         * @return The number of months still counted.
+         */
+        int remove(int monthKey) {
+            for (int i = 0; i < size; i++) {
+                if (monthKeys[i] == monthKey) {
+                    size--;
+                    monthKeys[i] = monthKeys[size];
+                    counts[i] = counts[size];
+                    break;
+                }
+            }
+            return size;
+        }
+    }
+
+    /**
+     * A consumer thread that owns one queue and the counters of every member
+     * routed to it.
+     */
+    private class ConsumerThread extends Thread {
+        final BoundedEventQueue<CheckInEvent> queue;
+        final Map<String, MonthlyCounts> counters = new HashMap<>();
+        private final int index;
+        private List<String> pendingIds = new ArrayList<>();
+        private int[] pendingMonths = new int[16];
+        // The earliest open month; check-ins before it are late. Unset until the first one.
+        private int openFrom = Integer.MIN_VALUE;
+        // The earliest month with a check-in: months before it were never
+        // counted here, so closing them records no misses
+        private int firstCounted = Integer.MAX_VALUE;
+
+        ConsumerThread(int index, int queueCapacity) {
+            super("checkin-consumer-" + index);
+            setDaemon(true);
+            this.index = index;
+            this.queue = new BoundedEventQueue<>(queueCapacity);
+        }
+
+        @Override
+        public void run() {
+            CheckInEvent[] batch = new CheckInEvent[BATCH_SIZE];
+            long nextFlush = System.nanoTime() + flushIntervalNanos;
+            while (true) {
+                int count = queue.drainTo(batch, BATCH_SIZE);
+                for (int i = 0; i < count; i++) {
+                    count(batch[i]);
+                    batch[i] = null;
+                }
+                processed.addAndGet(count);
+
+                if (System.nanoTime() >= nextFlush) {
+                    flush();
+                    nextFlush = System.nanoTime() + flushIntervalNanos;
+                }
+                if (count == 0) {
+                    if (!running) {
+                        break; // Queue drained after stop()
+                    }
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+            flush();
+        }
+
+        private void count(CheckInEvent event) {
+            int monthKey = event.getDate().getYear() * 12 + event.getDate().getMonthValue() - 1;
+            if (openFrom == Integer.MIN_VALUE) {
+                openFrom = monthKey - 1; // The previous month may still get late check-ins
+            }
+            if (monthKey < openFrom) {
+                late.incrementAndGet();
+                return;
+            }
+            while (openFrom < monthKey - 1) {
+                closeMonth(openFrom++);
+            }
+            firstCounted = Math.min(firstCounted, monthKey);
+            MonthlyCounts counts = counters.computeIfAbsent(event.getMemberId(), k -> new MonthlyCounts());
+            if (counts.increment(monthKey) == monthlyGoal) {
+                if (pendingIds.size() == pendingMonths.length) {
+                    pendingMonths = Arrays.copyOf(pendingMonths, pendingMonths.length * 2);
+                }
+                pendingMonths[pendingIds.size()] = monthKey;
+                pendingIds.add(event.getMemberId());
+            }
+        }
+
+        private void closeMonth(int monthKey) {
+            counters.values().removeIf(counts -> counts.remove(monthKey) == 0);
+            flush(); // The month's achievements go first
+            if (monthKey >= firstCounted) {
+                applyExecutor.execute(() -> applyMisses(index, monthKey));
+            }
+        }
+
+        private void flush() {
+            if (pendingIds.isEmpty()) {
+                return;
+            }
+            List<String> ids = pendingIds;
+            int[] months = Arrays.copyOf(pendingMonths, ids.size());
+            pendingIds = new ArrayList<>();
+            applyExecutor.execute(() -> applyAchievements(ids, months));
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package src;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * GymManager's member list: members in chunks of up to CHUNK_SIZE, so a
+ * point-in-time copy shares them instead of copying the list.
+ *
+ * snapshot() copies only the chunk table (one reference per chunk) and
+ * starts a new generation. A chunk from an older generation may be read by
+ * a snapshot, so the first change to it afterwards copies that one chunk
+ * (at most CHUNK_SIZE references); the rest stay shared. A write after a
+ * snapshot therefore costs O(CHUNK_SIZE + n / CHUNK_SIZE) instead of a copy
+ * of the whole list.
+ *
+ * Each member remembers the index of its chunk (Member.listChunk), which
+ * removals never change, so remove and replace find a member by scanning
+ * one chunk. Removals leave chunks partly empty; once there are more than
+ * twice as many chunks as the members need, they are packed again.
+ *
+ * Changes are made by the owning GymManager while holding its lock;
+ * readers get snapshot() or an unmodifiable view.
+ */
+final class ChunkedMemberList extends AbstractList<Member> implements RandomAccess {
+
+    static final int CHUNK_SIZE = 512;
+
+    private static final MetricCounter CHUNKS_COPIED = MetricsRegistry.getDefault().counter("snapshot.chunksCopied");
+
+    private static final class Chunk {
+        final Member[] items;
+        int size;
+        final long generation;
+
+        Chunk(Member[] items, int size, long generation) {
+            this.items = items;
+            this.size = size;
+            this.generation = generation;
+        }
+    }
+
+    private Chunk[] chunks;
+    private int[] offsets; // offsets[c]: list index of the first member of chunk c
+    private int chunkCount;
+    private int size;
+    private long generation;
+
+    ChunkedMemberList() {
+        chunks = new Chunk[8];
+        offsets = new int[8];
+    }
+
+    /**
+     * A frozen copy of the source's chunk table.
+     */
+    private ChunkedMemberList(ChunkedMemberList source) {
+        chunks = Arrays.copyOf(source.chunks, source.chunkCount);
+        offsets = Arrays.copyOf(source.offsets, source.chunkCount);
+        chunkCount = source.chunkCount;
+        size = source.size;
+        generation = source.generation;
+    }
+
+    /**
+     * Returns a list that keeps the current contents however this list
+     * changes later. Costs one reference per chunk.
+     */
+    ChunkedMemberList snapshot() {
+        ChunkedMemberList copy = new ChunkedMemberList(this);
+        generation++; // Every chunk is now shared with the copy
+        return copy;
+    }
+
+    // --- Reads ---
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Member get(int index) {
+        Objects.checkIndex(index, size);
+        int chunk = chunkOf(offsets, chunkCount, index);
+        return chunks[chunk].items[index - offsets[chunk]];
+    }
+
+    @Override
+    public Iterator<Member> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    @Override
+    public Spliterator<Member> spliterator() {
+        return new Walker(chunks, offsets, chunkCount, 0, size);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Member> action) {
+        for (int c = 0; c < chunkCount; c++) {
+            Chunk chunk = chunks[c];
+            for (int i = 0; i < chunk.size; i++) {
+                action.accept(chunk.items[i]);
+            }
+        }
+    }
+
+    // --- Changes ---
+
+    @Override
+    public boolean add(Member member) {
+        Chunk last;
+        if (chunkCount == 0 || chunks[chunkCount - 1].size == CHUNK_SIZE) {
+            last = new Chunk(new Member[CHUNK_SIZE], 0, generation);
+            appendChunk(last);
+        } else {
+            last = writableChunk(chunkCount - 1);
+        }
+        last.items[last.size++] = member;
+        member.listChunk = chunkCount - 1;
+        size++;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Removes the member (by identity).
+     * @return false if it is not in the list.
+     */
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof Member)) {
+            return false;
+        }
+        Member member = (Member) o;
+        int c = chunkHolding(member);
+        if (c < 0) {
+            return false;
+        }
+        Chunk chunk = writableChunk(c);
+        int i = indexIn(chunk, member);
+        System.arraycopy(chunk.items, i + 1, chunk.items, i, chunk.size - i - 1);
+        chunk.items[--chunk.size] = null;
+        for (int k = c + 1; k < chunkCount; k++) {
+            offsets[k]--;
+        }
+        size--;
+        modCount++;
+        if (chunkCount > 2 * ((size + CHUNK_SIZE - 1) / CHUNK_SIZE) + 1) {
+            setAll(toArray(new Member[0])); // Pack the partly empty chunks
+        }
+        return true;
+    }
+
+    /**
+     * Puts `replacement` in the place of `member` (by identity).
+     * @return false if `member` is not in the list.
+     */
+    boolean replace(Member member, Member replacement) {
+        int c = chunkHolding(member);
+        if (c < 0) {
+            return false;
+        }
+        Chunk chunk = writableChunk(c);
+        chunk.items[indexIn(chunk, member)] = replacement;
+        replacement.listChunk = c;
+        return true;
+    }
+
+    /**
+     * Replaces the contents with the members in the given order. O(n); the
+     * old chunks are left as they are for any snapshot reading them.
+     */
+    void setAll(Member[] members) {
+        int count = (members.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        chunks = new Chunk[Math.max(8, count)];
+        offsets = new int[chunks.length];
+        chunkCount = 0;
+        for (int start = 0; start < members.length; start += CHUNK_SIZE) {
+            int length = Math.min(CHUNK_SIZE, members.length - start);
+            Member[] items = new Member[CHUNK_SIZE];
+            System.arraycopy(members, start, items, 0, length);
+            for (int i = 0; i < length; i++) {
+                items[i].listChunk = chunkCount;
+            }
+            offsets[chunkCount] = start;
+            chunks[chunkCount++] = new Chunk(items, length, generation);
+        }
+        size = members.length;
+        modCount++;
+    }
+
+    /**
+     * Sorts stably (a null comparator means natural order), by sorting an
+     * array and rebuilding the chunks.
+     */
+    @Override
+    public void sort(Comparator<? super Member> order) {
+        Member[] members = toArray(new Member[0]);
+        Arrays.sort(members, order);
+        setAll(members);
+    }
+
+    @Override
+    public void clear() {
+        chunks = new Chunk[8];
+        offsets = new int[8];
+        chunkCount = 0;
+        size = 0;
+        modCount++;
+    }
+
+    // --- Helpers ---
+
+    private void appendChunk(Chunk chunk) {
+        if (chunkCount == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunkCount * 2);
+            offsets = Arrays.copyOf(offsets, chunkCount * 2);
+        }
+        offsets[chunkCount] = size;
+        chunks[chunkCount++] = chunk;
+    }
+
+    /**
+     * Returns chunk c ready to be changed, copying it first if a snapshot may share it.
+     */
+    private Chunk writableChunk(int c) {
+        Chunk chunk = chunks[c];
+        if (chunk.generation != generation) {
+            chunk = new Chunk(chunk.items.clone(), chunk.size, generation);
+            chunks[c] = chunk;
+            CHUNKS_COPIED.increment();
+        }
+        return chunk;
+    }
+
+    /**
+     * @return The index of the chunk holding the member, or -1. Checks the
+     *         member's own chunk first; the full scan is only needed for a
+     *         member that was in another list since.
+     */
+    private int chunkHolding(Member member) {
+        int hint = member.listChunk;
+        if (hint >= 0 && hint < chunkCount && indexIn(chunks[hint], member) >= 0) {
+            return hint;
+        }
+        for (int c = 0; c < chunkCount; c++) {
+            if (indexIn(chunks[c], member) >= 0) {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexIn(Chunk chunk, Member member) {
+        for (int i = 0; i < chunk.size; i++) {
+            if (chunk.items[i] == member) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The last chunk starting at or before the index. It is never
+     *         an empty one: an empty chunk starts where the next one does.
+     */
+    private static int chunkOf(int[] offsets, int chunkCount, int index) {
+        int low = 0;
+        int high = chunkCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (offsets[mid] <= index) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Walks a range of list indexes chunk by chunk. Splits in halves, so
+     * parallel streams divide the work evenly.
+     */
+    private static final class Walker implements Spliterator<Member> {
+        private final Chunk[] chunks;
+        private final int[] offsets;
+        private final int chunkCount;
+        private int index;
+        private final int end;
+        private int chunk;
+        private int position;
+
+        Walker(Chunk[] chunks, int[] offsets, int chunkCount, int index, int end) {
+            this.chunks = chunks;
+            this.offsets = offsets;
+            this.chunkCount = chunkCount;
+            this.end = end;
+            moveTo(index);
+        }
+
+        private void moveTo(int target) {
+            index = target;
+            if (target < end) {
+                chunk = chunkOf(offsets, chunkCount, target);
+                position = target - offsets[chunk];
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Member> action) {
+            if (index >= end) {
+                return false;
+            }
+            while (position >= chunks[chunk].size) {
+                chunk++;
+                position = 0;
+            }
+            index++;
+            action.accept(chunks[chunk].items[position++]);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Member> action) {
+            while (index < end) {
+                Chunk current = chunks[chunk];
+                int stop = Math.min(current.size, position + (end - index));
+                for (int i = position; i < stop; i++) {
+                    action.accept(current.items[i]);
+                }
+                index += stop - position;
+                chunk++;
+                position = 0;
+            }
+        }
+
+        @Override
+        public Spliterator<Member> trySplit() {
+            int mid = (index + end) >>> 1;
+            if (mid - index < CHUNK_SIZE) {
+                return null;
+            }
+            Walker prefix = new Walker(chunks, offsets, chunkCount, index, mid);
+            moveTo(mid);
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL;
+        }
+    }
+}
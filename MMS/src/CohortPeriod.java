@@ -0,0 +1,43 @@
+package src;
+
+import java.time.LocalDate;
+
+/**
+ * CohortPeriod Enum
+ * The width of a join-date cohort used by the cohort analytics.
+ */
+public enum CohortPeriod {
+    MONTH(1),
+    QUARTER(3);
+
+    private final int months;
+
+    CohortPeriod(int months) {
+        this.months = months;
+    }
+
+    /**
+     * @return The first day of the cohort that contains the given date.
+     */
+    public LocalDate startOf(LocalDate date) {
+        int firstMonth = ((date.getMonthValue() - 1) / months) * months + 1;
+        return LocalDate.of(date.getYear(), firstMonth, 1);
+    }
+
+    /**
+     * @return The first day of the cohort following the one starting at cohortStart.
+     */
+    public LocalDate next(LocalDate cohortStart) {
+        return cohortStart.plusMonths(months);
+    }
+
+    /**
+     * @return A short label such as "2023-03" or "2023-Q1".
+     */
+    public String label(LocalDate cohortStart) {
+        if (this == QUARTER) {
+            return cohortStart.getYear() + "-Q" + ((cohortStart.getMonthValue() - 1) / 3 + 1);
+        }
+        return String.format("%d-%02d", cohortStart.getYear(), cohortStart.getMonthValue());
+    }
+}
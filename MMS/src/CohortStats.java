@@ -0,0 +1,84 @@
+package src;
+
+import java.time.LocalDate;
+
+/**
+ * CohortStats Class
+ * A simple data class holding the retention figures for the members who
+ * joined within one date range (a month, a quarter or any custom range).
+ */
+public class CohortStats {
+
+    private final String label;
+    private final LocalDate start;
+    private final LocalDate endExclusive;
+    private final int memberCount;
+    private final int frozenCount;
+    private final int performanceRecords;
+    private final int goalsAchieved;
+
+    public CohortStats(String label, LocalDate start, LocalDate endExclusive, int memberCount,
+            int frozenCount, int performanceRecords, int goalsAchieved) {
+        this.label = label;
+        this.start = start;
+        this.endExclusive = endExclusive;
+        this.memberCount = memberCount;
+        this.frozenCount = frozenCount;
+        this.performanceRecords = performanceRecords;
+        this.goalsAchieved = goalsAchieved;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public LocalDate getStart() {
+        return start;
+    }
+
+    public LocalDate getEndExclusive() {
+        return endExclusive;
+    }
+
+    public int getMemberCount() {
+        return memberCount;
+    }
+
+    public int getFrozenCount() {
+        return frozenCount;
+    }
+
+    public int getPerformanceRecords() {
+        return performanceRecords;
+    }
+
+    public int getGoalsAchieved() {
+        return goalsAchieved;
+    }
+
+    /**
+     * @return The fraction of cohort members that are currently frozen, or NaN for an empty cohort.
+     */
+    public double getFrozenRatio() {
+        return memberCount == 0 ? Double.NaN : (double) frozenCount / memberCount;
+    }
+
+    /**
+     * @return The fraction of the cohort's performance records where the goal
+     * was achieved, or NaN if the cohort has no records.
+     */
+    public double getGoalAchievementRate() {
+        return performanceRecords == 0 ? Double.NaN : (double) goalsAchieved / performanceRecords;
+    }
+
+    /**
+     * Example output: "2023-Q1: 12 members, 3 frozen (25.0%), goal rate 60.0% (10 records)"
+     */
+    @Override
+    public String toString() {
+        String frozen = memberCount == 0 ? "-" : String.format("%.1f%%", getFrozenRatio() * 100);
+        String goals = performanceRecords == 0 ? "n/a" : String.format("%.1f%%", getGoalAchievementRate() * 100);
+        return String.format("%s: %d members, %d frozen (%s), goal rate %s (%d records)",
+                label, memberCount, frozenCount, frozen, goals, performanceRecords);
+    }
+}
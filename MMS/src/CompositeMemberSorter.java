@@ -0,0 +1,198 @@
+package src;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Sorts members by a composite MemberSortSpec without calling a Comparator
+ * per comparison.
+ *
+ * Each field is first turned into a non-negative integer key per member
+ * (for names this is a dense rank over case-folded names, computed once).
+ * The keys are then packed into a single long per member together with the
+ * member's original position, and the longs are sorted with
+ * Arrays.parallelSort. Putting the original position in the low bits makes
+ * the sort stable and lets the result be read straight back out.
+ *
+ * When the packed fields would not fit in 64 bits, the fields packed so far
+ * are replaced by their dense rank (at most 31 bits) and packing continues.
+ */
+public class CompositeMemberSorter {
+
+    private static final int MAX_KEY_BITS = 62;
+
+    private CompositeMemberSorter() {
+        // Static utility class
+    }
+
+    /**
+     * Returns the positions of the given members in sorted order:
+     * members[order[0]] is first, members[order[1]] second, and so on.
+     */
+    public static int[] sortedOrder(Member[] members, MemberSortSpec spec) {
+        int n = members.length;
+        int indexBits = bitsFor(n - 1);
+
+        long[] packed = new long[n];
+        int packedBits = 0;
+        for (int f = 0; f < spec.size(); f++) {
+            long[] column = fieldKeys(members, spec.getField(f));
+            long max = 0;
+            for (long key : column) {
+                max = Math.max(max, key);
+            }
+            if (spec.isDescending(f)) {
+                for (int i = 0; i < n; i++) {
+                    column[i] = max - column[i];
+                }
+            }
+            int columnBits = bitsFor(max);
+            if (packedBits + columnBits > MAX_KEY_BITS) {
+                packedBits = denseRank(packed);
+            }
+            for (int i = 0; i < n; i++) {
+                packed[i] = (packed[i] << columnBits) | column[i];
+            }
+            packedBits += columnBits;
+        }
+
+        if (packedBits + indexBits > MAX_KEY_BITS) {
+            packedBits = denseRank(packed);
+        }
+        for (int i = 0; i < n; i++) {
+            packed[i] = (packed[i] << indexBits) | i;
+        }
+        Arrays.parallelSort(packed);
+
+        long indexMask = (1L << indexBits) - 1;
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = (int) (packed[i] & indexMask);
+        }
+        return order;
+    }
+
+    /**
+     * Sorts the array in place by the given spec.
+     */
+    public static void sort(Member[] members, MemberSortSpec spec) {
+        int[] order = sortedOrder(members, spec);
+        Member[] source = members.clone();
+        for (int i = 0; i < order.length; i++) {
+            members[i] = source[order[i]];
+        }
+    }
+
+    /**
+     * Computes a non-negative integer key per member whose natural order
+     * matches the field's comparator in MemberSortSpec.
+     */
+    private static long[] fieldKeys(Member[] members, MemberSortField field) {
+        int n = members.length;
+        long[] keys = new long[n];
+        switch (field) {
+            case ID: {
+                String[] ids = new String[n];
+                for (int i = 0; i < n; i++) {
+                    ids[i] = members[i].getMemberId();
+                }
+                return stringRanks(ids);
+            }
+            case NAME: {
+                String[] names = new String[n];
+                for (int i = 0; i < n; i++) {
+                    names[i] = foldCase(members[i].getFullName());
+                }
+                return stringRanks(names);
+            }
+            case TYPE:
+                // Alphabetical by type name: "Premium" before "Regular"
+                for (int i = 0; i < n; i++) {
+                    keys[i] = (members[i] instanceof PremiumMember) ? 0 : 1;
+                }
+                return keys;
+            case STATUS:
+                for (int i = 0; i < n; i++) {
+                    keys[i] = members[i].getStatus().ordinal();
+                }
+                return keys;
+            case JOIN_DATE: {
+                long min = Long.MAX_VALUE;
+                for (int i = 0; i < n; i++) {
+                    keys[i] = members[i].getJoinDate().toEpochDay();
+                    min = Math.min(min, keys[i]);
+                }
+                for (int i = 0; i < n; i++) {
+                    keys[i] -= min;
+                }
+                return keys;
+            }
+            default: {
+                // FEE, in whole cents (fees are never negative)
+                for (int i = 0; i < n; i++) {
+                    keys[i] = Math.max(0, Math.round(members[i].calculateMonthlyFee() * 100));
+                }
+                return keys;
+            }
+        }
+    }
+
+    /**
+     * Maps each string to its rank among the distinct values.
+     * Duplicates are collapsed with a hash map first, so only the distinct
+     * strings are sorted; no comparator is involved.
+     */
+    private static long[] stringRanks(String[] values) {
+        Map<String, int[]> slots = new HashMap<>();
+        for (String value : values) {
+            slots.computeIfAbsent(value, k -> new int[1]);
+        }
+        String[] distinct = slots.keySet().toArray(new String[0]);
+        Arrays.parallelSort(distinct);
+        for (int rank = 0; rank < distinct.length; rank++) {
+            slots.get(distinct[rank])[0] = rank;
+        }
+        long[] ranks = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            ranks[i] = slots.get(values[i])[0];
+        }
+        return ranks;
+    }
+
+    /**
+     * Replaces each key with its rank among the distinct keys (in place).
+     * @return The number of bits needed for the largest rank.
+     */
+    private static int denseRank(long[] keys) {
+        long[] distinct = keys.clone();
+        Arrays.parallelSort(distinct);
+        int m = 0;
+        for (int i = 0; i < distinct.length; i++) {
+            if (m == 0 || distinct[i] != distinct[m - 1]) {
+                distinct[m++] = distinct[i];
+            }
+        }
+        int distinctCount = m;
+        IntStream.range(0, keys.length).parallel()
+                .forEach(i -> keys[i] = Arrays.binarySearch(distinct, 0, distinctCount, keys[i]));
+        return bitsFor(distinctCount - 1);
+    }
+
+    /**
+     * Folds case the same way String.compareToIgnoreCase does, so that
+     * plain String.compareTo on the result gives the same order.
+     */
+    static String foldCase(String s) {
+        char[] chars = s.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
+    private static int bitsFor(long maxValue) {
+        return maxValue <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(maxValue);
+    }
+}
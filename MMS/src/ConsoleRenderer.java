@@ -0,0 +1,314 @@
+package src;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Renders member listings for the text interface without going through
+ * System.out line by line.
+ *
+ * Each member is formatted into one reusable StringBuilder with hand-rolled
+ * padding and number formatting (String.format only for a NaN or infinite
+ * fee), encoded into a 64 KB buffer and written to the output channel a
+ * buffer at a time, so a large listing costs a few big writes instead of
+ * two synchronized, flushing println calls and five formatter runs per
+ * member.
+ *
+ * Two layouts:
+ * - detailed: the same text as Member.toString(), followed by a separator;
+ * - table: one fixed-width line per member, under a header.
+ *
+ * Output is only guaranteed to appear after flush(); call it before
+ * printing anything else or waiting for input. Not thread-safe.
+ */
+public class ConsoleRenderer {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String SEPARATOR = "-------------------";
+    private static final String NEWLINE = System.lineSeparator();
+
+    // Table columns; longer values are cut and end in '~'
+    private static final int ID_WIDTH = 10;
+    private static final int NAME_WIDTH = 28;
+    private static final int TYPE_WIDTH = 8;
+    private static final int DATE_WIDTH = 10;
+    private static final int STATUS_WIDTH = 7;
+    private static final int FEE_WIDTH = 10;
+    private static final int RECORDS_WIDTH = 8;
+
+    private final OutputStream stream;
+    private final WritableByteChannel channel;
+    private final CharsetEncoder encoder;
+    private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+    private final StringBuilder text = new StringBuilder(BUFFER_SIZE / 4);
+    private final StringBuilder cell = new StringBuilder(16);
+
+    public ConsoleRenderer(OutputStream out, Charset charset) {
+        this.stream = out;
+        this.channel = Channels.newChannel(out);
+        this.encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Renders to the stream in the platform's default charset.
+     */
+    public ConsoleRenderer(OutputStream out) {
+        this(out, Charset.defaultCharset());
+    }
+
+    /**
+     * Appends a member as Member.toString() shows it, then a separator line.
+     */
+    public ConsoleRenderer appendDetailed(Member member) {
+        text.append('[').append(member.getMemberType()).append(" Member] Member ID: ").append(member.getMemberId())
+                .append('\n');
+        text.append("  Name: ").append(member.getFullName()).append('\n');
+        text.append("  Joined: ").append(member.getJoinDate()).append('\n');
+        text.append("  Status: ").append(member.getStatus()).append('\n');
+        text.append("  Monthly Fee: $");
+        appendMoney(text, member.calculateMonthlyFee());
+        text.append('\n');
+        int records = member.getPerformanceHistory().size();
+        if (records == 0) {
+            text.append("  Performance: None");
+        } else {
+            text.append("  Performance: ");
+            appendCount(text, records);
+            text.append(" record(s)");
+        }
+        text.append(NEWLINE).append(SEPARATOR).append(NEWLINE);
+        return spillIfFull();
+    }
+
+    /**
+     * Appends the column headings and rule of the table layout.
+     */
+    public ConsoleRenderer appendTableHeader() {
+        padRight(text, "ID", ID_WIDTH);
+        padRight(text, "Name", NAME_WIDTH);
+        padRight(text, "Type", TYPE_WIDTH);
+        padRight(text, "Joined", DATE_WIDTH);
+        padRight(text, "Status", STATUS_WIDTH);
+        padLeft(text, "Fee", FEE_WIDTH);
+        padLeft(text, "Records", RECORDS_WIDTH);
+        text.setLength(text.length() - 1); // No space after the last column
+        text.append(NEWLINE);
+        int width = ID_WIDTH + NAME_WIDTH + TYPE_WIDTH + DATE_WIDTH + STATUS_WIDTH + FEE_WIDTH + RECORDS_WIDTH + 6;
+        for (int i = 0; i < width; i++) {
+            text.append('-');
+        }
+        text.append(NEWLINE);
+        return spillIfFull();
+    }
+
+    /**
+     * Appends a member as one table line.
+     */
+    public ConsoleRenderer appendTableRow(Member member) {
+        padRight(text, member.getMemberId(), ID_WIDTH);
+        padRight(text, member.getFullName(), NAME_WIDTH);
+        padRight(text, member.getMemberType(), TYPE_WIDTH);
+        padRight(text, member.getJoinDate().toString(), DATE_WIDTH);
+        padRight(text, member.getStatus().toString(), STATUS_WIDTH);
+        cell.setLength(0);
+        cell.append('$');
+        appendMoney(cell, member.calculateMonthlyFee());
+        padLeft(text, cell, FEE_WIDTH);
+        cell.setLength(0);
+        appendCount(cell, member.getPerformanceHistory().size());
+        padLeft(text, cell, RECORDS_WIDTH);
+        text.setLength(text.length() - 1);
+        text.append(NEWLINE);
+        return spillIfFull();
+    }
+
+    /**
+     * Appends a line of text.
+     */
+    public ConsoleRenderer appendLine(String line) {
+        text.append(line).append(NEWLINE);
+        return spillIfFull();
+    }
+
+    /**
+     * Writes everything appended so far and flushes the stream.
+     * @throws UncheckedIOException if the output cannot be written.
+     */
+    public void flush() {
+        try {
+            encodeText(true);
+            drain();
+            stream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // --- Formatting ---
+
+    /**
+     * Appends an amount with two decimals, the same text as "%.2f" in the
+     * default locale: the shortest decimal form of the double rounded half
+     * up (so 1.005 shows as 1.01), with the locale's digits and decimal
+     * separator, and "-0.00" for small negative amounts.
+     */
+    public static void appendMoney(StringBuilder sb, double amount) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+            sb.append(String.format("%.2f", amount));
+            return;
+        }
+        if (Double.compare(amount, 0.0) < 0) {
+            sb.append('-');
+            amount = -amount;
+        }
+        NumberSymbols symbols = numberSymbols();
+        int offset = symbols.zeroDigit - '0';
+        double scaled = amount * 100;
+        if (scaled < 1e11 && Math.abs(scaled - Math.floor(scaled) - 0.5) > 1e-3) {
+            // Far from a half cent, rounding the double agrees with rounding its decimal form
+            long cents = Math.round(scaled);
+            appendDigits(sb, cents / 100, offset);
+            sb.append(symbols.decimalSeparator);
+            long fraction = cents % 100;
+            sb.append((char) ('0' + fraction / 10 + offset)).append((char) ('0' + fraction % 10 + offset));
+            return;
+        }
+        String digits = BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP).toPlainString();
+        for (int i = 0; i < digits.length(); i++) {
+            char c = digits.charAt(i);
+            sb.append(c == '.' ? symbols.decimalSeparator : (char) (c + offset));
+        }
+    }
+
+    /**
+     * Appends a count like "%d" in the default locale (no grouping).
+     */
+    static void appendCount(StringBuilder sb, int count) {
+        appendDigits(sb, count, numberSymbols().zeroDigit - '0');
+    }
+
+    private static void appendDigits(StringBuilder sb, long value, int offset) {
+        if (value >= 10) {
+            appendDigits(sb, value / 10, offset);
+        }
+        sb.append((char) ('0' + value % 10 + offset));
+    }
+
+    /**
+     * The default locale's digits and decimal separator, as Formatter uses
+     * them for "%d" and "%.2f", looked up again only when the default
+     * locale changes.
+     */
+    private static final class NumberSymbols {
+        final Locale locale;
+        final char zeroDigit;
+        final char decimalSeparator;
+
+        NumberSymbols(Locale locale) {
+            DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+            this.locale = locale;
+            this.zeroDigit = symbols.getZeroDigit();
+            this.decimalSeparator = symbols.getDecimalSeparator();
+        }
+    }
+
+    private static volatile NumberSymbols numberSymbols = new NumberSymbols(Locale.getDefault(Locale.Category.FORMAT));
+
+    private static NumberSymbols numberSymbols() {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        NumberSymbols symbols = numberSymbols;
+        if (!symbols.locale.equals(locale)) {
+            symbols = new NumberSymbols(locale);
+            numberSymbols = symbols;
+        }
+        return symbols;
+    }
+
+    /**
+     * Appends the value left-aligned in a column of the given width, plus
+     * one space between columns.
+     */
+    private static void padRight(StringBuilder sb, String value, int width) {
+        if (value.length() > width) {
+            sb.append(value, 0, width - 1).append('~');
+        } else {
+            sb.append(value);
+            for (int i = value.length(); i < width; i++) {
+                sb.append(' ');
+            }
+        }
+        sb.append(' ');
+    }
+
+    /**
+     * Appends the value right-aligned in a column of the given width, plus
+     * one space between columns.
+     */
+    private static void padLeft(StringBuilder sb, CharSequence value, int width) {
+        for (int i = value.length(); i < width; i++) {
+            sb.append(' ');
+        }
+        sb.append(value).append(' ');
+    }
+
+    // --- Output ---
+
+    private ConsoleRenderer spillIfFull() {
+        if (text.length() >= BUFFER_SIZE / 4) {
+            try {
+                encodeText(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Encodes the text into the byte buffer, writing the buffer to the
+     * channel whenever it fills, and empties the text.
+     */
+    private void encodeText(boolean endOfInput) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(text);
+        while (true) {
+            CoderResult result = encoder.encode(chars, bytes, endOfInput);
+            if (result.isOverflow()) {
+                drain();
+            } else {
+                break;
+            }
+        }
+        // A trailing half of a surrogate pair waits for the next call
+        int left = chars.remaining();
+        text.delete(0, text.length() - left);
+        if (endOfInput) {
+            while (encoder.flush(bytes).isOverflow()) {
+                drain();
+            }
+            encoder.reset();
+        }
+    }
+
+    private void drain() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+}
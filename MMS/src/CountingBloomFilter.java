@@ -0,0 +1,157 @@
+package src;
+
+import java.util.Arrays;
+
+/**
+ * A counting Bloom filter over strings, such as member IDs.
+ *
+ * mightContain() answers "definitely not present" or "possibly present":
+ * it never misses a key that was added, and wrongly says "possibly" for a
+ * key that was not added with about the false-positive rate it was sized
+ * for. Each slot is a 4-bit counter rather than a bit, so keys can also be
+ * removed. A counter that reaches 15 stays there, since it can no longer
+ * tell how many keys share it; this only makes false positives a little
+ * more likely, never causes a miss.
+ *
+ * Not thread-safe.
+ */
+public class CountingBloomFilter {
+
+    private static final int MAX_COUNT = 15;
+
+    private final byte[] counters; // Two 4-bit counters per byte
+    private final int slots;
+    private final int hashes;
+    private final long capacity;
+    private long size;
+
+    /**
+     * @param expectedKeys The number of keys the filter is sized for.
+     * @param falsePositiveRate The wanted false-positive rate at that size, e.g. 0.01.
+     */
+    public CountingBloomFilter(long expectedKeys, double falsePositiveRate) {
+        if (expectedKeys < 1) {
+            throw new IllegalArgumentException("Expected keys must be positive.");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False-positive rate must be between 0 and 1.");
+        }
+        // Optimal sizing: m = -n ln p / (ln 2)^2 slots and k = (m / n) ln 2 hashes
+        long optimalSlots = (long) Math.ceil(-expectedKeys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        if (optimalSlots > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many keys for one filter.");
+        }
+        this.slots = (int) Math.max(64, optimalSlots);
+        this.hashes = Math.max(1, (int) Math.round((double) slots / expectedKeys * Math.log(2)));
+        this.counters = new byte[(slots + 1) / 2];
+        this.capacity = expectedKeys;
+    }
+
+    public void add(String key) {
+        long hash = hash64(key);
+        for (int i = 0; i < hashes; i++) {
+            int slot = slot(hash, i);
+            int count = get(slot);
+            if (count < MAX_COUNT) {
+                set(slot, count + 1);
+            }
+        }
+        size++;
+    }
+
+    /**
+     * Removes a key that was added. Removing a key that was never added
+     * would corrupt the filter, so callers only remove keys they know are present.
+     */
+    public void remove(String key) {
+        long hash = hash64(key);
+        for (int i = 0; i < hashes; i++) {
+            int slot = slot(hash, i);
+            int count = get(slot);
+            if (count > 0 && count < MAX_COUNT) {
+                set(slot, count - 1);
+            }
+        }
+        size--;
+    }
+
+    /**
+     * @return false if the key is definitely not in the filter.
+     */
+    public boolean mightContain(String key) {
+        long hash = hash64(key);
+        for (int i = 0; i < hashes; i++) {
+            if (get(slot(hash, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(counters, (byte) 0);
+        size = 0;
+    }
+
+    /**
+     * @return The number of keys currently in the filter.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return The number of keys the filter was sized for. Past it, the
+     *         false-positive rate climbs quickly.
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return The false-positive rate expected at the current size,
+     *         (1 - e^(-kn/m))^k.
+     */
+    public double getExpectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashes * size / slots), hashes);
+    }
+
+    // --- Internals ---
+
+    /**
+     * Double hashing: the i-th slot is h1 + i * h2, which behaves like k
+     * independent hash functions for a Bloom filter.
+     */
+    private int slot(long hash, int i) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return Math.floorMod(h1 + i * h2, slots);
+    }
+
+    private int get(int slot) {
+        int b = counters[slot >> 1];
+        return (slot & 1) == 0 ? b & 0x0F : (b >> 4) & 0x0F;
+    }
+
+    private void set(int slot, int count) {
+        int index = slot >> 1;
+        int b = counters[index];
+        counters[index] = (byte) ((slot & 1) == 0 ? (b & 0xF0) | count : (b & 0x0F) | (count << 4));
+    }
+
+    /**
+     * 64-bit FNV-1a over the characters, finished with a mix step so that
+     * IDs differing only in their last digit spread over the whole table.
+     */
+    private static long hash64(String key) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,197 @@
+package src;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * The gym_records.csv format as a MemberStore.
+ *
+ * A CSV file cannot be updated in place, so the whole file is read into
+ * memory when the store is opened and rewritten by flush() if anything
+ * changed. Use BTreeMemberStore when the member base should not have to fit
+ * in memory.
+ *
+ * Also home to the CSV line parser that GymManager.loadFromFile uses.
+ */
+public class CsvMemberStore implements MemberStore {
+
+    private final String filename;
+    private final TreeMap<String, Member> members = new TreeMap<>();
+    private boolean dirty;
+
+    /**
+     * Opens the file, reading every member. A missing file is an empty store.
+     */
+    public CsvMemberStore(String filename) {
+        this.filename = filename;
+        try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Member member = parseLine(line);
+                if (member != null) {
+                    members.put(member.getMemberId(), member);
+                }
+            }
+        } catch (FileNotFoundException e) {
+            // Created by the first flush
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + filename, e);
+        }
+    }
+
+    @Override
+    public Member get(String memberId) {
+        return members.get(memberId);
+    }
+
+    @Override
+    public void put(Member member) {
+        members.put(member.getMemberId(), member);
+        dirty = true;
+    }
+
+    @Override
+    public boolean delete(String memberId) {
+        boolean removed = members.remove(memberId) != null;
+        dirty |= removed;
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        dirty |= !members.isEmpty();
+        members.clear();
+    }
+
+    @Override
+    public long size() {
+        return members.size();
+    }
+
+    @Override
+    public List<Member> getPage(String afterId, int pageSize) {
+        Map<String, Member> tail = afterId == null ? members : members.tailMap(afterId, false);
+        List<Member> page = new ArrayList<>(Math.min(pageSize, tail.size()));
+        for (Member member : tail.values()) {
+            if (page.size() == pageSize) {
+                break;
+            }
+            page.add(member);
+        }
+        return page;
+    }
+
+    @Override
+    public void forEach(Consumer<? super Member> action) {
+        members.values().forEach(action);
+    }
+
+    @Override
+    public void flush() {
+        if (!dirty) {
+            return;
+        }
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
+            for (Member member : members.values()) {
+                writer.write(member.toCsvString());
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + filename, e);
+        }
+        dirty = false;
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    // --- CSV format ---
+
+    /**
+     * Parses one line of the CSV format. This "smart" parser handles both old
+     * (pre-status) and new lines:
+     *   Regular: ID,Name,Type,Date,[Status],[Performance],[T:Timeline]
+     *   Premium: ID,Name,Type,Date,[Status],[Fee],[Performance],[T:Timeline]
+     * Without a timeline (see StatusTimeline), the status is taken to have
+     * held since the join date.
+     * @return The member, or null for a malformed line or an unknown type.
+     * @throws IllegalArgumentException (including DateTimeParseException) if a field is corrupt.
+     */
+    public static Member parseLine(String line) {
+        String[] parts = line.split(",");
+        if (parts.length < 4) {
+            return null; // Skip malformed lines
+        }
+        StatusTimeline timeline = null;
+        if (parts.length > 4 && StatusTimeline.isCsvField(parts[parts.length - 1].trim())) {
+            timeline = StatusTimeline.parseCsvField(parts[parts.length - 1].trim());
+            parts = Arrays.copyOf(parts, parts.length - 1);
+        }
+
+        String id = parts[0].trim();
+        String name = parts[1].trim();
+        String type = parts[2].trim();
+        LocalDate joinDate = LocalDate.parse(parts[3].trim());
+
+        // Defaults for optional fields
+        MembershipStatus status = MembershipStatus.ACTIVE;
+        String performanceString = null;
+        Member member;
+
+        if (type.equalsIgnoreCase("Regular")) {
+            if (parts.length >= 5) status = MembershipStatus.valueOf(parts[4].trim().toUpperCase());
+            if (parts.length >= 6) performanceString = parts[5].trim();
+            member = new RegularMember(id, name, joinDate);
+        } else if (type.equalsIgnoreCase("Premium")) {
+            double trainerFee = 0.0;
+            if (parts.length >= 5) status = MembershipStatus.valueOf(parts[4].trim().toUpperCase());
+            if (parts.length >= 6) trainerFee = Double.parseDouble(parts[5].trim());
+            if (parts.length >= 7) performanceString = parts[6].trim();
+            member = new PremiumMember(id, name, joinDate, trainerFee);
+        } else {
+            return null;
+        }
+        if (timeline != null) {
+            member.restoreStatusTimeline(timeline);
+        } else {
+            member.setInitialStatus(status);
+        }
+        parsePerformanceString(member, performanceString);
+        return member;
+    }
+
+    /**
+     * Helper method to parse the performance string (e.g., "10;2025;true|11;2025;false")
+     */
+    private static void parsePerformanceString(Member member, String performanceString) {
+        if (performanceString == null || performanceString.isEmpty()) {
+            return;
+        }
+        try {
+            String[] records = performanceString.split("\\|");
+            for (String record : records) {
+                String[] parts = record.split(";");
+                int month = Integer.parseInt(parts[0]);
+                int year = Integer.parseInt(parts[1]);
+                boolean achieved = Boolean.parseBoolean(parts[2]);
+                member.addPerformanceRecord(new Performance(month, year, achieved));
+            }
+        } catch (Exception e) {
+            System.err.println("Warning: Could not parse performance data for member " + member.getMemberId());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package src;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Today's date for hot paths such as fee lookups and status changes.
+ *
+ * LocalDate.now() converts the clock through the time-zone rules on every
+ * call. This class keeps the current day with the instants it starts and
+ * ends at, so a call is one clock read and two comparisons until midnight.
+ */
+public final class DailyClock {
+
+    private static final class Day {
+        final LocalDate date;
+        final long startMillis;
+        final long endMillis;
+
+        Day(LocalDate date, long startMillis, long endMillis) {
+            this.date = date;
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+        }
+    }
+
+    private static volatile Clock clock = Clock.systemDefaultZone();
+    private static volatile Day day = dayAt(clock);
+
+    private DailyClock() {
+    }
+
+    /**
+     * @return Today's date in the clock's time zone.
+     */
+    public static LocalDate today() {
+        Clock source = clock;
+        Day current = day;
+        long now = source.millis();
+        if (now < current.startMillis || now >= current.endMillis) {
+            current = dayAt(source);
+            day = current;
+        }
+        return current.date;
+    }
+
+    /**
+     * Replaces the system clock, so checks can move the date on (see
+     * bench.PricingBenchmark). Pass Clock.systemDefaultZone() to go back.
+     * The application itself never calls this.
+     */
+    public static void setClock(Clock replacement) {
+        clock = replacement;
+        day = dayAt(replacement);
+    }
+
+    private static Day dayAt(Clock source) {
+        ZoneId zone = source.getZone();
+        LocalDate date = Instant.ofEpochMilli(source.millis()).atZone(zone).toLocalDate();
+        return new Day(date, date.atStartOfDay(zone).toInstant().toEpochMilli(),
+                date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+    }
+}
@@ -0,0 +1,41 @@
+package src;
+
+/**
+ * Decides which member CachingMemberStore drops when it is full.
+ *
+ * The cache reports every key it inserts, hits and removes; once it holds
+ * more entries than its capacity it asks for a victim and evicts that key.
+ * The victim may be the key just inserted, which is how an admission policy
+ * such as W-TinyLFU refuses to let a one-off read displace a popular member.
+ *
+ * Implementations: LruEvictionPolicy, TinyLfuEvictionPolicy.
+ * Called while the cache holds its lock, so they need no synchronization.
+ */
+public interface EvictionPolicy {
+
+    /**
+     * A cached key was read or written.
+     */
+    void onAccess(String key);
+
+    /**
+     * A key was added to the cache.
+     */
+    void onInsert(String key);
+
+    /**
+     * A key left the cache for a reason other than eviction (it was deleted).
+     */
+    void onRemove(String key);
+
+    /**
+     * Chooses a key to evict and forgets it. Only called while the cache
+     * holds at least one key.
+     */
+    String selectVictim();
+
+    /**
+     * Forgets every key.
+     */
+    void clear();
+}
@@ -0,0 +1,462 @@
+package src;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Writes every member of a store to a CSV file in any order, using a fixed
+ * amount of memory however large the store is.
+ *
+ * Members are streamed from the store (MemberStore.forEach) into a buffer.
+ * Whenever the buffer reaches its share of the memory budget, it is sorted
+ * and spilled to a temporary run file; the runs are then merged k at a
+ * time (a k-way merge through a priority queue) into the output, in as
+ * many passes as the budget's fan-in requires. Runs hold members in the
+ * replication encoding, so performance and status histories survive the
+ * round trip; the output is in the gym_records.csv format that
+ * GymManager.loadFromFile reads.
+ *
+ * The order comes from a comparator, usually MemberSortKey.comparator() or
+ * MemberSortSpec.comparator(). The sort is stable: members that compare
+ * equal stay in store (ID) order.
+ *
+ * All file I/O goes through FileChannels and large ByteBuffers. The budget
+ * counts an estimate of the heap held by buffered members plus the merge
+ * buffers; it is not a hard limit on the JVM's heap use.
+ */
+public class ExternalSortExporter {
+
+    public static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+
+    // Read buffer per run during a merge, and the size of the output buffer
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** The smallest memory budget the constructor accepts. */
+    public static final long MIN_MEMORY_BUDGET = 4 * BUFFER_SIZE;
+
+    private static final MetricsRegistry METRICS = MetricsRegistry.getDefault();
+    private static final LatencyHistogram EXPORT_TIME = METRICS.histogram("export.sorted");
+    private static final MetricCounter RUNS_SPILLED = METRICS.counter("export.runsSpilled");
+    private static final MetricCounter BYTES_SPILLED = METRICS.counter("export.bytesSpilled");
+
+    private final Comparator<Member> order;
+    private final long memoryBudget;
+    private final File tempDirectory;
+
+    // Figures for the last export
+    private int runCount;
+    private int mergePasses;
+    private long bytesSpilled;
+
+    /**
+     * @param order The output order.
+     * @param memoryBudget Bytes of heap the export may use for members and buffers.
+     * @param tempDirectory Where runs are spilled, or null for the system default.
+     * @throws IllegalArgumentException if the budget is too small to merge two runs.
+     */
+    public ExternalSortExporter(Comparator<Member> order, long memoryBudget, File tempDirectory) {
+        if (order == null) {
+            throw new IllegalArgumentException("Sort order cannot be null.");
+        }
+        if (memoryBudget < MIN_MEMORY_BUDGET) {
+            throw new IllegalArgumentException("Memory budget must be at least " + MIN_MEMORY_BUDGET + " bytes.");
+        }
+        this.order = order;
+        this.memoryBudget = memoryBudget;
+        this.tempDirectory = tempDirectory;
+    }
+
+    public ExternalSortExporter(Comparator<Member> order) {
+        this(order, DEFAULT_MEMORY_BUDGET, null);
+    }
+
+    /**
+     * Exports every member of the store to a CSV file in the chosen order.
+     * Temporary runs are deleted when the export ends, whether or not it succeeds.
+     * @return The number of members written.
+     * @throws UncheckedIOException if a file cannot be written or read.
+     */
+    public long export(MemberStore source, String outputFile) {
+        long start = System.nanoTime();
+        runCount = 0;
+        mergePasses = 0;
+        bytesSpilled = 0;
+        List<Path> runs = new ArrayList<>();
+        try {
+            long written;
+            RunBuilder builder = new RunBuilder(runs);
+            source.forEach(builder::add);
+            if (runs.isEmpty()) {
+                // Everything fitted in the budget: no run files at all
+                written = writeCsv(builder.sortedBuffer(), outputFile);
+            } else {
+                builder.spill();
+                written = mergeAll(runs, outputFile);
+            }
+            EXPORT_TIME.recordSince(start);
+            return written;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Sorted export to " + outputFile + " failed.", e);
+        } finally {
+            for (Path run : runs) {
+                try {
+                    Files.deleteIfExists(run);
+                } catch (IOException e) {
+                    System.err.println("Warning: Could not delete temporary file " + run + ". " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The number of sorted runs spilled by the last export (0 if it fitted in memory).
+     */
+    public int getRunCount() {
+        return runCount;
+    }
+
+    /**
+     * @return The number of merge passes of the last export, the final one included.
+     */
+    public int getMergePasses() {
+        return mergePasses;
+    }
+
+    /**
+     * @return Bytes written to run files by the last export, over all passes.
+     */
+    public long getBytesSpilled() {
+        return bytesSpilled;
+    }
+
+    /**
+     * @return How many runs a merge pass may read at once: one read buffer
+     *         each, plus the output buffer, within the budget.
+     */
+    int fanIn() {
+        return (int) Math.max(2, Math.min(Integer.MAX_VALUE, memoryBudget / BUFFER_SIZE - 1));
+    }
+
+    /**
+     * A rough estimate of the heap a decoded member holds: the objects
+     * themselves, the two strings, the performance records and the timeline.
+     */
+    public static long estimateSize(Member member) {
+        return 200 + 2L * (member.getMemberId().length() + member.getFullName().length())
+                + 40L * member.getPerformanceHistory().size() + 8L * member.getStatusTimeline().size();
+    }
+
+    // --- Run formation ---
+
+    /**
+     * Buffers members until the budget is used, then sorts and spills them.
+     */
+    private final class RunBuilder {
+        private final List<Path> runs;
+        private final List<Member> buffer = new ArrayList<>();
+        private long bufferedBytes;
+
+        RunBuilder(List<Path> runs) {
+            this.runs = runs;
+        }
+
+        void add(Member member) {
+            buffer.add(member);
+            bufferedBytes += estimateSize(member);
+            if (bufferedBytes >= memoryBudget - BUFFER_SIZE) { // Leaving room for the run writer
+                try {
+                    spill();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        List<Member> sortedBuffer() {
+            buffer.sort(order); // A stable merge sort
+            return buffer;
+        }
+
+        void spill() throws IOException {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            Path run = newRunFile();
+            runs.add(run);
+            try (RunWriter writer = new RunWriter(run)) {
+                for (Member member : sortedBuffer()) {
+                    writer.write(member);
+                }
+            }
+            runCount++;
+            RUNS_SPILLED.increment();
+            buffer.clear();
+            bufferedBytes = 0;
+        }
+    }
+
+    private Path newRunFile() throws IOException {
+        return tempDirectory == null
+                ? Files.createTempFile("mms-run", ".tmp")
+                : Files.createTempFile(tempDirectory.toPath(), "mms-run", ".tmp");
+    }
+
+    // --- Merging ---
+
+    /**
+     * Merges groups of up to fanIn() runs into longer runs until one merge
+     * can write the output. Runs are merged in the order they were spilled,
+     * and ties go to the earlier run, which keeps the sort stable.
+     */
+    private long mergeAll(List<Path> runs, String outputFile) throws IOException {
+        int fanIn = fanIn();
+        List<Path> level = new ArrayList<>(runs);
+        while (level.size() > fanIn) {
+            List<Path> next = new ArrayList<>();
+            for (int from = 0; from < level.size(); from += fanIn) {
+                List<Path> group = level.subList(from, Math.min(level.size(), from + fanIn));
+                if (group.size() == 1) {
+                    next.add(group.get(0));
+                    continue;
+                }
+                Path merged = newRunFile();
+                runs.add(merged); // Deleted with the others at the end
+                try (RunWriter writer = new RunWriter(merged)) {
+                    merge(group, writer::write);
+                }
+                for (Path done : group) {
+                    Files.deleteIfExists(done);
+                }
+                next.add(merged);
+            }
+            mergePasses++;
+            level = next;
+        }
+        mergePasses++;
+        try (CsvWriter writer = new CsvWriter(outputFile)) {
+            return merge(level, writer::write);
+        }
+    }
+
+    private interface Sink {
+        void write(Member member) throws IOException;
+    }
+
+    private long merge(List<Path> group, Sink sink) throws IOException {
+        List<RunReader> readers = new ArrayList<>();
+        try {
+            PriorityQueue<RunReader> heads = new PriorityQueue<>(group.size(),
+                    (a, b) -> {
+                        int c = order.compare(a.head, b.head);
+                        return c != 0 ? c : Integer.compare(a.index, b.index);
+                    });
+            for (Path run : group) {
+                RunReader reader = new RunReader(run, readers.size());
+                readers.add(reader);
+                if (reader.advance()) {
+                    heads.add(reader);
+                }
+            }
+            long written = 0;
+            while (!heads.isEmpty()) {
+                RunReader smallest = heads.poll();
+                sink.write(smallest.head);
+                written++;
+                if (smallest.advance()) {
+                    heads.add(smallest);
+                }
+            }
+            return written;
+        } finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    private long writeCsv(List<Member> members, String outputFile) throws IOException {
+        mergePasses = 0;
+        try (CsvWriter writer = new CsvWriter(outputFile)) {
+            for (Member member : members) {
+                writer.write(member);
+            }
+        }
+        return members.size();
+    }
+
+    // --- Files ---
+
+    /**
+     * Writes length-prefixed member records (ReplicationProtocol.writeMember)
+     * through a buffered channel.
+     */
+    private final class RunWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private final ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+        private final DataOutputStream recordOut = new DataOutputStream(record);
+
+        RunWriter(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void write(Member member) throws IOException {
+            record.reset();
+            ReplicationProtocol.writeMember(recordOut, member);
+            int length = record.size();
+            if (buffer.remaining() < 4 + length) {
+                drain();
+            }
+            buffer.putInt(length);
+            if (length <= buffer.remaining()) {
+                buffer.put(record.toByteArray());
+            } else {
+                drain(); // A record larger than the buffer goes straight to the channel
+                writeFully(channel, ByteBuffer.wrap(record.toByteArray()));
+            }
+            bytesSpilled += 4 + length;
+            BYTES_SPILLED.add(4 + length);
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            writeFully(channel, buffer);
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Reads one run back, one member at a time, through a buffered channel.
+     */
+    private static final class RunReader {
+        final int index;
+        Member head;
+        private final FileChannel channel;
+        private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        RunReader(Path file, int index) throws IOException {
+            this.index = index;
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            buffer.limit(0);
+        }
+
+        /**
+         * Reads the next member into head.
+         * @return false at the end of the run.
+         */
+        boolean advance() throws IOException {
+            if (!fill(4)) {
+                head = null;
+                return false;
+            }
+            int length = buffer.getInt();
+            if (length > buffer.capacity()) {
+                ByteBuffer larger = ByteBuffer.allocate(length);
+                larger.put(buffer);
+                larger.flip();
+                buffer = larger;
+            }
+            if (!fill(length)) {
+                throw new IOException("Run file ends in the middle of a member.");
+            }
+            int offset = buffer.arrayOffset() + buffer.position();
+            head = ReplicationProtocol.readMember(
+                    new DataInputStream(new ByteArrayInputStream(buffer.array(), offset, length)));
+            buffer.position(buffer.position() + length);
+            return true;
+        }
+
+        /**
+         * Makes sure the buffer holds at least `bytes` unread bytes.
+         * @return false if the run ended first.
+         */
+        private boolean fill(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return true;
+            }
+            buffer.compact();
+            while (buffer.position() < bytes) {
+                if (channel.read(buffer) < 0) {
+                    buffer.flip();
+                    return false;
+                }
+            }
+            buffer.flip();
+            return true;
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes members as gym_records.csv lines through a buffered channel.
+     */
+    private static final class CsvWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        CsvWriter(String file) throws IOException {
+            channel = FileChannel.open(Path.of(file), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void write(Member member) throws IOException {
+            byte[] line = (member.toCsvString() + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+            if (buffer.remaining() < line.length) {
+                drain();
+                if (line.length > buffer.capacity()) {
+                    writeFully(channel, ByteBuffer.wrap(line));
+                    return;
+                }
+            }
+            buffer.put(line);
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            writeFully(channel, buffer);
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
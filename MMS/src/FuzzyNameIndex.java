@@ -0,0 +1,341 @@
+package src;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An index for misspelled and sound-alike name searches ("Jonson" finds
+ * "Johnson", "Smyth" finds "Smith").
+ *
+ * Names are split into normalized words (lower case, no accents or
+ * punctuation). Each distinct word is stored once:
+ * - in a BK-tree by Levenshtein distance, so all words within a few edits
+ *   of a search word are found by visiting a small part of the tree instead
+ *   of comparing against every word;
+ * - under its Soundex code, so words that sound alike match even when they
+ *   are too far apart in spelling.
+ * Each word maps to the IDs of the members whose names contain it.
+ *
+ * Results are ranked by how many search words a name matches, then by the
+ * total number of edits (a sound-alike counts as one more edit than the
+ * search word allows), then by member ID.
+ *
+ * Deleting the last member with a word leaves the word in the tree with no
+ * members, where searches skip it; the index is rebuilt on every reload.
+ * Not thread-safe: GymManager only uses it while holding its own lock.
+ */
+public class FuzzyNameIndex {
+
+    private final Map<String, Set<String>> idsByWord = new HashMap<>();
+    private final Map<String, Set<String>> wordsBySoundex = new HashMap<>();
+    private BkNode root;
+
+    public FuzzyNameIndex(Iterable<Member> members) {
+        for (Member member : members) {
+            add(member.getMemberId(), member.getFullName());
+        }
+    }
+
+    public void add(String memberId, String fullName) {
+        for (String word : words(fullName)) {
+            idsByWord.computeIfAbsent(word, w -> {
+                insertWord(w);
+                wordsBySoundex.computeIfAbsent(soundex(w), code -> new HashSet<>()).add(w);
+                return new HashSet<>();
+            }).add(memberId);
+        }
+    }
+
+    public void remove(String memberId, String fullName) {
+        for (String word : words(fullName)) {
+            Set<String> ids = idsByWord.get(word);
+            if (ids != null && ids.remove(memberId) && ids.isEmpty()) {
+                idsByWord.remove(word);
+                Set<String> soundAlikes = wordsBySoundex.get(soundex(word));
+                soundAlikes.remove(word);
+                if (soundAlikes.isEmpty()) {
+                    wordsBySoundex.remove(soundex(word));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The IDs of at most `limit` members whose names best match the
+     *         search term, best first; empty if no word of it matches.
+     */
+    public List<String> search(String query, int limit) {
+        String[] queryWords = words(query).toArray(new String[0]);
+        if (queryWords.length == 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        // Best cost of each search word, per member
+        Map<String, int[]> costs = new HashMap<>();
+        for (int i = 0; i < queryWords.length; i++) {
+            for (Map.Entry<String, Integer> match : matchingWords(queryWords[i]).entrySet()) {
+                for (String memberId : idsByWord.get(match.getKey())) {
+                    int[] memberCosts = costs.computeIfAbsent(memberId, id -> {
+                        int[] initial = new int[queryWords.length];
+                        Arrays.fill(initial, Integer.MAX_VALUE);
+                        return initial;
+                    });
+                    memberCosts[i] = Math.min(memberCosts[i], match.getValue());
+                }
+            }
+        }
+
+        List<Candidate> candidates = new ArrayList<>(costs.size());
+        costs.forEach((memberId, memberCosts) -> candidates.add(new Candidate(memberId, memberCosts)));
+        Collections.sort(candidates);
+        List<String> result = new ArrayList<>(Math.min(limit, candidates.size()));
+        for (int i = 0; i < candidates.size() && i < limit; i++) {
+            result.add(candidates.get(i).memberId);
+        }
+        return result;
+    }
+
+    /**
+     * @return The number of distinct name words with at least one member.
+     */
+    public int getWordCount() {
+        return idsByWord.size();
+    }
+
+    /**
+     * The number of edits a search word of this length may be off by:
+     * none for very short words, where one edit is most of the word.
+     */
+    public static int maxEdits(int wordLength) {
+        if (wordLength <= 2) {
+            return 0;
+        }
+        return wordLength <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Finds the indexed words that match a search word, with their cost.
+     */
+    private Map<String, Integer> matchingWords(String queryWord) {
+        Map<String, Integer> matches = new HashMap<>();
+        int maxEdits = maxEdits(queryWord.length());
+        if (root != null) {
+            collectWithin(root, queryWord, maxEdits, matches);
+        }
+        for (String word : wordsBySoundex.getOrDefault(soundex(queryWord), Collections.emptySet())) {
+            matches.putIfAbsent(word, maxEdits + 1);
+        }
+        return matches;
+    }
+
+    /**
+     * BK-tree search: by the triangle inequality, only children whose edge
+     * distance is within maxEdits of the node's distance can hold matches.
+     */
+    private void collectWithin(BkNode node, String queryWord, int maxEdits, Map<String, Integer> matches) {
+        int distance = levenshtein(queryWord, node.word);
+        if (distance <= maxEdits && idsByWord.containsKey(node.word)) {
+            matches.put(node.word, distance);
+        }
+        for (int i = 0; i < node.childCount; i++) {
+            if (Math.abs(node.childDistances[i] - distance) <= maxEdits) {
+                collectWithin(node.children[i], queryWord, maxEdits, matches);
+            }
+        }
+    }
+
+    private void insertWord(String word) {
+        if (root == null) {
+            root = new BkNode(word);
+            return;
+        }
+        BkNode node = root;
+        while (true) {
+            int distance = levenshtein(word, node.word);
+            if (distance == 0) {
+                return; // Already in the tree from an earlier member
+            }
+            BkNode child = node.child(distance);
+            if (child == null) {
+                node.addChild(distance, new BkNode(word));
+                return;
+            }
+            node = child;
+        }
+    }
+
+    // --- Text helpers ---
+
+    /**
+     * Splits a name into lower-case words of letters only. Accents are
+     * dropped and apostrophes joined ("O'Brien" is "obrien"); any other
+     * character separates words.
+     */
+    public static List<String> words(String text) {
+        String plain = text;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 127) {
+                plain = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+                break;
+            }
+        }
+        List<String> words = new ArrayList<>(3);
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < plain.length(); i++) {
+            char c = plain.charAt(i);
+            if (Character.isLetter(c)) {
+                word.append(Character.toLowerCase(c));
+            } else if (c != '\'' && word.length() > 0) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (word.length() > 0) {
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    /**
+     * American Soundex: the first letter followed by three digits for the
+     * consonant groups that follow, e.g. Robert and Rupert are both R163.
+     */
+    public static String soundex(String word) {
+        StringBuilder code = new StringBuilder(4);
+        char previous = 0;
+        for (int i = 0; i < word.length() && code.length() < 4; i++) {
+            char c = word.charAt(i);
+            char digit = soundexDigit(c);
+            if (i == 0) {
+                code.append(Character.toUpperCase(c));
+            } else if (digit != 0 && digit != previous) {
+                code.append(digit);
+            }
+            // H and W do not separate letters with the same code; vowels do
+            if (c != 'h' && c != 'w') {
+                previous = digit;
+            }
+        }
+        while (code.length() < 4) {
+            code.append('0');
+        }
+        return code.toString();
+    }
+
+    private static char soundexDigit(char c) {
+        switch (c) {
+            case 'b': case 'f': case 'p': case 'v':
+                return '1';
+            case 'c': case 'g': case 'j': case 'k': case 'q': case 's': case 'x': case 'z':
+                return '2';
+            case 'd': case 't':
+                return '3';
+            case 'l':
+                return '4';
+            case 'm': case 'n':
+                return '5';
+            case 'r':
+                return '6';
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * The edit distance between two words, using two rows of the usual
+     * dynamic-programming table.
+     */
+    public static int levenshtein(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (ca == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * A word in the BK-tree. Children are keyed by their distance to this
+     * word; there are few per node, so parallel arrays beat a map.
+     */
+    private static final class BkNode {
+        final String word;
+        int[] childDistances = new int[2];
+        BkNode[] children = new BkNode[2];
+        int childCount;
+
+        BkNode(String word) {
+            this.word = word;
+        }
+
+        BkNode child(int distance) {
+            for (int i = 0; i < childCount; i++) {
+                if (childDistances[i] == distance) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        void addChild(int distance, BkNode child) {
+            if (childCount == children.length) {
+                childDistances = Arrays.copyOf(childDistances, childCount * 2);
+                children = Arrays.copyOf(children, childCount * 2);
+            }
+            childDistances[childCount] = distance;
+            children[childCount++] = child;
+        }
+    }
+
+    /**
+     * A member's match: more matched search words first, then fewer edits.
+     */
+    private static final class Candidate implements Comparable<Candidate> {
+        final String memberId;
+        final int matchedWords;
+        final int totalCost;
+
+        Candidate(String memberId, int[] costs) {
+            this.memberId = memberId;
+            int matched = 0;
+            int total = 0;
+            for (int cost : costs) {
+                if (cost != Integer.MAX_VALUE) {
+                    matched++;
+                    total += cost;
+                }
+            }
+            this.matchedWords = matched;
+            this.totalCost = total;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            if (matchedWords != other.matchedWords) {
+                return Integer.compare(other.matchedWords, matchedWords);
+            }
+            if (totalCost != other.totalCost) {
+                return Integer.compare(totalCost, other.totalCost);
+            }
+            return memberId.compareTo(other.memberId);
+        }
+    }
+}
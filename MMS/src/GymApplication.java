@@ -1,9 +1,15 @@
 package src;
 
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.InputMismatchException;
 import java.util.List;
 import java.util.Scanner;
+import java.util.function.Function;
 
 /**
  * The main class for the Text-Based Interface (TBI) of the Gym Management
@@ -16,9 +22,19 @@ import java.util.Scanner;
  */
 public class GymApplication {
 
+    // Number of members printed before asking whether to continue
+    private static final int PAGE_SIZE = 20;
+    private static final int TABLE_PAGE_SIZE = 100;
+
     private GymManager manager;
     private Scanner scanner;
 
+    // Listings go through the renderer; flush it before any other output
+    private final ConsoleRenderer renderer = new ConsoleRenderer(System.out);
+    private boolean tableView;      // One line per member instead of the detailed layout
+    private boolean listAll;        // Set by 'a' at a prompt: no more prompts in this listing
+    private int rowsSincePrompt;
+
     /**
      * Constructor that accepts an existing GymManager instance and Scanner.
      * This allows the TBI and GUI to share the *same* data and scanner.
@@ -32,10 +48,11 @@ public class GymApplication {
      * The main run loop for the text-based application.
      */
     public void run() {
-        // Load the default file on startup for the TBI session
-        manager.loadFromFile("gym_records.csv");
+        // Load the default file in the background so the menu appears at once;
+        // the first option that needs the data waits for the load to finish.
+        manager.loadFromFileInBackground("gym_records.csv");
         System.out.println("Welcome to the Member Management System (Text Mode).");
-        System.out.println(manager.getAllMembers().size() + " records loaded from gym_records.csv.");
+        System.out.println("Loading records from gym_records.csv in the background...");
 
         int choice = 0;
         while (choice != 10) { // Exit option is now 10
@@ -64,6 +81,7 @@ public class GymApplication {
         System.out.println("8. Sort Members..."); // NEW SORT OPTION
         System.out.println("9. Save records to a new file");
         System.out.println("10. Exit and Save to gym_records.csv");
+        System.out.println("11. Reports & Statistics..."); // Numbered after Exit so 10 still exits
         System.out.println("==============================================");
         System.out.print("Please choose an option: ");
     }
@@ -101,6 +119,9 @@ public class GymApplication {
                 manager.saveToFile("gym_records.csv");
                 System.out.println("Data saved to gym_records.csv.");
                 break;
+            case 11:
+                handleReportsMenu();
+                break;
             default:
                 System.out.println("Invalid option. Please try again.");
         }
@@ -114,7 +135,8 @@ public class GymApplication {
         System.out.println("1. Sort by Member ID (Default)");
         System.out.println("2. Sort by Name");
         System.out.println("3. Sort by Join Date");
-        System.out.println("4. Back to Main Menu");
+        System.out.println("4. Custom multi-key sort (e.g. type,status,-joinDate,name)");
+        System.out.println("5. Back to Main Menu");
         System.out.print("Choose an option: ");
 
         try {
@@ -138,6 +160,67 @@ public class GymApplication {
                     handleViewAllMembers(); // Show results
                     break;
                 case 4:
+                    handleCustomSort();
+                    break;
+                case 5:
+                    System.out.println("Returning to main menu...");
+                    break;
+                default:
+                    System.out.println("Invalid option.");
+            }
+        } catch (InputMismatchException e) {
+            System.err.println("Invalid input. Please enter a number.");
+            scanner.nextLine();
+        }
+    }
+
+    /**
+     * Sorts by a composite key entered as a comma-separated spec.
+     */
+    private void handleCustomSort() {
+        System.out.println("Fields: id, name, type, status, joinDate, fee. Prefix with '-' for descending.");
+        System.out.print("Enter sort spec: ");
+        String specInput = scanner.nextLine();
+        try {
+            MemberSortSpec spec = MemberSortSpec.parse(specInput);
+            manager.sortMembersBy(spec);
+            System.out.println("Members sorted by " + spec + ".");
+            handleViewAllMembers(); // Show results
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Displays and handles the reports and statistics sub-menu.
+     */
+    private void handleReportsMenu() {
+        System.out.println("\n--- Reports & Statistics Menu ---");
+        System.out.println("1. Statistics dashboard");
+        System.out.println("2. Join-date cohort analytics");
+        System.out.println("3. Performance metrics");
+        System.out.println("4. Goal-achievement trends and streaks");
+        System.out.println("5. Back to Main Menu");
+        System.out.print("Choose an option: ");
+
+        try {
+            int choice = scanner.nextInt();
+            scanner.nextLine();
+
+            switch (choice) {
+                case 1:
+                    handleStatisticsDashboard();
+                    break;
+                case 2:
+                    handleCohortAnalytics();
+                    break;
+                case 3:
+                    handlePerformanceMetrics();
+                    break;
+                case 4:
+                    handlePerformanceTrends();
+                    break;
+                case 5:
                     System.out.println("Returning to main menu...");
                     break;
                 default:
@@ -149,6 +232,113 @@ public class GymApplication {
         }
     }
 
+    /**
+     * Prints the metrics report (query latencies, counters, gauges) and
+     * optionally writes it to a file.
+     */
+    private void handlePerformanceMetrics() {
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        System.out.println("\n--- Performance Metrics ---");
+        System.out.print(metrics.report());
+
+        System.out.print("\nSave report to file (filename, or Enter to skip): ");
+        String filename = scanner.nextLine().trim();
+        if (filename.isEmpty()) {
+            return;
+        }
+        try {
+            metrics.dumpToFile(filename);
+            System.out.println("Metrics written to " + filename);
+        } catch (IOException e) {
+            System.err.println("Error writing metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Prints goal-achievement rates per month and type and the streak
+     * summary, and optionally writes the monthly series to a CSV file.
+     */
+    private void handlePerformanceTrends() {
+        PerformanceTrendReport report = manager.getPerformanceTrendReport();
+        System.out.println("\n--- Goal-Achievement Trends ---");
+        report.print(System.out);
+
+        System.out.print("\nSave monthly series to CSV (filename, or Enter to skip): ");
+        String filename = scanner.nextLine().trim();
+        if (filename.isEmpty()) {
+            return;
+        }
+        try (Writer writer = new BufferedWriter(new FileWriter(filename))) {
+            report.writeCsv(writer);
+            System.out.println("Trends written to " + filename);
+        } catch (IOException e) {
+            System.err.println("Error writing trends: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Prints the live statistics. Every figure is read from the incremental
+     * aggregates in GymManager, so this is instant at any member count.
+     */
+    private void handleStatisticsDashboard() {
+        MemberStatistics stats = manager.getStatistics();
+        LocalDate lastMonth = LocalDate.now().minusMonths(1);
+        LocalDate thisMonth = LocalDate.now();
+
+        System.out.println("\n--- Statistics Dashboard ---");
+        System.out.println("Total members: " + stats.getTotalMembers());
+        System.out.printf("%-10s %8s %8s %8s%n", "Type", "Active", "Frozen", "Total");
+        for (String type : new String[]{"Regular", "Premium"}) {
+            System.out.printf("%-10s %8d %8d %8d%n", type,
+                    stats.getCount(type, MembershipStatus.ACTIVE),
+                    stats.getCount(type, MembershipStatus.FROZEN),
+                    stats.getCountByType(type));
+        }
+        System.out.printf("%-10s %8d %8d %8d%n", "All",
+                stats.getCountByStatus(MembershipStatus.ACTIVE),
+                stats.getCountByStatus(MembershipStatus.FROZEN),
+                stats.getTotalMembers());
+        System.out.printf("Projected monthly revenue: $%.2f%n", stats.getProjectedMonthlyRevenue());
+        System.out.println("Goal rate last month: " + formatGoalRate(stats, lastMonth));
+        System.out.println("Goal rate this month: " + formatGoalRate(stats, thisMonth));
+    }
+
+    /**
+     * Prints retention figures for each join month or quarter in a date range.
+     */
+    private void handleCohortAnalytics() {
+        try {
+            System.out.print("Enter start date (YYYY-MM-DD): ");
+            LocalDate from = LocalDate.parse(scanner.nextLine().trim());
+            System.out.print("Enter end date (YYYY-MM-DD): ");
+            LocalDate to = LocalDate.parse(scanner.nextLine().trim());
+            System.out.print("Group by (Month/Quarter): ");
+            String periodInput = scanner.nextLine().trim();
+            CohortPeriod period = periodInput.equalsIgnoreCase("Quarter") || periodInput.equalsIgnoreCase("Q")
+                    ? CohortPeriod.QUARTER : CohortPeriod.MONTH;
+
+            List<CohortStats> cohorts = manager.getJoinCohorts(from, to, period);
+            System.out.println("\n--- Join-Date Cohorts (" + from + " to " + to + ") ---");
+            if (cohorts.isEmpty()) {
+                System.out.println("Start date must not be after end date.");
+            }
+            cohorts.forEach(System.out::println);
+        } catch (DateTimeParseException e) {
+            System.err.println("Invalid date. Please use the format YYYY-MM-DD.");
+        }
+    }
+
+    private String formatGoalRate(MemberStatistics stats, LocalDate date) {
+        int month = date.getMonthValue();
+        int year = date.getYear();
+        double rate = stats.getGoalRate(month, year);
+        if (Double.isNaN(rate)) {
+            return "n/a (" + month + "/" + year + ", no records)";
+        }
+        return String.format("%.1f%% (%d/%d, %d records)", rate * 100, month, year,
+                stats.getPerformanceRecordCount(month, year));
+    }
+
     // --- All other handler methods (no changes) ---
 
     private void handleLoadFile() {
@@ -157,17 +347,91 @@ public class GymApplication {
         manager.loadFromFile(filename);
     }
 
+    /**
+     * Prints all members in their current (sorted) order, one page at a time.
+     * Pages come from one snapshot, so they stay consistent while the user reads.
+     */
     private void handleViewAllMembers() {
-        List<Member> members = manager.getAllMembers();
+        List<Member> members = manager.getSnapshot().getMembers();
         if (members.isEmpty()) {
             System.out.println("There are no members in the system.");
+            return;
+        }
+        System.out.println("\n--- All Members (" + members.size() + ") ---");
+        startListing();
+        for (int i = 0; i < members.size(); i++) {
+            printMember(members.get(i));
+            if (i + 1 < members.size() && !pageBreak(i + 1, members.size())) {
+                break;
+            }
+        }
+        renderer.flush();
+    }
+
+    /**
+     * Resets the paging state for a new listing and starts the table if the
+     * table view is on.
+     */
+    private void startListing() {
+        listAll = false;
+        rowsSincePrompt = 0;
+        if (tableView) {
+            renderer.appendTableHeader();
+        }
+    }
+
+    /**
+     * Adds a member to the current listing in the chosen view. Output is
+     * buffered until the next prompt or renderer.flush().
+     */
+    private void printMember(Member member) {
+        if (tableView) {
+            renderer.appendTableRow(member);
         } else {
-            System.out.println("\n--- All Members (" + members.size() + ") ---");
-            members.forEach(member -> {
-                System.out.println(member);
-                System.out.println("-------------------");
-            });
+            renderer.appendDetailed(member);
+        }
+        rowsSincePrompt++;
+    }
+
+    private void printMembers(List<Member> members) {
+        startListing();
+        members.forEach(this::printMember);
+        renderer.flush();
+    }
+
+    /**
+     * Prompts for the next page once a page's worth of rows has been shown
+     * (PAGE_SIZE detailed, TABLE_PAGE_SIZE in the table view).
+     * @return true to continue, false if the user typed 'q'.
+     */
+    private boolean pageBreak(int shown, int total) {
+        int pageSize = tableView ? TABLE_PAGE_SIZE : PAGE_SIZE;
+        if (listAll || rowsSincePrompt < pageSize) {
+            return true;
+        }
+        rowsSincePrompt = 0;
+        return promptNextPage(shown, total);
+    }
+
+    /**
+     * Asks whether to show the next page; 't' also switches between the
+     * detailed and table views, and 'a' shows the rest without stopping.
+     * @return true to continue, false if the user typed 'q'.
+     */
+    private boolean promptNextPage(int shown, int total) {
+        renderer.flush();
+        String progress = (total >= 0) ? " (" + shown + " of " + total + ")" : " (" + shown + " shown)";
+        System.out.print("-- Press Enter for more" + progress + ", 't' to switch view, 'a' for all, or 'q' to stop: ");
+        String answer = scanner.nextLine().trim();
+        if (answer.equalsIgnoreCase("t")) {
+            tableView = !tableView;
+            if (tableView) {
+                renderer.appendTableHeader();
+            }
+        } else if (answer.equalsIgnoreCase("a")) {
+            listAll = true;
         }
+        return !answer.equalsIgnoreCase("q");
     }
 
     private void handleAddMember() {
@@ -224,7 +488,7 @@ public class GymApplication {
         String statusInput = scanner.nextLine().toUpperCase();
         try {
             MembershipStatus newStatus = MembershipStatus.valueOf(statusInput);
-            member.setStatus(newStatus);
+            manager.updateMemberStatus(memberId, newStatus);
             System.out.println("Status updated successfully!");
         } catch (IllegalArgumentException e) {
             System.err.println("Invalid status. Please enter 'ACTIVE' or 'FROZEN'.");
@@ -250,7 +514,7 @@ public class GymApplication {
             boolean achieved = scanner.nextBoolean();
             scanner.nextLine();
 
-            member.addPerformanceRecord(new Performance(month, year, achieved));
+            manager.addPerformanceRecord(memberId, new Performance(month, year, achieved));
             System.out.println("Performance record added for " + member.getFullName());
 
         } catch (InputMismatchException e) {
@@ -281,12 +545,13 @@ public class GymApplication {
 
     private void handleSearchMenu() {
         int choice = 0;
-        while (choice != 4) {
+        while (choice != 5) {
             System.out.println("\n--- Search & Filter Menu ---");
             System.out.println("1. Search by Name");
             System.out.println("2. Filter by Member Type");
             System.out.println("3. Filter by Performance");
-            System.out.println("4. Return to Main Menu");
+            System.out.println("4. Top Members (by fee or join date)");
+            System.out.println("5. Return to Main Menu");
             System.out.print("Choose an option: ");
 
             try {
@@ -304,6 +569,9 @@ public class GymApplication {
                         handleFilterByPerformance();
                         break;
                     case 4:
+                        handleTopMembers();
+                        break;
+                    case 5:
                         break;
                     default:
                         System.out.println("Invalid option.");
@@ -315,16 +583,33 @@ public class GymApplication {
         }
     }
 
+    /**
+     * Searches for names containing the term; if there are none, falls back
+     * to the closest misspelled or sound-alike names.
+     */
     private void handleSearchByName() {
         System.out.print("Enter name to search for: ");
         String name = scanner.nextLine();
-        displaySearchResults(manager.findMembersByName(name), "Search Results for '" + name + "'");
+        MemberPage first = manager.findMembersByNamePage(name, null, PAGE_SIZE);
+        if (!first.isEmpty()) {
+            displaySearchResults(first, after -> manager.findMembersByNamePage(name, after, PAGE_SIZE),
+                    "Search Results for '" + name + "'");
+            return;
+        }
+        List<Member> closest = manager.findMembersByFuzzyName(name, PAGE_SIZE);
+        if (closest.isEmpty()) {
+            System.out.println("No members found matching '" + name + "'.");
+            return;
+        }
+        System.out.println("\n--- No exact matches for '" + name + "'. Closest names: ---");
+        printMembers(closest);
     }
 
     private void handleFilterByType() {
         System.out.print("Enter type to filter (Regular/Premium): ");
         String type = scanner.nextLine();
-        displaySearchResults(manager.filterMembersByType(type), "Filter Results for Type: " + type);
+        displaySearchResults(after -> manager.filterMembersByTypePage(type, after, PAGE_SIZE),
+                "Filter Results for Type: " + type);
     }
 
     private void handleFilterByPerformance() {
@@ -338,7 +623,7 @@ public class GymApplication {
             scanner.nextLine();
 
             String status = achieved ? "Achieved Goal" : "Did Not Achieve Goal";
-            displaySearchResults(manager.findMembersByPerformance(month, year, achieved),
+            displaySearchResults(after -> manager.findMembersByPerformancePage(month, year, achieved, after, PAGE_SIZE),
                     "Filter Results for Performance: " + status + " in " + month + "/" + year);
         } catch (InputMismatchException e) {
             System.err.println("Invalid input.");
@@ -346,16 +631,71 @@ public class GymApplication {
         }
     }
 
-    private void displaySearchResults(List<Member> results, String header) {
+    /**
+     * Shows the top-K members by monthly fee or join date.
+     */
+    private void handleTopMembers() {
+        try {
+            System.out.print("How many members to show? ");
+            int k = scanner.nextInt();
+            scanner.nextLine();
+            System.out.print("Rank by (1) Highest fee, (2) Newest, (3) Longest-standing: ");
+            int rank = scanner.nextInt();
+            scanner.nextLine();
+
+            List<Member> top;
+            String header;
+            if (rank == 1) {
+                top = manager.findTopMembersByFee(k);
+                header = "Top " + k + " Members by Monthly Fee";
+            } else if (rank == 2) {
+                top = manager.findTopMembersByJoinDate(k, true);
+                header = k + " Newest Members";
+            } else {
+                top = manager.findTopMembersByJoinDate(k, false);
+                header = k + " Longest-Standing Members";
+            }
+            System.out.println("\n--- " + header + " ---");
+            if (top.isEmpty()) {
+                System.out.println("No members found.");
+            }
+            printMembers(top);
+        } catch (InputMismatchException e) {
+            System.err.println("Invalid input. Please enter a number.");
+            scanner.nextLine();
+        }
+    }
+
+    /**
+     * Prints query results one page at a time using keyset pagination, so
+     * only the current page is ever held in memory.
+     * @param nextPage Fetches the page after the given cursor (null for the first page).
+     */
+    private void displaySearchResults(Function<Member, MemberPage> nextPage, String header) {
+        displaySearchResults(nextPage.apply(null), nextPage, header);
+    }
+
+    /**
+     * Same, starting from a first page the caller already fetched.
+     */
+    private void displaySearchResults(MemberPage first, Function<Member, MemberPage> nextPage, String header) {
         System.out.println("\n--- " + header + " ---");
-        if (results.isEmpty()) {
+        MemberPage page = first;
+        if (page.isEmpty()) {
             System.out.println("No members found matching your criteria.");
-        } else {
-            results.forEach(member -> {
-                System.out.println(member);
-                System.out.println("-------------------");
-            });
+            return;
+        }
+        startListing();
+        int shown = 0;
+        while (true) {
+            page.getMembers().forEach(this::printMember);
+            shown += page.getMembers().size();
+            if (!page.hasMore() || !pageBreak(shown, -1)) {
+                break;
+            }
+            page = nextPage.apply(page.getLastMember());
         }
+        renderer.flush();
     }
 }
 
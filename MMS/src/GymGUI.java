@@ -1,6 +1,7 @@
 package src;
 
 import java.awt.BorderLayout;
+import java.awt.Component;
 import java.awt.FlowLayout;
 import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
@@ -9,10 +10,15 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
 import javax.swing.JDialog;
 import javax.swing.JFileChooser;
@@ -22,8 +28,10 @@ import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
+import javax.swing.JTextArea;
 import javax.swing.JTextField;
 import javax.swing.RowFilter;
+import javax.swing.SwingUtilities;
 import javax.swing.border.EmptyBorder;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableRowSorter;
@@ -40,6 +48,21 @@ public class GymGUI extends JFrame {
     private DefaultTableModel tableModel;
     private TableRowSorter<DefaultTableModel> sorter;
 
+    // Live statistics panel labels, updated on every table refresh
+    private JLabel totalLabel;
+    private JLabel regularLabel;
+    private JLabel premiumLabel;
+    private JLabel frozenLabel;
+    private JLabel revenueLabel;
+    private JLabel goalRateLabel;
+
+    // Set while a refresh is queued on the Event Dispatch Thread
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    private static final int REFRESH_EVENT_CAPACITY = 4096;
+
+    // How many of the closest names a "Similar names" search shows
+    private static final int FUZZY_SEARCH_RESULTS = 50;
+
     private static final String[] COLUMN_NAMES = {
             "ID", "Name", "Type", "Join Date", "Status", "Monthly Fee ($)", "Details"
     };
@@ -51,8 +74,17 @@ public class GymGUI extends JFrame {
     public GymGUI(GymManager manager) {
         this.manager = manager;
 
-        // Load default data
-        this.manager.loadFromFile("gym_records.csv");
+        // Refresh the table whenever the data changes, whoever changed it.
+        // Subscribed before loading so the initial load's reload event arrives too.
+        this.manager.addAsyncChangeListener(new MemberChangeListener() {
+            @Override
+            public void batchDelivered() {
+                scheduleRefresh();
+            }
+        }, REFRESH_EVENT_CAPACITY);
+
+        // Load default data in the background so the window appears at once
+        this.manager.loadFromFileInBackground("gym_records.csv");
 
         // Set up the main window
         setTitle("Gym Member Management System");
@@ -64,14 +96,54 @@ public class GymGUI extends JFrame {
         initTable();
 
         // Create panels for buttons and controls
+        JPanel controlPanel = createControlPanel();
+        JPanel searchPanel = createSearchPanel();
         JPanel mainPanel = new JPanel(new BorderLayout());
         mainPanel.add(new JScrollPane(memberTable), BorderLayout.CENTER);
-        mainPanel.add(createControlPanel(), BorderLayout.SOUTH);
-        mainPanel.add(createSearchPanel(), BorderLayout.NORTH);
+        mainPanel.add(controlPanel, BorderLayout.SOUTH);
+        mainPanel.add(searchPanel, BorderLayout.NORTH);
+        mainPanel.add(createStatisticsPanel(), BorderLayout.EAST);
 
         add(mainPanel);
         setVisible(true);
-        refreshTable(); // Initial data load
+        if (manager.isLoading()) {
+            // Every action waits for the load, which would freeze the Event
+            // Dispatch Thread, so they stay disabled until it has finished
+            totalLabel.setText("Loading members..."); // The reload event refreshes the table
+            setControlsEnabled(false, controlPanel, searchPanel);
+            Thread waiter = new Thread(() -> {
+                manager.awaitLoad();
+                SwingUtilities.invokeLater(() -> setControlsEnabled(true, controlPanel, searchPanel));
+            }, "gui-load-wait");
+            waiter.setDaemon(true);
+            waiter.start();
+        } else {
+            refreshTable();
+        }
+    }
+
+    /**
+     * Enables or disables every control in the given panels.
+     */
+    private static void setControlsEnabled(boolean enabled, JPanel... panels) {
+        for (JPanel panel : panels) {
+            for (Component component : panel.getComponents()) {
+                component.setEnabled(enabled);
+            }
+        }
+    }
+
+    /**
+     * Queues one table refresh on the Event Dispatch Thread, unless one is
+     * already queued, so a burst of changes costs a single refresh.
+     */
+    private void scheduleRefresh() {
+        if (refreshPending.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(() -> {
+                refreshPending.set(false);
+                refreshTable();
+            });
+        }
     }
 
     /**
@@ -102,11 +174,25 @@ public class GymGUI extends JFrame {
         JTextField searchField = new JTextField(20);
         JButton searchButton = new JButton("Search");
 
+        JCheckBox fuzzyBox = new JCheckBox("Similar names");
+        fuzzyBox.setToolTipText("Also find misspelled and sound-alike names");
+
         // Search logic
         searchButton.addActionListener((ActionEvent e) -> {
             String text = searchField.getText();
             if (text.trim().length() == 0) {
                 sorter.setRowFilter(null);
+            } else if (fuzzyBox.isSelected()) {
+                // Show the closest names; the table keeps its own order
+                Set<String> ids = new HashSet<>();
+                manager.findMembersByFuzzyName(text, FUZZY_SEARCH_RESULTS)
+                        .forEach(member -> ids.add(member.getMemberId()));
+                sorter.setRowFilter(new RowFilter<DefaultTableModel, Integer>() {
+                    @Override
+                    public boolean include(Entry<? extends DefaultTableModel, ? extends Integer> entry) {
+                        return ids.contains((String) entry.getValue(0)); // 0 is the ID column
+                    }
+                });
             } else {
                 // Case-insensitive search
                 sorter.setRowFilter(RowFilter.regexFilter("(?i)" + text));
@@ -114,7 +200,7 @@ public class GymGUI extends JFrame {
         });
 
         JComboBox<String> sortComboBox = new JComboBox<>(new String[]{
-            "Sort by ID", "Sort by Name", "Sort by Join Date"
+            "Sort by ID", "Sort by Name", "Sort by Join Date", "Custom..."
         });
         
         // Sort logic
@@ -126,6 +212,19 @@ public class GymGUI extends JFrame {
                 manager.sortMembersByName();
             } else if ("Sort by Join Date".equals(selection)) {
                 manager.sortMembersByJoinDate();
+            } else if ("Custom...".equals(selection)) {
+                String specInput = JOptionPane.showInputDialog(this,
+                        "Sort fields (id, name, type, status, joinDate, fee), '-' for descending:",
+                        "type,status,-joinDate,name");
+                if (specInput == null) {
+                    return; // Cancelled
+                }
+                try {
+                    manager.sortMembersBy(MemberSortSpec.parse(specInput));
+                } catch (IllegalArgumentException ex) {
+                    JOptionPane.showMessageDialog(this, ex.getMessage(), "Input Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
             }
             refreshTable();
         });
@@ -133,12 +232,60 @@ public class GymGUI extends JFrame {
         searchPanel.add(new JLabel("Filter:"));
         searchPanel.add(searchField);
         searchPanel.add(searchButton);
+        searchPanel.add(fuzzyBox);
         searchPanel.add(new JLabel("  |  Sort by:"));
         searchPanel.add(sortComboBox);
 
         return searchPanel;
     }
 
+    /**
+     * Creates the side panel showing live statistics from the GymManager.
+     */
+    private JPanel createStatisticsPanel() {
+        JPanel statsPanel = new JPanel(new GridLayout(6, 1, 5, 5));
+        statsPanel.setBorder(BorderFactory.createTitledBorder("Statistics"));
+
+        totalLabel = new JLabel();
+        regularLabel = new JLabel();
+        premiumLabel = new JLabel();
+        frozenLabel = new JLabel();
+        revenueLabel = new JLabel();
+        goalRateLabel = new JLabel();
+
+        statsPanel.add(totalLabel);
+        statsPanel.add(regularLabel);
+        statsPanel.add(premiumLabel);
+        statsPanel.add(frozenLabel);
+        statsPanel.add(revenueLabel);
+        statsPanel.add(goalRateLabel);
+
+        JPanel wrapper = new JPanel(new BorderLayout());
+        wrapper.add(statsPanel, BorderLayout.NORTH);
+        return wrapper;
+    }
+
+    /**
+     * Updates the statistics labels. All values are O(1) reads of the
+     * incremental aggregates, so this is cheap to call after every action.
+     */
+    private void updateStatisticsPanel() {
+        MemberStatistics stats = manager.getStatistics();
+        LocalDate lastMonth = LocalDate.now().minusMonths(1);
+        double goalRate = stats.getGoalRate(lastMonth.getMonthValue(), lastMonth.getYear());
+
+        totalLabel.setText("Total members: " + stats.getTotalMembers());
+        regularLabel.setText("Regular: " + stats.getCount("Regular", MembershipStatus.ACTIVE)
+                + " active / " + stats.getCount("Regular", MembershipStatus.FROZEN) + " frozen");
+        premiumLabel.setText("Premium: " + stats.getCount("Premium", MembershipStatus.ACTIVE)
+                + " active / " + stats.getCount("Premium", MembershipStatus.FROZEN) + " frozen");
+        frozenLabel.setText("Frozen total: " + stats.getCountByStatus(MembershipStatus.FROZEN));
+        revenueLabel.setText(String.format("Monthly revenue: $%.2f", stats.getProjectedMonthlyRevenue()));
+        goalRateLabel.setText(Double.isNaN(goalRate)
+                ? "Goal rate last month: n/a"
+                : String.format("Goal rate last month: %.1f%%", goalRate * 100));
+    }
+
     /**
      * Creates the bottom panel containing the main action buttons.
      */
@@ -157,6 +304,9 @@ public class GymGUI extends JFrame {
         JButton perfButton = new JButton("Add Performance");
         perfButton.addActionListener(e -> handleAddPerformance());
         
+        JButton cohortButton = new JButton("Cohorts");
+        cohortButton.addActionListener(e -> handleCohortReport());
+
         JButton saveButton = new JButton("Save to File");
         saveButton.addActionListener(e -> handleSaveToFile());
 
@@ -167,6 +317,7 @@ public class GymGUI extends JFrame {
         controlPanel.add(deleteButton);
         controlPanel.add(statusButton);
         controlPanel.add(perfButton);
+        controlPanel.add(cohortButton);
         controlPanel.add(saveButton);
         controlPanel.add(exitButton);
 
@@ -177,6 +328,7 @@ public class GymGUI extends JFrame {
      * Clears and repopulates the table with fresh data from the GymManager.
      */
     private void refreshTable() {
+        TableRefreshEvent event = TableRefreshEvent.start();
         tableModel.setRowCount(0); // Clear existing data
         List<Member> members = manager.getAllMembers();
         for (Member member : members) {
@@ -195,6 +347,8 @@ public class GymGUI extends JFrame {
                     details
             });
         }
+        updateStatisticsPanel();
+        event.finish(tableModel.getRowCount());
     }
 
     /**
@@ -268,7 +422,6 @@ public class GymGUI extends JFrame {
                     member = new PremiumMember(id, name, LocalDate.now(), fee);
                 }
                 manager.addMember(member);
-                refreshTable();
                 JOptionPane.showMessageDialog(this, "Member added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
 
             } catch (NumberFormatException ex) {
@@ -293,7 +446,6 @@ public class GymGUI extends JFrame {
 
         if (confirm == JOptionPane.YES_OPTION) {
             manager.deleteMember(id);
-            refreshTable();
             JOptionPane.showMessageDialog(this, "Member deleted successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
         }
     }
@@ -313,8 +465,7 @@ public class GymGUI extends JFrame {
                 JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
 
         if (result == JOptionPane.OK_OPTION) {
-            member.setStatus((MembershipStatus) statusBox.getSelectedItem());
-            refreshTable();
+            manager.updateMemberStatus(id, (MembershipStatus) statusBox.getSelectedItem());
             JOptionPane.showMessageDialog(this, "Status updated.", "Success", JOptionPane.INFORMATION_MESSAGE);
         }
     }
@@ -349,8 +500,7 @@ public class GymGUI extends JFrame {
                 int year = Integer.parseInt(yearField.getText());
                 boolean achieved = Boolean.parseBoolean((String) achievedBox.getSelectedItem());
                 
-                member.addPerformanceRecord(new Performance(month, year, achieved));
-                refreshTable(); // Refresh to show potential fee discount
+                manager.addPerformanceRecord(id, new Performance(month, year, achieved));
                 JOptionPane.showMessageDialog(this, "Performance record added.", "Success", JOptionPane.INFORMATION_MESSAGE);
                 
             } catch (NumberFormatException ex) {
@@ -359,6 +509,47 @@ public class GymGUI extends JFrame {
         }
     }
 
+    /**
+     * Shows retention figures for each join month or quarter in a date range.
+     */
+    private void handleCohortReport() {
+        JTextField fromField = new JTextField(LocalDate.now().minusYears(1).withDayOfMonth(1).toString());
+        JTextField toField = new JTextField(LocalDate.now().toString());
+        JComboBox<CohortPeriod> periodBox = new JComboBox<>(CohortPeriod.values());
+
+        JPanel panel = new JPanel(new GridLayout(3, 2, 10, 10));
+        panel.setBorder(new EmptyBorder(10, 10, 10, 10));
+        panel.add(new JLabel("From (YYYY-MM-DD):"));
+        panel.add(fromField);
+        panel.add(new JLabel("To (YYYY-MM-DD):"));
+        panel.add(toField);
+        panel.add(new JLabel("Group by:"));
+        panel.add(periodBox);
+
+        int result = JOptionPane.showConfirmDialog(this, panel, "Join-Date Cohorts",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+
+        if (result == JOptionPane.OK_OPTION) {
+            try {
+                LocalDate from = LocalDate.parse(fromField.getText().trim());
+                LocalDate to = LocalDate.parse(toField.getText().trim());
+                List<CohortStats> cohorts = manager.getJoinCohorts(from, to,
+                        (CohortPeriod) periodBox.getSelectedItem());
+
+                StringBuilder report = new StringBuilder();
+                for (CohortStats cohort : cohorts) {
+                    report.append(cohort).append("\n");
+                }
+                JTextArea reportArea = new JTextArea(report.length() == 0 ? "No cohorts in range." : report.toString(), 15, 60);
+                reportArea.setEditable(false);
+                JOptionPane.showMessageDialog(this, new JScrollPane(reportArea), "Cohort Report", JOptionPane.PLAIN_MESSAGE);
+
+            } catch (DateTimeParseException ex) {
+                JOptionPane.showMessageDialog(this, "Invalid date. Use YYYY-MM-DD.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+
     /**
      * Handles saving the entire member list to a new CSV file.
      * This is the method with the corrected logic.
@@ -0,0 +1,482 @@
+package src;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Embedded HTTP/JSON API over a GymManager, for kiosks and billing systems.
+ * Built on the JDK's com.sun.net.httpserver with one thread per request.
+ *
+ * Endpoints:
+ *   GET    /api/members?name=&type=&month=&year=&achieved=&limit=   (streamed JSON array)
+ *   POST   /api/members                  {"id","name","type","trainerFee"}
+ *   GET    /api/members/{id}
+ *   PATCH  /api/members/{id}             {"name","trainerFee"} (either or both)
+ *   DELETE /api/members/{id}
+ *   PUT    /api/members/{id}/status      {"status":"ACTIVE"|"FROZEN"}
+ *   GET    /api/members/{id}/performance
+ *   POST   /api/members/{id}/performance {"month","year","achieved"}
+ *   GET    /api/statistics
+ *
+ * A read-only server (e.g. on a replication standby) answers only GET
+ * requests and rejects all others with 405.
+ *
+ * Calls that read and then change the manager are made while holding its
+ * monitor, so they see no other change in between. Responses are only
+ * written after the lock is released, so a slow client cannot hold up
+ * other requests or the manager's writers; list responses are built from
+ * a snapshot stream.
+ */
+public class GymHttpServer {
+
+    private static final String MEMBERS_PATH = "/api/members";
+    private static final int STREAM_CHUNK_CHARS = 32 * 1024;
+
+    static {
+        // Small JSON responses otherwise stall on Nagle + delayed ACK (~40 ms each)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final GymManager manager;
+    private final boolean readOnly;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Creates the server. Call start() to begin accepting requests.
+     * @param port The TCP port to listen on, or 0 for any free port.
+     */
+    public GymHttpServer(GymManager manager, int port) throws IOException {
+        this(manager, port, false);
+    }
+
+    /**
+     * @param readOnly true to serve queries only, e.g. from a replication standby.
+     */
+    public GymHttpServer(GymManager manager, int port, boolean readOnly) throws IOException {
+        this.manager = manager;
+        this.readOnly = readOnly;
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = newPerRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext(MEMBERS_PATH, this::handleMembers);
+        server.createContext("/api/statistics", this::handleStatistics);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Uses a virtual thread per request where the JDK provides them (21+),
+     * falling back to a cached platform-thread pool on older JDKs.
+     */
+    static ExecutorService newPerRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "mms-http");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    // --- Routing ---
+
+    private void handleMembers(HttpExchange exchange) throws IOException {
+        try {
+            String rest = exchange.getRequestURI().getPath().substring(MEMBERS_PATH.length());
+            String[] segments = rest.isEmpty() || rest.equals("/") ? new String[0] : rest.substring(1).split("/");
+            String method = exchange.getRequestMethod();
+
+            if (readOnly && !method.equals("GET")) {
+                sendError(exchange, 405, "This server is a read-only standby.");
+            } else if (segments.length == 0 && method.equals("GET")) {
+                listMembers(exchange);
+            } else if (segments.length == 0 && method.equals("POST")) {
+                createMember(exchange);
+            } else if (segments.length == 1 && method.equals("GET")) {
+                getMember(exchange, segments[0]);
+            } else if (segments.length == 1 && method.equals("PATCH")) {
+                updateMember(exchange, segments[0]);
+            } else if (segments.length == 1 && method.equals("DELETE")) {
+                deleteMember(exchange, segments[0]);
+            } else if (segments.length == 2 && segments[1].equals("status") && method.equals("PUT")) {
+                updateStatus(exchange, segments[0]);
+            } else if (segments.length == 2 && segments[1].equals("performance") && method.equals("GET")) {
+                listPerformance(exchange, segments[0]);
+            } else if (segments.length == 2 && segments[1].equals("performance") && method.equals("POST")) {
+                addPerformance(exchange, segments[0]);
+            } else {
+                sendError(exchange, 404, "No such endpoint: " + method + " " + exchange.getRequestURI().getPath());
+            }
+        } catch (IllegalArgumentException e) {
+            if (exchange.getResponseCode() == -1) {
+                sendError(exchange, 400, e.getMessage());
+            } else {
+                // Too late for a status code: the response is cut short instead
+                System.err.println("Request failed after the response started: " + e.getMessage());
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleStatistics(HttpExchange exchange) throws IOException {
+        try {
+            StringBuilder sb = new StringBuilder("{");
+            synchronized (manager) {
+                MemberStatistics stats = manager.getStatistics();
+                sb.append("\"totalMembers\":").append(stats.getTotalMembers());
+                for (String type : new String[]{"Regular", "Premium"}) {
+                    for (MembershipStatus status : MembershipStatus.values()) {
+                        sb.append(",\"").append(type.toLowerCase()).append(status.name().charAt(0))
+                                .append(status.name().substring(1).toLowerCase()).append("\":")
+                                .append(stats.getCount(type, status));
+                    }
+                }
+                sb.append(",\"projectedMonthlyRevenue\":");
+                Json.appendNumber(sb, stats.getProjectedMonthlyRevenue());
+            }
+            sendJson(exchange, 200, sb.append('}').toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // --- Member endpoints ---
+
+    /**
+     * Streams matching members as a JSON array in chunks, so large result
+     * sets are never materialized as one list or one response string.
+     */
+    private void listMembers(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String name = query.get("name");
+        String type = query.get("type");
+        // Everything is checked here: once the 200 is sent, an error can no longer be reported
+        long limit = query.containsKey("limit") ? parseLong(query, "limit") : Long.MAX_VALUE;
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit cannot be negative.");
+        }
+        boolean byPerformance = query.containsKey("month") && query.containsKey("year");
+        int month = 0;
+        int year = 0;
+        if (byPerformance) {
+            month = parseInt(query, "month");
+            year = parseInt(query, "year");
+            if (month < 1 || month > 12) {
+                throw new IllegalArgumentException("Month must be between 1 and 12.");
+            }
+        }
+
+        // Use the most selective stream variant, then apply any remaining filters
+        Stream<Member> results;
+        synchronized (manager) {
+            if (byPerformance) {
+                results = manager.streamMembersByPerformance(month, year, !"false".equals(query.get("achieved")));
+            } else if (name != null) {
+                results = manager.streamMembersByName(name);
+            } else if (type != null) {
+                results = manager.streamMembersByType(type);
+            } else {
+                results = manager.streamAllMembers();
+            }
+        }
+        if (byPerformance && name != null) {
+            String lowerCaseName = name.toLowerCase();
+            results = results.filter(member -> member.getFullName().toLowerCase().contains(lowerCaseName));
+        }
+        if (type != null && (byPerformance || name != null)) {
+            results = results.filter(member -> member.getMemberType().equalsIgnoreCase(type));
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0); // Chunked transfer encoding
+        try (Writer writer = new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8)) {
+            StringBuilder chunk = new StringBuilder(STREAM_CHUNK_CHARS + 512);
+            chunk.append('[');
+            boolean first = true;
+            Iterator<Member> it = results.limit(limit).iterator();
+            while (it.hasNext()) {
+                if (!first) {
+                    chunk.append(',');
+                }
+                first = false;
+                Json.appendMember(chunk, it.next());
+                if (chunk.length() >= STREAM_CHUNK_CHARS) {
+                    writer.append(chunk);
+                    chunk.setLength(0);
+                }
+            }
+            writer.append(chunk.append(']'));
+        }
+    }
+
+    private void createMember(HttpExchange exchange) throws IOException {
+        Map<String, String> body = Json.parseObject(readBody(exchange));
+        String id = requireCsvText(body, "id");
+        String name = requireCsvText(body, "name");
+        String type = body.getOrDefault("type", "Regular");
+
+        Member member;
+        if (type.equalsIgnoreCase("Regular")) {
+            member = new RegularMember(id, name, LocalDate.now());
+        } else if (type.equalsIgnoreCase("Premium")) {
+            double trainerFee = Double.parseDouble(body.getOrDefault("trainerFee", "0"));
+            if (!(trainerFee >= 0) || Double.isInfinite(trainerFee)) {
+                throw new IllegalArgumentException("trainerFee must be a non-negative amount.");
+            }
+            member = new PremiumMember(id, name, LocalDate.now(), trainerFee);
+        } else {
+            throw new IllegalArgumentException("Invalid member type. Use 'Regular' or 'Premium'.");
+        }
+
+        boolean added;
+        synchronized (manager) {
+            added = manager.findMemberById(id) == null;
+            if (added) {
+                manager.addMember(member);
+            }
+        }
+        if (added) {
+            sendJson(exchange, 201, Json.appendMember(new StringBuilder(), member).toString());
+        } else {
+            sendError(exchange, 409, "A member with this ID already exists.");
+        }
+    }
+
+    private void getMember(HttpExchange exchange, String id) throws IOException {
+        StringBuilder sb = null;
+        synchronized (manager) {
+            Member member = manager.findMemberById(id);
+            if (member != null) {
+                sb = Json.appendMember(new StringBuilder(), member);
+            }
+        }
+        if (sb != null) {
+            sendJson(exchange, 200, sb.toString());
+        } else {
+            sendError(exchange, 404, "Member not found.");
+        }
+    }
+
+    /**
+     * Renames a member and/or changes a Premium member's trainer fee. Both
+     * values are checked before anything changes, so a rejected request
+     * leaves the member as it was.
+     */
+    private void updateMember(HttpExchange exchange, String id) throws IOException {
+        Map<String, String> body = Json.parseObject(readBody(exchange));
+        String name = body.containsKey("name") ? requireCsvText(body, "name") : null;
+        Double trainerFee = null;
+        if (body.containsKey("trainerFee")) {
+            trainerFee = Double.parseDouble(require(body, "trainerFee"));
+            if (!(trainerFee >= 0) || Double.isInfinite(trainerFee)) {
+                throw new IllegalArgumentException("trainerFee must be a non-negative amount.");
+            }
+        }
+        if (name == null && trainerFee == null) {
+            throw new IllegalArgumentException("Nothing to update: give a name, a trainerFee or both.");
+        }
+        if (name != null && name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Name cannot be empty.");
+        }
+
+        StringBuilder sb = null;
+        boolean premium = true;
+        synchronized (manager) {
+            Member member = manager.findMemberById(id);
+            if (member != null) {
+                premium = member instanceof PremiumMember;
+                if (trainerFee == null || premium) {
+                    if (name != null) {
+                        manager.renameMember(id, name);
+                    }
+                    if (trainerFee != null) {
+                        manager.updatePersonalTrainerFee(id, trainerFee);
+                    }
+                    sb = Json.appendMember(new StringBuilder(), manager.findMemberById(id));
+                }
+            }
+        }
+        if (sb != null) {
+            sendJson(exchange, 200, sb.toString());
+        } else if (!premium) {
+            sendError(exchange, 400, "Only Premium members have a personal trainer fee.");
+        } else {
+            sendError(exchange, 404, "Member not found.");
+        }
+    }
+
+    private void deleteMember(HttpExchange exchange, String id) throws IOException {
+        boolean deleted;
+        synchronized (manager) {
+            deleted = manager.deleteMember(id);
+        }
+        if (deleted) {
+            exchange.sendResponseHeaders(204, -1);
+        } else {
+            sendError(exchange, 404, "Member not found.");
+        }
+    }
+
+    private void updateStatus(HttpExchange exchange, String id) throws IOException {
+        Map<String, String> body = Json.parseObject(readBody(exchange));
+        MembershipStatus status = MembershipStatus.valueOf(require(body, "status").toUpperCase());
+        StringBuilder sb = null;
+        synchronized (manager) {
+            if (manager.updateMemberStatus(id, status)) {
+                sb = Json.appendMember(new StringBuilder(), manager.findMemberById(id));
+            }
+        }
+        if (sb != null) {
+            sendJson(exchange, 200, sb.toString());
+        } else {
+            sendError(exchange, 404, "Member not found.");
+        }
+    }
+
+    private void listPerformance(HttpExchange exchange, String id) throws IOException {
+        StringBuilder sb = null;
+        synchronized (manager) {
+            Member member = manager.findMemberById(id);
+            if (member != null) {
+                sb = new StringBuilder("[");
+                List<Performance> history = member.getPerformanceHistory();
+                for (int i = 0; i < history.size(); i++) {
+                    if (i > 0) {
+                        sb.append(',');
+                    }
+                    Json.appendPerformance(sb, history.get(i));
+                }
+            }
+        }
+        if (sb != null) {
+            sendJson(exchange, 200, sb.append(']').toString());
+        } else {
+            sendError(exchange, 404, "Member not found.");
+        }
+    }
+
+    private void addPerformance(HttpExchange exchange, String id) throws IOException {
+        Map<String, String> body = Json.parseObject(readBody(exchange));
+        Performance record = new Performance(Integer.parseInt(require(body, "month")),
+                Integer.parseInt(require(body, "year")), Boolean.parseBoolean(require(body, "achieved")));
+        boolean added;
+        synchronized (manager) {
+            added = manager.addPerformanceRecord(id, record);
+        }
+        if (added) {
+            sendJson(exchange, 201, Json.appendPerformance(new StringBuilder(), record).toString());
+        } else {
+            sendError(exchange, 404, "Member not found.");
+        }
+    }
+
+    // --- Helpers ---
+
+    private static String require(Map<String, String> body, String key) {
+        String value = body.get(key);
+        if (value == null || value.equals("null")) {
+            throw new IllegalArgumentException("Missing field: " + key);
+        }
+        return value;
+    }
+
+    /**
+     * Like require, for values saved as a field of the CSV file: a comma or
+     * line break would split the line and lose the member on the next load.
+     */
+    private static String requireCsvText(Map<String, String> body, String key) {
+        String value = require(body, key);
+        if (value.indexOf(',') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException(key + " cannot contain commas or line breaks.");
+        }
+        return value;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the query parameter is not a whole number.
+     */
+    private static long parseLong(Map<String, String> query, String key) {
+        try {
+            return Long.parseLong(query.get(key).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " must be a whole number: " + query.get(key));
+        }
+    }
+
+    private static int parseInt(Map<String, String> query, String key) {
+        long value = parseLong(query, key);
+        if (value != (int) value) {
+            throw new IllegalArgumentException(key + " is out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.put(key, value);
+        }
+        return params;
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        StringBuilder sb = new StringBuilder("{\"error\":");
+        Json.appendString(sb, message);
+        sendJson(exchange, status, sb.append('}').toString());
+    }
+}
@@ -6,13 +6,24 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap; // NEW: For efficient searching
 import java.util.List;
 import java.util.Map; // NEW: For efficient searching
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Controller Class ("The Engine")
@@ -21,30 +32,155 @@ import java.util.stream.Collectors;
  * INDIVIDUAL PROJECT UPDATES:
  * - Uses a HashMap (memberMap) for O(1) searching by ID.
  * - Provides sorting methods using Comparators.
+ *
+ * All changes to members go through this class (Member's setters are
+ * package-private). Every method that changes data is synchronized on the
+ * manager, the same monitor background readers such as GymHttpServer hold
+ * while they query, and bumps getVersion(), so callers can cache anything
+ * derived from the data until the version moves.
  */
 public class GymManager {
 
+    // Metrics, looked up once so recording is just an atomic update
+    private static final MetricsRegistry METRICS = MetricsRegistry.getDefault();
+    private static final LatencyHistogram LOAD_TIME = METRICS.histogram("manager.loadFromFile");
+    private static final LatencyHistogram SAVE_TIME = METRICS.histogram("manager.saveToFile");
+    private static final MetricCounter MEMBERS_LOADED = METRICS.counter("manager.membersLoaded");
+    private static final MetricCounter MEMBERS_SAVED = METRICS.counter("manager.membersSaved");
+    private static final LatencyHistogram FIND_BY_ID_TIME = METRICS.histogram("query.findMemberById");
+    private static final LatencyHistogram FIND_BY_NAME_TIME = METRICS.histogram("query.findMembersByName");
+    private static final LatencyHistogram FIND_BY_FUZZY_NAME_TIME = METRICS.histogram("query.findMembersByFuzzyName");
+    private static final LatencyHistogram FILTER_BY_TYPE_TIME = METRICS.histogram("query.filterMembersByType");
+    private static final LatencyHistogram FIND_BY_PERFORMANCE_TIME = METRICS.histogram("query.findMembersByPerformance");
+    private static final LatencyHistogram PAGE_TIME = METRICS.histogram("query.getMembersPage");
+    private static final LatencyHistogram TOP_MEMBERS_TIME = METRICS.histogram("query.findTopMembers");
+    private static final LatencyHistogram COHORT_TIME = METRICS.histogram("query.joinCohorts");
+    private static final LatencyHistogram STATUS_ON_TIME = METRICS.histogram("query.findMembersByStatusOn");
+    private static final LatencyHistogram FEES_OWED_TIME = METRICS.histogram("query.getTotalFeesOwed");
+    private static final MetricCounter STREAMS_OPENED = METRICS.counter("query.streamsOpened");
+    private static final LatencyHistogram SORT_BY_ID_TIME = METRICS.histogram("sort.byId");
+    private static final LatencyHistogram SORT_BY_NAME_TIME = METRICS.histogram("sort.byName");
+    private static final LatencyHistogram SORT_BY_JOIN_DATE_TIME = METRICS.histogram("sort.byJoinDate");
+    private static final LatencyHistogram SORT_COMPOSITE_TIME = METRICS.histogram("sort.composite");
+    private static final MetricCounter SNAPSHOTS_TAKEN = METRICS.counter("snapshot.taken");
+    private static final MetricCounter MEMBERS_COPIED = METRICS.counter("snapshot.membersCopied");
+
     // Main list for storing members. Used for sequential access, iteration, sorting.
-    private List<Member> memberList;
+    // Chunked, so a snapshot shares it and a later change copies one chunk
+    // rather than the whole list.
+    private final ChunkedMemberList memberList;
+
+    // Number of snapshots taken. A member whose snapshotGeneration is lower
+    // may be held by a snapshot, so it is copied before it is changed.
+    private long snapshotsTaken;
     
     // NEW: HashMap for O(1) access by ID.
     // This is a major performance improvement for searching.
     private Map<String, Member> memberMap;
 
+    // Members ordered by ID, used for keyset pagination: a page after a given
+    // ID is an O(log n + page) walk instead of a scan of the whole list.
+    private NavigableMap<String, Member> idIndex;
+
+    // Running aggregates for the statistics dashboard, kept current on every mutation.
+    private MemberStatistics statistics;
+    // The copy handed to readers since the last change; null means stale
+    private MemberStatistics publishedStatistics;
+
+    // Sorted join-date index for cohort queries. Null means stale; it is
+    // rebuilt on the next range query rather than on every mutation.
+    private JoinDateIndex joinDateIndex;
+
+    // Interval index over every member's status history, for point-in-time
+    // queries. Null means stale, like joinDateIndex.
+    private StatusIntervalIndex statusIndex;
+
+    // Fuzzy name index. Built on the first fuzzy search, then kept current by
+    // insert, deleteMember and renameMember; null again after a reload.
+    private FuzzyNameIndex nameIndex;
+
+    // Members in MemberSortKey.NAME order, for keyset pages by name. Built on
+    // the first such page and kept current like nameIndex.
+    private TreeSet<Member> nameOrder;
+
+    // Set while loadFromFileInBackground is running. Every public method waits
+    // on it first, so callers only block if they touch the data before it is ready.
+    private volatile CountDownLatch pendingLoad;
+    private volatile Thread loaderThread;
+
+    // Observers of mutations (e.g. replication). Events are not sent while a
+    // file is being loaded; listeners get a single membersReloaded() instead.
+    private final List<MemberChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+
+    // Bumped once per change, or once per applyBatch; written while holding this
+    private volatile long version;
+    private boolean inBatch;
+    private boolean batchChanged;
+
     public GymManager() {
-        this.memberList = new ArrayList<>();
+        this.memberList = new ChunkedMemberList();
         this.memberMap = new HashMap<>();
+        this.idIndex = new TreeMap<>();
+        this.statistics = new MemberStatistics(true);
+        METRICS.gauge("manager.memberCount", () -> memberList.size());
     }
 
     /**
      * Adds a new member to both the list and the map.
      * Ensures data is consistent in both structures.
      */
-    public void addMember(Member member) {
-        if (member != null && !memberMap.containsKey(member.getMemberId())) {
-            memberList.add(member);
-            memberMap.put(member.getMemberId(), member);
+    public synchronized void addMember(Member member) {
+        awaitLoad();
+        if (insert(member)) {
+            changed();
+            changeListeners.forEach(listener -> listener.memberAdded(member));
+        }
+    }
+
+    /**
+     * Adds a member to every structure without notifying anyone. Used by
+     * addMember and by install(), which announces a single reload instead.
+     * @return false if the member is null or the ID is already taken.
+     */
+    private boolean insert(Member member) {
+        if (member == null || memberMap.containsKey(member.getMemberId())) {
+            return false;
+        }
+        member.snapshotGeneration = snapshotsTaken;
+        memberList.add(member);
+        memberMap.put(member.getMemberId(), member);
+        idIndex.put(member.getMemberId(), member);
+        statistics.memberAdded(member);
+        if (nameIndex != null) {
+            nameIndex.add(member.getMemberId(), member.getFullName());
+        }
+        if (nameOrder != null) {
+            nameOrder.add(member);
+        }
+        joinDateIndex = null;
+        return true;
+    }
+
+    /**
+     * Returns the member ready to be changed: the member itself or, if a
+     * snapshot may still hold it, a copy that takes its place in every
+     * structure. Called while holding this, before the change.
+     */
+    private Member writable(Member member) {
+        if (member.snapshotGeneration == snapshotsTaken) {
+            return member;
         }
+        Member copy = member.copy();
+        copy.snapshotGeneration = snapshotsTaken;
+        memberList.replace(member, copy);
+        memberMap.put(copy.getMemberId(), copy);
+        idIndex.put(copy.getMemberId(), copy);
+        if (nameOrder != null) {
+            nameOrder.remove(member); // Equal to the copy, so replace it explicitly
+            nameOrder.add(copy);
+        }
+        MEMBERS_COPIED.increment();
+        return copy;
     }
 
     /**
@@ -52,16 +188,267 @@ public class GymManager {
      * @param memberId The ID of the member to delete.
      * @return true if successful, false otherwise.
      */
-    public boolean deleteMember(String memberId) {
+    public synchronized boolean deleteMember(String memberId) {
+        awaitLoad();
         Member memberToRemove = memberMap.get(memberId);
         if (memberToRemove != null) {
             memberList.remove(memberToRemove);
             memberMap.remove(memberId);
+            idIndex.remove(memberId);
+            statistics.memberRemoved(memberToRemove);
+            if (nameIndex != null) {
+                nameIndex.remove(memberId, memberToRemove.getFullName());
+            }
+            if (nameOrder != null) {
+                nameOrder.remove(memberToRemove);
+            }
+            changed();
+            changeListeners.forEach(listener -> listener.memberRemoved(memberToRemove));
             return true;
         }
         return false;
     }
 
+    /**
+     * Changes a member's status (Freeze/Activate).
+     * Routed through the manager so the statistics stay in step with the data.
+     * @param memberId The ID of the member to update.
+     * @param status The new status.
+     * @return true if successful, false if the member was not found.
+     */
+    public synchronized boolean updateMemberStatus(String memberId, MembershipStatus status) {
+        return updateMemberStatus(memberId, status, null);
+    }
+
+    /**
+     * Changes a member's status as of the given day, which is recorded in the
+     * member's status timeline.
+     * @param effective The day the change takes effect, or null for today.
+     * @return true if successful, false if the member was not found.
+     * @throws IllegalArgumentException if the day is before the member's last status change.
+     */
+    public synchronized boolean updateMemberStatus(String memberId, MembershipStatus status, LocalDate effective) {
+        awaitLoad();
+        Member current = memberMap.get(memberId);
+        if (current == null) {
+            return false;
+        }
+        if (effective != null) {
+            StatusTimeline history = current.getStatusTimeline();
+            LocalDate lastChange = history.getDate(history.size() - 1);
+            if (effective.isBefore(lastChange)) {
+                throw new IllegalArgumentException("Status history is append-only: " + effective
+                        + " is before the last change on " + lastChange + ".");
+            }
+        }
+        Member member = writable(current);
+        MembershipStatus oldStatus = member.getStatus();
+        statistics.beforeMemberChange(member);
+        if (effective == null) {
+            member.setStatus(status);
+        } else {
+            member.setStatus(status, effective);
+        }
+        statistics.afterMemberChange(member);
+        changed();
+        changeListeners.forEach(listener -> listener.statusChanged(member, oldStatus));
+        return true;
+    }
+
+    /**
+     * Adds a monthly performance record to a member.
+     * Routed through the manager because the record can change the member's fee.
+     * @param memberId The ID of the member.
+     * @param record The performance record to add.
+     * @return true if successful, false if the member was not found.
+     */
+    public synchronized boolean addPerformanceRecord(String memberId, Performance record) {
+        awaitLoad();
+        Member current = memberMap.get(memberId);
+        if (current == null) {
+            return false;
+        }
+        Member member = writable(current);
+        statistics.beforeMemberChange(member);
+        member.addPerformanceRecord(record);
+        statistics.afterMemberChange(member);
+        statistics.performanceAdded(record);
+        changed();
+        changeListeners.forEach(listener -> listener.performanceAdded(member, record));
+        return true;
+    }
+
+    /**
+     * Renames a member.
+     * @return true if successful, false if the member was not found.
+     * @throws IllegalArgumentException if the new name is empty.
+     */
+    public synchronized boolean renameMember(String memberId, String newName) {
+        awaitLoad();
+        if (newName == null || newName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Name cannot be empty.");
+        }
+        Member current = memberMap.get(memberId);
+        if (current == null) {
+            return false;
+        }
+        Member member = writable(current);
+        String oldName = member.getFullName();
+        if (nameOrder != null) {
+            nameOrder.remove(member); // Found by its old name
+        }
+        member.setFullName(newName.trim());
+        if (nameIndex != null) {
+            nameIndex.remove(memberId, oldName);
+            nameIndex.add(memberId, member.getFullName());
+        }
+        if (nameOrder != null) {
+            nameOrder.add(member);
+        }
+        changed();
+        changeListeners.forEach(listener -> listener.renamed(member, oldName));
+        return true;
+    }
+
+    /**
+     * Changes a Premium member's personal trainer fee.
+     * Routed through the manager because the fee feeds the revenue statistics.
+     * @return true if successful, false if the member was not found.
+     * @throws IllegalArgumentException if the member is not Premium or the fee is
+     *         negative, NaN or infinite.
+     */
+    public synchronized boolean updatePersonalTrainerFee(String memberId, double fee) {
+        awaitLoad();
+        if (!(fee >= 0) || Double.isInfinite(fee)) { // Also rejects NaN
+            throw new IllegalArgumentException("Fee must be a non-negative amount.");
+        }
+        Member member = memberMap.get(memberId);
+        if (member == null) {
+            return false;
+        }
+        if (!(member instanceof PremiumMember)) {
+            throw new IllegalArgumentException("Only Premium members have a personal trainer fee.");
+        }
+        PremiumMember premium = (PremiumMember) writable(member);
+        double oldFee = premium.getPersonalTrainerFee();
+        statistics.beforeMemberChange(premium);
+        premium.setPersonalTrainerFee(fee);
+        statistics.afterMemberChange(premium);
+        changed();
+        changeListeners.forEach(listener -> listener.feeChanged(premium, oldFee));
+        return true;
+    }
+
+    /**
+     * Applies every change in the batch while holding the manager's lock
+     * once, so readers never see it half-applied, and bumps the version once.
+     * Listeners still receive one event per change. Changes to members that
+     * do not exist are skipped; earlier changes are not rolled back if a
+     * later one throws.
+     * @return The number of changes that were applied.
+     */
+    public synchronized int applyBatch(MemberBatch batch) {
+        awaitLoad();
+        inBatch = true;
+        batchChanged = false;
+        try {
+            return batch.applyTo(this);
+        } finally {
+            inBatch = false;
+            if (batchChanged) {
+                version++;
+            }
+        }
+    }
+
+    /**
+     * @return A stamp that changes whenever any member is added, removed or
+     *         changed, or the members are reloaded. Sorting does not change it.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Invalidates derived state after a change. Called while holding this.
+     */
+    private void changed() {
+        joinDateIndex = null;
+        statusIndex = null;
+        publishedStatistics = null;
+        if (inBatch) {
+            batchChanged = true;
+        } else {
+            version++;
+        }
+    }
+
+    /**
+     * Registers a listener that is called synchronously, on the writing
+     * thread, for every later change made through this manager.
+     */
+    public void addChangeListener(MemberChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Registers a listener that is called on its own thread, in batches.
+     * The write path only queues each change into a ring buffer of the given
+     * capacity; see AsyncChangeDispatcher for the overflow behaviour.
+     * @return The dispatcher; close it to unsubscribe.
+     */
+    public AsyncChangeDispatcher addAsyncChangeListener(MemberChangeListener listener, int capacity) {
+        AsyncChangeDispatcher dispatcher = new AsyncChangeDispatcher(this, listener, capacity);
+        changeListeners.add(dispatcher);
+        return dispatcher;
+    }
+
+    public void removeChangeListener(MemberChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Makes the plan the current one for every member fee in this process
+     * and recomputes this manager's projected revenue under it. Every other
+     * manager (shards, a replication follower) recomputes its own on its
+     * next getStatistics(). Listeners are not notified: no stored member
+     * data changes, only derived fees.
+     */
+    public synchronized void applyPricingPlan(PricingPlan plan) {
+        awaitLoad();
+        PricingPlan.setCurrent(plan);
+        followPricing();
+    }
+
+    /**
+     * Returns the statistics for the dashboard, as a copy taken under the
+     * manager's lock: its figures agree with each other and do not change
+     * while they are read. Every figure is maintained incrementally, so the
+     * copy costs O(months with performance records), and it is shared until
+     * the next change. The first read under a new pricing plan or on a new
+     * day recomputes the revenue.
+     */
+    public synchronized MemberStatistics getStatistics() {
+        awaitLoad();
+        followPricing();
+        if (publishedStatistics == null) {
+            publishedStatistics = statistics.copy();
+        }
+        return publishedStatistics;
+    }
+
+    /**
+     * Recomputes the revenue if the current plan is no longer the one it
+     * was computed under: another plan was applied, or the current one was
+     * compiled again for a new day. Fees change with it, so the version moves.
+     */
+    private void followPricing() {
+        if (statistics.getPlan() != PricingPlan.getCurrent()) {
+            statistics.recomputeRevenue(memberList);
+            changed();
+        }
+    }
+
     /**
      * NEW: Efficiently finds a member by ID using the HashMap.
      * This is an O(1) (constant time) operation.
@@ -69,7 +456,13 @@ public class GymManager {
      * @return The Member object, or null if not found.
      */
     public Member findMemberById(String memberId) {
-        return memberMap.get(memberId); // Much faster than iterating the list!
+        awaitLoad();
+        long sample = FIND_BY_ID_TIME.startSample(); // Too cheap to time every call
+        MemberQueryEvent event = MemberQueryEvent.start();
+        Member result = memberMap.get(memberId); // Much faster than iterating the list!
+        FIND_BY_ID_TIME.recordSampled(sample);
+        event.finish("findMemberById", 1, result == null ? 0 : 1);
+        return result;
     }
 
     /**
@@ -81,10 +474,74 @@ public class GymManager {
      * @return A list of matching Member objects.
      */
     public List<Member> findMembersByName(String name) {
-        String lowerCaseName = name.toLowerCase();
-        return memberList.stream()
-                .filter(member -> member.getFullName().toLowerCase().contains(lowerCaseName))
+        awaitLoad();
+        long start = System.nanoTime();
+        MemberQueryEvent event = MemberQueryEvent.start();
+        List<Member> result = memberList.stream()
+                .filter(nameMatches(name))
                 .collect(Collectors.toList());
+        FIND_BY_NAME_TIME.recordSince(start);
+        event.finish("findMembersByName", memberList.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Same as findMembersByName, but stops scanning once `limit` matches are found.
+     */
+    public List<Member> findMembersByName(String name, int limit) {
+        awaitLoad();
+        long start = System.nanoTime();
+        MemberQueryEvent event = MemberQueryEvent.start();
+        List<Member> result = memberList.stream()
+                .filter(nameMatches(name))
+                .limit(limit)
+                .collect(Collectors.toList());
+        FIND_BY_NAME_TIME.recordSince(start);
+        event.finish("findMembersByName", memberList.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Finds the members whose names are closest to the search term, for
+     * misspelled or sound-alike names that findMembersByName misses
+     * ("Jonson" finds "Johnson"). See FuzzyNameIndex for the ranking.
+     * The index is built on the first call (O(n)) and kept current after
+     * that, so later searches only visit nearby names.
+     *
+     * @param name The search term; each word of it is matched separately.
+     * @param limit The maximum number of members to return.
+     * @return Matching members, best match first.
+     */
+    public synchronized List<Member> findMembersByFuzzyName(String name, int limit) {
+        awaitLoad();
+        long start = System.nanoTime();
+        MemberQueryEvent event = MemberQueryEvent.start();
+        if (nameIndex == null) {
+            nameIndex = new FuzzyNameIndex(memberList);
+        }
+        List<Member> result = new ArrayList<>();
+        for (String memberId : nameIndex.search(name, limit)) {
+            result.add(memberMap.get(memberId));
+        }
+        FIND_BY_FUZZY_NAME_TIME.recordSince(start);
+        event.finish("findMembersByFuzzyName", memberList.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Returns one page of a name search, in Member ID order.
+     * @param name The search term (case-insensitive).
+     * @param after The last member of the previous page, or null for the first page.
+     * @param pageSize The maximum number of members on the page.
+     */
+    public MemberPage findMembersByNamePage(String name, Member after, int pageSize) {
+        awaitLoad();
+        long start = System.nanoTime();
+        MemberQueryEvent event = MemberQueryEvent.start();
+        MemberPage result = pageById(nameMatches(name), after, pageSize);
+        FIND_BY_NAME_TIME.recordSince(start);
+        event.finish("findMembersByNamePage", memberList.size(), result.getMembers().size());
+        return result;
     }
 
     /**
@@ -92,8 +549,13 @@ public class GymManager {
      * This uses the `compareTo` method defined in the Member class.
      * The algorithm is Timsort (O(n log n)).
      */
-    public void sortMembersById() {
-        Collections.sort(memberList);
+    public synchronized void sortMembersById() {
+        awaitLoad();
+        long start = System.nanoTime();
+        MemberSortEvent event = MemberSortEvent.start();
+        memberList.sort(null);
+        SORT_BY_ID_TIME.recordSince(start);
+        event.finish("ID", memberList.size());
     }
 
     /**
@@ -101,8 +563,13 @@ public class GymManager {
      * This uses the external MemberNameComparator class.
      * The algorithm is Timsort (O(n log n)).
      */
-    public void sortMembersByName() {
+    public synchronized void sortMembersByName() {
+        awaitLoad();
+        long start = System.nanoTime();
+        MemberSortEvent event = MemberSortEvent.start();
         memberList.sort(new MemberNameComparator());
+        SORT_BY_NAME_TIME.recordSince(start);
+        event.finish("NAME", memberList.size());
     }
     
     /**
@@ -110,10 +577,144 @@ public class GymManager {
      * This uses the external MemberJoinDateComparator class.
      * The algorithm is Timsort (O(n log n)).
      */
-    public void sortMembersByJoinDate() {
+    public synchronized void sortMembersByJoinDate() {
+        awaitLoad();
+        long start = System.nanoTime();
+        MemberSortEvent event = MemberSortEvent.start();
         memberList.sort(new MemberJoinDateComparator());
+        SORT_BY_JOIN_DATE_TIME.recordSince(start);
+        event.finish("JOIN_DATE", memberList.size());
+    }
+
+
+    /**
+     * Returns retention figures for each join-date cohort (month or quarter)
+     * between the two dates, inclusive.
+     * Uses the sorted join-date index, so each cohort costs O(log n) instead
+     * of a full sort and scan.
+     *
+     * @param from The first date of the range (its whole cohort is included).
+     * @param to The last date of the range (its whole cohort is included).
+     * @param period The width of each cohort.
+     * @return One CohortStats per cohort, in date order.
+     */
+    public List<CohortStats> getJoinCohorts(LocalDate from, LocalDate to, CohortPeriod period) {
+        awaitLoad();
+        if (from.isAfter(to)) {
+            return Collections.emptyList();
+        }
+        long start = System.nanoTime();
+        MemberQueryEvent event = MemberQueryEvent.start();
+        List<CohortStats> result = Arrays.asList(getJoinDateIndex().cohorts(from, to, period));
+        COHORT_TIME.recordSince(start);
+        event.finish("getJoinCohorts", memberList.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Returns retention figures for members who joined in [start, endExclusive).
+     * This is an O(log n) operation once the index is built.
+     */
+    public CohortStats getJoinDateRangeStats(LocalDate start, LocalDate endExclusive) {
+        awaitLoad();
+        long startNanos = System.nanoTime();
+        MemberQueryEvent event = MemberQueryEvent.start();
+        CohortStats result = getJoinDateIndex().rangeStats(start + " to " + endExclusive, start, endExclusive);
+        COHORT_TIME.recordSince(startNanos);
+        event.finish("getJoinDateRangeStats", memberList.size(), 1);
+        return result;
+    }
+
+    /**
+     * Returns the join-date index, rebuilding it first if a mutation made it stale.
+     */
+    private JoinDateIndex getJoinDateIndex() {
+        if (joinDateIndex == null) {
+            joinDateIndex = new JoinDateIndex(memberList);
+        }
+        return joinDateIndex;
+    }
+
+    /**
+     * Returns the members whose status was the given one at the end of a
+     * past (or future) day, sorted by ID. Members whose history starts later
+     * are not included. Answered from the status interval index, which is
+     * rebuilt on the first call after a change.
+     */
+    public synchronized List<Member> findMembersByStatusOn(MembershipStatus status, LocalDate date) {
+        awaitLoad();
+        long start = System.nanoTime();
+        MemberQueryEvent event = MemberQueryEvent.start();
+        if (statusIndex == null) {
+            statusIndex = new StatusIntervalIndex(memberList);
+        }
+        List<Member> result = statusIndex.membersWithStatusOn(status, date);
+        STATUS_ON_TIME.recordSince(start);
+        event.finish("findMembersByStatusOn", memberList.size(), result.size());
+        return result;
     }
 
+    /**
+     * @return The member's status at the end of the given day, or null if the
+     *         member is not found or their history starts later.
+     */
+    public MembershipStatus getMemberStatusOn(String memberId, LocalDate date) {
+        Member member = findMemberById(memberId);
+        return member == null ? null : member.getStatusOn(date);
+    }
+
+    /**
+     * Returns the fee a member owes for a calendar month, prorated by the
+     * days spent in each status, under the current pricing rules as they
+     * stood at the end of that month.
+     * @return The fee, or -1 if the member is not found.
+     */
+    public double getFeeOwed(String memberId, YearMonth month) {
+        Member member = findMemberById(memberId);
+        return member == null ? -1 : member.feeForMonth(month, planFor(month));
+    }
+
+    /**
+     * Returns the total owed by all members for a calendar month (see getFeeOwed).
+     */
+    public synchronized double getTotalFeesOwed(YearMonth month) {
+        awaitLoad();
+        long start = System.nanoTime();
+        MemberQueryEvent event = MemberQueryEvent.start();
+        PricingPlan plan = planFor(month);
+        long cents = 0;
+        for (Member member : memberList) {
+            cents += Math.round(member.feeForMonth(month, plan) * 100);
+        }
+        FEES_OWED_TIME.recordSince(start);
+        event.finish("getTotalFeesOwed", memberList.size(), memberList.size());
+        return cents / 100.0;
+    }
+
+    /**
+     * The current rules compiled for the last day of a month, so loyalty
+     * tiers and promotions are those that applied when it was billed.
+     */
+    private static PricingPlan planFor(YearMonth month) {
+        return PricingPlan.getCurrent().forBillingDate(month.atEndOfMonth());
+    }
+
+    /**
+     * Sorts the list of members by a composite key, e.g. type, then status,
+     * then join date descending, then name.
+     * Uses CompositeMemberSorter: keys are computed once per member and the
+     * sort itself is Arrays.parallelSort over packed longs. The sort is stable.
+     */
+    public synchronized void sortMembersBy(MemberSortSpec spec) {
+        awaitLoad();
+        long start = System.nanoTime();
+        MemberSortEvent event = MemberSortEvent.start();
+        Member[] members = memberList.toArray(new Member[0]);
+        CompositeMemberSorter.sort(members, spec);
+        memberList.setAll(members);
+        SORT_COMPOSITE_TIME.recordSince(start);
+        event.finish(spec.toString(), memberList.size());
+    }
 
     /**
      * Filters members by type (Regular or Premium).
@@ -121,10 +722,45 @@ public class GymManager {
      * @return A list of matching members.
      */
     public List<Member> filterMembersByType(String type) {
-        Class<?> targetClass = type.equalsIgnoreCase("Regular") ? RegularMember.class : PremiumMember.class;
-        return memberList.stream()
-                .filter(member -> targetClass.isInstance(member))
+        awaitLoad();
+        long start = System.nanoTime();
+        MemberQueryEvent event = MemberQueryEvent.start();
+        List<Member> result = memberList.stream()
+                .filter(typeMatches(type))
                 .collect(Collectors.toList());
+        FILTER_BY_TYPE_TIME.recordSince(start);
+        event.finish("filterMembersByType", memberList.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Same as filterMembersByType, but stops scanning once `limit` matches are found.
+     */
+    public List<Member> filterMembersByType(String type, int limit) {
+        awaitLoad();
+        long start = System.nanoTime();
+        MemberQueryEvent event = MemberQueryEvent.start();
+        List<Member> result = memberList.stream()
+                .filter(typeMatches(type))
+                .limit(limit)
+                .collect(Collectors.toList());
+        FILTER_BY_TYPE_TIME.recordSince(start);
+        event.finish("filterMembersByType", memberList.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Returns one page of a type filter, in Member ID order.
+     * @param after The last member of the previous page, or null for the first page.
+     */
+    public MemberPage filterMembersByTypePage(String type, Member after, int pageSize) {
+        awaitLoad();
+        long start = System.nanoTime();
+        MemberQueryEvent event = MemberQueryEvent.start();
+        MemberPage result = pageById(typeMatches(type), after, pageSize);
+        FILTER_BY_TYPE_TIME.recordSince(start);
+        event.finish("filterMembersByTypePage", memberList.size(), result.getMembers().size());
+        return result;
     }
 
     /**
@@ -135,113 +771,520 @@ public class GymManager {
      * @return A list of matching members.
      */
     public List<Member> findMembersByPerformance(int month, int year, boolean achievedGoal) {
-        return memberList.stream()
-                .filter(member -> member.getPerformanceHistory().stream()
-                        .anyMatch(p -> p.getMonth() == month && p.getYear() == year
-                                && p.wasGoalAchieved() == achievedGoal))
+        awaitLoad();
+        long start = System.nanoTime();
+        MemberQueryEvent event = MemberQueryEvent.start();
+        List<Member> result = memberList.stream()
+                .filter(performanceMatches(month, year, achievedGoal))
+                .collect(Collectors.toList());
+        FIND_BY_PERFORMANCE_TIME.recordSince(start);
+        event.finish("findMembersByPerformance", memberList.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Builds goal-achievement trends for every month and streak figures in
+     * one parallel pass over all performance histories, instead of one
+     * findMembersByPerformance scan per month. Works on a snapshot, so it
+     * does not hold up writers.
+     */
+    public PerformanceTrendReport getPerformanceTrendReport() {
+        return PerformanceTrendReport.build(getSnapshot().getMembers());
+    }
+
+    /**
+     * Same as findMembersByPerformance, but stops scanning once `limit` matches are found.
+     */
+    public List<Member> findMembersByPerformance(int month, int year, boolean achievedGoal, int limit) {
+        awaitLoad();
+        long start = System.nanoTime();
+        MemberQueryEvent event = MemberQueryEvent.start();
+        List<Member> result = memberList.stream()
+                .filter(performanceMatches(month, year, achievedGoal))
+                .limit(limit)
                 .collect(Collectors.toList());
+        FIND_BY_PERFORMANCE_TIME.recordSince(start);
+        event.finish("findMembersByPerformance", memberList.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Returns one page of a performance filter, in Member ID order.
+     * @param after The last member of the previous page, or null for the first page.
+     */
+    public MemberPage findMembersByPerformancePage(int month, int year, boolean achievedGoal,
+            Member after, int pageSize) {
+        awaitLoad();
+        long start = System.nanoTime();
+        MemberQueryEvent event = MemberQueryEvent.start();
+        MemberPage result = pageById(performanceMatches(month, year, achievedGoal), after, pageSize);
+        FIND_BY_PERFORMANCE_TIME.recordSince(start);
+        event.finish("findMembersByPerformancePage", memberList.size(), result.getMembers().size());
+        return result;
+    }
+
+    /**
+     * Returns one page of all members in the given order (keyset pagination).
+     * The cursor is the last member of the previous page, so no offsets are
+     * kept and concurrent adds/deletes never cause skipped or repeated rows.
+     *
+     * - ID: O(log n + page) walk of the ID index.
+     * - JOIN_DATE: O(log n + page) walk of the join-date index.
+     * - NAME: O(log n + page) walk of a name-ordered tree, built on the first
+     *   NAME page (O(n log n)) and kept current by every change after that.
+     *
+     * @param sortKey The order to page through.
+     * @param after The last member of the previous page, or null for the first page.
+     * @param pageSize The maximum number of members on the page.
+     */
+    public synchronized MemberPage getMembersPage(MemberSortKey sortKey, Member after, int pageSize) {
+        awaitLoad();
+        long start = System.nanoTime();
+        MemberQueryEvent event = MemberQueryEvent.start();
+        MemberPage result = membersPage(sortKey, after, pageSize);
+        PAGE_TIME.recordSince(start);
+        event.finish("getMembersPage", memberList.size(), result.getMembers().size());
+        return result;
+    }
+
+    private MemberPage membersPage(MemberSortKey sortKey, Member after, int pageSize) {
+        checkPageSize(pageSize);
+        switch (sortKey) {
+            case ID:
+                return pageById(member -> true, after, pageSize);
+            case JOIN_DATE: {
+                JoinDateIndex index = getJoinDateIndex();
+                int position = (after == null) ? 0 : index.positionAfter(after);
+                int end = Math.min(index.size(), position + pageSize);
+                List<Member> page = new ArrayList<>(end - position);
+                for (int i = position; i < end; i++) {
+                    page.add(index.get(i));
+                }
+                return new MemberPage(page, end < index.size());
+            }
+            case NAME: {
+                if (nameOrder == null) {
+                    nameOrder = new TreeSet<>(MemberSortKey.NAME.comparator());
+                    nameOrder.addAll(memberList);
+                }
+                // The cursor is compared by its values, so an older copy of a member works too
+                Iterable<Member> from = (after == null) ? nameOrder : nameOrder.tailSet(after, false);
+                List<Member> page = new ArrayList<>(Math.min(pageSize, 64));
+                for (Member member : from) {
+                    if (page.size() == pageSize) {
+                        return new MemberPage(page, true);
+                    }
+                    page.add(member);
+                }
+                return new MemberPage(page, false);
+            }
+            default:
+                throw new IllegalArgumentException("Unknown sort key: " + sortKey);
+        }
+    }
+
+    /**
+     * Returns the k members with the highest monthly fee, highest first.
+     * Uses a bounded heap: O(n log k) time and O(k) memory.
+     */
+    public List<Member> findTopMembersByFee(int k) {
+        awaitLoad();
+        Comparator<Member> highestFeeFirst = Comparator.comparingDouble(Member::calculateMonthlyFee).reversed()
+                .thenComparing(Comparator.naturalOrder());
+        long start = System.nanoTime();
+        MemberQueryEvent event = MemberQueryEvent.start();
+        List<Member> result = firstK(member -> true, highestFeeFirst, k);
+        TOP_MEMBERS_TIME.recordSince(start);
+        event.finish("findTopMembersByFee", memberList.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Returns the k newest (or oldest) members by join date.
+     * Uses a bounded heap: O(n log k) time and O(k) memory.
+     * @param newestFirst true for the most recent joiners, false for the longest-standing.
+     */
+    public List<Member> findTopMembersByJoinDate(int k, boolean newestFirst) {
+        awaitLoad();
+        Comparator<Member> order = MemberSortKey.JOIN_DATE.comparator();
+        long start = System.nanoTime();
+        MemberQueryEvent event = MemberQueryEvent.start();
+        List<Member> result = firstK(member -> true, newestFirst ? order.reversed() : order, k);
+        TOP_MEMBERS_TIME.recordSince(start);
+        event.finish("findTopMembersByJoinDate", memberList.size(), result.size());
+        return result;
+    }
+
+    // --- Pagination helpers ---
+
+    private static Predicate<Member> nameMatches(String name) {
+        String lowerCaseName = name.toLowerCase();
+        return member -> member.getFullName().toLowerCase().contains(lowerCaseName);
+    }
+
+    private static Predicate<Member> typeMatches(String type) {
+        Class<?> targetClass = type.equalsIgnoreCase("Regular") ? RegularMember.class : PremiumMember.class;
+        return member -> targetClass.isInstance(member);
+    }
+
+    private static Predicate<Member> performanceMatches(int month, int year, boolean achievedGoal) {
+        return member -> member.getPerformanceHistory().stream()
+                .anyMatch(p -> p.getMonth() == month && p.getYear() == year
+                        && p.wasGoalAchieved() == achievedGoal);
+    }
+
+    private static void checkPageSize(int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive.");
+        }
+    }
+
+    /**
+     * Walks the ID index from the cursor, collecting matches until the page
+     * is full. Fetches one extra match to know whether another page exists.
+     */
+    private MemberPage pageById(Predicate<Member> filter, Member after, int pageSize) {
+        checkPageSize(pageSize);
+        Map<String, Member> from = (after == null) ? idIndex : idIndex.tailMap(after.getMemberId(), false);
+        List<Member> page = new ArrayList<>(Math.min(pageSize, 64));
+        for (Member member : from.values()) {
+            if (filter.test(member)) {
+                if (page.size() == pageSize) {
+                    return new MemberPage(page, true);
+                }
+                page.add(member);
+            }
+        }
+        return new MemberPage(page, false);
+    }
+
+    /**
+     * Returns the first k matching members in the given order using a bounded
+     * max-heap, so only k members are ever held regardless of the list size.
+     */
+    private List<Member> firstK(Predicate<Member> filter, Comparator<Member> order, int k) {
+        if (k <= 0) {
+            return Collections.emptyList();
+        }
+        PriorityQueue<Member> heap = new PriorityQueue<>(Math.min(k, 1024) + 1, order.reversed());
+        for (Member member : memberList) {
+            if (!filter.test(member)) {
+                continue;
+            }
+            if (heap.size() < k) {
+                heap.add(member);
+            } else if (order.compare(member, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(member);
+            }
+        }
+        List<Member> result = new ArrayList<>(heap);
+        result.sort(order);
+        return result;
+    }
+
+    // --- Lazy streaming queries ---
+
+    /**
+     * Returns a lazy stream over a snapshot of all members, in the current order.
+     * No copy is made: the stream reads the members as they were when this
+     * method was called (see getSnapshot()).
+     * The stream splits evenly for parallel use, and short-circuiting
+     * operations (findFirst, limit, anyMatch) stop the scan early.
+     * Use .iterator() on the result for an Iterator-based export.
+     */
+    public Stream<Member> streamAllMembers() {
+        awaitLoad();
+        STREAMS_OPENED.increment();
+        return getSnapshot().stream();
+    }
+
+    /**
+     * Lazy, snapshot-based variant of findMembersByName.
+     */
+    public Stream<Member> streamMembersByName(String name) {
+        awaitLoad();
+        return streamAllMembers().filter(nameMatches(name));
+    }
+
+    /**
+     * Lazy, snapshot-based variant of filterMembersByType.
+     */
+    public Stream<Member> streamMembersByType(String type) {
+        awaitLoad();
+        return streamAllMembers().filter(typeMatches(type));
+    }
+
+    /**
+     * Lazy, snapshot-based variant of findMembersByPerformance.
+     */
+    public Stream<Member> streamMembersByPerformance(int month, int year, boolean achievedGoal) {
+        awaitLoad();
+        return streamAllMembers().filter(performanceMatches(month, year, achievedGoal));
+    }
+
+    /**
+     * Returns a consistent point-in-time view of all members, for reports and
+     * exports that take a while to read. This copies only the member list's
+     * chunk table (one reference per ChunkedMemberList.CHUNK_SIZE members):
+     * the chunks and every member in them are frozen, and the next change to
+     * one copies that chunk or member instead (at most once per snapshot,
+     * however many were taken).
+     */
+    public synchronized MemberSnapshot getSnapshot() {
+        awaitLoad();
+        snapshotsTaken++;
+        SNAPSHOTS_TAKEN.increment();
+        return new MemberSnapshot(Collections.unmodifiableList(memberList.snapshot()), version);
     }
 
     /**
      * Returns an unmodifiable view of the member list.
+     * For long-running iteration such as exports, prefer getSnapshot(),
+     * which is isolated from changes made while it is being read.
      * @return A list of all members.
      */
     public List<Member> getAllMembers() {
+        awaitLoad();
         return Collections.unmodifiableList(memberList);
     }
 
+    /**
+     * Starts loading a CSV file on a background thread and returns at once,
+     * so a UI can show its first screen while a large file is parsed.
+     * Any other call on this manager waits until the load has finished; calls
+     * made from the loading thread itself (addMember) go straight through.
+     * Synchronized so two callers cannot both see no load running and
+     * overwrite each other's latch: the second waits for the first load.
+     */
+    public synchronized void loadFromFileInBackground(String filename) {
+        awaitLoad(); // Only one load at a time; waits on the lock, releasing it
+        CountDownLatch latch = new CountDownLatch(1);
+        Thread loader = new Thread(() -> {
+            try {
+                loadFromFile(filename);
+            } finally {
+                synchronized (this) {
+                    loaderThread = null;
+                    pendingLoad = null;
+                    notifyAll(); // Callers waiting in awaitLoad while holding the lock
+                }
+                latch.countDown();
+            }
+        }, "member-loader");
+        loader.setDaemon(true);
+        loaderThread = loader;
+        pendingLoad = latch;
+        loader.start();
+    }
+
+    /**
+     * @return true while a background load is still running.
+     */
+    public boolean isLoading() {
+        return pendingLoad != null;
+    }
+
+    /**
+     * Blocks until any background load has finished. Returns at once if none
+     * is running. The latch also publishes the loaded data to the caller.
+     * A caller that holds the manager's lock (every synchronized method calls
+     * this first) waits on the lock instead, which releases it so the loader
+     * can install its members.
+     */
+    public void awaitLoad() {
+        CountDownLatch latch = pendingLoad;
+        if (latch == null || Thread.currentThread() == loaderThread) {
+            return;
+        }
+        boolean interrupted = false;
+        if (Thread.holdsLock(this)) {
+            while (pendingLoad == latch) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } else {
+            while (true) {
+                try {
+                    latch.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     /**
      * Saves the current member list to a CSV file.
+     * Writes a snapshot, so changes made meanwhile neither block on the file
+     * nor end up half in it.
      * @param filename The name of the file to save to.
+     * @return false if the file could not be written (the error is printed).
      */
-    public void saveToFile(String filename) {
+    public boolean saveToFile(String filename) {
+        awaitLoad();
+        long start = System.nanoTime();
+        MemberSaveEvent event = MemberSaveEvent.start();
+        List<Member> members = getSnapshot().getMembers();
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
-            for (Member member : memberList) {
+            for (Member member : members) {
                 writer.write(member.toCsvString());
                 writer.newLine();
             }
-            System.out.println("Successfully saved " + memberList.size() + " members to " + filename);
+            MEMBERS_SAVED.add(members.size());
+            SAVE_TIME.recordSince(start);
+            event.finish(filename, members.size(), true);
+            System.out.println("Successfully saved " + members.size() + " members to " + filename);
+            return true;
         } catch (IOException e) {
+            event.finish(filename, members.size(), false);
             System.err.println("Error: Could not write to file. " + e.getMessage());
+            return false;
         }
     }
 
     /**
      * Loads member data from a CSV file.
      * UPDATED: Now populates both the list and the map for consistency.
-     * This "smart" loader can handle both old (pre-status) and new data formats.
+     * This "smart" loader can handle both old (pre-status) and new data
+     * formats (see CsvMemberStore.parseLine).
+     * The file is parsed without holding the lock, so readers keep seeing the
+     * old members meanwhile, and the result is swapped in by install() in one
+     * synchronized step. The background loader uses the same path.
+     * @return false if the file could not be read to the end or is corrupt
+     *         (the error is printed); whatever was read before the failure
+     *         is installed all the same.
      */
-    public void loadFromFile(String filename) {
-        // Clear current data structures before loading
-        memberList.clear();
-        memberMap.clear();
+    public boolean loadFromFile(String filename) {
+        awaitLoad();
+        long start = System.nanoTime();
+        List<Member> members = new ArrayList<>();
+
+        // One JFR event per chunk of lines, so long loads show progress on the timeline
+        MemberLoadChunkEvent chunk = MemberLoadChunkEvent.start();
+        int chunkIndex = 0;
+        int chunkLines = 0;
+        int chunkStartSize = 0;
+        boolean complete = false;
 
         try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
             String line;
             while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length < 4) continue; // Skip malformed lines
-
-                String id = parts[0].trim();
-                String name = parts[1].trim();
-                String type = parts[2].trim();
-                LocalDate joinDate = LocalDate.parse(parts[3].trim());
-                
-                // --- Smart Loader Logic ---
-                // Defaults for optional fields
-                MembershipStatus status = MembershipStatus.ACTIVE;
-                double trainerFee = 0.0;
-                String performanceString = null;
-                
-                if (type.equalsIgnoreCase("Regular")) {
-                    // Format: ID,Name,Type,Date,[Status],[Performance]
-                    if (parts.length >= 5) status = MembershipStatus.valueOf(parts[4].trim().toUpperCase());
-                    if (parts.length >= 6) performanceString = parts[5].trim();
-                    
-                    RegularMember member = new RegularMember(id, name, joinDate);
-                    member.setStatus(status);
-                    if (performanceString != null) parsePerformanceString(member, performanceString);
-                    addMember(member); // Use addMember to update both list and map
-
-                } else if (type.equalsIgnoreCase("Premium")) {
-                    // Format: ID,Name,Type,Date,[Status],[Fee],[Performance]
-                    if (parts.length >= 5) status = MembershipStatus.valueOf(parts[4].trim().toUpperCase());
-                    if (parts.length >= 6) trainerFee = Double.parseDouble(parts[5].trim());
-                    if (parts.length >= 7) performanceString = parts[6].trim();
-                    
-                    PremiumMember member = new PremiumMember(id, name, joinDate, trainerFee);
-                    member.setStatus(status);
-                    if (performanceString != null) parsePerformanceString(member, performanceString);
-                    addMember(member); // Use addMember to update both list and map
+                if (chunkLines == MemberLoadChunkEvent.CHUNK_LINES) {
+                    chunk.finish(filename, chunkIndex++, chunkLines, members.size() - chunkStartSize);
+                    chunk = MemberLoadChunkEvent.start();
+                    chunkLines = 0;
+                    chunkStartSize = members.size();
+                }
+                chunkLines++;
+                Member member = CsvMemberStore.parseLine(line);
+                if (member != null) { // Null is a malformed line, skipped
+                    members.add(member);
                 }
             }
-            System.out.println("Successfully loaded " + memberList.size() + " members from " + filename);
+            chunk.finish(filename, chunkIndex, chunkLines, members.size() - chunkStartSize);
+            complete = true;
         } catch (IOException e) {
             System.err.println("Error: File not found or cannot be read. " + e.getMessage());
         } catch (IllegalArgumentException | DateTimeParseException e) {
             System.err.println("Error: Data in the file is corrupt or incorrectly formatted. " + e.getMessage());
         }
+        // Whatever was read (possibly nothing) replaces the old members
+        int loaded = install(members);
+        if (complete) {
+            MEMBERS_LOADED.add(loaded);
+            LOAD_TIME.recordSince(start);
+            System.out.println("Successfully loaded " + loaded + " members from " + filename);
+        }
+        return complete;
     }
 
     /**
-     * Helper method to parse the performance string (e.g., "10;2025;true|11;2025;false")
+     * Replaces every member with the given ones, as if they had been loaded
+     * from a file. Listeners receive a single membersReloaded() call.
+     * Used to install a replication snapshot.
      */
-    private void parsePerformanceString(Member member, String performanceString) {
-        if (performanceString == null || performanceString.isEmpty()) {
-            return;
-        }
+    public void replaceAllMembers(List<Member> members) {
+        awaitLoad();
+        install(members);
+    }
+
+    /**
+     * Replaces every member with the contents of a store, like loadFromFile.
+     * Every member is read into memory, however large the store; lookups
+     * never go back to it. The store is read before the lock is taken. Listeners receive a single
+     * membersReloaded() call.
+     */
+    public void loadFromStore(MemberStore store) {
+        awaitLoad();
+        long start = System.nanoTime();
+        List<Member> members = new ArrayList<>();
+        store.forEach(members::add);
+        MEMBERS_LOADED.add(install(members));
+        LOAD_TIME.recordSince(start);
+    }
+
+    /**
+     * Swaps the given members in for the current ones in one step under the
+     * lock, so no reader ever sees a partly loaded member base. A repeated ID
+     * keeps its first member. Listeners receive a single membersReloaded() call.
+     * @return The number of members installed.
+     */
+    private synchronized int install(List<Member> members) {
+        clearMembers();
         try {
-            String[] records = performanceString.split("\\|");
-            for (String record : records) {
-                String[] parts = record.split(";");
-                int month = Integer.parseInt(parts[0]);
-                int year = Integer.parseInt(parts[1]);
-                boolean achieved = Boolean.parseBoolean(parts[2]);
-                member.addPerformanceRecord(new Performance(month, year, achieved));
-            }
-        } catch (Exception e) {
-            System.err.println("Warning: Could not parse performance data for member " + member.getMemberId());
+            members.forEach(this::insert);
+            return memberList.size();
+        } finally {
+            changed();
+            changeListeners.forEach(MemberChangeListener::membersReloaded);
         }
     }
+
+    /**
+     * Replaces the contents of a store with a snapshot of every member and
+     * flushes it, like saveToFile.
+     */
+    public void saveToStore(MemberStore store) {
+        awaitLoad();
+        long start = System.nanoTime();
+        List<Member> members = getSnapshot().getMembers();
+        store.clear();
+        members.forEach(store::put);
+        store.flush();
+        MEMBERS_SAVED.add(members.size());
+        SAVE_TIME.recordSince(start);
+    }
+
+    /**
+     * Keeps a store in step with this manager from now on: every change is
+     * written through to it as it happens, so no full save is needed. The
+     * store must already hold the current members (after loadFromStore or
+     * saveToStore). A reload rewrites the whole store.
+     * @return The listener doing the writing; pass it to removeChangeListener to detach.
+     */
+    public MemberChangeListener attachStore(MemberStore store) {
+        MemberChangeListener writer = new MemberStoreWriter(this, store);
+        addChangeListener(writer);
+        return writer;
+    }
+
+    private void clearMembers() {
+        memberList.clear();
+        memberMap.clear();
+        idIndex.clear();
+        statistics.clear();
+        joinDateIndex = null;
+        statusIndex = null;
+        nameIndex = null;
+        nameOrder = null;
+    }
 }
 
@@ -0,0 +1,170 @@
+package src;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A read-only range index over member join dates.
+ *
+ * Members are held in an array sorted by join date, alongside a parallel
+ * array of epoch days for binary search. Prefix sums of frozen members,
+ * performance records and achieved goals let any join-date range be
+ * summarised with two binary searches, i.e. O(log n) per range.
+ *
+ * The index is a snapshot: GymManager rebuilds it lazily (O(n log n)) on
+ * the first range query after a mutation.
+ */
+public class JoinDateIndex {
+
+    private final long[] epochDays;
+    private final Member[] members;
+
+    // Prefix sums: value at i is the total over members[0 .. i-1].
+    private final int[] frozenPrefix;
+    private final int[] recordPrefix;
+    private final int[] achievedPrefix;
+
+    public JoinDateIndex(Collection<Member> source) {
+        int n = source.size();
+        Member[] unsorted = source.toArray(new Member[0]);
+
+        // Pack (epochDay, position) into one long so a primitive sort orders by date.
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = (unsorted[i].getJoinDate().toEpochDay() << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        this.epochDays = new long[n];
+        this.members = new Member[n];
+        this.frozenPrefix = new int[n + 1];
+        this.recordPrefix = new int[n + 1];
+        this.achievedPrefix = new int[n + 1];
+
+        for (int i = 0; i < n; i++) {
+            members[i] = unsorted[(int) (keys[i] & 0xFFFFFFFFL)];
+            epochDays[i] = keys[i] >> 32;
+        }
+
+        // Members who joined on the same day are ordered by ID, matching
+        // MemberSortKey.JOIN_DATE so the index can serve keyset pagination.
+        int runStart = 0;
+        for (int i = 1; i <= n; i++) {
+            if (i == n || epochDays[i] != epochDays[runStart]) {
+                if (i - runStart > 1) {
+                    Arrays.sort(members, runStart, i);
+                }
+                runStart = i;
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            Member member = members[i];
+            int achieved = 0;
+            for (Performance record : member.getPerformanceHistory()) {
+                if (record.wasGoalAchieved()) {
+                    achieved++;
+                }
+            }
+            frozenPrefix[i + 1] = frozenPrefix[i] + (member.getStatus() == MembershipStatus.FROZEN ? 1 : 0);
+            recordPrefix[i + 1] = recordPrefix[i] + member.getPerformanceHistory().size();
+            achievedPrefix[i + 1] = achievedPrefix[i] + achieved;
+        }
+    }
+
+    public int size() {
+        return members.length;
+    }
+
+    /**
+     * @return The position of the first member who joined on or after the given date.
+     */
+    public int lowerBound(LocalDate date) {
+        return lowerBound(date.toEpochDay(), 0);
+    }
+
+    private int lowerBound(long epochDay, int from) {
+        int low = from;
+        int high = epochDays.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return The position of the first member that comes strictly after the
+     * given cursor in MemberSortKey.JOIN_DATE order.
+     */
+    public int positionAfter(Member cursor) {
+        long cursorDay = cursor.getJoinDate().toEpochDay();
+        int position = lowerBound(cursorDay, 0);
+        while (position < members.length && epochDays[position] == cursorDay
+                && members[position].compareTo(cursor) <= 0) {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * @return The member at the given position in join-date order.
+     */
+    public Member get(int position) {
+        return members[position];
+    }
+
+    /**
+     * @return The number of members who joined in [start, endExclusive).
+     */
+    public int countJoinedBetween(LocalDate start, LocalDate endExclusive) {
+        return lowerBound(endExclusive) - lowerBound(start);
+    }
+
+    /**
+     * Summarises all members who joined in [start, endExclusive).
+     */
+    public CohortStats rangeStats(String label, LocalDate start, LocalDate endExclusive) {
+        int from = lowerBound(start);
+        int to = Math.max(from, lowerBound(endExclusive.toEpochDay(), from));
+        return statsBetween(label, start, endExclusive, from, to);
+    }
+
+    /**
+     * Splits the join-date range [from, to] into cohorts of the given period.
+     * Each cohort boundary costs one binary search over the remaining suffix,
+     * so the total work is O(c log n) for c cohorts.
+     */
+    public CohortStats[] cohorts(LocalDate from, LocalDate to, CohortPeriod period) {
+        LocalDate cohortStart = period.startOf(from);
+        LocalDate last = period.startOf(to);
+        int cohortCount = 0;
+        for (LocalDate d = cohortStart; !d.isAfter(last); d = period.next(d)) {
+            cohortCount++;
+        }
+
+        CohortStats[] result = new CohortStats[cohortCount];
+        int position = lowerBound(cohortStart);
+        for (int c = 0; c < cohortCount; c++) {
+            LocalDate cohortEnd = period.next(cohortStart);
+            int end = lowerBound(cohortEnd.toEpochDay(), position);
+            result[c] = statsBetween(period.label(cohortStart), cohortStart, cohortEnd, position, end);
+            position = end;
+            cohortStart = cohortEnd;
+        }
+        return result;
+    }
+
+    private CohortStats statsBetween(String label, LocalDate start, LocalDate endExclusive, int from, int to) {
+        return new CohortStats(label, start, endExclusive,
+                to - from,
+                frozenPrefix[to] - frozenPrefix[from],
+                recordPrefix[to] - recordPrefix[from],
+                achievedPrefix[to] - achievedPrefix[from]);
+    }
+}
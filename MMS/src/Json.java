@@ -0,0 +1,206 @@
+package src;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Minimal JSON helpers for the HTTP API.
+ * Writing appends straight into a caller-supplied StringBuilder so large
+ * responses can be streamed in chunks. Reading only supports what the API
+ * accepts: a single flat object of string, number and boolean values.
+ */
+public class Json {
+
+    private Json() {
+        // Static utility class
+    }
+
+    /**
+     * Appends a JSON string literal, escaping quotes, backslashes and control characters.
+     */
+    public static StringBuilder appendString(StringBuilder sb, String value) {
+        if (value == null) {
+            return sb.append("null");
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"');
+    }
+
+    /**
+     * Appends a JSON number, or null for NaN and infinities, which JSON
+     * cannot represent.
+     */
+    public static StringBuilder appendNumber(StringBuilder sb, double value) {
+        return Double.isFinite(value) ? sb.append(value) : sb.append("null");
+    }
+
+    /**
+     * Appends a member as a JSON object (without its performance history).
+     * A fee that is not a finite number is written as null.
+     */
+    public static StringBuilder appendMember(StringBuilder sb, Member member) {
+        sb.append("{\"id\":");
+        appendString(sb, member.getMemberId());
+        sb.append(",\"name\":");
+        appendString(sb, member.getFullName());
+        sb.append(",\"type\":\"").append(member.getMemberType()).append('"');
+        sb.append(",\"joinDate\":\"").append(member.getJoinDate()).append('"');
+        sb.append(",\"status\":\"").append(member.getStatus()).append('"');
+        double monthlyFee = member.calculateMonthlyFee();
+        sb.append(",\"monthlyFee\":");
+        appendNumber(sb, Double.isFinite(monthlyFee) ? Math.round(monthlyFee * 100) / 100.0 : monthlyFee);
+        if (member instanceof PremiumMember) {
+            sb.append(",\"trainerFee\":");
+            appendNumber(sb, ((PremiumMember) member).getPersonalTrainerFee());
+        }
+        sb.append(",\"performanceRecords\":").append(member.getPerformanceHistory().size());
+        return sb.append('}');
+    }
+
+    /**
+     * Appends a performance record as a JSON object.
+     */
+    public static StringBuilder appendPerformance(StringBuilder sb, Performance record) {
+        return sb.append("{\"month\":").append(record.getMonth())
+                .append(",\"year\":").append(record.getYear())
+                .append(",\"achieved\":").append(record.wasGoalAchieved())
+                .append('}');
+    }
+
+    /**
+     * Parses a flat JSON object such as {"id":"M200","trainerFee":45.5}.
+     * String values are unescaped; numbers, booleans and null are returned as
+     * their literal text.
+     * @throws IllegalArgumentException if the text is not a flat JSON object.
+     */
+    public static Map<String, String> parseObject(String text) {
+        Map<String, String> result = new LinkedHashMap<>();
+        int[] pos = {skipWhitespace(text, 0)};
+        expect(text, pos, '{');
+        if (peek(text, pos) == '}') {
+            pos[0]++;
+            return result;
+        }
+        while (true) {
+            String key = readString(text, pos);
+            expect(text, pos, ':');
+            String value = (peek(text, pos) == '"') ? readString(text, pos) : readLiteral(text, pos);
+            result.put(key, value);
+            char next = peek(text, pos);
+            pos[0]++;
+            if (next == '}') {
+                return result;
+            }
+            if (next != ',') {
+                throw new IllegalArgumentException("Malformed JSON object at position " + (pos[0] - 1));
+            }
+        }
+    }
+
+    private static int skipWhitespace(String text, int pos) {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static char peek(String text, int[] pos) {
+        pos[0] = skipWhitespace(text, pos[0]);
+        if (pos[0] >= text.length()) {
+            throw new IllegalArgumentException("Unexpected end of JSON.");
+        }
+        return text.charAt(pos[0]);
+    }
+
+    private static void expect(String text, int[] pos, char c) {
+        if (peek(text, pos) != c) {
+            throw new IllegalArgumentException("Expected '" + c + "' at position " + pos[0]);
+        }
+        pos[0]++;
+    }
+
+    private static String readString(String text, int[] pos) {
+        expect(text, pos, '"');
+        StringBuilder sb = new StringBuilder();
+        while (pos[0] < text.length()) {
+            char c = text.charAt(pos[0]++);
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c == '\\') {
+                if (pos[0] >= text.length()) {
+                    break;
+                }
+                char escaped = text.charAt(pos[0]++);
+                switch (escaped) {
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'u':
+                        if (pos[0] + 4 > text.length()) {
+                            throw new IllegalArgumentException("Bad unicode escape in JSON string.");
+                        }
+                        sb.append((char) Integer.parseInt(text.substring(pos[0], pos[0] + 4), 16));
+                        pos[0] += 4;
+                        break;
+                    default:
+                        sb.append(escaped);
+                }
+            } else {
+                sb.append(c);
+            }
+        }
+        throw new IllegalArgumentException("Unterminated JSON string.");
+    }
+
+    private static String readLiteral(String text, int[] pos) {
+        int start = skipWhitespace(text, pos[0]);
+        int end = start;
+        while (end < text.length() && ",}".indexOf(text.charAt(end)) < 0 && !Character.isWhitespace(text.charAt(end))) {
+            end++;
+        }
+        if (end == start) {
+            throw new IllegalArgumentException("Missing JSON value at position " + start);
+        }
+        pos[0] = end;
+        return text.substring(start, end);
+    }
+}
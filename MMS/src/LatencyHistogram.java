@@ -0,0 +1,177 @@
+package src;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size, lock-free latency histogram in the style of HdrHistogram.
+ *
+ * Values (nanoseconds) are bucketed log-linearly: every power of two is split
+ * into 16 equal sub-buckets, so any recorded value is reported within 6.25%
+ * of its true value, from 1 ns up to Long.MAX_VALUE, in 1024 counters.
+ * Recording is one bucket increment, one atomic add and a max check, with no allocation.
+ *
+ * Operations too cheap to read the clock twice per call (findMemberById)
+ * use startSample() and recordSampled() instead: every call is counted in a
+ * striped LongAdder, and only one call in SAMPLE_INTERVAL is timed. The
+ * count then covers every call; the mean and percentiles come from the
+ * timed ones.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = 64 * SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+    // Calls counted by recordSampled() without being timed
+    private final LongAdder untimedCalls = new LongAdder();
+
+    static final int SAMPLE_INTERVAL = 64;
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records the time elapsed since startNanos (a System.nanoTime() value).
+     */
+    public void recordSince(long startNanos) {
+        if (MetricsRegistry.isEnabled()) {
+            record(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Starts a call that may be timed: one in SAMPLE_INTERVAL, picked at
+     * random per thread, reads the clock. Pass the result to recordSampled.
+     * @return A System.nanoTime() value, or 0 if the call is not timed.
+     */
+    public long startSample() {
+        if (!MetricsRegistry.isEnabled() || ThreadLocalRandom.current().nextInt(SAMPLE_INTERVAL) != 0) {
+            return 0;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Counts a call begun with startSample(), and records its time if it was timed.
+     */
+    public void recordSampled(long sampleStart) {
+        if (!MetricsRegistry.isEnabled()) {
+            return;
+        }
+        if (sampleStart == 0) {
+            untimedCalls.increment();
+        } else {
+            record(System.nanoTime() - sampleStart);
+        }
+    }
+
+    /**
+     * Records one value in nanoseconds. Negative values are treated as zero.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets.incrementAndGet(indexFor(value));
+        sum.addAndGet(value);
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    static int indexFor(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return The smallest value that falls into the given bucket.
+     */
+    static long lowestValueAt(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        return (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * @return The number of recorded values, plus the calls counted by
+     * recordSampled() without being timed. Summed from the buckets so that
+     * recording does not need a separate counter.
+     */
+    public long getCount() {
+        return getTimedCount() + untimedCalls.sum();
+    }
+
+    private long getTimedCount() {
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += buckets.get(i);
+        }
+        return total;
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return The mean of the timed calls in nanoseconds, or 0 if nothing was recorded.
+     */
+    public double getMean() {
+        long n = getTimedCount();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    /**
+     * @param percentile A value between 0 and 100, e.g. 99.0.
+     * @return The highest value in the bucket containing that percentile, in nanoseconds.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= target) {
+                long highest = (i + 1 < BUCKET_COUNT) ? lowestValueAt(i + 1) - 1 : Long.MAX_VALUE;
+                return Math.min(highest, max.get());
+            }
+        }
+        return max.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        sum.set(0);
+        max.set(0);
+        untimedCalls.reset();
+    }
+}
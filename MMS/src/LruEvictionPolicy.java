@@ -0,0 +1,45 @@
+package src;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/**
+ * Evicts the least recently used member. Simple and good for recency-heavy
+ * access, but a single pass over many members (an export, scrolling through
+ * the whole table) flushes everything that was popular before it.
+ */
+public class LruEvictionPolicy implements EvictionPolicy {
+
+    // Iteration order is least to most recently used
+    private final LinkedHashSet<String> order = new LinkedHashSet<>();
+
+    @Override
+    public void onAccess(String key) {
+        if (order.remove(key)) {
+            order.add(key);
+        }
+    }
+
+    @Override
+    public void onInsert(String key) {
+        order.add(key);
+    }
+
+    @Override
+    public void onRemove(String key) {
+        order.remove(key);
+    }
+
+    @Override
+    public String selectVictim() {
+        Iterator<String> oldest = order.iterator();
+        String victim = oldest.next();
+        oldest.remove();
+        return victim;
+    }
+
+    @Override
+    public void clear() {
+        order.clear();
+    }
+}
@@ -1,7 +1,9 @@
 package src;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -11,32 +13,88 @@ import java.util.List;
  * INDIVIDUAL PROJECT UPDATES:
  * - Implements Comparable<Member> to allow for natural sorting by Member ID.
  * - Centralizes the logic for toString() and getMemberType().
+ *
+ * Members are read-only to callers: the setters are package-private and
+ * meant for GymManager (and loaders building a member before it is added),
+ * so every change goes through the manager and its indexes, statistics and
+ * listeners stay correct. Each change bumps the member's version stamp,
+ * which lets derived values such as the monthly fee be cached safely.
+ *
+ * While a MemberSnapshot may still hold a member, the manager changes a
+ * copy instead and puts the copy in its place, so a Member object obtained
+ * earlier may be an older version: look the member up again after a change.
  */
-public abstract class Member implements Comparable<Member> {
+public abstract class Member implements Comparable<Member>, Cloneable {
 
     protected String memberId;
     protected String fullName;
     protected LocalDate joinDate;
     protected MembershipStatus status;
     protected List<Performance> performanceHistory;
+    protected StatusTimeline statusTimeline;
+
+    // The day given to the latest setStatus call, which a same-day change
+    // back may have removed from the timeline (null: no change yet)
+    private LocalDate lastStatusChangeDate;
+
+    // Bumped after every change; written by the manager's writers only
+    private volatile long version;
+
+    // The last computed fee, with the version and pricing plan it was computed for (null: none yet)
+    private volatile CachedFee cachedFee;
+
+    // GymManager bookkeeping: how many snapshots the manager had taken when
+    // this object became the current version of the member
+    long snapshotGeneration;
+
+    // GymManager bookkeeping: the chunk of the manager's ChunkedMemberList
+    // that holds this object
+    int listChunk;
+
+    // MemberStatistics bookkeeping: the cents this object added to its
+    // manager's projected revenue, which is what it takes off again
+    long countedCents;
 
     public Member(String memberId, String fullName, LocalDate joinDate) {
+        this(memberId, fullName, joinDate, MembershipStatus.ACTIVE);
+    }
+
+    /**
+     * Creates a member whose status has held since joining, like one loaded
+     * from a file without a status history.
+     */
+    public Member(String memberId, String fullName, LocalDate joinDate, MembershipStatus status) {
         if (memberId == null || memberId.trim().isEmpty()) {
             throw new IllegalArgumentException("Member ID cannot be null or empty.");
         }
         if (fullName == null || fullName.trim().isEmpty()) {
             throw new IllegalArgumentException("Full name cannot be null or empty.");
         }
+        if (status == null) {
+            throw new IllegalArgumentException("Status cannot be null.");
+        }
         this.memberId = memberId;
         this.fullName = fullName;
         this.joinDate = joinDate;
-        this.status = MembershipStatus.ACTIVE; // Default status
+        this.status = status;
         this.performanceHistory = new ArrayList<>();
+        this.statusTimeline = new StatusTimeline(joinDate, status);
     }
 
     // --- Abstract Methods (Must be implemented by subclasses) ---
 
-    public abstract double calculateMonthlyFee();
+    /**
+     * Computes the monthly fee from the member's current state under a plan,
+     * bypassing the fee cache. calculateMonthlyFee() calls it only when the
+     * cached fee is out of date.
+     */
+    public abstract double computeMonthlyFee(PricingPlan plan);
+
+    /**
+     * The monthly fee under a plan for this member in the given state, with
+     * everything else (type, join date, trainer fee) as it is now.
+     */
+    protected abstract double feeFor(PricingPlan plan, MembershipStatus status, boolean goalAchieved);
 
     public abstract String toCsvString();
     
@@ -44,6 +102,98 @@ public abstract class Member implements Comparable<Member> {
 
     // --- Concrete Methods (Inherited by all subclasses) ---
 
+    /**
+     * Returns the monthly fee under the current PricingPlan, computed at
+     * most once per version of the member and plan.
+     */
+    public final double calculateMonthlyFee() {
+        return feeUnder(PricingPlan.getCurrent());
+    }
+
+    /**
+     * The fee under the given plan, cached like calculateMonthlyFee(). Used
+     * by MemberStatistics, which keeps its revenue under one plan.
+     */
+    final double feeUnder(PricingPlan plan) {
+        long currentVersion = version;
+        CachedFee cached = cachedFee;
+        if (cached != null && cached.version == currentVersion && cached.plan == plan) {
+            return cached.fee;
+        }
+        // Stamped with the version read before computing: if a change lands
+        // meanwhile, the stamp is already stale and the next call recomputes.
+        double fee = computeMonthlyFee(plan);
+        cachedFee = new CachedFee(currentVersion, plan, fee);
+        return fee;
+    }
+
+    /**
+     * @return true if the member has performance records and achieved the
+     *         goal in the latest one by month (see goalAchievedUpTo).
+     */
+    public boolean latestGoalAchieved() {
+        return goalAchievedUpTo(Integer.MAX_VALUE);
+    }
+
+    /**
+     * The one rule for the performance discount, shared by the monthly fee
+     * and feeForMonth: the record for the latest month up to and including
+     * the given one counts, whatever order the records were added in; of
+     * two records for the same month, the one added last.
+     * @param monthIndex year * 12 + month - 1.
+     */
+    private boolean goalAchievedUpTo(int monthIndex) {
+        int latest = -1;
+        boolean achieved = false;
+        for (Performance record : performanceHistory) {
+            int key = record.getYear() * 12 + record.getMonth() - 1;
+            if (key <= monthIndex && key >= latest) {
+                latest = key;
+                achieved = record.wasGoalAchieved();
+            }
+        }
+        return achieved;
+    }
+
+    /**
+     * @return ",T:..." (see StatusTimeline) if the status history holds more
+     *         than the current status since joining, otherwise "", so lines
+     *         without history stay in the older format.
+     */
+    protected String statusTimelineCsvSuffix() {
+        boolean trivial = statusTimeline.size() == 1 && statusTimeline.getDate(0).equals(joinDate);
+        return trivial ? "" : "," + statusTimeline.toCsvField();
+    }
+
+    /**
+     * @return A stamp that changes whenever any field of this member changes.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns an independent copy with the same state, for GymManager to
+     * change while snapshots keep this one.
+     */
+    Member copy() {
+        try {
+            Member copy = (Member) super.clone();
+            copy.performanceHistory = new ArrayList<>(performanceHistory);
+            copy.statusTimeline = statusTimeline.copy();
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e); // Cannot happen: Member is Cloneable
+        }
+    }
+
+    /**
+     * Records that this member has changed. Call after the change itself.
+     */
+    protected void changed() {
+        version++;
+    }
+
     /**
      * NEW: Implementation of the Comparable interface.
      * Allows sorting members by their ID (natural order).
@@ -87,9 +237,10 @@ public abstract class Member implements Comparable<Member> {
         return fullName;
     }
 
-    public void setFullName(String fullName) {
+    void setFullName(String fullName) {
         if (fullName != null && !fullName.trim().isEmpty()) {
             this.fullName = fullName;
+            changed();
         }
     }
 
@@ -101,17 +252,118 @@ public abstract class Member implements Comparable<Member> {
         return status;
     }
 
-    public void setStatus(MembershipStatus status) {
+    /**
+     * Changes the status as of today, or as of the last recorded change if
+     * that is later (a member who joins in the future). Today comes from
+     * DailyClock: LocalDate.now() costs more than the rest of a status change.
+     */
+    void setStatus(MembershipStatus status) {
+        LocalDate today = DailyClock.today();
+        int last = statusTimeline.size() - 1;
+        setStatus(status, today.toEpochDay() < statusTimeline.dayAt(last) ? statusTimeline.getDate(last) : today);
+    }
+
+    /**
+     * Changes the status as of the given day and records it in the timeline.
+     * @throws IllegalArgumentException if the day is before the last recorded change.
+     */
+    void setStatus(MembershipStatus status, LocalDate effective) {
+        statusTimeline.append(effective, status);
         this.status = status;
+        this.lastStatusChangeDate = effective;
+        changed();
+    }
+
+    /**
+     * Sets the status of a member whose history is unknown (loaded from an
+     * older file): the timeline records it as the status since joining.
+     */
+    void setInitialStatus(MembershipStatus status) {
+        this.status = status;
+        this.statusTimeline = new StatusTimeline(joinDate, status);
+        changed();
+    }
+
+    /**
+     * Replaces the timeline with a saved one; the current status becomes its last entry.
+     */
+    void restoreStatusTimeline(StatusTimeline timeline) {
+        this.statusTimeline = timeline;
+        this.status = timeline.getStatus(timeline.size() - 1);
+        changed();
     }
 
+    /**
+     * @return The day the latest status change took effect, for replaying
+     *         it elsewhere (replication); null if the status never changed.
+     */
+    LocalDate getLastStatusChangeDate() {
+        return lastStatusChangeDate;
+    }
+
+    /**
+     * @return Every status change, oldest first. Read-only to callers.
+     */
+    public StatusTimeline getStatusTimeline() {
+        return statusTimeline;
+    }
+
+    /**
+     * @return The status at the end of the given day, or null if the
+     *         member's history starts later.
+     */
+    public MembershipStatus getStatusOn(LocalDate date) {
+        return statusTimeline.statusOn(date);
+    }
+
+    /**
+     * The fee owed for a calendar month under a plan: each day is charged
+     * at 1/length-of-month of the monthly fee for the status in effect that
+     * day, so a member frozen mid-month pays part of each rate, and days
+     * before the history starts cost nothing. The performance discount
+     * follows the latest goal recorded up to and including the month, so
+     * for the current month this matches calculateMonthlyFee() unless
+     * records for later months exist.
+     */
+    public double feeForMonth(YearMonth month, PricingPlan plan) {
+        int monthStart = (int) month.atDay(1).toEpochDay();
+        int monthEnd = monthStart + month.lengthOfMonth(); // Exclusive
+        boolean goalAchieved = goalAchievedUpTo(month.getYear() * 12 + month.getMonthValue() - 1);
+        double total = 0;
+        int i = Math.max(0, statusTimeline.indexOn(monthStart));
+        for (; i < statusTimeline.size() && statusTimeline.dayAt(i) < monthEnd; i++) {
+            int from = Math.max(monthStart, statusTimeline.dayAt(i));
+            int to = i + 1 < statusTimeline.size() ? Math.min(monthEnd, statusTimeline.dayAt(i + 1)) : monthEnd;
+            if (to > from) {
+                total += feeFor(plan, statusTimeline.getStatus(i), goalAchieved) * (to - from);
+            }
+        }
+        return total / month.lengthOfMonth();
+    }
+
+    /**
+     * @return A read-only view of the performance records, oldest first.
+     */
     public List<Performance> getPerformanceHistory() {
-        return performanceHistory;
+        return Collections.unmodifiableList(performanceHistory);
     }
 
-    public void addPerformanceRecord(Performance record) {
+    void addPerformanceRecord(Performance record) {
         // Optional: Add logic to prevent duplicate month/year entries
         this.performanceHistory.add(record);
+        changed();
+    }
+
+    private static final class CachedFee {
+        final long version;
+        final PricingPlan plan;
+        final double fee;
+
+        CachedFee(long version, PricingPlan plan, double fee) {
+            this.version = version;
+            this.plan = plan;
+            this.fee = fee;
+        }
     }
 }
 
@@ -0,0 +1,140 @@
+package src;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A list of member changes to be applied together by GymManager.applyBatch,
+ * under one lock and one version bump.
+ *
+ * Arguments are checked when a change is added, so a batch that was built
+ * without an exception applies without one. A change that turns out not
+ * to apply (an unknown member, a taken ID, a trainer fee for a Regular
+ * member, a status date before the member's last change) is skipped, and
+ * getFailure says why.
+ *
+ * Example:
+ *   MemberBatch batch = new MemberBatch()
+ *           .updateMemberStatus("M001", MembershipStatus.FROZEN)
+ *           .addPerformanceRecord("M002", new Performance(10, 2025, true));
+ *   manager.applyBatch(batch);
+ */
+public class MemberBatch {
+
+    private interface Change {
+        boolean applyTo(GymManager manager);
+    }
+
+    private final List<Change> changes = new ArrayList<>();
+    // Why each change may not apply, if its applyTo returns false
+    private final List<String> failureReasons = new ArrayList<>();
+    // After applyTo: null for a change that was applied, otherwise the reason
+    private String[] failures;
+
+    public MemberBatch addMember(Member member) {
+        if (member == null) {
+            throw new IllegalArgumentException("Member cannot be null.");
+        }
+        return add(manager -> {
+            if (manager.findMemberById(member.getMemberId()) != null) {
+                return false; // ID already taken
+            }
+            manager.addMember(member);
+            return true;
+        }, "Member ID already exists: " + member.getMemberId());
+    }
+
+    public MemberBatch deleteMember(String memberId) {
+        return add(manager -> manager.deleteMember(memberId), notFound(memberId));
+    }
+
+    public MemberBatch updateMemberStatus(String memberId, MembershipStatus status) {
+        if (status == null) {
+            throw new IllegalArgumentException("Status cannot be null.");
+        }
+        return add(manager -> manager.updateMemberStatus(memberId, status), notFound(memberId));
+    }
+
+    /**
+     * Changes the status as of the given day (see GymManager.updateMemberStatus).
+     */
+    public MemberBatch updateMemberStatus(String memberId, MembershipStatus status, LocalDate effective) {
+        if (status == null || effective == null) {
+            throw new IllegalArgumentException("Status and date cannot be null.");
+        }
+        return add(manager -> manager.updateMemberStatus(memberId, status, effective), notFound(memberId));
+    }
+
+    public MemberBatch renameMember(String memberId, String newName) {
+        if (newName == null || newName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Name cannot be empty.");
+        }
+        return add(manager -> manager.renameMember(memberId, newName), notFound(memberId));
+    }
+
+    public MemberBatch updatePersonalTrainerFee(String memberId, double fee) {
+        if (!(fee >= 0) || Double.isInfinite(fee)) { // Also rejects NaN
+            throw new IllegalArgumentException("Fee must be a non-negative amount.");
+        }
+        return add(manager -> manager.updatePersonalTrainerFee(memberId, fee), notFound(memberId));
+    }
+
+    public MemberBatch addPerformanceRecord(String memberId, Performance record) {
+        if (record == null) {
+            throw new IllegalArgumentException("Performance record cannot be null.");
+        }
+        return add(manager -> manager.addPerformanceRecord(memberId, record), notFound(memberId));
+    }
+
+    /**
+     * @return The number of changes in the batch.
+     */
+    public int size() {
+        return changes.size();
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * @return Why the change at this position (0 for the first added) was not
+     *         applied, or null if it was applied or the batch has not been yet.
+     */
+    public String getFailure(int index) {
+        return failures == null ? null : failures[index];
+    }
+
+    /**
+     * Applies the changes in order. Called by GymManager.applyBatch while it
+     * holds its lock.
+     * @return The number of changes that were applied.
+     */
+    int applyTo(GymManager manager) {
+        failures = new String[changes.size()];
+        int applied = 0;
+        for (int i = 0; i < changes.size(); i++) {
+            try {
+                if (changes.get(i).applyTo(manager)) {
+                    applied++;
+                } else {
+                    failures[i] = failureReasons.get(i);
+                }
+            } catch (IllegalArgumentException e) {
+                failures[i] = e.getMessage();
+            }
+        }
+        return applied;
+    }
+
+    private MemberBatch add(Change change, String failureReason) {
+        changes.add(change);
+        failureReasons.add(failureReason);
+        return this;
+    }
+
+    private static String notFound(String memberId) {
+        return "Member not found: " + memberId;
+    }
+}
@@ -0,0 +1,117 @@
+package src;
+
+/**
+ * One change made through a GymManager, as queued for asynchronous listeners.
+ * Only the fields relevant to the change type are set.
+ */
+public class MemberChange {
+
+    public enum Type {
+        ADDED, REMOVED, STATUS_CHANGED, RENAMED, FEE_CHANGED, PERFORMANCE_ADDED, RELOADED
+    }
+
+    private final Type type;
+    private final Member member;
+    private final MembershipStatus oldStatus;
+    private final String oldName;
+    private final double oldFee;
+    private final Performance record;
+
+    private MemberChange(Type type, Member member, MembershipStatus oldStatus, String oldName, double oldFee,
+            Performance record) {
+        this.type = type;
+        this.member = member;
+        this.oldStatus = oldStatus;
+        this.oldName = oldName;
+        this.oldFee = oldFee;
+        this.record = record;
+    }
+
+    public static MemberChange added(Member member) {
+        return new MemberChange(Type.ADDED, member, null, null, 0, null);
+    }
+
+    public static MemberChange removed(Member member) {
+        return new MemberChange(Type.REMOVED, member, null, null, 0, null);
+    }
+
+    public static MemberChange statusChanged(Member member, MembershipStatus oldStatus) {
+        return new MemberChange(Type.STATUS_CHANGED, member, oldStatus, null, 0, null);
+    }
+
+    public static MemberChange renamed(Member member, String oldName) {
+        return new MemberChange(Type.RENAMED, member, null, oldName, 0, null);
+    }
+
+    public static MemberChange feeChanged(PremiumMember member, double oldFee) {
+        return new MemberChange(Type.FEE_CHANGED, member, null, null, oldFee, null);
+    }
+
+    public static MemberChange performanceAdded(Member member, Performance record) {
+        return new MemberChange(Type.PERFORMANCE_ADDED, member, null, null, 0, record);
+    }
+
+    public static MemberChange reloaded() {
+        return new MemberChange(Type.RELOADED, null, null, null, 0, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return The member that changed, or null for RELOADED.
+     */
+    public Member getMember() {
+        return member;
+    }
+
+    public MembershipStatus getOldStatus() {
+        return oldStatus;
+    }
+
+    public String getOldName() {
+        return oldName;
+    }
+
+    public double getOldFee() {
+        return oldFee;
+    }
+
+    public Performance getRecord() {
+        return record;
+    }
+
+    /**
+     * Calls the listener method that matches this change.
+     */
+    public void deliverTo(MemberChangeListener listener) {
+        switch (type) {
+            case ADDED:
+                listener.memberAdded(member);
+                break;
+            case REMOVED:
+                listener.memberRemoved(member);
+                break;
+            case STATUS_CHANGED:
+                listener.statusChanged(member, oldStatus);
+                break;
+            case RENAMED:
+                listener.renamed(member, oldName);
+                break;
+            case FEE_CHANGED:
+                listener.feeChanged((PremiumMember) member, oldFee);
+                break;
+            case PERFORMANCE_ADDED:
+                listener.performanceAdded(member, record);
+                break;
+            default:
+                listener.membersReloaded();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return type + (member == null ? "" : " " + member.getMemberId());
+    }
+}
@@ -0,0 +1,48 @@
+package src;
+
+/**
+ * Receives notifications of changes made through a GymManager.
+ *
+ * A listener registered with GymManager.addChangeListener is called on the
+ * thread that made the change, right after it has been applied, so it should
+ * be quick. One registered with GymManager.addAsyncChangeListener is called
+ * on its own thread, in batches, with a copy of each member as it was right
+ * after the change (see AsyncChangeDispatcher).
+ *
+ * Every method has an empty default, so a listener only overrides the
+ * changes it cares about.
+ */
+public interface MemberChangeListener {
+
+    default void memberAdded(Member member) {
+    }
+
+    default void memberRemoved(Member member) {
+    }
+
+    default void statusChanged(Member member, MembershipStatus oldStatus) {
+    }
+
+    default void renamed(Member member, String oldName) {
+    }
+
+    default void feeChanged(PremiumMember member, double oldFee) {
+    }
+
+    default void performanceAdded(Member member, Performance record) {
+    }
+
+    /**
+     * Called once after loadFromFile has replaced every member.
+     * No per-member events are sent for the members of a load.
+     */
+    default void membersReloaded() {
+    }
+
+    /**
+     * Called after each batch of asynchronous deliveries, e.g. to refresh a
+     * view once rather than once per change. Synchronous listeners never get it.
+     */
+    default void batchDelivered() {
+    }
+}
@@ -0,0 +1,54 @@
+package src;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one chunk of CSV lines read by
+ * GymManager.loadFromFile. A large file produces one event per
+ * CHUNK_LINES lines, so slow regions of a file (or GC pauses during the
+ * load) show up on the timeline rather than as one long block.
+ */
+@Name("mms.MemberLoadChunk")
+@Label("Member Load Chunk")
+@Category({"Member Management System", "Persistence"})
+@Description("Parsing and indexing of a chunk of lines from the member CSV file")
+@StackTrace(false)
+public class MemberLoadChunkEvent extends jdk.jfr.Event {
+
+    /** Number of lines covered by each event. */
+    public static final int CHUNK_LINES = 10_000;
+
+    @Label("File")
+    String filename;
+
+    @Label("Chunk Index")
+    int chunkIndex;
+
+    @Label("Lines Read")
+    int linesRead;
+
+    @Label("Members Loaded")
+    @Description("Members added from this chunk; malformed lines are skipped")
+    int membersLoaded;
+
+    public static MemberLoadChunkEvent start() {
+        MemberLoadChunkEvent event = new MemberLoadChunkEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(String filename, int chunkIndex, int linesRead, int membersLoaded) {
+        end();
+        if (shouldCommit()) {
+            this.filename = filename;
+            this.chunkIndex = chunkIndex;
+            this.linesRead = linesRead;
+            this.membersLoaded = membersLoaded;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package src;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * MemberPage Class
+ * One page of a paginated query. The last member on the page is the cursor
+ * for the next page, so no offsets or full result lists are ever kept.
+ */
+public class MemberPage {
+
+    private final List<Member> members;
+    private final boolean hasMore;
+
+    public MemberPage(List<Member> members, boolean hasMore) {
+        this.members = Collections.unmodifiableList(members);
+        this.hasMore = hasMore;
+    }
+
+    public List<Member> getMembers() {
+        return members;
+    }
+
+    /**
+     * @return true if at least one more member follows this page.
+     */
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    /**
+     * @return The cursor to pass as "after" when requesting the next page,
+     * or null if the page is empty.
+     */
+    public Member getLastMember() {
+        return members.isEmpty() ? null : members.get(members.size() - 1);
+    }
+
+    public boolean isEmpty() {
+        return members.isEmpty();
+    }
+}
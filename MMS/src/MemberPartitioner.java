@@ -0,0 +1,90 @@
+package src;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Decides which shard of a ShardedGymManager owns a member.
+ * The decision depends only on the Member ID, so lookups, updates and
+ * deletes go straight to one shard.
+ */
+public interface MemberPartitioner {
+
+    /**
+     * @return The number of shards this partitioner distributes over.
+     */
+    int getShardCount();
+
+    /**
+     * @return The shard (0 to getShardCount() - 1) that owns the given ID.
+     */
+    int shardFor(String memberId);
+
+    /**
+     * @return A short name for the shard, used in its file name.
+     */
+    String getShardName(int shard);
+
+    /**
+     * Spreads members evenly over `shardCount` shards by a hash of their ID.
+     */
+    static MemberPartitioner byIdHash(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1.");
+        }
+        return new MemberPartitioner() {
+            @Override
+            public int getShardCount() {
+                return shardCount;
+            }
+
+            @Override
+            public int shardFor(String memberId) {
+                int h = memberId.hashCode();
+                return Math.floorMod(h ^ (h >>> 16), shardCount);
+            }
+
+            @Override
+            public String getShardName(int shard) {
+                return "shard" + shard;
+            }
+        };
+    }
+
+    /**
+     * One shard per branch. A member's branch is the letter prefix of their
+     * ID, e.g. "SYD" for "SYD0042". IDs whose prefix is not in the list go to
+     * an extra final shard named "other".
+     *
+     * @param branchCodes The branch prefixes, e.g. "SYD", "MEL", "BNE".
+     */
+    static MemberPartitioner byBranch(String... branchCodes) {
+        Map<String, Integer> shards = new HashMap<>();
+        for (String code : branchCodes) {
+            if (code == null || code.isEmpty() || shards.putIfAbsent(code.toUpperCase(), shards.size()) != null) {
+                throw new IllegalArgumentException("Branch codes must be non-empty and distinct: " + code);
+            }
+        }
+        int otherShard = shards.size();
+        return new MemberPartitioner() {
+            @Override
+            public int getShardCount() {
+                return otherShard + 1;
+            }
+
+            @Override
+            public int shardFor(String memberId) {
+                int end = 0;
+                while (end < memberId.length() && Character.isLetter(memberId.charAt(end))) {
+                    end++;
+                }
+                return shards.getOrDefault(memberId.substring(0, end).toUpperCase(), otherShard);
+            }
+
+            @Override
+            public String getShardName(int shard) {
+                return (shard == otherShard) ? "other" : branchCodes[shard].toUpperCase();
+            }
+        };
+    }
+}
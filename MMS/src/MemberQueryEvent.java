@@ -0,0 +1,54 @@
+package src;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one GymManager query (search, filter, page,
+ * top-k or cohort lookup).
+ *
+ * When no recording is running the JVM leaves the event uninstrumented, so
+ * start() and finish() cost next to nothing and the allocation is removed.
+ */
+@Name("mms.MemberQuery")
+@Label("Member Query")
+@Category({"Member Management System", "Queries"})
+@Description("A search, filter, page or aggregate query on the member base")
+@StackTrace(false)
+public class MemberQueryEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Rows Scanned")
+    @Description("Members examined (1 for hash lookups, the member count for full scans)")
+    int rowsScanned;
+
+    @Label("Rows Returned")
+    int rowsReturned;
+
+    /**
+     * Creates the event and starts its clock.
+     */
+    public static MemberQueryEvent start() {
+        MemberQueryEvent event = new MemberQueryEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Stops the clock and commits the event if it is enabled and over its threshold.
+     */
+    public void finish(String operation, int rowsScanned, int rowsReturned) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.rowsScanned = rowsScanned;
+            this.rowsReturned = rowsReturned;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package src;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for GymManager.saveToFile.
+ */
+@Name("mms.MemberSave")
+@Label("Member Save")
+@Category({"Member Management System", "Persistence"})
+@StackTrace(false)
+public class MemberSaveEvent extends jdk.jfr.Event {
+
+    @Label("File")
+    String filename;
+
+    @Label("Row Count")
+    int rowCount;
+
+    @Label("Succeeded")
+    boolean succeeded;
+
+    public static MemberSaveEvent start() {
+        MemberSaveEvent event = new MemberSaveEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(String filename, int rowCount, boolean succeeded) {
+        end();
+        if (shouldCommit()) {
+            this.filename = filename;
+            this.rowCount = rowCount;
+            this.succeeded = succeeded;
+            commit();
+        }
+    }
+}
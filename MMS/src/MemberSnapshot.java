@@ -0,0 +1,63 @@
+package src;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * A point-in-time, read-only view of every member, from
+ * GymManager.getSnapshot().
+ *
+ * Taking a snapshot copies only the chunk table of the manager's member
+ * list (see ChunkedMemberList) and never makes later writers copy the whole
+ * list: the manager copies one chunk of it, or a member, only when it next
+ * changes something a snapshot can still see. The members in a snapshot therefore keep the
+ * names, statuses, fees and records they had when it was taken, however
+ * long a report or export takes to read them, and the snapshot can be read
+ * from any thread without holding the manager's lock.
+ */
+public class MemberSnapshot {
+
+    private final List<Member> members;
+    private final long version;
+    private MemberStatistics statistics; // Computed on first use
+
+    MemberSnapshot(List<Member> members, long version) {
+        this.members = members;
+        this.version = version;
+    }
+
+    /**
+     * @return The manager's version (GymManager.getVersion()) when the snapshot was taken.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return The members in the manager's order at the time, as a read-only list.
+     */
+    public List<Member> getMembers() {
+        return members;
+    }
+
+    public int size() {
+        return members.size();
+    }
+
+    public Stream<Member> stream() {
+        return members.stream();
+    }
+
+    /**
+     * Computes the dashboard figures for this snapshot. O(n) on the first
+     * call, then cached, so a report can read several figures that agree.
+     */
+    public synchronized MemberStatistics getStatistics() {
+        if (statistics == null) {
+            MemberStatistics computed = new MemberStatistics(false);
+            members.forEach(computed::memberAdded);
+            statistics = computed;
+        }
+        return statistics;
+    }
+}
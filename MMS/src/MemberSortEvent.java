@@ -0,0 +1,40 @@
+package src;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one in-place sort of the member list.
+ */
+@Name("mms.MemberSort")
+@Label("Member Sort")
+@Category({"Member Management System", "Sorting"})
+@Description("A sort of the GymManager member list")
+@StackTrace(false)
+public class MemberSortEvent extends jdk.jfr.Event {
+
+    @Label("Sort Key")
+    @Description("ID, NAME, JOIN_DATE or a composite spec such as type,status,-joinDate")
+    String sortKey;
+
+    @Label("Row Count")
+    int rowCount;
+
+    public static MemberSortEvent start() {
+        MemberSortEvent event = new MemberSortEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(String sortKey, int rowCount) {
+        end();
+        if (shouldCommit()) {
+            this.sortKey = sortKey;
+            this.rowCount = rowCount;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package src;
+
+/**
+ * MemberSortField Enum
+ * The member attributes that can be combined into a composite sort key.
+ */
+public enum MemberSortField {
+    ID("id"),
+    NAME("name"),
+    TYPE("type"),
+    STATUS("status"),
+    JOIN_DATE("joinDate"),
+    FEE("fee");
+
+    private final String specName;
+
+    MemberSortField(String specName) {
+        this.specName = specName;
+    }
+
+    /**
+     * @return The name used for this field in a sort spec string, e.g. "joinDate".
+     */
+    public String getSpecName() {
+        return specName;
+    }
+
+    /**
+     * Looks up a field by its spec name (case-insensitive, '_' ignored).
+     * @throws IllegalArgumentException if no field has that name.
+     */
+    public static MemberSortField fromSpecName(String name) {
+        String normalized = name.trim().replace("_", "");
+        for (MemberSortField field : values()) {
+            if (field.specName.equalsIgnoreCase(normalized)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown sort field: " + name.trim());
+    }
+}
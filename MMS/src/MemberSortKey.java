@@ -0,0 +1,25 @@
+package src;
+
+import java.util.Comparator;
+
+/**
+ * MemberSortKey Enum
+ * The orders that keyset pagination can walk through.
+ * Each order breaks ties by Member ID, so it is total and a member can be
+ * used as an unambiguous cursor.
+ */
+public enum MemberSortKey {
+    ID(Comparator.naturalOrder()),
+    NAME(new MemberNameComparator().thenComparing(Comparator.naturalOrder())),
+    JOIN_DATE(new MemberJoinDateComparator().thenComparing(Comparator.naturalOrder()));
+
+    private final Comparator<Member> comparator;
+
+    MemberSortKey(Comparator<Member> comparator) {
+        this.comparator = comparator;
+    }
+
+    public Comparator<Member> comparator() {
+        return comparator;
+    }
+}
@@ -0,0 +1,113 @@
+package src;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An ordered list of sort fields, each ascending or descending.
+ * For example "type,status,-joinDate,name" sorts by type, then status,
+ * then newest join date first, then name.
+ *
+ * Members that are equal on every field keep their existing relative
+ * order, so composite sorts are stable.
+ */
+public class MemberSortSpec {
+
+    private final List<MemberSortField> fields;
+    private final List<Boolean> descending;
+
+    private MemberSortSpec(List<MemberSortField> fields, List<Boolean> descending) {
+        this.fields = Collections.unmodifiableList(fields);
+        this.descending = Collections.unmodifiableList(descending);
+    }
+
+    /**
+     * Parses a comma-separated spec. A leading '-' sorts that field descending,
+     * and an optional leading '+' sorts it ascending.
+     * Field names: id, name, type, status, joinDate, fee.
+     * @throws IllegalArgumentException if the spec is empty or names an unknown field.
+     */
+    public static MemberSortSpec parse(String spec) {
+        if (spec == null || spec.trim().isEmpty()) {
+            throw new IllegalArgumentException("Sort spec cannot be empty.");
+        }
+        List<MemberSortField> fields = new ArrayList<>();
+        List<Boolean> descending = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String token = part.trim();
+            boolean desc = token.startsWith("-");
+            if (desc || token.startsWith("+")) {
+                token = token.substring(1);
+            }
+            fields.add(MemberSortField.fromSpecName(token));
+            descending.add(desc);
+        }
+        return new MemberSortSpec(fields, descending);
+    }
+
+    public int size() {
+        return fields.size();
+    }
+
+    public MemberSortField getField(int i) {
+        return fields.get(i);
+    }
+
+    public boolean isDescending(int i) {
+        return descending.get(i);
+    }
+
+    /**
+     * Builds the equivalent Comparator chain from the existing comparators.
+     * CompositeMemberSorter produces the same order much faster for large
+     * lists; the comparator is for merges and small collections.
+     */
+    public Comparator<Member> comparator() {
+        Comparator<Member> chain = null;
+        for (int i = 0; i < fields.size(); i++) {
+            Comparator<Member> next = fieldComparator(fields.get(i));
+            if (descending.get(i)) {
+                next = next.reversed();
+            }
+            chain = (chain == null) ? next : chain.thenComparing(next);
+        }
+        return chain;
+    }
+
+    private static Comparator<Member> fieldComparator(MemberSortField field) {
+        switch (field) {
+            case ID:
+                return Comparator.naturalOrder();
+            case NAME:
+                return new MemberNameComparator();
+            case TYPE:
+                return Comparator.comparing(Member::getMemberType);
+            case STATUS:
+                return Comparator.comparing(Member::getStatus);
+            case JOIN_DATE:
+                return new MemberJoinDateComparator();
+            default:
+                return Comparator.comparingLong(member -> Math.round(member.calculateMonthlyFee() * 100));
+        }
+    }
+
+    /**
+     * Returns the spec in parseable form, e.g. "type,status,-joinDate,name".
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                sb.append(",");
+            }
+            if (descending.get(i)) {
+                sb.append("-");
+            }
+            sb.append(fields.get(i).getSpecName());
+        }
+        return sb.toString();
+    }
+}
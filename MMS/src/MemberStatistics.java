@@ -0,0 +1,218 @@
+package src;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Incrementally maintained aggregates over the member base.
+ * GymManager reports every mutation to this class, so reading any figure on
+ * the dashboard is an O(1) operation regardless of how many members exist.
+ * Readers get a copy (GymManager.getStatistics()) or a snapshot's figures,
+ * never the instance a manager is still changing.
+ *
+ * Revenue is accumulated in whole cents so that repeated add/remove cycles
+ * never drift the way a running double sum would. It is kept under one
+ * pricing plan; once PricingPlan.getCurrent() is another (a plan was
+ * applied, or the date moved on), GymManager recomputes it. The manager's
+ * statistics remember each member's share (Member.countedCents) and take
+ * exactly that off again when the member changes or leaves, so a fee that
+ * differs by then cannot make the total drift.
+ */
+public class MemberStatistics {
+
+    private static final int REGULAR = 0;
+    private static final int PREMIUM = 1;
+
+    // counts[type][status.ordinal()]
+    private final int[][] counts = new int[2][MembershipStatus.values().length];
+    private long revenueCents;
+    private PricingPlan plan = PricingPlan.getCurrent();
+    // Whether members' shares are kept on the members: only for a manager's
+    // own statistics, never for a snapshot's, whose members are shared
+    private final boolean keepsShares;
+
+    // Key is year * 12 + (month - 1); value is {records, goalsAchieved}.
+    private final Map<Integer, int[]> goalsByMonth = new HashMap<>();
+
+    /**
+     * @param keepsShares true for a manager's own statistics, which must
+     *        see every member leave that they saw arrive.
+     */
+    MemberStatistics(boolean keepsShares) {
+        this.keepsShares = keepsShares;
+    }
+
+    /**
+     * A copy of the figures, for readers; it is never changed.
+     */
+    MemberStatistics copy() {
+        MemberStatistics copy = new MemberStatistics(false);
+        for (int type = REGULAR; type <= PREMIUM; type++) {
+            System.arraycopy(counts[type], 0, copy.counts[type], 0, counts[type].length);
+        }
+        copy.revenueCents = revenueCents;
+        copy.plan = plan;
+        goalsByMonth.forEach((month, totals) -> copy.goalsByMonth.put(month, totals.clone()));
+        return copy;
+    }
+
+    // --- Mutation hooks (called by GymManager only) ---
+
+    void memberAdded(Member member) {
+        countMember(member, 1);
+        for (Performance record : member.getPerformanceHistory()) {
+            countPerformance(record, 1);
+        }
+    }
+
+    void memberRemoved(Member member) {
+        countMember(member, -1);
+        for (Performance record : member.getPerformanceHistory()) {
+            countPerformance(record, -1);
+        }
+    }
+
+    /**
+     * Must be called before a member's status, fee or history changes,
+     * paired with {@link #afterMemberChange(Member)} once the change is applied.
+     */
+    void beforeMemberChange(Member member) {
+        countMember(member, -1);
+    }
+
+    void afterMemberChange(Member member) {
+        countMember(member, 1);
+    }
+
+    void performanceAdded(Performance record) {
+        countPerformance(record, 1);
+    }
+
+    void clear() {
+        for (int[] row : counts) {
+            Arrays.fill(row, 0);
+        }
+        revenueCents = 0;
+        plan = PricingPlan.getCurrent();
+        goalsByMonth.clear();
+    }
+
+    /**
+     * Recomputes the projected revenue from scratch under the current plan,
+     * after the pricing plan changed.
+     */
+    void recomputeRevenue(Iterable<Member> members) {
+        plan = PricingPlan.getCurrent();
+        revenueCents = 0;
+        for (Member member : members) {
+            revenueCents += share(member);
+        }
+    }
+
+    /**
+     * @return The plan the revenue was computed under.
+     */
+    PricingPlan getPlan() {
+        return plan;
+    }
+
+    private void countMember(Member member, int delta) {
+        counts[typeIndex(member)][member.getStatus().ordinal()] += delta;
+        // A leaving or changing member takes off what it added, not its fee now
+        revenueCents += delta < 0 && keepsShares ? -member.countedCents : delta * share(member);
+    }
+
+    /**
+     * @return The member's fee under the plan, in cents, remembered on the
+     *         member if these are a manager's statistics.
+     */
+    private long share(Member member) {
+        long cents = Math.round(member.feeUnder(plan) * 100);
+        if (keepsShares) {
+            member.countedCents = cents;
+        }
+        return cents;
+    }
+
+    private void countPerformance(Performance record, int delta) {
+        int[] totals = goalsByMonth.computeIfAbsent(monthKey(record.getMonth(), record.getYear()), k -> new int[2]);
+        totals[0] += delta;
+        if (record.wasGoalAchieved()) {
+            totals[1] += delta;
+        }
+    }
+
+    private static int typeIndex(Member member) {
+        return (member instanceof PremiumMember) ? PREMIUM : REGULAR;
+    }
+
+    private static int monthKey(int month, int year) {
+        return year * 12 + (month - 1);
+    }
+
+    // --- Read-only dashboard queries (all O(1)) ---
+
+    public int getTotalMembers() {
+        int total = 0;
+        for (int[] row : counts) {
+            for (int count : row) {
+                total += count;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @param type The string "Regular" or "Premium".
+     * @return The number of members of that type.
+     */
+    public int getCountByType(String type) {
+        int[] row = counts[type.equalsIgnoreCase("Premium") ? PREMIUM : REGULAR];
+        int total = 0;
+        for (int count : row) {
+            total += count;
+        }
+        return total;
+    }
+
+    public int getCountByStatus(MembershipStatus status) {
+        return counts[REGULAR][status.ordinal()] + counts[PREMIUM][status.ordinal()];
+    }
+
+    /**
+     * @param type The string "Regular" or "Premium".
+     * @param status The membership status.
+     * @return The number of members with both that type and that status.
+     */
+    public int getCount(String type, MembershipStatus status) {
+        return counts[type.equalsIgnoreCase("Premium") ? PREMIUM : REGULAR][status.ordinal()];
+    }
+
+    /**
+     * @return The sum of the members' fees under getPlan().
+     */
+    public double getProjectedMonthlyRevenue() {
+        return revenueCents / 100.0;
+    }
+
+    /**
+     * @return The number of performance records logged for the given month.
+     */
+    public int getPerformanceRecordCount(int month, int year) {
+        int[] totals = goalsByMonth.get(monthKey(month, year));
+        return totals == null ? 0 : totals[0];
+    }
+
+    /**
+     * @return The fraction (0.0 - 1.0) of records for the given month where
+     * the goal was achieved, or NaN if no records exist for that month.
+     */
+    public double getGoalRate(int month, int year) {
+        int[] totals = goalsByMonth.get(monthKey(month, year));
+        if (totals == null || totals[0] == 0) {
+            return Double.NaN;
+        }
+        return (double) totals[1] / totals[0];
+    }
+}
@@ -0,0 +1,75 @@
+package src;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A persistence backend for members, keyed and ordered by member ID.
+ *
+ * GymManager can fill itself from a store (loadFromStore), save to one
+ * (saveToStore) and keep one up to date change by change (attachStore).
+ * It still holds every member on the heap and never reads members from a
+ * store on demand. Reading a store without loading it is for code that
+ * uses the store directly, such as ExternalSortExporter. Implementations:
+ * - CsvMemberStore: the gym_records.csv format; the whole file is held in
+ *   memory and rewritten on flush.
+ * - BTreeMemberStore: a page-based B+tree file read on demand through a
+ *   bounded page cache, so it can be opened and queried without loading it.
+ *
+ * Stores are not safe for concurrent use unless the implementation says so.
+ * I/O failures are reported as UncheckedIOException.
+ */
+public interface MemberStore extends AutoCloseable {
+
+    /**
+     * @return The member with this ID, or null if there is none.
+     */
+    Member get(String memberId);
+
+    /**
+     * @return true if a member with this ID is stored. Stores may answer
+     *         this more cheaply than get(), without decoding the member.
+     */
+    default boolean contains(String memberId) {
+        return get(memberId) != null;
+    }
+
+    /**
+     * Inserts the member, or replaces the one with the same ID.
+     */
+    void put(Member member);
+
+    /**
+     * @return true if a member was removed.
+     */
+    boolean delete(String memberId);
+
+    /**
+     * Removes every member.
+     */
+    void clear();
+
+    long size();
+
+    /**
+     * Keyset pagination in ID order.
+     * @param afterId Return members whose ID sorts after this one, or from the start if null.
+     */
+    List<Member> getPage(String afterId, int pageSize);
+
+    /**
+     * Visits every member in ID order.
+     */
+    void forEach(Consumer<? super Member> action);
+
+    /**
+     * Writes any buffered changes to disk.
+     */
+    void flush();
+
+    /**
+     * Flushes and releases the file.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,57 @@
+package src;
+
+/**
+ * Writes every change of a GymManager through to a MemberStore.
+ * Created by GymManager.attachStore; runs on the writing thread, while the
+ * manager's lock is held, so the store sees changes in the manager's order.
+ *
+ * Changes reach the store immediately; how soon they reach the disk is up to
+ * the store (BTreeMemberStore writes dirty pages when they leave its cache,
+ * and everything on flush() or close()).
+ */
+class MemberStoreWriter implements MemberChangeListener {
+
+    private final GymManager manager;
+    private final MemberStore store;
+
+    MemberStoreWriter(GymManager manager, MemberStore store) {
+        this.manager = manager;
+        this.store = store;
+    }
+
+    @Override
+    public void memberAdded(Member member) {
+        store.put(member);
+    }
+
+    @Override
+    public void memberRemoved(Member member) {
+        store.delete(member.getMemberId());
+    }
+
+    @Override
+    public void statusChanged(Member member, MembershipStatus oldStatus) {
+        store.put(member);
+    }
+
+    @Override
+    public void renamed(Member member, String oldName) {
+        store.put(member);
+    }
+
+    @Override
+    public void feeChanged(PremiumMember member, double oldFee) {
+        store.put(member);
+    }
+
+    @Override
+    public void performanceAdded(Member member, Performance record) {
+        store.put(member);
+    }
+
+    @Override
+    public void membersReloaded() {
+        store.clear();
+        manager.getAllMembers().forEach(store::put);
+    }
+}
@@ -0,0 +1,41 @@
+package src;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A low-overhead, thread-safe counter. Uses a LongAdder so that hot paths
+ * incrementing it from many threads do not contend on one memory location.
+ */
+public class MetricCounter {
+
+    private final String name;
+    private final LongAdder value = new LongAdder();
+
+    public MetricCounter(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void increment() {
+        if (MetricsRegistry.isEnabled()) {
+            value.increment();
+        }
+    }
+
+    public void add(long amount) {
+        if (MetricsRegistry.isEnabled()) {
+            value.add(amount);
+        }
+    }
+
+    public long get() {
+        return value.sum();
+    }
+
+    public void reset() {
+        value.reset();
+    }
+}
@@ -0,0 +1,114 @@
+package src;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+
+/**
+ * A lightweight registry of named counters, gauges and latency histograms.
+ *
+ * Hot paths look their metrics up once (typically into static final fields)
+ * and then only touch a LongAdder or an atomic array per event. Recording
+ * can be switched off globally, after which every record call is a single
+ * volatile read.
+ */
+public class MetricsRegistry {
+
+    private static volatile boolean enabled = true;
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    private final Map<String, MetricCounter> counters = new ConcurrentSkipListMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentSkipListMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentSkipListMap<>();
+
+    public MetricsRegistry() {
+        Runtime runtime = Runtime.getRuntime();
+        gauge("jvm.heapUsedBytes", () -> runtime.totalMemory() - runtime.freeMemory());
+    }
+
+    /**
+     * @return The application-wide registry used by GymManager and the member classes.
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns recording on or off for every registry. Reading is unaffected.
+     */
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /**
+     * Returns the counter with the given name, creating it on first use.
+     */
+    public MetricCounter counter(String name) {
+        return counters.computeIfAbsent(name, MetricCounter::new);
+    }
+
+    /**
+     * Returns the histogram with the given name, creating it on first use.
+     */
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    /**
+     * Registers (or replaces) a gauge. The supplier is only called when a
+     * report is produced, so it costs nothing on the hot path.
+     */
+    public void gauge(String name, LongSupplier supplier) {
+        gauges.put(name, supplier);
+    }
+
+    /**
+     * Clears all counters and histograms. Gauges are left registered.
+     */
+    public void reset() {
+        counters.values().forEach(MetricCounter::reset);
+        histograms.values().forEach(LatencyHistogram::reset);
+    }
+
+    /**
+     * Produces a human-readable report of every metric, sorted by name.
+     * Latencies are shown in microseconds.
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Metrics at ").append(LocalDateTime.now().withNano(0))
+                .append(enabled ? "" : " (recording disabled)").append('\n');
+
+        sb.append("\n[Counters]\n");
+        counters.forEach((name, counter) -> sb.append(String.format("  %-40s %12d%n", name, counter.get())));
+
+        sb.append("\n[Gauges]\n");
+        gauges.forEach((name, supplier) -> sb.append(String.format("  %-40s %12d%n", name, supplier.getAsLong())));
+
+        sb.append("\n[Latencies (us)]\n");
+        sb.append(String.format("  %-40s %10s %10s %10s %10s %10s %10s%n",
+                "name", "count", "mean", "p50", "p90", "p99", "max"));
+        histograms.forEach((name, h) -> sb.append(String.format("  %-40s %10d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                name, h.getCount(), h.getMean() / 1e3,
+                h.getValueAtPercentile(50) / 1e3, h.getValueAtPercentile(90) / 1e3,
+                h.getValueAtPercentile(99) / 1e3, h.getMax() / 1e3)));
+        return sb.toString();
+    }
+
+    /**
+     * Writes the current report to a text file.
+     */
+    public void dumpToFile(String filename) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
+            writer.write(report());
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package src;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Goal-achievement trends over every member's performance history, built
+ * in one pass.
+ *
+ * The report holds, for each month and membership type, how many records
+ * there were and how many achieved the goal, plus streak figures: each
+ * member's longest run of consecutive months with the goal achieved (a
+ * month with a missed goal or no record ends a run), and the run each
+ * member is on as of their latest record.
+ *
+ * The members are split into ranges that a ForkJoinPool reduces in
+ * parallel. Each range fills fixed arrays indexed by month (Performance
+ * limits years to 2000-2100) and by streak length, and the partial results
+ * are summed, so memory grows with the number of months, not of members.
+ */
+public class PerformanceTrendReport {
+
+    private static final int FIRST_YEAR = 2000;
+    private static final int MONTHS = (2100 - FIRST_YEAR + 1) * 12;
+    private static final int[] TYPES = {PricingPlan.REGULAR, PricingPlan.PREMIUM};
+    private static final String[] TYPE_NAMES = {"Regular", "Premium"};
+
+    // Members per fork-join leaf
+    private static final int LEAF_SIZE = 4096;
+
+    private static final LatencyHistogram BUILD_TIME = MetricsRegistry.getDefault().histogram("report.performanceTrends");
+
+    private final Totals totals;
+
+    private PerformanceTrendReport(Totals totals) {
+        this.totals = totals;
+    }
+
+    /**
+     * Builds the report with the common ForkJoinPool.
+     */
+    public static PerformanceTrendReport build(Collection<Member> members) {
+        return build(members, ForkJoinPool.commonPool());
+    }
+
+    public static PerformanceTrendReport build(Collection<Member> members, ForkJoinPool pool) {
+        long start = System.nanoTime();
+        Member[] array = members.toArray(new Member[0]);
+        Totals totals = pool.invoke(new Reduction(array, 0, array.length));
+        BUILD_TIME.recordSince(start);
+        return new PerformanceTrendReport(totals);
+    }
+
+    // --- Monthly series ---
+
+    /**
+     * @return The first month with any record, as an index (see monthIndex),
+     *         or -1 if there are no records.
+     */
+    public int getFirstMonthIndex() {
+        for (int m = 0; m < MONTHS; m++) {
+            if (totals.records[0][m] + totals.records[1][m] > 0) {
+                return m;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The last month with any record, or -1 if there are no records.
+     */
+    public int getLastMonthIndex() {
+        for (int m = MONTHS - 1; m >= 0; m--) {
+            if (totals.records[0][m] + totals.records[1][m] > 0) {
+                return m;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The index used by the monthly getters for a month (1-12) and year.
+     * @throws IllegalArgumentException if the year is outside 2000-2100.
+     */
+    public static int monthIndex(int month, int year) {
+        if (month < 1 || month > 12 || year < FIRST_YEAR || year >= FIRST_YEAR + MONTHS / 12) {
+            throw new IllegalArgumentException("No such report month: " + month + "/" + year);
+        }
+        return (year - FIRST_YEAR) * 12 + month - 1;
+    }
+
+    /**
+     * @param type PricingPlan.REGULAR or PricingPlan.PREMIUM.
+     */
+    public int getRecordCount(int monthIndex, int type) {
+        return totals.records[type][monthIndex];
+    }
+
+    public int getAchievedCount(int monthIndex, int type) {
+        return totals.achieved[type][monthIndex];
+    }
+
+    /**
+     * @return The share of the month's records, of both types, that achieved
+     *         the goal; NaN if there are none.
+     */
+    public double getAchievementRate(int monthIndex) {
+        int records = totals.records[0][monthIndex] + totals.records[1][monthIndex];
+        return records == 0 ? Double.NaN
+                : (double) (totals.achieved[0][monthIndex] + totals.achieved[1][monthIndex]) / records;
+    }
+
+    // --- Streaks ---
+
+    /**
+     * @return The longest run of consecutive achieved months of any member.
+     */
+    public int getLongestStreak() {
+        return totals.longestStreak;
+    }
+
+    /**
+     * @return The member with the longest streak (the smallest ID on a tie),
+     *         or null if no member ever achieved a goal.
+     */
+    public String getLongestStreakMemberId() {
+        return totals.longestStreakMemberId;
+    }
+
+    /**
+     * @return How many members' longest streak has exactly this length.
+     */
+    public int getMembersWithLongestStreak(int length) {
+        return length < totals.streakHistogram.length ? totals.streakHistogram[length] : 0;
+    }
+
+    /**
+     * @return How many members are on a streak of at least this length as of
+     *         their latest record.
+     */
+    public int getMembersOnStreak(int minimumLength) {
+        int count = 0;
+        for (int length = Math.max(1, minimumLength); length < totals.currentStreakHistogram.length; length++) {
+            count += totals.currentStreakHistogram[length];
+        }
+        return count;
+    }
+
+    /**
+     * @return The average of the members' longest streaks, over members with
+     *         at least one record; NaN if there are none.
+     */
+    public double getAverageLongestStreak() {
+        long members = 0;
+        long sum = 0;
+        for (int length = 0; length < totals.streakHistogram.length; length++) {
+            members += totals.streakHistogram[length];
+            sum += (long) length * totals.streakHistogram[length];
+        }
+        return members == 0 ? Double.NaN : (double) sum / members;
+    }
+
+    public int getMembersWithRecords() {
+        return totals.membersWithRecords;
+    }
+
+    // --- Output ---
+
+    /**
+     * Writes the monthly series as CSV, one row per month from the first to
+     * the last with records:
+     * month,regularRecords,regularAchieved,premiumRecords,premiumAchieved,achievementRate
+     */
+    public void writeCsv(Writer out) throws IOException {
+        out.write("month,regularRecords,regularAchieved,premiumRecords,premiumAchieved,achievementRate\n");
+        int first = getFirstMonthIndex();
+        int last = getLastMonthIndex();
+        StringBuilder row = new StringBuilder(64);
+        for (int m = first; first >= 0 && m <= last; m++) {
+            row.setLength(0);
+            appendMonth(row, m);
+            for (int type : TYPES) {
+                row.append(',').append(totals.records[type][m]).append(',').append(totals.achieved[type][m]);
+            }
+            double rate = getAchievementRate(m);
+            row.append(',').append(Double.isNaN(rate) ? "" : String.format(Locale.ROOT, "%.4f", rate)).append('\n');
+            out.write(row.toString());
+        }
+    }
+
+    /**
+     * Writes the streak distribution as CSV, one row per length up to the
+     * longest: length,membersWithLongestStreak,membersOnCurrentStreak
+     */
+    public void writeStreakCsv(Writer out) throws IOException {
+        out.write("length,membersWithLongestStreak,membersOnCurrentStreak\n");
+        for (int length = 0; length <= totals.longestStreak; length++) {
+            out.write(length + "," + totals.streakHistogram[length] + "," + totals.currentStreakHistogram[length] + "\n");
+        }
+    }
+
+    /**
+     * Prints the monthly series and the streak summary as a table.
+     */
+    public void print(PrintStream out) {
+        int first = getFirstMonthIndex();
+        if (first < 0) {
+            out.println("No performance records.");
+            return;
+        }
+        out.printf("%-8s %17s %17s %8s%n", "Month", TYPE_NAMES[0], TYPE_NAMES[1], "Rate");
+        StringBuilder month = new StringBuilder(8);
+        for (int m = first; m <= getLastMonthIndex(); m++) {
+            month.setLength(0);
+            appendMonth(month, m);
+            out.printf("%-8s", month);
+            for (int type : TYPES) {
+                out.printf(" %7d/%-9d", totals.achieved[type][m], totals.records[type][m]);
+            }
+            double rate = getAchievementRate(m);
+            out.println(Double.isNaN(rate) ? "      -" : String.format("%7.1f%%", rate * 100));
+        }
+        out.println();
+        out.printf("Members with records: %d%n", totals.membersWithRecords);
+        out.printf("Longest streak: %d month(s)%s%n", totals.longestStreak,
+                totals.longestStreakMemberId == null ? "" : " (" + totals.longestStreakMemberId + ")");
+        out.printf("Average longest streak: %.2f month(s)%n", getAverageLongestStreak());
+        out.printf("On a streak of 3+ months: %d member(s)%n", getMembersOnStreak(3));
+    }
+
+    @Override
+    public String toString() {
+        int first = getFirstMonthIndex();
+        return String.format("PerformanceTrendReport[%d members with records, %d months, longest streak %d]",
+                totals.membersWithRecords, first < 0 ? 0 : getLastMonthIndex() - first + 1, totals.longestStreak);
+    }
+
+    private static void appendMonth(StringBuilder sb, int monthIndex) {
+        int month = monthIndex % 12 + 1;
+        sb.append(FIRST_YEAR + monthIndex / 12).append('-').append(month < 10 ? "0" : "").append(month);
+    }
+
+    // --- Reduction ---
+
+    /**
+     * Sums over a range of members; splits in two until the range is a leaf.
+     * Never serialized, although ForkJoinTask is Serializable.
+     */
+    @SuppressWarnings("serial")
+    private static final class Reduction extends RecursiveTask<Totals> {
+        private final Member[] members;
+        private final int from;
+        private final int to;
+
+        Reduction(Member[] members, int from, int to) {
+            this.members = members;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from <= LEAF_SIZE) {
+                Totals totals = new Totals();
+                int[] keys = new int[16];
+                for (int i = from; i < to; i++) {
+                    keys = totals.add(members[i], keys);
+                }
+                return totals;
+            }
+            int mid = (from + to) >>> 1;
+            Reduction left = new Reduction(members, from, mid);
+            left.fork();
+            Totals right = new Reduction(members, mid, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * The partial result of a range of members.
+     */
+    private static final class Totals {
+        final int[][] records = new int[2][MONTHS];
+        final int[][] achieved = new int[2][MONTHS];
+        // Indexed by streak length, at most one per month
+        final int[] streakHistogram = new int[MONTHS + 1];
+        final int[] currentStreakHistogram = new int[MONTHS + 1];
+        int longestStreak;
+        String longestStreakMemberId;
+        int membersWithRecords;
+
+        /**
+         * Adds one member. Each record becomes a key (month index * 2, plus
+         * 1 if the goal was missed), sorted unless the history is already in
+         * order, so a month with a missed record sorts after an achieved one
+         * and breaks the run.
+         * @param keys A scratch array, returned (grown if needed) for reuse.
+         */
+        int[] add(Member member, int[] keys) {
+            int type = member instanceof PremiumMember ? PricingPlan.PREMIUM : PricingPlan.REGULAR;
+            int n = 0;
+            boolean sorted = true;
+            for (Performance record : member.getPerformanceHistory()) {
+                int m = (record.getYear() - FIRST_YEAR) * 12 + record.getMonth() - 1;
+                records[type][m]++;
+                if (record.wasGoalAchieved()) {
+                    achieved[type][m]++;
+                }
+                if (n == keys.length) {
+                    keys = Arrays.copyOf(keys, n * 2);
+                }
+                keys[n] = m * 2 + (record.wasGoalAchieved() ? 0 : 1);
+                sorted &= n == 0 || keys[n] >= keys[n - 1];
+                n++;
+            }
+            if (n == 0) {
+                return keys;
+            }
+            if (!sorted) {
+                Arrays.sort(keys, 0, n);
+            }
+
+            int longest = 0;
+            int run = 0;
+            int runMonth = -2;
+            int i = 0;
+            while (i < n) {
+                int month = keys[i] >> 1;
+                boolean allAchieved = true;
+                for (; i < n && keys[i] >> 1 == month; i++) {
+                    allAchieved &= (keys[i] & 1) == 0;
+                }
+                if (!allAchieved) {
+                    run = 0;
+                } else {
+                    run = month == runMonth + 1 ? run + 1 : 1;
+                    runMonth = month;
+                    longest = Math.max(longest, run);
+                }
+            }
+            membersWithRecords++;
+            streakHistogram[longest]++;
+            currentStreakHistogram[run]++;
+            if (longest > 0 && (longest > longestStreak || longest == longestStreak
+                    && member.getMemberId().compareTo(longestStreakMemberId) < 0)) {
+                longestStreak = longest;
+                longestStreakMemberId = member.getMemberId();
+            }
+            return keys;
+        }
+
+        Totals merge(Totals other) {
+            for (int type : TYPES) {
+                for (int m = 0; m < MONTHS; m++) {
+                    records[type][m] += other.records[type][m];
+                    achieved[type][m] += other.achieved[type][m];
+                }
+            }
+            for (int length = 0; length <= MONTHS; length++) {
+                streakHistogram[length] += other.streakHistogram[length];
+                currentStreakHistogram[length] += other.currentStreakHistogram[length];
+            }
+            membersWithRecords += other.membersWithRecords;
+            if (other.longestStreak > longestStreak || other.longestStreak == longestStreak
+                    && other.longestStreakMemberId != null
+                    && (longestStreakMemberId == null || other.longestStreakMemberId.compareTo(longestStreakMemberId) < 0)) {
+                longestStreak = other.longestStreak;
+                longestStreakMemberId = other.longestStreakMemberId;
+            }
+            return this;
+        }
+    }
+}
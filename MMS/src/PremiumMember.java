@@ -6,12 +6,12 @@ import java.util.stream.Collectors;
 /**
  * PremiumMember Class (Concrete "Model")
  * UPDATED: Fee calculation and data formats now depend on MembershipStatus.
+ * Prices come from the current PricingPlan.
  */
 public class PremiumMember extends Member {
 
-    private static final double BASE_FEE = 80.0;
-    private static final double FROZEN_FEE = 15.0; // A higher frozen fee for premium members
-    private static final double PERFORMANCE_DISCOUNT = 0.10; // 10% discount
+    private static final MetricCounter FEE_CALCULATIONS =
+            MetricsRegistry.getDefault().counter("fee.calculations");
 
     private double personalTrainerFee;
 
@@ -20,30 +20,34 @@ public class PremiumMember extends Member {
         this.personalTrainerFee = personalTrainerFee;
     }
 
+    /**
+     * Creates a member whose status has held since joining.
+     */
+    public PremiumMember(String memberId, String fullName, LocalDate joinDate, double personalTrainerFee,
+            MembershipStatus status) {
+        super(memberId, fullName, joinDate, status);
+        this.personalTrainerFee = personalTrainerFee;
+    }
+
     public double getPersonalTrainerFee() {
         return personalTrainerFee;
     }
 
-    public void setPersonalTrainerFee(double fee) {
+    void setPersonalTrainerFee(double fee) {
         this.personalTrainerFee = fee;
+        changed();
+    }
+
+    @Override
+    public double computeMonthlyFee(PricingPlan plan) {
+        FEE_CALCULATIONS.increment();
+        return feeFor(plan, status, latestGoalAchieved());
     }
 
     @Override
-    public double calculateMonthlyFee() {
-        if (this.status == MembershipStatus.FROZEN) {
-            return FROZEN_FEE;
-        }
-
-        double totalFee = BASE_FEE + this.personalTrainerFee;
-
-        // Apply discount if they have performance history and achieved the latest goal
-        if (!performanceHistory.isEmpty()) {
-            Performance latestPerformance = performanceHistory.get(performanceHistory.size() - 1);
-            if (latestPerformance.wasGoalAchieved()) {
-                totalFee *= (1 - PERFORMANCE_DISCOUNT);
-            }
-        }
-        return totalFee;
+    protected double feeFor(PricingPlan plan, MembershipStatus status, boolean goalAchieved) {
+        // The personal trainer fee is charged on top of the base fee, and discounted with it
+        return plan.fee(PricingPlan.PREMIUM, status, goalAchieved, joinDate, personalTrainerFee);
     }
 
     /**
@@ -67,10 +71,12 @@ public class PremiumMember extends Member {
 
         // Performance history is appended if it exists
         String performanceDetails = performanceHistory.stream()
-                .map(p -> String.format("%d;%d;%b", p.getMonth(), p.getYear(), p.wasGoalAchieved()))
+                .map(p -> p.getMonth() + ";" + p.getYear() + ";" + p.wasGoalAchieved())
                 .collect(Collectors.joining("|"));
 
-        return performanceDetails.isEmpty() ? baseDetails : baseDetails + "," + performanceDetails;
+        // The status history, if any, comes last
+        return (performanceDetails.isEmpty() ? baseDetails : baseDetails + "," + performanceDetails)
+                + statusTimelineCsvSuffix();
     }
 
     // The toString() method is now inherited directly from the Member class.
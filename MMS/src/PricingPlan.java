@@ -0,0 +1,299 @@
+package src;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Monthly fee rules, loaded from a properties file and compiled into a
+ * small lookup table so that a fee costs a few array reads and multiplies.
+ *
+ * Rules (all keys optional; the defaults are the original fixed prices):
+ *   regular.base=50                 monthly fee of an active Regular member
+ *   regular.frozen=10               monthly fee while frozen
+ *   regular.performanceDiscount=0   discount when the latest goal was achieved
+ *   premium.base=80                 plus the member's personal trainer fee
+ *   premium.frozen=15
+ *   premium.performanceDiscount=0.10
+ *   loyalty.YEARS=DISCOUNT          e.g. loyalty.5=0.10: 10% off after 5 full
+ *                                   years; the highest tier reached applies
+ *   promotion.NAME=FROM,TO,DISCOUNT[,Regular|Premium]
+ *                                   a discount while the billing date is in
+ *                                   [FROM, TO], for one type or for both
+ *
+ * Discounts apply to active members only and multiply: 10% performance and
+ * 5% loyalty give 0.90 x 0.95 of the fee. Frozen members pay the flat rate.
+ *
+ * A plan is compiled for one billing date, which decides the promotions in
+ * force and the join-date cut-offs of the loyalty tiers: everything but the
+ * member's own state is resolved once, in the constructor.
+ *
+ * The current plan is process-wide, since Member.calculateMonthlyFee() has
+ * no manager to ask. Every GymManager checks it on each statistics read and
+ * recomputes its revenue when it has changed; GymManager.applyPricingPlan
+ * does so at once for its own manager. A plan compiled for today (load(),
+ * forToday(), the default) follows the calendar as the current plan: the
+ * first lookup on a new day compiles its rules again for that day, so
+ * promotions start and end and loyalty tiers move on in a long-running
+ * process. The new plan is a new object, which is what invalidates the
+ * members' cached fees and the managers' revenue. A plan compiled for a
+ * fixed date keeps that date.
+ */
+public class PricingPlan {
+
+    public static final int REGULAR = 0;
+    public static final int PREMIUM = 1;
+    private static final String[] TYPE_KEYS = {"regular", "premium"};
+
+    private static final AtomicReference<PricingPlan> current =
+            new AtomicReference<>(new PricingPlan(new Properties(), DailyClock.today(), true));
+
+    private final Properties rules;
+    private final LocalDate billingDate;
+    // Compiled for the day it was made; as the current plan, recompiled each day
+    private final boolean followsCalendar;
+
+    // Compiled table, indexed by type
+    private final double[] frozenFee = new double[2];
+    private final double[] baseFee = new double[2];
+    // [type][latest goal achieved ? 1 : 0]: performance and promotion discounts combined
+    private final double[][] activeMultiplier = new double[2][2];
+    // Loyalty tiers, longest first: members who joined on or before
+    // loyaltyCutoff[i] get loyaltyMultiplier[i]
+    private final LocalDate[] loyaltyCutoff;
+    private final double[] loyaltyMultiplier;
+
+    /**
+     * Compiles the rules for a billing date.
+     * @throws IllegalArgumentException if a rule is malformed or out of range.
+     */
+    public PricingPlan(Properties rules, LocalDate billingDate) {
+        this(rules, billingDate, false);
+    }
+
+    private PricingPlan(Properties rules, LocalDate billingDate, boolean followsCalendar) {
+        this.rules = (Properties) rules.clone();
+        this.billingDate = billingDate;
+        this.followsCalendar = followsCalendar;
+
+        for (int type = REGULAR; type <= PREMIUM; type++) {
+            String prefix = TYPE_KEYS[type] + ".";
+            baseFee[type] = amount(prefix + "base", type == REGULAR ? 50.0 : 80.0);
+            frozenFee[type] = amount(prefix + "frozen", type == REGULAR ? 10.0 : 15.0);
+            double performance = discount(prefix + "performanceDiscount", type == REGULAR ? 0.0 : 0.10);
+            double promotion = 1.0;
+            for (String name : rules.stringPropertyNames()) {
+                if (name.startsWith("promotion.")) {
+                    promotion *= promotionMultiplier(name, type);
+                }
+            }
+            activeMultiplier[type][0] = promotion;
+            activeMultiplier[type][1] = (1 - performance) * promotion;
+        }
+
+        // Sorted by years, longest first, so the first cut-off passed is the best tier
+        TreeMap<Integer, Double> tiers = new TreeMap<>();
+        for (String name : rules.stringPropertyNames()) {
+            if (name.startsWith("loyalty.")) {
+                int years;
+                try {
+                    years = Integer.parseInt(name.substring("loyalty.".length()));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Loyalty tier must be a number of years: " + name);
+                }
+                if (years < 1) {
+                    throw new IllegalArgumentException("Loyalty tier must be at least one year: " + name);
+                }
+                tiers.put(years, discount(name, 0));
+            }
+        }
+        loyaltyCutoff = new LocalDate[tiers.size()];
+        loyaltyMultiplier = new double[tiers.size()];
+        int i = 0;
+        for (Map.Entry<Integer, Double> tier : tiers.descendingMap().entrySet()) {
+            loyaltyCutoff[i] = billingDate.minusYears(tier.getKey());
+            loyaltyMultiplier[i] = 1 - tier.getValue();
+            i++;
+        }
+    }
+
+    /**
+     * Reads the rules from a properties file and compiles them for today.
+     * @throws IOException if the file cannot be read.
+     * @throws IllegalArgumentException if a rule is malformed.
+     */
+    public static PricingPlan load(String filename) throws IOException {
+        Properties rules = new Properties();
+        try (Reader reader = new FileReader(filename)) {
+            rules.load(reader);
+        }
+        return forToday(rules);
+    }
+
+    /**
+     * Compiles the rules for today. As the current plan, it is compiled
+     * again on each new day.
+     * @throws IllegalArgumentException if a rule is malformed.
+     */
+    public static PricingPlan forToday(Properties rules) {
+        return new PricingPlan(rules, DailyClock.today(), true);
+    }
+
+    /**
+     * @return The plan used by Member.calculateMonthlyFee(). Until one is
+     *         applied, the default prices. A plan that follows the calendar
+     *         is returned compiled for today.
+     */
+    public static PricingPlan getCurrent() {
+        PricingPlan plan = current.get();
+        if (plan.followsCalendar) {
+            LocalDate today = DailyClock.today();
+            if (!plan.billingDate.equals(today)) {
+                PricingPlan next = new PricingPlan(plan.rules, today, true);
+                // Another thread may have rolled it over (or applied a plan) first
+                plan = current.compareAndSet(plan, next) ? next : current.get();
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Makes this plan the current one. Called by GymManager.applyPricingPlan.
+     */
+    static void setCurrent(PricingPlan plan) {
+        current.set(plan);
+    }
+
+    /**
+     * @return The same rules compiled for another billing date, which the
+     *         result keeps.
+     */
+    public PricingPlan forBillingDate(LocalDate date) {
+        return new PricingPlan(rules, date);
+    }
+
+    public LocalDate getBillingDate() {
+        return billingDate;
+    }
+
+    /**
+     * The monthly fee for a member in the given state.
+     * @param type REGULAR or PREMIUM.
+     * @param extras Added to the base fee before discounts (the personal trainer fee).
+     */
+    public double fee(int type, MembershipStatus status, boolean latestGoalAchieved, LocalDate joinDate, double extras) {
+        if (status == MembershipStatus.FROZEN) {
+            return frozenFee[type];
+        }
+        double fee = (baseFee[type] + extras) * activeMultiplier[type][latestGoalAchieved ? 1 : 0];
+        for (int i = 0; i < loyaltyCutoff.length; i++) {
+            if (!joinDate.isAfter(loyaltyCutoff[i])) {
+                return fee * loyaltyMultiplier[i];
+            }
+        }
+        return fee;
+    }
+
+    /**
+     * @return The promotions in force on the billing date, for display.
+     */
+    public List<String> getActivePromotions() {
+        List<String> active = new ArrayList<>();
+        for (String name : new TreeSet<>(rules.stringPropertyNames())) {
+            if (name.startsWith("promotion.")
+                    && (promotionMultiplier(name, REGULAR) < 1 || promotionMultiplier(name, PREMIUM) < 1)) {
+                active.add(name.substring("promotion.".length()) + " (" + rules.getProperty(name).trim() + ")");
+            }
+        }
+        return active;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Pricing as of " + billingDate + ":");
+        for (int type = REGULAR; type <= PREMIUM; type++) {
+            sb.append(String.format("%n  %-8s $%.2f active, $%.2f frozen, %.0f%% off for an achieved goal",
+                    TYPE_KEYS[type], baseFee[type], frozenFee[type],
+                    (1 - activeMultiplier[type][1] / activeMultiplier[type][0]) * 100));
+        }
+        for (int i = loyaltyCutoff.length - 1; i >= 0; i--) {
+            sb.append(String.format("%n  loyalty  %.0f%% off for members since %s", (1 - loyaltyMultiplier[i]) * 100,
+                    loyaltyCutoff[i]));
+        }
+        for (String promotion : getActivePromotions()) {
+            sb.append("\n  promotion ").append(promotion);
+        }
+        return sb.toString();
+    }
+
+    // --- Rule parsing ---
+
+    /**
+     * @return 1 - discount if the promotion applies to the type on the billing date, otherwise 1.
+     */
+    private double promotionMultiplier(String name, int type) {
+        String[] parts = rules.getProperty(name).split(",");
+        if (parts.length < 3 || parts.length > 4) {
+            throw new IllegalArgumentException("Promotion must be FROM,TO,DISCOUNT[,TYPE]: " + name);
+        }
+        LocalDate from;
+        LocalDate to;
+        try {
+            from = LocalDate.parse(parts[0].trim());
+            to = LocalDate.parse(parts[1].trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Promotion dates must be YYYY-MM-DD: " + name);
+        }
+        double discount = parseDiscount(name, parts[2].trim());
+        if (parts.length == 4 && !parts[3].trim().equalsIgnoreCase(TYPE_KEYS[type])) {
+            if (!parts[3].trim().equalsIgnoreCase(TYPE_KEYS[1 - type])) {
+                throw new IllegalArgumentException("Promotion type must be Regular or Premium: " + name);
+            }
+            return 1.0;
+        }
+        boolean inForce = !billingDate.isBefore(from) && !billingDate.isAfter(to);
+        return inForce ? 1 - discount : 1.0;
+    }
+
+    private double amount(String key, double defaultValue) {
+        String value = rules.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            double amount = Double.parseDouble(value.trim());
+            if (!(amount >= 0) || Double.isInfinite(amount)) { // Also rejects NaN
+                throw new IllegalArgumentException("Fee must be a non-negative amount: " + key + "=" + value);
+            }
+            return amount;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Fee must be a number: " + key + "=" + value);
+        }
+    }
+
+    private double discount(String key, double defaultValue) {
+        String value = rules.getProperty(key);
+        return value == null ? defaultValue : parseDiscount(key, value.trim());
+    }
+
+    private static double parseDiscount(String key, String value) {
+        try {
+            double discount = Double.parseDouble(value);
+            if (!(discount >= 0 && discount < 1)) { // Also rejects NaN
+                throw new IllegalArgumentException("Discount must be at least 0 and below 1: " + key);
+            }
+            return discount;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Discount must be a number: " + key + "=" + value);
+        }
+    }
+}
@@ -6,22 +6,33 @@ import java.util.stream.Collectors;
 /**
  * RegularMember Class (Concrete "Model")
  * UPDATED: Fee calculation now depends on MembershipStatus.
+ * Prices come from the current PricingPlan.
  */
 public class RegularMember extends Member {
 
-    private static final double BASE_FEE = 50.0;
-    private static final double FROZEN_FEE = 10.0; // A nominal fee for frozen accounts
+    private static final MetricCounter FEE_CALCULATIONS =
+            MetricsRegistry.getDefault().counter("fee.calculations");
 
     public RegularMember(String memberId, String fullName, LocalDate joinDate) {
         super(memberId, fullName, joinDate);
     }
 
+    /**
+     * Creates a member whose status has held since joining.
+     */
+    public RegularMember(String memberId, String fullName, LocalDate joinDate, MembershipStatus status) {
+        super(memberId, fullName, joinDate, status);
+    }
+
+    @Override
+    public double computeMonthlyFee(PricingPlan plan) {
+        FEE_CALCULATIONS.increment();
+        return feeFor(plan, status, latestGoalAchieved());
+    }
+
     @Override
-    public double calculateMonthlyFee() {
-        if (this.status == MembershipStatus.FROZEN) {
-            return FROZEN_FEE;
-        }
-        return BASE_FEE;
+    protected double feeFor(PricingPlan plan, MembershipStatus status, boolean goalAchieved) {
+        return plan.fee(PricingPlan.REGULAR, status, goalAchieved, joinDate, 0);
     }
 
     /**
@@ -44,10 +55,12 @@ public class RegularMember extends Member {
 
         // Performance history is appended if it exists
         String performanceDetails = performanceHistory.stream()
-                .map(p -> String.format("%d;%d;%b", p.getMonth(), p.getYear(), p.wasGoalAchieved()))
+                .map(p -> p.getMonth() + ";" + p.getYear() + ";" + p.wasGoalAchieved())
                 .collect(Collectors.joining("|"));
 
-        return performanceDetails.isEmpty() ? baseDetails : baseDetails + "," + performanceDetails;
+        // The status history, if any, comes last
+        return (performanceDetails.isEmpty() ? baseDetails : baseDetails + "," + performanceDetails)
+                + statusTimelineCsvSuffix();
     }
 
     // The toString() method is now inherited directly from the Member class.
@@ -0,0 +1,265 @@
+package src;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The standby side of primary/standby replication.
+ *
+ * Connects to a ReplicationPrimary, applies its change records to a local
+ * GymManager and reconnects automatically if the connection drops. On every
+ * (re)connect it reports the last record it applied, so the primary can send
+ * only the missing records or, if it cannot, a full snapshot.
+ *
+ * The local manager is meant for read-only queries. Changes are applied while
+ * holding its monitor, so readers on other threads should synchronize on it too.
+ */
+public class ReplicationFollower {
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 2000;
+    private static final int READ_TIMEOUT_MILLIS = 5000; // Several missed heartbeats
+    private static final long RECONNECT_DELAY_MILLIS = 500;
+
+    private final String host;
+    private final int port;
+    private final GymManager manager = new GymManager();
+
+    // Written by the replication thread only; guarded by this for awaitSequence
+    private long epoch;
+    private long lastAppliedSequence = -1;
+    private long snapshotsApplied;
+    private long recordsApplied;
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile Socket socket;
+    private Thread thread;
+
+    public ReplicationFollower(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * @return The replicated member store. Use it for reads only.
+     */
+    public GymManager getManager() {
+        return manager;
+    }
+
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "replication-follower");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() throws InterruptedException {
+        running = false;
+        disconnect();
+        thread.join();
+    }
+
+    /**
+     * Drops the current connection; the follower reconnects and catches up.
+     */
+    public void disconnect() {
+        Socket current = socket;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                // Already closed
+            }
+        }
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    public synchronized long getLastAppliedSequence() {
+        return lastAppliedSequence;
+    }
+
+    public synchronized long getSnapshotsApplied() {
+        return snapshotsApplied;
+    }
+
+    public synchronized long getRecordsApplied() {
+        return recordsApplied;
+    }
+
+    /**
+     * Waits until the record with the given sequence number has been applied.
+     * @return false if it was not applied within the timeout.
+     */
+    public synchronized boolean awaitSequence(long sequence, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (lastAppliedSequence < sequence) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            wait(remaining);
+        }
+        return true;
+    }
+
+    private void run() {
+        while (running) {
+            try (Socket s = new Socket()) {
+                socket = s;
+                s.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MILLIS);
+                s.setTcpNoDelay(true);
+                s.setSoTimeout(READ_TIMEOUT_MILLIS);
+                DataOutputStream out = new DataOutputStream(s.getOutputStream());
+                synchronized (this) {
+                    out.writeInt(ReplicationProtocol.MAGIC);
+                    out.writeLong(epoch);
+                    out.writeLong(lastAppliedSequence);
+                }
+                out.flush();
+                connected = true;
+                readLoop(new DataInputStream(new BufferedInputStream(s.getInputStream())), out);
+            } catch (IOException | IllegalArgumentException e) {
+                // Connection lost or a bad record: reconnect and catch up
+            } finally {
+                connected = false;
+                socket = null;
+            }
+            if (running) {
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void readLoop(DataInputStream in, DataOutputStream out) throws IOException {
+        while (running) {
+            if (in.available() == 0) {
+                // Caught up with everything received: tell the primary how far we are
+                out.writeLong(getLastAppliedSequence());
+                out.flush();
+            }
+            byte type;
+            try {
+                type = in.readByte();
+            } catch (EOFException e) {
+                return;
+            }
+            switch (type) {
+                case ReplicationProtocol.HEARTBEAT:
+                    break;
+                case ReplicationProtocol.SNAPSHOT:
+                    applySnapshot(in);
+                    break;
+                case ReplicationProtocol.ADDED:
+                case ReplicationProtocol.REMOVED:
+                case ReplicationProtocol.STATUS:
+                case ReplicationProtocol.PERFORMANCE:
+                case ReplicationProtocol.RENAMED:
+                case ReplicationProtocol.FEE_CHANGED:
+                    applyChange(type, in);
+                    break;
+                default:
+                    throw new IOException("Unknown record type " + type);
+            }
+        }
+    }
+
+    private void applySnapshot(DataInputStream in) throws IOException {
+        long snapshotEpoch = in.readLong();
+        long sequence = in.readLong();
+        int count = in.readInt();
+        List<Member> members = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            members.add(ReplicationProtocol.readMember(in));
+        }
+        synchronized (manager) {
+            manager.replaceAllMembers(members);
+        }
+        synchronized (this) {
+            epoch = snapshotEpoch;
+            lastAppliedSequence = sequence;
+            snapshotsApplied++;
+            notifyAll();
+        }
+    }
+
+    private void applyChange(byte type, DataInputStream in) throws IOException {
+        long sequence = in.readLong();
+        synchronized (this) {
+            if (sequence != lastAppliedSequence + 1) {
+                // A gap means records were lost; reconnecting triggers a catch-up
+                throw new IOException("Expected record " + (lastAppliedSequence + 1) + " but got " + sequence);
+            }
+        }
+        switch (type) {
+            case ReplicationProtocol.ADDED: {
+                Member member = ReplicationProtocol.readMember(in);
+                synchronized (manager) {
+                    manager.deleteMember(member.getMemberId()); // Re-adds replace
+                    manager.addMember(member);
+                }
+                break;
+            }
+            case ReplicationProtocol.REMOVED: {
+                String id = in.readUTF();
+                synchronized (manager) {
+                    manager.deleteMember(id);
+                }
+                break;
+            }
+            case ReplicationProtocol.STATUS: {
+                String id = in.readUTF();
+                MembershipStatus status = ReplicationProtocol.readStatus(in);
+                LocalDate effective = LocalDate.ofEpochDay(in.readInt());
+                synchronized (manager) {
+                    manager.updateMemberStatus(id, status, effective);
+                }
+                break;
+            }
+            case ReplicationProtocol.RENAMED: {
+                String id = in.readUTF();
+                String name = in.readUTF();
+                synchronized (manager) {
+                    manager.renameMember(id, name);
+                }
+                break;
+            }
+            case ReplicationProtocol.FEE_CHANGED: {
+                String id = in.readUTF();
+                double fee = in.readDouble();
+                synchronized (manager) {
+                    manager.updatePersonalTrainerFee(id, fee);
+                }
+                break;
+            }
+            default: {
+                String id = in.readUTF();
+                Performance record = ReplicationProtocol.readPerformance(in);
+                synchronized (manager) {
+                    manager.addPerformanceRecord(id, record);
+                }
+                break;
+            }
+        }
+        synchronized (this) {
+            lastAppliedSequence = sequence;
+            recordsApplied++;
+            notifyAll();
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package src;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The primary side of primary/standby replication.
+ *
+ * Listens on a localhost TCP port and streams every GymManager mutation to
+ * connected followers as a compact binary change record (see
+ * ReplicationProtocol). Each record is encoded once on the writing thread and
+ * queued for each follower; a sender thread per follower writes it out, so a
+ * slow follower never blocks the primary.
+ *
+ * Catch-up:
+ * - A follower that reconnects within the backlog (the most recent records)
+ *   receives just the records it missed.
+ * - A new follower, one from an earlier run of the primary, or one that
+ *   falls too far behind receives a full snapshot and then the live stream
+ *   from that point. Followers acknowledge what they have applied, so
+ *   "too far behind" means more unacknowledged records than the follower's
+ *   queue capacity, wherever they are waiting (queue, socket buffers or
+ *   the follower itself).
+ *
+ * Snapshots are taken while holding the manager's monitor, like the other
+ * background readers (GymHttpServer, CheckInIngestor), but encoded after
+ * releasing it, from a MemberSnapshot.
+ */
+public class ReplicationPrimary implements MemberChangeListener {
+
+    private static final long HEARTBEAT_MILLIS = 1000;
+
+    private final GymManager manager;
+    private final ServerSocket serverSocket;
+    private final int followerQueueCapacity;
+    private final int backlogCapacity;
+    private final long epoch = System.nanoTime() ^ System.currentTimeMillis();
+
+    // Guarded by this
+    private long sequence;
+    private final ArrayDeque<byte[]> backlog = new ArrayDeque<>();
+    private long backlogFirstSequence = 1;
+
+    private final List<FollowerSession> sessions = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+    private Thread acceptThread;
+
+    /**
+     * @param port The localhost port to listen on, or 0 for any free port.
+     * @param backlogCapacity How many recent records are kept for reconnecting followers.
+     * @param followerQueueCapacity How many records may be unacknowledged by one follower
+     *                              before it is considered lagging and is sent a snapshot instead.
+     */
+    public ReplicationPrimary(GymManager manager, int port, int backlogCapacity, int followerQueueCapacity)
+            throws IOException {
+        if (backlogCapacity < 1 || followerQueueCapacity < 1) {
+            throw new IllegalArgumentException("Backlog and queue capacities must be positive.");
+        }
+        this.manager = manager;
+        this.backlogCapacity = backlogCapacity;
+        this.followerQueueCapacity = followerQueueCapacity;
+        this.serverSocket = new ServerSocket(port, 8, InetAddress.getLoopbackAddress());
+    }
+
+    public ReplicationPrimary(GymManager manager, int port) throws IOException {
+        this(manager, port, 100_000, 10_000);
+    }
+
+    public void start() {
+        running = true;
+        manager.addChangeListener(this);
+        acceptThread = new Thread(this::acceptLoop, "replication-accept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    public void stop() {
+        running = false;
+        manager.removeChangeListener(this);
+        closeQuietly(serverSocket);
+        for (FollowerSession session : sessions) {
+            session.close();
+        }
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public synchronized long getSequence() {
+        return sequence;
+    }
+
+    public int getFollowerCount() {
+        return sessions.size();
+    }
+
+    // --- MemberChangeListener: runs on the thread that changed the manager ---
+
+    @Override
+    public synchronized void memberAdded(Member member) {
+        publish(ReplicationProtocol.encodeAdded(++sequence, member));
+    }
+
+    @Override
+    public synchronized void memberRemoved(Member member) {
+        publish(ReplicationProtocol.encodeRemoved(++sequence, member.getMemberId()));
+    }
+
+    @Override
+    public synchronized void statusChanged(Member member, MembershipStatus oldStatus) {
+        publish(ReplicationProtocol.encodeStatus(++sequence, member.getMemberId(), member.getStatus(),
+                member.getLastStatusChangeDate()));
+    }
+
+    @Override
+    public synchronized void performanceAdded(Member member, Performance record) {
+        publish(ReplicationProtocol.encodePerformance(++sequence, member.getMemberId(), record));
+    }
+
+    @Override
+    public synchronized void renamed(Member member, String oldName) {
+        publish(ReplicationProtocol.encodeRenamed(++sequence, member.getMemberId(), member.getFullName()));
+    }
+
+    @Override
+    public synchronized void feeChanged(PremiumMember member, double oldFee) {
+        publish(ReplicationProtocol.encodeFeeChanged(++sequence, member.getMemberId(),
+                member.getPersonalTrainerFee()));
+    }
+
+    /**
+     * A reload replaces everything, so the backlog is discarded and every
+     * follower is sent a fresh snapshot.
+     */
+    @Override
+    public synchronized void membersReloaded() {
+        sequence++;
+        backlog.clear();
+        backlogFirstSequence = sequence + 1;
+        for (FollowerSession session : sessions) {
+            session.needsSnapshot = true;
+        }
+    }
+
+    // Called while holding this
+    private void publish(byte[] record) {
+        backlog.addLast(record);
+        if (backlog.size() > backlogCapacity) {
+            backlog.removeFirst();
+            backlogFirstSequence++;
+        }
+        for (FollowerSession session : sessions) {
+            if (!session.needsSnapshot && (sequence - session.acknowledged > followerQueueCapacity
+                    || !session.queue.offer(record))) {
+                session.needsSnapshot = true; // Fell too far behind
+            }
+        }
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                FollowerSession session = new FollowerSession(socket);
+                session.start();
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("Replication: accept failed. " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * One connected follower: a bounded queue of pending records and the
+     * thread that writes them to the socket.
+     */
+    private class FollowerSession extends Thread {
+        final BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(followerQueueCapacity);
+        volatile boolean needsSnapshot;
+        volatile long acknowledged;
+        private final Socket socket;
+
+        FollowerSession(Socket socket) {
+            super("replication-follower-" + socket.getPort());
+            setDaemon(true);
+            this.socket = socket;
+        }
+
+        @Override
+        public void run() {
+            try (DataInputStream in = new DataInputStream(socket.getInputStream());
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+                if (in.readInt() != ReplicationProtocol.MAGIC) {
+                    throw new IOException("Not a replication follower.");
+                }
+                long followerEpoch = in.readLong();
+                long lastApplied = in.readLong();
+                register(followerEpoch, lastApplied);
+                startAcknowledgementReader(in);
+
+                while (running) {
+                    if (needsSnapshot) {
+                        out.write(takeSnapshot());
+                        out.flush();
+                        continue;
+                    }
+                    byte[] record = queue.poll(HEARTBEAT_MILLIS, TimeUnit.MILLISECONDS);
+                    if (record == null) {
+                        out.writeByte(ReplicationProtocol.HEARTBEAT);
+                    } else {
+                        do {
+                            out.write(record);
+                        } while ((record = queue.poll()) != null);
+                    }
+                    out.flush();
+                }
+            } catch (IOException | InterruptedException e) {
+                // Follower went away; it will catch up when it reconnects
+            } finally {
+                sessions.remove(this);
+                closeQuietly(socket);
+            }
+        }
+
+        /**
+         * Queues the records the follower missed, or marks it for a snapshot
+         * if they are no longer in the backlog.
+         */
+        private void register(long followerEpoch, long lastApplied) {
+            synchronized (ReplicationPrimary.this) {
+                acknowledged = lastApplied;
+                boolean canCatchUp = followerEpoch == epoch && lastApplied <= sequence
+                        && lastApplied + 1 >= backlogFirstSequence
+                        && sequence - lastApplied <= followerQueueCapacity;
+                if (canCatchUp) {
+                    long recordSequence = backlogFirstSequence;
+                    for (byte[] record : backlog) {
+                        if (recordSequence++ > lastApplied) {
+                            queue.add(record);
+                        }
+                    }
+                } else {
+                    needsSnapshot = true;
+                }
+                sessions.add(this);
+            }
+        }
+
+        /**
+         * Takes a member snapshot at the current sequence number and clears the
+         * queue in the same step, so the live stream continues exactly after it.
+         * The snapshot is frozen, so it is encoded after both locks are released.
+         */
+        private byte[] takeSnapshot() {
+            manager.awaitLoad(); // Not while holding this: the loader notifies us when done
+            MemberSnapshot snapshot;
+            long snapshotSequence;
+            synchronized (manager) {
+                synchronized (ReplicationPrimary.this) {
+                    queue.clear();
+                    needsSnapshot = false;
+                    acknowledged = sequence;
+                    snapshotSequence = sequence;
+                    snapshot = manager.getSnapshot();
+                }
+            }
+            return ReplicationProtocol.encodeSnapshot(epoch, snapshotSequence, snapshot.getMembers());
+        }
+
+        /**
+         * Reads the follower's acknowledgements (the last sequence number it
+         * applied) on a separate thread; the session thread only writes.
+         */
+        private void startAcknowledgementReader(DataInputStream in) {
+            Thread reader = new Thread(() -> {
+                try {
+                    while (true) {
+                        acknowledged = Math.max(acknowledged, in.readLong());
+                    }
+                } catch (IOException e) {
+                    close(); // Follower went away
+                }
+            }, getName() + "-acks");
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        void close() {
+            closeQuietly(socket);
+            interrupt();
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package src;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The binary wire format shared by ReplicationPrimary and ReplicationFollower.
+ *
+ * Handshake (follower to primary): int MAGIC, long epoch, long lastAppliedSequence.
+ * The epoch identifies one run of the primary, so sequence numbers from an
+ * earlier run are never mistaken for current ones.
+ *
+ * After that the follower sends a long (its last applied sequence number)
+ * whenever it has applied everything received so far.
+ *
+ * Stream (primary to follower), one frame after another:
+ *   SNAPSHOT      long epoch, long sequence, int count, count x member
+ *   ADDED         long sequence, member
+ *   REMOVED       long sequence, UTF id
+ *   STATUS        long sequence, UTF id, byte status, int effective epoch-day
+ *   PERFORMANCE   long sequence, UTF id, byte month, short year, boolean achieved
+ *   RENAMED       long sequence, UTF id, UTF name
+ *   FEE_CHANGED   long sequence, UTF id, double fee
+ *   HEARTBEAT     (no body; keeps an idle connection checked)
+ *
+ * A member is: byte type (0 Regular, 1 Premium), UTF id, UTF name,
+ * int join epoch-day, byte status, double trainer fee (Premium only),
+ * int record count, then month/year/achieved per record, then int timeline
+ * entry count and epoch-day/status per entry (see StatusTimeline).
+ */
+public final class ReplicationProtocol {
+
+    public static final int MAGIC = 0x4D4D5332; // "MMS2": members carry their status timeline
+
+    public static final byte SNAPSHOT = 1;
+    public static final byte ADDED = 2;
+    public static final byte REMOVED = 3;
+    public static final byte STATUS = 4;
+    public static final byte PERFORMANCE = 5;
+    public static final byte HEARTBEAT = 6;
+    public static final byte RENAMED = 7;
+    public static final byte FEE_CHANGED = 8;
+
+    private static final byte REGULAR = 0;
+    private static final byte PREMIUM = 1;
+    private static final MembershipStatus[] STATUSES = MembershipStatus.values();
+
+    private ReplicationProtocol() {
+        // Static utility class
+    }
+
+    // --- Change records, encoded once and sent to every follower ---
+
+    public static byte[] encodeAdded(long sequence, Member member) {
+        return encode(ADDED, sequence, out -> writeMember(out, member));
+    }
+
+    public static byte[] encodeRemoved(long sequence, String memberId) {
+        return encode(REMOVED, sequence, out -> out.writeUTF(memberId));
+    }
+
+    public static byte[] encodeStatus(long sequence, String memberId, MembershipStatus status, LocalDate effective) {
+        return encode(STATUS, sequence, out -> {
+            out.writeUTF(memberId);
+            out.writeByte(status.ordinal());
+            out.writeInt((int) effective.toEpochDay());
+        });
+    }
+
+    public static byte[] encodePerformance(long sequence, String memberId, Performance record) {
+        return encode(PERFORMANCE, sequence, out -> {
+            out.writeUTF(memberId);
+            writePerformance(out, record);
+        });
+    }
+
+    public static byte[] encodeRenamed(long sequence, String memberId, String name) {
+        return encode(RENAMED, sequence, out -> {
+            out.writeUTF(memberId);
+            out.writeUTF(name);
+        });
+    }
+
+    public static byte[] encodeFeeChanged(long sequence, String memberId, double fee) {
+        return encode(FEE_CHANGED, sequence, out -> {
+            out.writeUTF(memberId);
+            out.writeDouble(fee);
+        });
+    }
+
+    public static byte[] encodeSnapshot(long epoch, long sequence, List<Member> members) {
+        return encode(SNAPSHOT, epoch, out -> {
+            out.writeLong(sequence);
+            out.writeInt(members.size());
+            for (Member member : members) {
+                writeMember(out, member);
+            }
+        });
+    }
+
+    private interface Body {
+        void write(DataOutput out) throws IOException;
+    }
+
+    private static byte[] encode(byte type, long firstLong, Body body) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(type);
+            out.writeLong(firstLong);
+            body.write(out);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("In-memory encoding failed.", e); // Cannot happen
+        }
+    }
+
+    // --- Members ---
+
+    public static void writeMember(DataOutput out, Member member) throws IOException {
+        boolean premium = member instanceof PremiumMember;
+        out.writeByte(premium ? PREMIUM : REGULAR);
+        out.writeUTF(member.getMemberId());
+        out.writeUTF(member.getFullName());
+        out.writeInt((int) member.getJoinDate().toEpochDay());
+        out.writeByte(member.getStatus().ordinal());
+        if (premium) {
+            out.writeDouble(((PremiumMember) member).getPersonalTrainerFee());
+        }
+        List<Performance> history = member.getPerformanceHistory();
+        out.writeInt(history.size());
+        for (Performance record : history) {
+            writePerformance(out, record);
+        }
+        StatusTimeline timeline = member.getStatusTimeline();
+        out.writeInt(timeline.size());
+        for (int i = 0; i < timeline.size(); i++) {
+            out.writeInt(timeline.dayAt(i));
+            out.writeByte(timeline.statusOrdinalAt(i));
+        }
+    }
+
+    public static Member readMember(DataInput in) throws IOException {
+        byte type = in.readByte();
+        String id = in.readUTF();
+        String name = in.readUTF();
+        LocalDate joinDate = LocalDate.ofEpochDay(in.readInt());
+        MembershipStatus status = readStatus(in);
+        Member member;
+        if (type == PREMIUM) {
+            member = new PremiumMember(id, name, joinDate, in.readDouble());
+        } else if (type == REGULAR) {
+            member = new RegularMember(id, name, joinDate);
+        } else {
+            throw new IOException("Unknown member type " + type);
+        }
+        member.setInitialStatus(status); // Replaced by the timeline below
+        int records = in.readInt();
+        for (int i = 0; i < records; i++) {
+            member.addPerformanceRecord(readPerformance(in));
+        }
+        int entries = in.readInt();
+        if (entries < 1) {
+            throw new IOException("Member " + id + " has an empty status timeline.");
+        }
+        int[] days = new int[entries];
+        byte[] statuses = new byte[entries];
+        for (int i = 0; i < entries; i++) {
+            days[i] = in.readInt();
+            statuses[i] = in.readByte();
+        }
+        try {
+            member.restoreStatusTimeline(StatusTimeline.of(days, statuses));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Member " + id + " has a corrupt status timeline: " + e.getMessage());
+        }
+        return member;
+    }
+
+    public static MembershipStatus readStatus(DataInput in) throws IOException {
+        int ordinal = in.readByte();
+        if (ordinal < 0 || ordinal >= STATUSES.length) {
+            throw new IOException("Unknown status " + ordinal);
+        }
+        return STATUSES[ordinal];
+    }
+
+    private static void writePerformance(DataOutput out, Performance record) throws IOException {
+        out.writeByte(record.getMonth());
+        out.writeShort(record.getYear());
+        out.writeBoolean(record.wasGoalAchieved());
+    }
+
+    public static Performance readPerformance(DataInput in) throws IOException {
+        return new Performance(in.readByte(), in.readShort(), in.readBoolean());
+    }
+}
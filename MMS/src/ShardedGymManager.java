@@ -0,0 +1,329 @@
+package src;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Splits the member base of a gym chain into independent GymManager shards,
+ * one per branch or per ID-hash bucket, each with its own CSV file.
+ *
+ * - Single-member operations (add, find by ID, update, delete) are routed
+ *   to the owning shard by the MemberPartitioner.
+ * - Searches scatter to every shard in parallel; each shard sorts its own
+ *   matches and the sorted runs are combined with a k-way merge.
+ * - Loading and saving run one task per shard concurrently, so their time
+ *   is bounded by the largest shard rather than the total member count.
+ *
+ * Like GymManager, this class expects a single caller at a time; the
+ * parallelism is internal to each call.
+ *
+ * No launcher mode runs on shards yet: the text, GUI, HTTP and batch modes
+ * all take a single GymManager. This class is exercised by ShardBenchmark,
+ * which compares it with one manager holding every member.
+ */
+public class ShardedGymManager {
+
+    private final MemberPartitioner partitioner;
+    private final GymManager[] shards;
+    private final ExecutorService executor;
+
+    public ShardedGymManager(MemberPartitioner partitioner) {
+        this.partitioner = partitioner;
+        this.shards = new GymManager[partitioner.getShardCount()];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new GymManager();
+        }
+        int threads = Math.min(shards.length, Runtime.getRuntime().availableProcessors());
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "shard-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * @return The shard manager that owns the given member ID.
+     */
+    public GymManager getShardFor(String memberId) {
+        return shards[partitioner.shardFor(memberId)];
+    }
+
+    /**
+     * @return The file a shard is stored in, e.g. "gym_records-SYD.csv" for "gym_records.csv".
+     */
+    public String getShardFilename(String baseFilename, int shard) {
+        int dot = baseFilename.lastIndexOf('.');
+        String stem = (dot > 0) ? baseFilename.substring(0, dot) : baseFilename;
+        String extension = (dot > 0) ? baseFilename.substring(dot) : ".csv";
+        return stem + "-" + partitioner.getShardName(shard) + extension;
+    }
+
+    // --- Routed single-member operations ---
+
+    public void addMember(Member member) {
+        if (member != null) {
+            getShardFor(member.getMemberId()).addMember(member);
+        }
+    }
+
+    public boolean deleteMember(String memberId) {
+        return getShardFor(memberId).deleteMember(memberId);
+    }
+
+    public Member findMemberById(String memberId) {
+        return getShardFor(memberId).findMemberById(memberId);
+    }
+
+    public boolean updateMemberStatus(String memberId, MembershipStatus status) {
+        return getShardFor(memberId).updateMemberStatus(memberId, status);
+    }
+
+    public boolean addPerformanceRecord(String memberId, Performance record) {
+        return getShardFor(memberId).addPerformanceRecord(memberId, record);
+    }
+
+    // --- Scatter-gather queries ---
+
+    /**
+     * Finds members by name across all shards, in the given order.
+     */
+    public List<Member> findMembersByName(String name, MemberSortKey order) {
+        return gatherSorted(shard -> shard.findMembersByName(name), order.comparator(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Filters members by type across all shards, in the given order.
+     */
+    public List<Member> filterMembersByType(String type, MemberSortKey order) {
+        return gatherSorted(shard -> shard.filterMembersByType(type), order.comparator(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Filters members by a month's performance across all shards, in the given order.
+     */
+    public List<Member> findMembersByPerformance(int month, int year, boolean achievedGoal, MemberSortKey order) {
+        return gatherSorted(shard -> shard.findMembersByPerformance(month, year, achievedGoal),
+                order.comparator(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns every member of every shard in the given order.
+     */
+    public List<Member> getAllMembers(MemberSortKey order) {
+        return gatherSorted(GymManager::getAllMembers, order.comparator(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns one page of all members in the given order. Each shard returns
+     * its own next page after the cursor and the pages are merged, so a page
+     * costs O(shards x page) regardless of the total member count.
+     * @param after The last member of the previous page, or null for the first page.
+     */
+    public MemberPage getMembersPage(MemberSortKey sortKey, Member after, int pageSize) {
+        return mergePages(shard -> shard.getMembersPage(sortKey, after, pageSize), sortKey.comparator(), pageSize);
+    }
+
+    /**
+     * Returns one page of a name search across all shards, in Member ID order.
+     */
+    public MemberPage findMembersByNamePage(String name, Member after, int pageSize) {
+        return mergePages(shard -> shard.findMembersByNamePage(name, after, pageSize),
+                MemberSortKey.ID.comparator(), pageSize);
+    }
+
+    /**
+     * Returns the k members with the highest monthly fee across all shards.
+     */
+    public List<Member> findTopMembersByFee(int k) {
+        Comparator<Member> highestFeeFirst = Comparator.comparingDouble(Member::calculateMonthlyFee).reversed()
+                .thenComparing(Comparator.naturalOrder());
+        return gatherSorted(shard -> shard.findTopMembersByFee(k), highestFeeFirst, k);
+    }
+
+    // --- Chain-wide statistics ---
+
+    public int getTotalMembers() {
+        int total = 0;
+        for (GymManager shard : shards) {
+            total += shard.getStatistics().getTotalMembers();
+        }
+        return total;
+    }
+
+    public int getCount(String type, MembershipStatus status) {
+        int total = 0;
+        for (GymManager shard : shards) {
+            total += shard.getStatistics().getCount(type, status);
+        }
+        return total;
+    }
+
+    public double getProjectedMonthlyRevenue() {
+        double total = 0;
+        for (GymManager shard : shards) {
+            total += shard.getStatistics().getProjectedMonthlyRevenue();
+        }
+        return total;
+    }
+
+    // --- Persistence ---
+
+    /**
+     * Loads every shard from its own file (see getShardFilename), concurrently.
+     * Each shard parses its file outside its lock and swaps the members in
+     * under it (GymManager.loadFromFile), so a query running meanwhile sees
+     * every shard either before or after its reload, never half-loaded.
+     */
+    public void loadFromFiles(String baseFilename) {
+        forEachShard((shard, index) -> shard.loadFromFile(getShardFilename(baseFilename, index)));
+    }
+
+    /**
+     * Saves every shard to its own file (see getShardFilename), concurrently.
+     */
+    public void saveToFiles(String baseFilename) {
+        forEachShard((shard, index) -> shard.saveToFile(getShardFilename(baseFilename, index)));
+    }
+
+    /**
+     * Loads a single, unsharded CSV file (such as an existing gym_records.csv)
+     * and replaces the members of every shard with its members. Used to
+     * migrate to sharded files. Each shard installs its part in one locked
+     * step (GymManager.replaceAllMembers).
+     */
+    public void importFromFile(String filename) {
+        GymManager source = new GymManager();
+        source.loadFromFile(filename);
+        List<List<Member>> parts = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            parts.add(new ArrayList<>());
+        }
+        for (Member member : source.getAllMembers()) {
+            parts.get(partitioner.shardFor(member.getMemberId())).add(member);
+        }
+        forEachShard((shard, index) -> shard.replaceAllMembers(parts.get(index)));
+    }
+
+    /**
+     * Makes the plan current and recomputes every shard's revenue under it
+     * now, rather than on each shard's next statistics read.
+     */
+    public void applyPricingPlan(PricingPlan plan) {
+        for (GymManager shard : shards) {
+            shard.applyPricingPlan(plan);
+        }
+    }
+
+    /**
+     * Stops the worker threads. The shards remain usable for routed operations.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // --- Helpers ---
+
+    private interface ShardAction {
+        void run(GymManager shard, int index);
+    }
+
+    private void forEachShard(ShardAction action) {
+        List<Future<?>> futures = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            int index = i;
+            futures.add(executor.submit(() -> action.run(shards[index], index)));
+        }
+        for (Future<?> future : futures) {
+            await(future);
+        }
+    }
+
+    /**
+     * Runs the query on every shard in parallel, sorts each shard's result
+     * on its worker, then k-way merges the sorted runs up to `limit` members.
+     */
+    private List<Member> gatherSorted(Function<GymManager, List<Member>> query, Comparator<Member> order, int limit) {
+        List<Future<List<Member>>> futures = new ArrayList<>(shards.length);
+        for (GymManager shard : shards) {
+            futures.add(executor.submit(() -> {
+                List<Member> run = new ArrayList<>(query.apply(shard));
+                run.sort(order);
+                return run;
+            }));
+        }
+        List<List<Member>> runs = new ArrayList<>(shards.length);
+        for (Future<List<Member>> future : futures) {
+            runs.add(await(future));
+        }
+        return mergeSorted(runs, order, limit);
+    }
+
+    private MemberPage mergePages(Function<GymManager, MemberPage> query, Comparator<Member> order, int pageSize) {
+        List<Future<MemberPage>> futures = new ArrayList<>(shards.length);
+        for (GymManager shard : shards) {
+            futures.add(executor.submit(() -> query.apply(shard)));
+        }
+        List<List<Member>> runs = new ArrayList<>(shards.length);
+        boolean anyShardHasMore = false;
+        for (Future<MemberPage> future : futures) {
+            MemberPage page = await(future);
+            runs.add(page.getMembers());
+            anyShardHasMore |= page.hasMore();
+        }
+        List<Member> merged = mergeSorted(runs, order, pageSize + 1);
+        boolean hasMore = anyShardHasMore || merged.size() > pageSize;
+        return new MemberPage(merged.size() > pageSize ? merged.subList(0, pageSize) : merged, hasMore);
+    }
+
+    /**
+     * Merges k sorted lists with a heap of cursors: O(n log k) for n output members.
+     */
+    static List<Member> mergeSorted(List<List<Member>> runs, Comparator<Member> order, int limit) {
+        // Each cursor is {run index, position in run}
+        PriorityQueue<int[]> heap = new PriorityQueue<>(Math.max(1, runs.size()),
+                (a, b) -> order.compare(runs.get(a[0]).get(a[1]), runs.get(b[0]).get(b[1])));
+        int total = 0;
+        for (int r = 0; r < runs.size(); r++) {
+            total += runs.get(r).size();
+            if (!runs.get(r).isEmpty()) {
+                heap.add(new int[]{r, 0});
+            }
+        }
+        List<Member> merged = new ArrayList<>(Math.min(total, limit));
+        while (!heap.isEmpty() && merged.size() < limit) {
+            int[] cursor = heap.poll();
+            List<Member> run = runs.get(cursor[0]);
+            merged.add(run.get(cursor[1]));
+            if (++cursor[1] < run.size()) {
+                heap.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a shard.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Shard task failed.", cause);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package src;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A read-only index of every member's status history, answering "who was
+ * FROZEN on day D" without visiting each member.
+ *
+ * Each timeline entry becomes an interval [day it took effect, day of the
+ * next entry), open-ended for the latest one. The intervals of one status
+ * are held in primitive arrays sorted by start, read as an implicit
+ * balanced tree (the middle of a range is its root) in which every node
+ * also stores the latest end in its subtree. A stabbing query skips any
+ * subtree that starts after D or ends on or before it, so it costs
+ * O(log n + k log n) for k matches instead of a binary search per member.
+ *
+ * Like JoinDateIndex, it is a snapshot: GymManager rebuilds it lazily
+ * (O(n log n) over all entries) on the first query after a mutation.
+ */
+public class StatusIntervalIndex {
+
+    private static final MembershipStatus[] STATUSES = MembershipStatus.values();
+
+    private final Member[] members;
+    private final Intervals[] byStatus = new Intervals[STATUSES.length];
+
+    public StatusIntervalIndex(Collection<Member> source) {
+        // Sorted by ID, so sorting member positions sorts a result by ID
+        this.members = source.toArray(new Member[0]);
+        Arrays.sort(members);
+        int[] counts = new int[STATUSES.length];
+        for (Member member : members) {
+            StatusTimeline timeline = member.getStatusTimeline();
+            for (int i = 0; i < timeline.size(); i++) {
+                counts[timeline.statusOrdinalAt(i)]++;
+            }
+        }
+        for (int s = 0; s < STATUSES.length; s++) {
+            byStatus[s] = new Intervals(counts[s]);
+        }
+        for (int m = 0; m < members.length; m++) {
+            StatusTimeline timeline = members[m].getStatusTimeline();
+            for (int i = 0; i < timeline.size(); i++) {
+                int end = i + 1 < timeline.size() ? timeline.dayAt(i + 1) : Integer.MAX_VALUE;
+                byStatus[timeline.statusOrdinalAt(i)].add(timeline.dayAt(i), end, m);
+            }
+        }
+        for (Intervals intervals : byStatus) {
+            intervals.build();
+        }
+    }
+
+    /**
+     * @return The number of intervals of the given status.
+     */
+    public int intervalCount(MembershipStatus status) {
+        return byStatus[status.ordinal()].size;
+    }
+
+    /**
+     * @return The members whose status at the end of the given day was the
+     *         given one, sorted by ID.
+     */
+    public List<Member> membersWithStatusOn(MembershipStatus status, LocalDate date) {
+        Intervals intervals = byStatus[status.ordinal()];
+        Matches matches = new Matches();
+        intervals.stab((int) date.toEpochDay(), 0, intervals.size, matches);
+        Arrays.sort(matches.owners, 0, matches.size);
+        List<Member> result = new ArrayList<>(matches.size);
+        for (int i = 0; i < matches.size; i++) {
+            result.add(members[matches.owners[i]]);
+        }
+        return result;
+    }
+
+    /**
+     * @return How many members had the given status at the end of the given day.
+     */
+    public int countWithStatusOn(MembershipStatus status, LocalDate date) {
+        Intervals intervals = byStatus[status.ordinal()];
+        return intervals.count((int) date.toEpochDay(), 0, intervals.size);
+    }
+
+    /**
+     * The intervals of one status: starts, ends and member positions in
+     * parallel arrays, plus the subtree maximum of the ends.
+     */
+    private static final class Intervals {
+        private long[] keys; // (start << 32) | insertion order, for a primitive sort
+        private int[] starts;
+        private int[] ends;
+        private int[] owners;
+        private int[] maxEnd;
+        private int size;
+
+        Intervals(int capacity) {
+            keys = new long[capacity];
+            starts = new int[capacity];
+            ends = new int[capacity];
+            owners = new int[capacity];
+        }
+
+        void add(int start, int end, int owner) {
+            keys[size] = ((long) start << 32) | size;
+            starts[size] = start;
+            ends[size] = end;
+            owners[size] = owner;
+            size++;
+        }
+
+        void build() {
+            Arrays.sort(keys, 0, size);
+            int[] sortedStarts = new int[size];
+            int[] sortedEnds = new int[size];
+            int[] sortedOwners = new int[size];
+            for (int i = 0; i < size; i++) {
+                int from = (int) keys[i];
+                sortedStarts[i] = starts[from];
+                sortedEnds[i] = ends[from];
+                sortedOwners[i] = owners[from];
+            }
+            starts = sortedStarts;
+            ends = sortedEnds;
+            owners = sortedOwners;
+            keys = null;
+            maxEnd = new int[size];
+            fillMaxEnd(0, size);
+        }
+
+        private int fillMaxEnd(int low, int high) {
+            if (low >= high) {
+                return Integer.MIN_VALUE;
+            }
+            int mid = (low + high) >>> 1;
+            int max = Math.max(ends[mid], Math.max(fillMaxEnd(low, mid), fillMaxEnd(mid + 1, high)));
+            maxEnd[mid] = max;
+            return max;
+        }
+
+        void stab(int day, int low, int high, Matches result) {
+            if (low >= high) {
+                return;
+            }
+            int mid = (low + high) >>> 1;
+            if (maxEnd[mid] <= day) {
+                return; // Everything below ended on or before the day
+            }
+            stab(day, low, mid, result);
+            if (starts[mid] <= day) {
+                if (ends[mid] > day) {
+                    result.add(owners[mid]);
+                }
+                stab(day, mid + 1, high, result);
+            }
+        }
+
+        int count(int day, int low, int high) {
+            if (low >= high) {
+                return 0;
+            }
+            int mid = (low + high) >>> 1;
+            if (maxEnd[mid] <= day) {
+                return 0;
+            }
+            int count = count(day, low, mid);
+            if (starts[mid] <= day) {
+                if (ends[mid] > day) {
+                    count++;
+                }
+                count += count(day, mid + 1, high);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * The member positions found by a query, in a growable int array.
+     */
+    private static final class Matches {
+        private int[] owners = new int[64];
+        private int size;
+
+        void add(int owner) {
+            if (size == owners.length) {
+                owners = Arrays.copyOf(owners, size * 2);
+            }
+            owners[size++] = owner;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package src;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * The history of one member's status: the day each status took effect, in
+ * order, kept as an int array of epoch days and a byte array of status
+ * ordinals. A member who joined and was frozen once costs two entries,
+ * about 10 bytes.
+ *
+ * Entries are only ever appended. A second change on the same day replaces
+ * that day's entry (the status a member ends the day with is what counts),
+ * and a change back to the current status adds nothing.
+ *
+ * The first entry is the day the member's history starts, normally the join
+ * date; statusOn() returns null before it. Not thread-safe: the owning
+ * Member is changed only by GymManager's writers, which copy it first if a
+ * snapshot may be reading it.
+ */
+public final class StatusTimeline {
+
+    private static final MembershipStatus[] STATUSES = MembershipStatus.values();
+    private static final String CSV_PREFIX = "T:";
+
+    private int[] days;
+    private byte[] statuses;
+    private int size;
+
+    public StatusTimeline(LocalDate start, MembershipStatus status) {
+        this.days = new int[]{(int) start.toEpochDay()};
+        this.statuses = new byte[]{(byte) status.ordinal()};
+        this.size = 1;
+    }
+
+    private StatusTimeline(int[] days, byte[] statuses, int size) {
+        this.days = days;
+        this.statuses = statuses;
+        this.size = size;
+    }
+
+    /**
+     * @return The number of entries (at least one).
+     */
+    public int size() {
+        return size;
+    }
+
+    public LocalDate getDate(int index) {
+        checkIndex(index);
+        return LocalDate.ofEpochDay(days[index]);
+    }
+
+    public MembershipStatus getStatus(int index) {
+        checkIndex(index);
+        return STATUSES[statuses[index]];
+    }
+
+    /**
+     * @return The status in effect at the end of the given day, or null if
+     *         the history starts later. A binary search, O(log size).
+     */
+    public MembershipStatus statusOn(LocalDate date) {
+        int i = indexOn((int) date.toEpochDay());
+        return i < 0 ? null : STATUSES[statuses[i]];
+    }
+
+    /**
+     * Records a change taking effect on the given day.
+     * @throws IllegalArgumentException if the day is before the last entry.
+     */
+    void append(LocalDate date, MembershipStatus status) {
+        int day = (int) date.toEpochDay();
+        int last = size - 1;
+        if (day < days[last]) {
+            throw new IllegalArgumentException("Status history is append-only: " + date
+                    + " is before the last change on " + LocalDate.ofEpochDay(days[last]) + ".");
+        }
+        if (day == days[last] && size > 1) {
+            size--; // Same-day change: replace the day's entry
+            last--;
+        } else if (day == days[last]) {
+            statuses[last] = (byte) status.ordinal(); // Same day as the start: the start status changes
+            return;
+        }
+        if (statuses[last] == status.ordinal()) {
+            return;
+        }
+        if (size == days.length) {
+            days = Arrays.copyOf(days, size * 2);
+            statuses = Arrays.copyOf(statuses, size * 2);
+        }
+        days[size] = day;
+        statuses[size] = (byte) status.ordinal();
+        size++;
+    }
+
+    /**
+     * @return The index of the entry in effect on the epoch day, or -1 if
+     *         the day is before the first entry.
+     */
+    int indexOn(int epochDay) {
+        int i = Arrays.binarySearch(days, 0, size, epochDay);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    /**
+     * @return The first epoch day of entry i.
+     */
+    int dayAt(int index) {
+        return days[index];
+    }
+
+    /**
+     * @return The status ordinal of entry i.
+     */
+    int statusOrdinalAt(int index) {
+        return statuses[index];
+    }
+
+    StatusTimeline copy() {
+        return new StatusTimeline(Arrays.copyOf(days, size), Arrays.copyOf(statuses, size), size);
+    }
+
+    // --- CSV field ---
+
+    /**
+     * @return The timeline as one CSV field, e.g. "T:2024-01-05=ACTIVE;2024-03-01=FROZEN".
+     */
+    public String toCsvField() {
+        StringBuilder sb = new StringBuilder(CSV_PREFIX);
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(';');
+            }
+            sb.append(LocalDate.ofEpochDay(days[i])).append('=').append(STATUSES[statuses[i]]);
+        }
+        return sb.toString();
+    }
+
+    public static boolean isCsvField(String field) {
+        return field.startsWith(CSV_PREFIX);
+    }
+
+    /**
+     * Parses a field written by toCsvField().
+     * @throws IllegalArgumentException (including DateTimeParseException) if it is malformed
+     *         or the dates are not in increasing order.
+     */
+    public static StatusTimeline parseCsvField(String field) {
+        if (!isCsvField(field)) {
+            throw new IllegalArgumentException("Not a status timeline: " + field);
+        }
+        String[] entries = field.substring(CSV_PREFIX.length()).split(";");
+        int[] days = new int[entries.length];
+        byte[] statuses = new byte[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            int equals = entries[i].indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Status timeline entry must be DATE=STATUS: " + entries[i]);
+            }
+            days[i] = (int) LocalDate.parse(entries[i].substring(0, equals).trim()).toEpochDay();
+            statuses[i] = (byte) MembershipStatus.valueOf(entries[i].substring(equals + 1).trim().toUpperCase()).ordinal();
+            if (i > 0 && days[i] <= days[i - 1]) {
+                throw new IllegalArgumentException("Status timeline dates must increase: " + field);
+            }
+        }
+        return new StatusTimeline(days, statuses, entries.length);
+    }
+
+    /**
+     * Reads the entries back from arrays written by ReplicationProtocol.
+     * @throws IllegalArgumentException if the arrays are empty or out of order.
+     */
+    static StatusTimeline of(int[] days, byte[] statuses) {
+        if (days.length == 0 || days.length != statuses.length) {
+            throw new IllegalArgumentException("A status timeline needs at least one entry.");
+        }
+        for (int i = 0; i < days.length; i++) {
+            if (statuses[i] < 0 || statuses[i] >= STATUSES.length) {
+                throw new IllegalArgumentException("Unknown status " + statuses[i]);
+            }
+            if (i > 0 && days[i] <= days[i - 1]) {
+                throw new IllegalArgumentException("Status timeline dates must increase.");
+            }
+        }
+        return new StatusTimeline(days, statuses, days.length);
+    }
+
+    @Override
+    public String toString() {
+        return toCsvField().substring(CSV_PREFIX.length());
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package src;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for GymGUI.refreshTable, which rebuilds the table
+ * model and statistics panel on the Event Dispatch Thread.
+ */
+@Name("mms.TableRefresh")
+@Label("GUI Table Refresh")
+@Category({"Member Management System", "GUI"})
+@StackTrace(false)
+public class TableRefreshEvent extends jdk.jfr.Event {
+
+    @Label("Row Count")
+    int rowCount;
+
+    public static TableRefreshEvent start() {
+        TableRefreshEvent event = new TableRefreshEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(int rowCount) {
+        end();
+        if (shouldCommit()) {
+            this.rowCount = rowCount;
+            commit();
+        }
+    }
+}
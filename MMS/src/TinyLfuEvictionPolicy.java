@@ -0,0 +1,177 @@
+package src;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/**
+ * W-TinyLFU eviction: recency for new arrivals, frequency for admission.
+ *
+ * New keys enter a small LRU window (1% of the capacity). A key pushed out
+ * of the window only gets into the main area if it has been used more often
+ * than the member it would displace there; otherwise it is the one evicted.
+ * How often keys were used is estimated by a count-min sketch of 4-bit
+ * counters, halved periodically so old popularity fades.
+ *
+ * The main area is a segmented LRU: keys start on probation and move to the
+ * protected segment (80% of the main area) when used again, so members read
+ * once, e.g. by a scan over the whole table, never push out the regulars.
+ */
+public class TinyLfuEvictionPolicy implements EvictionPolicy {
+
+    private final int windowCapacity;
+    private final int protectedCapacity;
+    private final int mainCapacity;
+    private final FrequencySketch sketch;
+
+    // Each segment iterates from least to most recently used
+    private final LinkedHashSet<String> window = new LinkedHashSet<>();
+    private final LinkedHashSet<String> probation = new LinkedHashSet<>();
+    private final LinkedHashSet<String> protectedSegment = new LinkedHashSet<>();
+
+    /**
+     * @param capacity The capacity of the cache this policy serves.
+     */
+    public TinyLfuEvictionPolicy(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        this.windowCapacity = Math.max(1, capacity / 100);
+        this.mainCapacity = Math.max(1, capacity - windowCapacity);
+        this.protectedCapacity = mainCapacity * 8 / 10;
+        this.sketch = new FrequencySketch(capacity);
+    }
+
+    @Override
+    public void onAccess(String key) {
+        sketch.increment(key);
+        if (window.remove(key)) {
+            window.add(key);
+        } else if (probation.remove(key)) {
+            protectedSegment.add(key);
+            if (protectedSegment.size() > protectedCapacity) {
+                probation.add(removeOldest(protectedSegment)); // Demoted, still cached
+            }
+        } else if (protectedSegment.remove(key)) {
+            protectedSegment.add(key);
+        }
+    }
+
+    @Override
+    public void onInsert(String key) {
+        sketch.increment(key);
+        window.add(key);
+        // While the cache is filling up, window overflow goes straight to the main area
+        while (window.size() > windowCapacity && probation.size() + protectedSegment.size() < mainCapacity) {
+            probation.add(removeOldest(window));
+        }
+    }
+
+    @Override
+    public void onRemove(String key) {
+        if (!window.remove(key) && !probation.remove(key)) {
+            protectedSegment.remove(key);
+        }
+    }
+
+    @Override
+    public String selectVictim() {
+        if (window.size() > windowCapacity) {
+            // The main area is full (see onInsert): the more frequently used
+            // of the window's oldest key and the main area's next victim stays
+            String candidate = removeOldest(window);
+            LinkedHashSet<String> victimSegment = probation.isEmpty() ? protectedSegment : probation;
+            String victim = victimSegment.iterator().next();
+            if (sketch.frequency(candidate) <= sketch.frequency(victim)) {
+                return candidate;
+            }
+            victimSegment.remove(victim);
+            probation.add(candidate);
+            return victim;
+        }
+        if (!probation.isEmpty()) {
+            return removeOldest(probation);
+        }
+        if (!protectedSegment.isEmpty()) {
+            return removeOldest(protectedSegment);
+        }
+        return removeOldest(window);
+    }
+
+    @Override
+    public void clear() {
+        window.clear();
+        probation.clear();
+        protectedSegment.clear();
+    }
+
+    private static String removeOldest(LinkedHashSet<String> segment) {
+        Iterator<String> oldest = segment.iterator();
+        String key = oldest.next();
+        oldest.remove();
+        return key;
+    }
+
+    /**
+     * A count-min sketch with four rows of 4-bit counters (stored one per
+     * byte for simplicity). All counters are halved after every 10 x capacity
+     * increments, so the estimates follow changes in popularity.
+     */
+    private static final class FrequencySketch {
+        private static final int DEPTH = 4;
+        private static final int MAX_COUNT = 15;
+        private static final int[] ROW_SEEDS = {0x97CB3127, 0x2F0A4B5D, 0x6A09E667, 0x3C6EF372};
+
+        private final byte[][] counters;
+        private final int mask;
+        private final int resetThreshold;
+        private int additions;
+
+        FrequencySketch(int capacity) {
+            int width = Integer.highestOneBit(Math.max(16, capacity - 1)) << 1;
+            this.counters = new byte[DEPTH][width];
+            this.mask = width - 1;
+            this.resetThreshold = 10 * Math.max(16, capacity);
+        }
+
+        void increment(String key) {
+            int hash = spread(key.hashCode());
+            for (int row = 0; row < DEPTH; row++) {
+                int index = index(hash, row);
+                if (counters[row][index] < MAX_COUNT) {
+                    counters[row][index]++;
+                }
+            }
+            if (++additions >= resetThreshold) {
+                halve();
+            }
+        }
+
+        int frequency(String key) {
+            int hash = spread(key.hashCode());
+            int min = MAX_COUNT;
+            for (int row = 0; row < DEPTH; row++) {
+                min = Math.min(min, counters[row][index(hash, row)]);
+            }
+            return min;
+        }
+
+        private void halve() {
+            for (byte[] row : counters) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>= 1;
+                }
+            }
+            additions /= 2;
+        }
+
+        private int index(int hash, int row) {
+            int h = (hash + ROW_SEEDS[row]) * 0x9E3779B9;
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        private static int spread(int hash) {
+            hash *= 0x85EBCA6B;
+            return hash ^ (hash >>> 13);
+        }
+    }
+}